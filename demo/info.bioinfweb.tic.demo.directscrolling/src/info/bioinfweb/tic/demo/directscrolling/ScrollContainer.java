@@ -21,6 +21,9 @@ package info.bioinfweb.tic.demo.directscrolling;
 
 import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 import info.bioinfweb.tic.toolkit.DirectPaintingSWTScrollContainer;
+import info.bioinfweb.tic.toolkit.DirectPaintingSwingScrollContainer;
+
+import javax.swing.JScrollPane;
 
 import org.eclipse.swt.custom.ScrolledComposite;
 
@@ -29,7 +32,8 @@ import org.eclipse.swt.custom.ScrolledComposite;
 /**
  * An example implementation of a <i>TIC</i> component that paints its fixed-sized contents on scrollable
  * toolkit components. In contrast to the scroll container demo, the toolkit components associated with
- * this class perform scrolling directly without using a scroll container like {@link ScrolledComposite}.
+ * this class perform scrolling directly without using a scroll container like {@link ScrolledComposite} or
+ * {@link JScrollPane}.
  * 
  * @author Ben St&ouml;ver
  */
@@ -58,4 +62,22 @@ public class ScrollContainer extends ScrollingTICComponent {
 	protected Object[] getSWTComponentConstructorParameters(Object... parameters) {
 		return new Object[]{getOutputComponent()};
 	}
+	
+	
+	@Override
+	protected String getSwingComponentClassName(Object... parameters) {
+		return "info.bioinfweb.tic.toolkit.DirectPaintingSwingScrollContainer";
+	}
+
+
+	/**
+	 * Passes the associated output component instances as the expected additional constructor
+	 * parameter to {@link DirectPaintingSwingScrollContainer}.
+	 * 
+	 * @return an array containing the result of {@link #getOutputComponent()} as its only element.
+	 */
+	@Override
+	protected Object[] getSwingComponentConstructorParameters(Object... parameters) {
+		return new Object[]{getOutputComponent()};
+	}
 }
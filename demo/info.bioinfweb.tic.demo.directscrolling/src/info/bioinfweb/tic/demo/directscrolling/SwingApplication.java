@@ -0,0 +1,158 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.demo.directscrolling;
+
+
+import info.bioinfweb.tic.SwingComponentFactory;
+import info.bioinfweb.tic.input.TICMouseAdapter;
+import info.bioinfweb.tic.input.TICMouseEvent;
+import info.bioinfweb.tic.scrolling.TICScrollEvent;
+import info.bioinfweb.tic.scrolling.TICScrollListener;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.EventQueue;
+import java.awt.FlowLayout;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.UIManager;
+
+
+
+/**
+ * The <i>Swing</i> application class of this demo, making use of {@link ScrollContainer} and its output component.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SwingApplication {
+	private JFrame frame;
+	private ScrollContainer scrollingComponent;
+	
+	
+	/**
+	 * Launch the application.
+	 */
+	public static void main(String[] args) {
+		EventQueue.invokeLater(new Runnable() {
+			public void run() {
+				try {
+					SwingApplication window = new SwingApplication();
+					window.frame.setVisible(true);
+				} 
+				catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		});
+	}
+	
+	
+	/**
+	 * Create the application.
+	 */
+	public SwingApplication() {
+		initialize();
+	}
+	
+	
+	/**
+	 * Initialize the contents of the frame.
+	 */
+	private void initialize() {
+		try {
+			UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+		}
+		catch (Exception e) {}		
+		
+		frame = new JFrame();
+		frame.setSize(500, 500);
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.setTitle("Swing Direct Scrolling Application");
+		frame.getContentPane().setLayout(new BorderLayout(0, 0));
+		
+		// Create TIC component instance:
+		scrollingComponent = new ScrollContainer();
+		
+		// Create Swing-specific component instance and add it to the Swing GUI:
+		frame.getContentPane().add(SwingComponentFactory.getInstance().getSwingComponent(scrollingComponent), 
+				BorderLayout.CENTER);
+		
+		
+		// Create status bar below the scroll container to demonstrate listening to scroll events:
+		JPanel statusPanel = new JPanel();
+		((FlowLayout)statusPanel.getLayout()).setAlignment(FlowLayout.LEFT);
+		frame.getContentPane().add(statusPanel, BorderLayout.SOUTH);
+		final JLabel statusLabel = new JLabel(" ");
+		statusPanel.add(statusLabel);
+		
+		scrollingComponent.getScrollListeners().add(new TICScrollListener() {
+			@Override
+			public void contentScrolled(TICScrollEvent event) {
+				statusLabel.setText("Scroll position: (" + scrollingComponent.getScrollOffsetX() + ", " + 
+						scrollingComponent.getScrollOffsetY() + ")");
+			}
+		});
+		
+		
+		// Show message box with transformed coordinates on mouse click: 
+		scrollingComponent.getOutputComponent().addMouseListener(new TICMouseAdapter() {
+			@Override
+			public boolean mousePressed(TICMouseEvent event) {
+				JOptionPane.showMessageDialog(frame, "Mouse clicked at (" + event.getComponentX() + ", " + 
+						event.getComponentY() + ").", "Mouse Listener Test", JOptionPane.INFORMATION_MESSAGE);
+				return true;
+			}
+		});
+		
+		
+		// Create main menu to demonstrate programmatic scrolling:
+		JMenuBar menuBar = new JMenuBar();
+		frame.setJMenuBar(menuBar);
+		
+		JMenu mnScroll = new JMenu("Scroll");
+		menuBar.add(mnScroll);
+		
+		JMenuItem mntmTopLeft = new JMenuItem("Top left");
+		mntmTopLeft.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				scrollingComponent.setScrollOffset(0, 0);
+			}
+		});
+		mnScroll.add(mntmTopLeft);
+		
+		JMenuItem mntmCenter = new JMenuItem("Center");
+		mntmCenter.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				Dimension size = scrollingComponent.getOutputComponent().getSize();
+				Rectangle r = scrollingComponent.getVisibleRectangle();
+				scrollingComponent.setScrollOffset((size.width - r.width) / 2, (size.height - r.height) / 2);
+			}
+		});
+		mnScroll.add(mntmCenter);
+	}
+}
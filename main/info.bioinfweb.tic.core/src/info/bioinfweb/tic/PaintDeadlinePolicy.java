@@ -0,0 +1,44 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic;
+
+
+
+/**
+ * Enumerates the ways toolkit components may handle the areas a <i>TIC</i> component could not paint before the
+ * deadline of a paint event (see {@link TICPaintEvent#isDeadlineExceeded()} and 
+ * {@link TICPaintEvent#addUnfinishedArea(java.awt.geom.Rectangle2D)}).
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public enum PaintDeadlinePolicy {
+	/** 
+	 * The unfinished areas are repainted on the next turn of the event loop of the toolkit, so that slow paint 
+	 * operations are completed progressively without blocking input events in the meantime.
+	 */
+	CONTINUE,
+	
+	/** 
+	 * The unfinished areas are not repainted until they are invalidated again (e.g. because a component only 
+	 * used the deadline to skip optional details).
+	 */
+	IGNORE;
+}
@@ -29,18 +29,27 @@ import info.bioinfweb.tic.input.TICMouseEvent;
 import info.bioinfweb.tic.input.TICMouseListener;
 import info.bioinfweb.tic.input.TICMouseWheelEvent;
 import info.bioinfweb.tic.input.TICMouseWheelListener;
+import info.bioinfweb.tic.rendering.RepaintScheduler;
 import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 import info.bioinfweb.tic.toolkit.ScrollingToolkitComponent;
 import info.bioinfweb.tic.toolkit.ToolkitComponent;
+import info.bioinfweb.tic.toolkit.UIExecutor;
 
 import java.awt.Dimension;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EventListener;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 
@@ -83,6 +92,16 @@ import java.util.Map;
  * @bioinfweb.module info.bioinfweb.tic.core
  */
 public abstract class TICComponent {
+	/** The default value of {@link #getInteractionIdleDelay()} in milliseconds. */
+	public static final int DEFAULT_INTERACTION_IDLE_DELAY = 250;
+	
+	/** 
+	 * The maximum number of areas passed to {@link #repaint(Rectangle2D)} that are recorded during an ongoing
+	 * update. If more areas are requested, the whole component is repainted when the update has finished. 
+	 */
+	public static final int MAX_REQUESTED_AREAS = 256;
+	
+	
 	private static interface EventDispatcher {
 		public boolean dispatch(TICInputEvent event, EventListener listener);
 	}
@@ -110,8 +129,19 @@ public abstract class TICComponent {
 	private TICListenerSet<TICKeyListener> keyListenersSet = new TICListenerSet<TICKeyListener>(this);
 	private TICListenerSet<TICMouseListener> mouseListenersSet = new TICListenerSet<TICMouseListener>(this);
 	private TICListenerSet<TICMouseWheelListener> mouseWheelListenersSet = new TICListenerSet<TICMouseWheelListener>(this);
-	private boolean updateOngoing = false;
-	protected boolean repaintRequested = false;  // Inherited classes may have the need to access this field.
+	private final Object updateLock = new Object();
+	private int updateDepth = 0;
+	private boolean repaintRequested = false;  // Guarded by updateLock.
+	private boolean legacyUpdateOngoing = false;  // Guarded by updateLock.
+	private List<Rectangle2D> requestedAreas = new ArrayList<Rectangle2D>();
+	private Set<String> invalidatedLayers = new HashSet<String>();
+	private Map<String, List<Rectangle2D>> invalidatedLayerAreas = new HashMap<String, List<Rectangle2D>>();  // Guarded by invalidatedLayers.
+	private RenderQuality renderQuality = RenderQuality.FULL;
+	private int interactionIdleDelay = DEFAULT_INTERACTION_IDLE_DELAY;
+	private long lastInteractionTime = 0;
+	private volatile RepaintScheduler repaintScheduler = null;
+	private UIExecutor uiExecutor = null;  // Guarded by updateLock.
+	private Dimension assignedSize = null;  // Guarded by updateLock.
 	
 	
 	/**
@@ -188,55 +218,831 @@ public abstract class TICComponent {
 	}
 	
 	
+	/**
+	 * Determines whether the <i>SWT</i> toolkit component of this instance may paint directly on the <i>SWT</i> 
+	 * graphics context without rendering into a buffered image first.
+	 * <p>
+	 * Components may return {@code true} here, if their {@link #paint(TICPaintEvent)} implementation mainly 
+	 * consists of drawing lines, basic shapes and text with solid colors and integer translations. Such 
+	 * components are painted considerably faster in <i>SWT</i>, since no image needs to be transferred to the
+	 * native graphics context. (See {@code info.bioinfweb.tic.toolkit.SWTGraphics2D} for a list of supported
+	 * operations.) If an unsupported operation is called nevertheless, the toolkit component falls back to 
+	 * buffered painting permanently. Implementations that return {@code true} should consider using 
+	 * {@code SWT.DOUBLE_BUFFERED} as a style of the toolkit component to avoid flickering.
+	 * <p>
+	 * This setting has no effect in <i>Swing</i>. This default implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if direct painting on <i>SWT</i> graphics contexts should be tried, {@code false}
+	 *         otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isDirectSWTPaintingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Determines whether the <i>Swing</i> toolkit component of this instance should keep an accelerated snapshot 
+	 * of its last rendering. 
+	 * <p>
+	 * Components whose contents change rarely but that are exposed often (e.g. when windows are switched or 
+	 * dialogs or tooltips are closed) may return {@code true} here. Exposes are then processed by drawing the 
+	 * snapshot and {@link #paint(TICPaintEvent)} is only called for areas that have been invalidated by 
+	 * {@link #repaint()}. Implementations that return {@code true} must therefore call {@link #repaint()} 
+	 * whenever their contents change. The memory used by all snapshots is limited (see 
+	 * {@code info.bioinfweb.tic.toolkit.SwingRetainedBuffer}). Components exceeding this limit are painted 
+	 * directly.
+	 * <p>
+	 * This setting has no effect in <i>SWT</i>. This default implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if a retained snapshot should be used in <i>Swing</i>, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isRetainedSwingPaintingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Determines whether the toolkit component of this instance should cache the rendered contents in tiles.
+	 * <p>
+	 * Components that display large and mostly static contents may return {@code true} here. Expose and scroll
+	 * events are then processed by drawing cached tiles and {@link #paint(TICPaintEvent)} is only called for tiles
+	 * that are not present in the cache. Each such call covers exactly one tile. Implementations that return 
+	 * {@code true} must call {@link #repaint()} whenever their contents change, which invalidates the whole cache.
+	 * (See {@link info.bioinfweb.tic.rendering.TileCache} for details.)
+	 * <p>
+	 * This default implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if rendered contents should be cached in tiles, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isTileCachingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Determines whether {@link #paint(TICPaintEvent)} of this instance may be called concurrently by multiple 
+	 * threads.
+	 * <p>
+	 * If {@code true} is returned, the toolkit component splits the area to be painted into tiles and renders 
+	 * them concurrently on a {@link java.util.concurrent.ForkJoinPool}. Each call receives its own graphics 
+	 * context and paint event covering one tile. The rendered tiles are drawn on the UI thread. Implementations 
+	 * that return {@code true} must not modify shared state while painting and must not access toolkit 
+	 * components or any other objects that are only meant to be accessed by the UI thread. The data to be 
+	 * painted must not be modified by other threads while the UI thread paints this component.
+	 * <p>
+	 * Tiles are retained between paint operations only if {@link #isTileCachingSupported()} returns {@code true}
+	 * as well. (See {@link info.bioinfweb.tic.rendering.TileCache} for details.) This default implementation 
+	 * always returns {@code false}.
+	 * 
+	 * @return {@code true} if this component can be painted concurrently, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isConcurrentPaintingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Determines whether {@link #paint(TICPaintEvent)} of this instance may be called by a background thread 
+	 * while the UI thread continues processing events.
+	 * <p>
+	 * If {@code true} is returned, the toolkit component renders the visible area of this component into 
+	 * off-screen frames on a dedicated render thread and its paint callback only draws the newest completed 
+	 * frame. (See {@link info.bioinfweb.tic.rendering.AsyncRenderer} for details.) Frames may therefore appear 
+	 * with a short delay after scrolling or calling {@link #repaint()}. Implementations that return {@code true}
+	 * must not access toolkit components or any other objects that are only meant to be accessed by the UI thread 
+	 * while painting and must synchronize access to the painted data, if it is modified by other threads. This 
+	 * default implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if this component can be painted asynchronously, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isAsynchronousPaintingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Returns the names of the layers this component is painted in, ordered from bottom to top.
+	 * <p>
+	 * If a non-empty list is returned, toolkit components may call {@link #paint(TICPaintEvent)} separately for 
+	 * each layer, specifying the layer to be painted in {@link TICPaintEvent#getLayer()}. Layers for which 
+	 * {@link #isLayerCached(String)} returns {@code true} are then rendered into off-screen images of the visible 
+	 * area and are only painted again after they have been invalidated by {@link #repaint(String)} or 
+	 * {@link #repaint()}, or after the size of the visible area has changed. (Only newly exposed areas are painted 
+	 * if the visible area is scrolled and only the requested areas are painted after calls of 
+	 * {@link #repaint(Rectangle2D)}.) A fast-changing overlay (e.g. a cursor or a selection) can so be repainted 
+	 * without painting the static contents below it. (See 
+	 * {@link info.bioinfweb.tic.rendering.LayerCache} for details.)
+	 * <p>
+	 * Implementations that declare layers must call one of the {@code repaint()} methods of this class whenever 
+	 * their contents change. Paint events with no layer specified ({@code null}) request all layers to be 
+	 * painted. This default implementation returns an empty list.
+	 * 
+	 * @return an unmodifiable list of layer names (never {@code null})
+	 * @since 3.0.0
+	 */
+	public List<String> getLayers() {
+		return Collections.emptyList();
+	}
+	
+	
+	/**
+	 * Determines whether toolkit components shall cache the rendered contents of the specified layer between
+	 * paint operations. Layers that are not cached are painted directly every time.
+	 * <p>
+	 * This default implementation returns {@code true} for all layers except the topmost one.
+	 * 
+	 * @param layer the name of the layer
+	 * @return {@code true} if the layer shall be cached, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isLayerCached(String layer) {
+		List<String> layers = getLayers();
+		return !layers.isEmpty() && !layers.get(layers.size() - 1).equals(layer);
+	}
+	
+	
+	/**
+	 * Returns the layers that were invalidated completely by {@link #repaint()} or {@link #repaint(String)} since 
+	 * the last call of this method and resets this set. This method is meant to be called by toolkit components 
+	 * caching layers.
+	 * 
+	 * @return a new set containing the names of the invalidated layers
+	 * @see #removeInvalidatedLayerAreas()
+	 * @since 3.0.0
+	 */
+	public Set<String> removeInvalidatedLayers() {
+		synchronized (invalidatedLayers) {
+			Set<String> result = new HashSet<String>(invalidatedLayers);
+			invalidatedLayers.clear();
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Returns the areas of layers that were invalidated by {@link #repaint(Rectangle2D)} or 
+	 * {@link #repaint(Collection)} since the last call of this method and removes them. This method is meant to be 
+	 * called by toolkit components caching layers, which only need to render these areas of their cached images 
+	 * again.
+	 * <p>
+	 * Layers that have been invalidated completely (see {@link #removeInvalidatedLayers()}) are not contained in the 
+	 * returned map. If more than {@link #MAX_REQUESTED_AREAS} areas are requested for a layer, it is invalidated 
+	 * completely instead.
+	 * 
+	 * @return a new map from layer names to the invalidated areas in the coordinate system of this component
+	 * @since 3.0.0
+	 */
+	public Map<String, List<Rectangle2D>> removeInvalidatedLayerAreas() {
+		synchronized (invalidatedLayers) {
+			Map<String, List<Rectangle2D>> result = new HashMap<String, List<Rectangle2D>>(invalidatedLayerAreas);
+			invalidatedLayerAreas.clear();
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether this component makes use of {@link RenderQuality#DRAFT} to paint a cheap approximation
+	 * of its contents during continuous user interaction.
+	 * <p>
+	 * If {@code true} is returned, scroll containers and mouse event forwarders report scrolling, dragging and 
+	 * mouse wheel events by calling {@link #notifyInteraction(ToolkitComponent)}. If such events follow each 
+	 * other within {@link #getInteractionIdleDelay()}, {@link #getRenderQuality()} is set to 
+	 * {@link RenderQuality#DRAFT} until no further event occurred for that delay. A single repaint with full 
+	 * quality is then performed. This default implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if this component supports draft painting, {@code false} otherwise
+	 * @see TICPaintEvent#getRenderQuality()
+	 * @since 3.0.0
+	 */
+	public boolean isDraftPaintingSupported() {
+		return false;
+	}
+	
+	
+	/**
+	 * Determines the resolution of the buffered images (e.g. cached tiles or layers) toolkit components render 
+	 * this component into, expressed as the number of image pixels per unit of the coordinate system of this 
+	 * component.
+	 * <p>
+	 * Toolkit components call this method with the scale factor of the current display (e.g. 2 on many HiDPI
+	 * screens) and render their buffers with the returned scale, so that they do not need to be upscaled by
+	 * the operating system. Cached buffers are discarded if the returned value changes. This default 
+	 * implementation always returns {@code deviceScale}. Inherited classes may return a lower value to render
+	 * a cheaper approximation, e.g. during scrolling, if {@code renderQuality} is {@link RenderQuality#DRAFT}.
+	 * 
+	 * @param deviceScale the number of device pixels per unit of the coordinate system of this component
+	 * @param renderQuality the quality the component will be painted in
+	 * @return the scale factor to render buffered images with (must be greater than 0)
+	 * @see TICPaintEvent#getDeviceScale()
+	 * @since 3.0.0
+	 */
+	public double getRenderScale(double deviceScale, RenderQuality renderQuality) {
+		return deviceScale;
+	}
+	
+	
+	/**
+	 * Returns the time a single paint operation of this component should take at most.
+	 * <p>
+	 * If a value greater than 0 is returned, toolkit components specify a deadline in the paint events they pass 
+	 * to {@link #paint(TICPaintEvent)} (see {@link TICPaintEvent#isDeadlineExceeded()}). Implementations can 
+	 * then stop painting when the deadline has passed and report the remaining areas with 
+	 * {@link TICPaintEvent#addUnfinishedArea(java.awt.geom.Rectangle2D)}. These areas are handled according to 
+	 * the {@link PaintDeadlinePolicy} of the toolkit component, which by default completes them in a continuation
+	 * paint on the next turn of the event loop. This way input events can be processed between the parts of a 
+	 * slow paint operation. (Paint events used to render tiles, layers or asynchronous frames have no deadline, 
+	 * since their images must always be complete.)
+	 * <p>
+	 * This default implementation always returns 0.
+	 * 
+	 * @return the paint budget in milliseconds or 0 if paint events shall have no deadline
+	 * @see TICPaintEvent#getDeadline()
+	 * @since 3.0.0
+	 */
+	public int getPaintBudget() {
+		return 0;
+	}
+	
+	
+	/**
+	 * Returns the quality toolkit components should currently paint this component in.
+	 * 
+	 * @return {@link RenderQuality#DRAFT} during continuous user interaction or {@link RenderQuality#FULL} otherwise
+	 * @see #isDraftPaintingSupported()
+	 * @since 3.0.0
+	 */
+	public RenderQuality getRenderQuality() {
+		return renderQuality;
+	}
+	
+	
+	/**
+	 * Returns the time without user interaction after which this component is repainted with full quality.
+	 * 
+	 * @return the delay in milliseconds
+	 * @see #isDraftPaintingSupported()
+	 * @since 3.0.0
+	 */
+	public int getInteractionIdleDelay() {
+		return interactionIdleDelay;
+	}
+	
+	
+	/**
+	 * Sets the time without user interaction after which this component is repainted with full quality.
+	 * 
+	 * @param interactionIdleDelay the new delay in milliseconds
+	 * @throws IllegalArgumentException if {@code interactionIdleDelay} is negative
+	 * @see #isDraftPaintingSupported()
+	 * @since 3.0.0
+	 */
+	public void setInteractionIdleDelay(int interactionIdleDelay) {
+		if (interactionIdleDelay < 0) {
+			throw new IllegalArgumentException("The interaction idle delay must not be negative.");
+		}
+		else {
+			this.interactionIdleDelay = interactionIdleDelay;
+		}
+	}
+	
+	
+	/**
+	 * Reports a user interaction (e.g. a scroll or drag event) that may be part of a continuous interaction. This 
+	 * method is called by toolkit components and event forwarders on the UI thread and has no effect if 
+	 * {@link #isDraftPaintingSupported()} returns {@code false}.
+	 * 
+	 * @param paintingComponent the toolkit component that paints this component (which may differ from
+	 *        {@link #getToolkitComponent()} if this component is painted by a scroll container) and is used to 
+	 *        schedule the repaint with full quality
+	 * @see #getRenderQuality()
+	 * @since 3.0.0
+	 */
+	public void notifyInteraction(ToolkitComponent paintingComponent) {
+		if (isDraftPaintingSupported()) {
+			long time = System.nanoTime();
+			boolean continuous = (lastInteractionTime != 0) && 
+					(time - lastInteractionTime < getInteractionIdleDelay() * 1000000L);  // Single events (e.g. a click on a scroll bar arrow) do not switch to draft quality.
+			lastInteractionTime = time;
+			if (continuous && RenderQuality.FULL.equals(renderQuality)) {
+				renderQuality = RenderQuality.DRAFT;
+				scheduleIdleCheck(paintingComponent, getInteractionIdleDelay());
+			}
+		}
+	}
+	
+	
+	private void scheduleIdleCheck(final ToolkitComponent paintingComponent, int delay) {
+		paintingComponent.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				long remaining = getInteractionIdleDelay() - (System.nanoTime() - lastInteractionTime) / 1000000L;
+				if (remaining > 0) {
+					scheduleIdleCheck(paintingComponent, (int)remaining);
+				}
+				else {
+					renderQuality = RenderQuality.FULL;
+					invalidateAllLayers();
+					paintingComponent.repaint();  // Also invalidates caches of the toolkit component that contain draft contents.
+				}
+			}
+		}, delay);
+	}
+	
+	
+	/**
+	 * Determines whether this component leaves parts of its area (partly) transparent, so that the background 
+	 * of the parent component remains visible.
+	 * <p>
+	 * If {@code true} is returned, the <i>SWT</i> toolkit component renders into an image with an alpha channel
+	 * and transfers it to the native image, which is slightly slower than opaque rendering. This default 
+	 * implementation always returns {@code false}.
+	 * 
+	 * @return {@code true} if this component is painted translucently, {@code false} if it paints its whole area
+	 *         opaquely
+	 * @since 3.0.0
+	 */
+	public boolean isTranslucent() {
+		return false;
+	}
+	
+	
 	/**
 	 * Determines whether the contents displayed by this component are currently ongoing.
 	 * <p> 
 	 * {@link #repaint()} makes use of this property to avoid unnecessary repaint operations. 
 	 * 
-	 * @return {@code true} if an update is currently ongoing, {@code false} otherwise
+	 * @return {@code true} if at least one update started by {@link #beginUpdate()} has not yet been ended,
+	 *         {@code false} otherwise
 	 * @since 0.5.0
 	 */
 	public boolean isUpdateOngoing() {
-		return updateOngoing;
+		return getUpdateDepth() > 0;
+	}
+	
+	
+	/**
+	 * Determines whether a repaint of the whole component was requested during the current update. The request
+	 * will be processed when the outermost update is ended by {@link #endUpdate()}.
+	 * 
+	 * @return {@code true} if the whole component will be repainted when the current update ends, {@code false}
+	 *         if no update is ongoing or only areas were requested to be repainted
+	 * @since 3.0.0
+	 */
+	protected boolean isRepaintRequested() {
+		synchronized (updateLock) {
+			return repaintRequested;
+		}
+	}
+	
+	
+	/**
+	 * Specifies whether the whole component shall be repainted when the outermost update is ended by 
+	 * {@link #endUpdate()}. This replaces direct write access to the field {@code repaintRequested}, which was 
+	 * available to inherited classes in previous versions. The flag is reset when the outermost update ends.
+	 * <p>
+	 * Specifying {@code true} replaces all areas recorded by {@link #repaint(Rectangle2D)} during the current 
+	 * update. Specifying {@code false} discards a pending request to repaint the whole component, but does not 
+	 * restore previously replaced areas.
+	 * 
+	 * @param repaintRequested Specify {@code true} to request a repaint of the whole component or {@code false} to 
+	 *        discard such a request.
+	 * @see #isRepaintRequested()
+	 * @since 3.0.0
+	 */
+	protected void setRepaintRequested(boolean repaintRequested) {
+		synchronized (updateLock) {
+			this.repaintRequested = repaintRequested;
+			if (repaintRequested) {
+				requestedAreas.clear();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of updates started by {@link #beginUpdate()} that have not yet been ended.
+	 * 
+	 * @return the current nesting depth of updates
+	 * @since 3.0.0
+	 */
+	public int getUpdateDepth() {
+		synchronized (updateLock) {
+			return updateDepth;
+		}
+	}
+	
+	
+	/**
+	 * Starts an update of the contents displayed by this component. Until the update is ended by 
+	 * {@link #endUpdate()}, calls of the {@code repaint()} methods do not cause a repaint, but are recorded
+	 * by this instance.
+	 * <p>
+	 * Updates may be nested and started by different threads. The recorded requests are only passed to the 
+	 * toolkit component when the outermost update has ended. Then either the whole component is repainted once 
+	 * (if {@link #repaint()} or {@link #repaint(String)} was called in the meantime) or the union of all 
+	 * requested areas is repainted. Callers should end updates in a {@code finally} block:
+	 * <pre>
+	 * component.beginUpdate();
+	 * try {
+	 *   // Modify the model...
+	 * }
+	 * finally {
+	 *   component.endUpdate();
+	 * }
+	 * </pre>
+	 * 
+	 * @since 3.0.0
+	 */
+	public void beginUpdate() {
+		synchronized (updateLock) {
+			updateDepth++;
+		}
+	}
+	
+	
+	/**
+	 * Ends an update started by {@link #beginUpdate()}. If this was the outermost update, all repaint requests
+	 * recorded in the meantime are processed as described in {@link #beginUpdate()}.
+	 * 
+	 * @throws IllegalStateException if no update is currently ongoing
+	 * @since 3.0.0
+	 */
+	public void endUpdate() {
+		boolean repaint = false;
+		List<Rectangle2D> areas = Collections.emptyList();
+		synchronized (updateLock) {
+			if (updateDepth == 0) {
+				throw new IllegalStateException("No update of this component is currently ongoing.");
+			}
+			else {
+				updateDepth--;
+				if (updateDepth == 0) {  // Requests are only processed when the outermost update ends.
+					repaint = repaintRequested;
+					areas = mergeAreas(requestedAreas);
+					repaintRequested = false;
+					requestedAreas.clear();
+				}
+			}
+		}
+		
+		if (repaint) {
+			repaintToolkitComponent();  // Invalidated layers have already been recorded.
+		}
+		else if (!areas.isEmpty()) {
+			repaintToolkitComponent(areas);
+		}
+	}
+	
+	
+	/**
+	 * Merges all overlapping areas of the specified list to their bounding boxes.
+	 * 
+	 * @param areas the areas to be merged
+	 * @return a new list of non-overlapping areas that cover all specified areas
+	 */
+	private static List<Rectangle2D> mergeAreas(List<Rectangle2D> areas) {
+		List<Rectangle2D> result = new ArrayList<Rectangle2D>(areas.size());
+		for (Rectangle2D area : areas) {
+			boolean merged = true;
+			while (merged) {  // A merged area may overlap areas that were previously separate.
+				merged = false;
+				Iterator<Rectangle2D> iterator = result.iterator();
+				while (iterator.hasNext()) {
+					Rectangle2D other = iterator.next();
+					if (other.intersects(area) || other.contains(area) || area.contains(other)) {
+						area = area.createUnion(other);
+						iterator.remove();
+						merged = true;
+					}
+				}
+			}
+			result.add(area);
+		}
+		return result;
 	}
 
 
 	/**
 	 * Allows to specify whether the contents displayed by this component are currently ongoing.
 	 * <p> 
-	 * {@link #repaint()} makes use of this property to avoid unnecessary repaint operations. If
-	 * this property is changed from {@code true} to {@code false}, the component will be repainted
-	 * directly, if that was previously requested.
+	 * Specifying {@code true} starts an update using {@link #beginUpdate()}, if no update was started by this method
+	 * before. Specifying {@code false} ends this update using {@link #endUpdate()}. Updates started by 
+	 * {@link #beginUpdate()} (e.g. by other threads) are not affected, so the component is only repainted, if this 
+	 * was the outermost update.
 	 *  
 	 * @param updateOngoing {@code true} if an update is currently ongoing, {@code false} otherwise
+	 * @deprecated This method does not support nested updates. Use {@link #beginUpdate()} and 
+	 *             {@link #endUpdate()} instead.
 	 */
+	@Deprecated
 	public void setUpdateOngoing(boolean updateOngoing) {
-		if (this.updateOngoing != updateOngoing) {
-			this.updateOngoing = updateOngoing;
-			if (!updateOngoing && repaintRequested) {
-				repaint();
+		boolean end = false;
+		synchronized (updateLock) {
+			if (updateOngoing != legacyUpdateOngoing) {
+				legacyUpdateOngoing = updateOngoing;
+				if (updateOngoing) {
+					updateDepth++;
+				}
+				else {
+					end = true;
+				}
 			}
 		}
+		if (end) {
+			endUpdate();  // Only ends the update level started above.
+		}
 	}
 
 
+	/**
+	 * Returns the maximum number of times per second the toolkit component of this instance is repainted.
+	 * 
+	 * @return the maximum repaint rate in Hz or 0 if every call of a {@code repaint()} method is directly passed 
+	 *         to the toolkit component
+	 * @see #setMaxRepaintRate(int)
+	 * @since 3.0.0
+	 */
+	public int getMaxRepaintRate() {
+		RepaintScheduler scheduler = repaintScheduler;
+		if (scheduler != null) {
+			return scheduler.getFrameRate();
+		}
+		else {
+			return 0;
+		}
+	}
+	
+	
+	/**
+	 * Limits the number of times per second the toolkit component of this instance is repainted. 
+	 * <p>
+	 * If a value greater than 0 is specified, all calls of {@link #repaint()}, {@link #repaint(String)}, 
+	 * {@link #repaint(Rectangle2D)} and {@link #repaint(Collection)} are coalesced by a {@link RepaintScheduler}
+	 * and passed to the toolkit component at most once per frame. This is useful if the displayed model is
+	 * modified very frequently (e.g. by a background parser). (A rate of 60 usually matches the refresh rate of 
+	 * the screen.) Repaint requests are still accumulated as long as {@link #isUpdateOngoing()} returns 
+	 * {@code true}.
+	 * 
+	 * @param maxRepaintRate the maximum repaint rate in Hz or 0 if every repaint request shall directly be passed 
+	 *        to the toolkit component (which is the default)
+	 * @throws IllegalArgumentException if {@code maxRepaintRate} is negative
+	 * @since 3.0.0
+	 */
+	public void setMaxRepaintRate(int maxRepaintRate) {
+		if (maxRepaintRate < 0) {
+			throw new IllegalArgumentException("The maximum repaint rate must not be negative.");
+		}
+		else if (maxRepaintRate == 0) {
+			repaintScheduler = null;  // Requests that are already pending will still be flushed by the previous scheduler.
+		}
+		else if (repaintScheduler == null) {
+			repaintScheduler = new RepaintScheduler(this, maxRepaintRate);
+		}
+		else {
+			repaintScheduler.setFrameRate(maxRepaintRate);
+		}
+	}
+	
+	
+	/**
+	 * Returns the scheduler that coalesces the repaint requests of this component.
+	 * 
+	 * @return the repaint scheduler or {@code null} if {@link #getMaxRepaintRate()} is 0
+	 * @since 3.0.0
+	 */
+	public RepaintScheduler getRepaintScheduler() {
+		return repaintScheduler;
+	}
+	
+	
 	/**
 	 * Forces the underlying toolkit component to be repainted. This method will only have an effect 
 	 * if a toolkit specific component has already been assigned ({@link #hasToolkitComponent()} return
 	 * {@code true}).
 	 * <p>
-	 * If {@link #isUpdateOngoing()} is set to {@code true}, calls of this method will not cause a direct
+	 * If {@link #isUpdateOngoing()} returns {@code true}, calls of this method will not cause a direct
 	 * repaint. The request for repainting is stored internally by this instance and it will be repainted
-	 * when {@link #setUpdateOngoing(boolean)} is set to {@code false} the next time. (If this method was
-	 * called multiple times before that, still only one repaint operation will be performed.)
+	 * when the outermost update is ended by {@link #endUpdate()}. (If this method was called multiple times 
+	 * before that, still only one repaint operation will be performed.)
 	 */
 	public void repaint() {
-		if (hasToolkitComponent()) {
-			if (isUpdateOngoing()) {
-				repaintRequested = true;
+		invalidateAllLayers();
+		repaintToolkitComponent();
+	}
+	
+	
+	/**
+	 * Forces the specified area of the underlying toolkit component to be repainted. Other parts of the component
+	 * are not painted again. This method will only have an effect if a toolkit specific component has already been 
+	 * assigned ({@link #hasToolkitComponent()} return {@code true}).
+	 * <p>
+	 * If {@link #isUpdateOngoing()} returns {@code true}, the area is recorded and repainted when the outermost
+	 * update is ended by {@link #endUpdate()}. (Overlapping areas are merged.) If more than 
+	 * {@link #MAX_REQUESTED_AREAS} areas are requested in the meantime or {@link #repaint()} is called, the whole 
+	 * component is repainted instead.
+	 * <p>
+	 * The area is invalidated in all layers declared by {@link #getLayers()}. Toolkit components caching layers 
+	 * therefore only render this area of the cached images again (see {@link #removeInvalidatedLayerAreas()}).
+	 * 
+	 * @param area the area to be repainted in the coordinate system of this component
+	 * @throws IllegalArgumentException if {@code area} is {@code null}
+	 * @see ToolkitComponent#repaint(Rectangle2D)
+	 * @since 3.0.0
+	 */
+	public void repaint(Rectangle2D area) {
+		if (area == null) {
+			throw new IllegalArgumentException("The area to be repainted must not be null.");
+		}
+		else {
+			repaint(Collections.singletonList(area));
+		}
+	}
+	
+	
+	/**
+	 * Forces the specified areas of the underlying toolkit component to be repainted. Ongoing updates and layers
+	 * are treated as described in {@link #repaint(Rectangle2D)}.
+	 * 
+	 * @param areas the areas to be repainted in the coordinate system of this component
+	 * @throws IllegalArgumentException if {@code areas} or one of its elements is {@code null}
+	 * @since 3.0.0
+	 */
+	public void repaint(Collection<? extends Rectangle2D> areas) {
+		if (areas == null) {
+			throw new IllegalArgumentException("The collection of areas to be repainted must not be null.");
+		}
+		else {
+			for (Rectangle2D area : areas) {
+				if (area == null) {
+					throw new IllegalArgumentException("The areas to be repainted must not be null.");
+				}
+			}
+			if (!areas.isEmpty()) {
+				invalidateLayerAreas(areas);
+				repaintToolkitComponent(areas);
+			}
+		}
+	}
+	
+	
+	private void invalidateAllLayers() {
+		List<String> layers = getLayers();
+		if (!layers.isEmpty()) {
+			synchronized (invalidatedLayers) {
+				invalidatedLayers.addAll(layers);
+				invalidatedLayerAreas.clear();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Records the specified areas for all layers that have not been invalidated completely. Layers with more than 
+	 * {@link #MAX_REQUESTED_AREAS} recorded areas are invalidated completely instead.
+	 */
+	private void invalidateLayerAreas(Collection<? extends Rectangle2D> areas) {
+		List<String> layers = getLayers();
+		if (!layers.isEmpty()) {
+			synchronized (invalidatedLayers) {
+				for (String layer : layers) {
+					if (!invalidatedLayers.contains(layer)) {
+						List<Rectangle2D> layerAreas = invalidatedLayerAreas.get(layer);
+						if (layerAreas == null) {
+							layerAreas = new ArrayList<Rectangle2D>();
+							invalidatedLayerAreas.put(layer, layerAreas);
+						}
+						for (Rectangle2D area : areas) {
+							layerAreas.add((Rectangle2D)area.clone());  // The caller might reuse its rectangles.
+						}
+						if (layerAreas.size() > MAX_REQUESTED_AREAS) {
+							invalidatedLayerAreas.remove(layer);
+							invalidatedLayers.add(layer);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	 * Invalidates a single layer of this component and forces the underlying toolkit component to be repainted. 
+	 * Other layers that are cached by the toolkit component are not painted again. Ongoing updates are treated 
+	 * as described in {@link #repaint()}.
+	 * 
+	 * @param layer the name of the layer to be repainted
+	 * @throws IllegalArgumentException if {@code layer} is not contained in {@link #getLayers()}
+	 * @since 3.0.0
+	 */
+	public void repaint(String layer) {
+		if (!getLayers().contains(layer)) {
+			throw new IllegalArgumentException("The layer \"" + layer + "\" is not declared by this component.");
+		}
+		else {
+			synchronized (invalidatedLayers) {
+				invalidatedLayers.add(layer);
+				invalidatedLayerAreas.remove(layer);
+			}
+			repaintToolkitComponent();
+		}
+	}
+	
+	
+	/**
+	 * Records a repaint request if an update is currently ongoing. Requests for the whole component replace all 
+	 * recorded areas. Areas are only recorded if no repaint of the whole component was requested before and are 
+	 * replaced by such a request if more than {@link #MAX_REQUESTED_AREAS} areas have been recorded.
+	 * 
+	 * @param areas the areas to be repainted or {@code null} if the whole component shall be repainted
+	 * @return {@code true} if the request was recorded, {@code false} if it needs to be processed directly
+	 */
+	private boolean recordRepaint(Collection<? extends Rectangle2D> areas) {
+		synchronized (updateLock) {
+			if (updateDepth == 0) {
+				return false;
 			}
 			else {
-				getToolkitComponent().repaint();
+				if (areas == null) {
+					repaintRequested = true;
+					requestedAreas.clear();
+				}
+				else if (!repaintRequested) {  // Otherwise the whole component is repainted anyway.
+					for (Rectangle2D area : areas) {
+						requestedAreas.add((Rectangle2D)area.clone());  // The caller might reuse its rectangles.
+					}
+					if (requestedAreas.size() > MAX_REQUESTED_AREAS) {
+						requestedAreas.clear();
+						repaintRequested = true;
+					}
+				}
+				return true;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Requests the toolkit component to be repainted completely, unless the request is recorded for an ongoing 
+	 * update. The request is passed to the repaint scheduler, if present, or otherwise executed on the UI thread.
+	 */
+	private void repaintToolkitComponent() {
+		if (hasToolkitComponent()) {
+			RepaintScheduler scheduler = repaintScheduler;
+			if (!recordRepaint(null)) {  // Otherwise the component is repainted when the update has ended.
+				if (scheduler != null) {
+					scheduler.requestRepaint();
+				}
+				else {
+					executeOnUIThread(new Runnable() {
+						@Override
+						public void run() {
+							if (hasToolkitComponent()) {
+								getToolkitComponent().repaint();
+							}
+						}
+					});
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	 * Requests the specified areas of the toolkit component to be repainted, as described in 
+	 * {@link #repaintToolkitComponent()}.
+	 * 
+	 * @param areas the areas to be repainted in the coordinate system of this component
+	 */
+	private void repaintToolkitComponent(Collection<? extends Rectangle2D> areas) {
+		if (hasToolkitComponent()) {
+			RepaintScheduler scheduler = repaintScheduler;
+			if (!recordRepaint(areas)) {  // Otherwise the areas are repainted when the update has ended.
+				if (scheduler != null) {
+					scheduler.requestRepaint(areas);
+				}
+				else {
+					final List<Rectangle2D> copiedAreas = new ArrayList<Rectangle2D>(areas.size());
+					for (Rectangle2D area : areas) {
+						copiedAreas.add((Rectangle2D)area.clone());  // The caller might reuse its rectangles before the task is executed.
+					}
+					executeOnUIThread(new Runnable() {
+						@Override
+						public void run() {
+							if (hasToolkitComponent()) {
+								ToolkitComponent toolkitComponent = getToolkitComponent();
+								for (Rectangle2D area : copiedAreas) {
+									toolkitComponent.repaint(area);
+								}
+							}
+						}
+					});
+				}
 			}
 		}
 	}
@@ -248,10 +1054,186 @@ public abstract class TICComponent {
 	 * <p>
 	 * This methods delegates to {@link ToolkitComponent#assignSize()}, if an underlying toolkit-specific 
 	 * component was already created.
+	 * <p>
+	 * This method may be called from any thread. If it is not called on the UI thread of the toolkit, the size 
+	 * is assigned asynchronously using {@link #getUIExecutor()}.
 	 */
 	public void assignSize() {
+		Dimension size = getSize();
+		synchronized (updateLock) {
+			assignedSize = copySize(size);
+		}
+		assignToolkitSize(false);
+	}
+	
+	
+	/**
+	 * Adopts the size of this component after content has been appended at its right or bottom side. In contrast
+	 * to calling {@link #assignSize()} and {@link #repaint()}, only the area that was added since the last size 
+	 * assignment is requested to be repainted and the toolkit component is resized using 
+	 * {@link ToolkitComponent#assignAppendedSize()}, which keeps cached contents of the existing area valid. This is 
+	 * meant for components whose content only grows (e.g. live data tracks or logs).
+	 * <p>
+	 * Note that toolkits may still paint the whole visible area when the size of a component changes. (<i>Swing</i> 
+	 * repaints showing components and <i>SWT</i> redraws the client area of composites created without 
+	 * {@code SWT.NO_REDRAW_RESIZE}.) The costs of rendering are therefore only proportional to the appended area, if 
+	 * the existing area is drawn from cached tiles (see {@link #isTileCachingSupported()}) or cached layers (see 
+	 * {@link #getLayers()}), which only render the appended area again.
+	 * <p>
+	 * The whole component is repainted, if its size has not been assigned before, if it became smaller on any axis
+	 * or if it does not have a defined size. Content that was changed in the existing area must additionally be 
+	 * repainted using {@link #repaint(Rectangle2D)}.
+	 * <p>
+	 * Scrolling containers can keep their view pinned to the end of the appended content using
+	 * {@link ScrollingTICComponent#assignAppendedSize(TICComponent)}.
+	 * 
+	 * @see #getAppendedAreas(Dimension, Dimension)
+	 * @since 3.0.0
+	 */
+	public void assignAppendedSize() {
+		Dimension size = getSize();
+		Dimension previousSize;
+		synchronized (updateLock) {
+			previousSize = assignedSize;
+			assignedSize = copySize(size);
+		}
+		assignToolkitSize(true);
+		
+		if ((previousSize == null) || (size == null) || (size.width < previousSize.width) || 
+				(size.height < previousSize.height)) {
+			
+			repaint();
+		}
+		else {
+			repaint(getAppendedAreas(previousSize, size));  // Does nothing if the size did not change.
+		}
+	}
+	
+	
+	/**
+	 * Returns the size that was assigned by the last call of {@link #assignSize()} or {@link #assignAppendedSize()}.
+	 * 
+	 * @return a copy of the last assigned size or {@code null} if no size was assigned yet or this component did not
+	 *         have a defined size at that time
+	 * @since 3.0.0
+	 */
+	public Dimension getAssignedSize() {
+		synchronized (updateLock) {
+			return copySize(assignedSize);
+		}
+	}
+	
+	
+	/**
+	 * Determines the areas that were added, if the size of a component grew from {@code previousSize} to 
+	 * {@code size}. These are a strip at the right side (covering the whole new height) and a strip at the bottom
+	 * (covering the previous width).
+	 * 
+	 * @param previousSize the previous size of the component
+	 * @param size the current size of the component
+	 * @return a list containing between zero and two non-overlapping rectangles (Axes on which the component did 
+	 *         not grow do not contribute an area.)
+	 * @throws IllegalArgumentException if one of the sizes is {@code null}
+	 * @since 3.0.0
+	 */
+	public static List<Rectangle2D> getAppendedAreas(Dimension previousSize, Dimension size) {
+		if ((previousSize == null) || (size == null)) {
+			throw new IllegalArgumentException("The sizes must not be null.");
+		}
+		else {
+			List<Rectangle2D> result = new ArrayList<Rectangle2D>(2);
+			if (size.width > previousSize.width) {
+				result.add(new Rectangle2D.Double(previousSize.width, 0, size.width - previousSize.width, size.height));
+			}
+			if (size.height > previousSize.height) {
+				int width = Math.min(previousSize.width, size.width);
+				if (width > 0) {
+					result.add(new Rectangle2D.Double(0, previousSize.height, width, size.height - previousSize.height));
+				}
+			}
+			return result;
+		}
+	}
+	
+	
+	private static Dimension copySize(Dimension size) {
+		if (size == null) {
+			return null;
+		}
+		else {
+			return new Dimension(size);
+		}
+	}
+	
+	
+	private void assignToolkitSize(final boolean appended) {
 		if (hasToolkitComponent()) {
-			getToolkitComponent().assignSize();
+			executeOnUIThread(new Runnable() {
+				@Override
+				public void run() {
+					if (hasToolkitComponent()) {
+						if (appended) {
+							getToolkitComponent().assignAppendedSize();
+						}
+						else {
+							getToolkitComponent().assignSize();
+						}
+					}
+				}
+			});
+		}
+	}
+	
+	
+	/**
+	 * Returns the executor that runs tasks on the UI thread of the toolkit of this component. Worker threads 
+	 * (e.g. loading data to be displayed by this component) can use it to modify this component without knowing 
+	 * the target toolkit. Tasks submitted until the UI thread becomes available are executed together in one turn 
+	 * of the event loop and submitting a task never blocks the caller.
+	 * <p>
+	 * Methods of this class that need to access the toolkit component (e.g. {@link #repaint()} or 
+	 * {@link #assignSize()}) use this executor automatically, if they are not called on the UI thread.
+	 * 
+	 * @return the executor associated with the current toolkit component or {@code null} if no toolkit 
+	 *         component has yet been created
+	 * @since 3.0.0
+	 */
+	public UIExecutor getUIExecutor() {
+		synchronized (updateLock) {
+			if (!hasToolkitComponent()) {
+				return null;
+			}
+			else {
+				if ((uiExecutor == null) || (uiExecutor.getToolkitComponent() != getToolkitComponent())) {
+					uiExecutor = new UIExecutor(getToolkitComponent());
+				}
+				return uiExecutor;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Executes the specified task directly, if this method is called on the UI thread of the toolkit (or if no 
+	 * toolkit component has yet been created), or passes it to {@link #getUIExecutor()} otherwise. Inherited 
+	 * classes should use this method for all operations on the toolkit component that may be triggered from 
+	 * worker threads.
+	 * 
+	 * @param task the task to be executed
+	 * @since 3.0.0
+	 */
+	protected void executeOnUIThread(Runnable task) {
+		UIExecutor executor = null;
+		ToolkitComponent toolkitComponent = getToolkitComponent();
+		if ((toolkitComponent != null) && !toolkitComponent.isUIThread()) {
+			executor = getUIExecutor();
+		}
+		
+		if (executor != null) {
+			executor.execute(task);
+		}
+		else {
+			task.run();
 		}
 	}
 	
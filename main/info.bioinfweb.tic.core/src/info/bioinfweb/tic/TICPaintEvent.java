@@ -19,9 +19,15 @@
 package info.bioinfweb.tic;
 
 
+import info.bioinfweb.tic.rendering.TextCache;
+
 import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EventObject;
+import java.util.List;
 
 
 
@@ -34,8 +40,18 @@ import java.util.EventObject;
  * @bioinfweb.module info.bioinfweb.tic.core
  */
 public class TICPaintEvent extends EventObject {
+	/** The value of {@link #getDeadline()} for events that do not have a deadline. */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+	
+	
   private Graphics2D graphics;
   private Rectangle2D rectangle;
+  private List<Rectangle2D> areas;
+  private String layer;
+  private RenderQuality renderQuality;
+  private double deviceScale;
+  private long deadline;
+  private List<Rectangle2D> unfinishedAreas = new ArrayList<Rectangle2D>();
   
   
 	/**
@@ -48,6 +64,120 @@ public class TICPaintEvent extends EventObject {
 	 * @throws IllegalArgumentException if {@code source}, {@code graphics} or {@code rectangle} are {@code null} 
 	 */
 	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle) {
+		this(source, graphics, rectangle, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class with a set of areas that actually need to be repainted.
+	 * 
+	 * @param source the object that triggered the event
+	 * @param graphics the swing graphics context
+	 * @param rectangle the rectangle that has to be repainted (usually the bounding box of {@code areas})
+	 * @param areas the areas within {@code rectangle} that actually need to be repainted or {@code null} if the
+	 *        whole rectangle needs to be repainted
+	 * 
+	 * @throws IllegalArgumentException if {@code source}, {@code graphics} or {@code rectangle} are {@code null} 
+	 * @since 3.0.0
+	 */
+	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle, 
+			Collection<? extends Rectangle2D> areas) {
+		
+		this(source, graphics, rectangle, areas, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class that requests painting a single layer of a component.
+	 * 
+	 * @param source the object that triggered the event
+	 * @param graphics the swing graphics context
+	 * @param rectangle the rectangle that has to be repainted (usually the bounding box of {@code areas})
+	 * @param areas the areas within {@code rectangle} that actually need to be repainted or {@code null} if the
+	 *        whole rectangle needs to be repainted
+	 * @param layer the name of the layer to be painted (one of {@link TICComponent#getLayers()}) or {@code null}
+	 *        if all layers shall be painted
+	 * 
+	 * @throws IllegalArgumentException if {@code source}, {@code graphics} or {@code rectangle} are {@code null} 
+	 * @since 3.0.0
+	 */
+	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle, 
+			Collection<? extends Rectangle2D> areas, String layer) {
+		
+		this(source, graphics, rectangle, areas, layer, RenderQuality.FULL);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class that specifies the quality the component should be painted in.
+	 * 
+	 * @param source the object that triggered the event
+	 * @param graphics the swing graphics context
+	 * @param rectangle the rectangle that has to be repainted (usually the bounding box of {@code areas})
+	 * @param areas the areas within {@code rectangle} that actually need to be repainted or {@code null} if the
+	 *        whole rectangle needs to be repainted
+	 * @param layer the name of the layer to be painted (one of {@link TICComponent#getLayers()}) or {@code null}
+	 *        if all layers shall be painted
+	 * @param renderQuality the quality the component should be painted in
+	 * 
+	 * @throws IllegalArgumentException if {@code source}, {@code graphics}, {@code rectangle} or 
+	 *         {@code renderQuality} are {@code null} 
+	 * @since 3.0.0
+	 */
+	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle, 
+			Collection<? extends Rectangle2D> areas, String layer, RenderQuality renderQuality) {
+		
+		this(source, graphics, rectangle, areas, layer, renderQuality, 1.0);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class that specifies the resolution of the device painted on.
+	 * 
+	 * @param source the object that triggered the event
+	 * @param graphics the swing graphics context
+	 * @param rectangle the rectangle that has to be repainted (usually the bounding box of {@code areas})
+	 * @param areas the areas within {@code rectangle} that actually need to be repainted or {@code null} if the
+	 *        whole rectangle needs to be repainted
+	 * @param layer the name of the layer to be painted (one of {@link TICComponent#getLayers()}) or {@code null}
+	 *        if all layers shall be painted
+	 * @param renderQuality the quality the component should be painted in
+	 * @param deviceScale the number of device pixels per unit of the coordinate system of the component
+	 * 
+	 * @throws IllegalArgumentException if {@code source}, {@code graphics}, {@code rectangle} or 
+	 *         {@code renderQuality} are {@code null} or {@code deviceScale} is not greater than 0
+	 * @since 3.0.0
+	 */
+	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle, 
+			Collection<? extends Rectangle2D> areas, String layer, RenderQuality renderQuality, double deviceScale) {
+		
+		this(source, graphics, rectangle, areas, layer, renderQuality, deviceScale, NO_DEADLINE);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class with a deadline until which painting should be completed.
+	 * 
+	 * @param source the object that triggered the event
+	 * @param graphics the swing graphics context
+	 * @param rectangle the rectangle that has to be repainted (usually the bounding box of {@code areas})
+	 * @param areas the areas within {@code rectangle} that actually need to be repainted or {@code null} if the
+	 *        whole rectangle needs to be repainted
+	 * @param layer the name of the layer to be painted (one of {@link TICComponent#getLayers()}) or {@code null}
+	 *        if all layers shall be painted
+	 * @param renderQuality the quality the component should be painted in
+	 * @param deviceScale the number of device pixels per unit of the coordinate system of the component
+	 * @param deadline the value of {@link System#nanoTime()} until which painting should be completed or
+	 *        {@link #NO_DEADLINE}
+	 * 
+	 * @throws IllegalArgumentException if {@code source}, {@code graphics}, {@code rectangle} or 
+	 *         {@code renderQuality} are {@code null} or {@code deviceScale} is not greater than 0
+	 * @since 3.0.0
+	 */
+	public TICPaintEvent(Object source, Graphics2D graphics, Rectangle2D rectangle, 
+			Collection<? extends Rectangle2D> areas, String layer, RenderQuality renderQuality, double deviceScale, 
+			long deadline) {
+		
 		super(source);
 		if (graphics == null) {
 			throw new IllegalArgumentException("The graphics context must not be null.");
@@ -55,9 +185,25 @@ public class TICPaintEvent extends EventObject {
 		else if (rectangle == null) {
 			throw new IllegalArgumentException("The rectangle must not be null.");
 		}
+		else if (renderQuality == null) {
+			throw new IllegalArgumentException("The render quality must not be null.");
+		}
+		else if (!(deviceScale > 0)) {
+			throw new IllegalArgumentException("The device scale must be greater than 0 (specified: " + deviceScale + ").");
+		}
 		else {
 			this.graphics = graphics;
 			this.rectangle = rectangle;
+			if (areas == null) {
+				this.areas = Collections.singletonList(rectangle);
+			}
+			else {
+				this.areas = Collections.unmodifiableList(new ArrayList<Rectangle2D>(areas));
+			}
+			this.layer = layer;
+			this.renderQuality = renderQuality;
+			this.deviceScale = deviceScale;
+			this.deadline = deadline;
 		}
 	}
 	
@@ -82,4 +228,183 @@ public class TICPaintEvent extends EventObject {
 	public Rectangle2D getRectangle() {
 		return rectangle;
 	}
+	
+	
+	/**
+	 * Returns the areas within {@link #getRectangle()} that actually need to be repainted. Toolkit components 
+	 * may specify multiple smaller areas here, if e.g. two distant parts of a component have been invalidated. 
+	 * Implementations of {@link TICComponent#paint(TICPaintEvent)} may skip painting everything outside these 
+	 * areas.
+	 * <p>
+	 * If no areas were specified when this event was created, a list only containing {@link #getRectangle()}
+	 * is returned.
+	 * 
+	 * @return an unmodifiable list of the areas to be repainted
+	 * @since 3.0.0
+	 */
+	public List<Rectangle2D> getAreas() {
+		return areas;
+	}
+	
+	
+	/**
+	 * Determines whether the specified area intersects one of the areas that need to be repainted. 
+	 * Implementations of {@link TICComponent#paint(TICPaintEvent)} can use this method to skip painting parts
+	 * that do not need to be painted.
+	 * 
+	 * @param area the area to be tested
+	 * @return {@code true} if the area intersects at least one of {@link #getAreas()}, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean needsPainting(Rectangle2D area) {
+		for (Rectangle2D damagedArea : areas) {
+			if (damagedArea.intersects(area)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * Returns the layer that shall be painted. Components that declare layers in {@link TICComponent#getLayers()}
+	 * must only paint the contents of this layer, unless {@code null} is returned.
+	 * 
+	 * @return the name of the layer to be painted or {@code null} if all layers shall be painted (e.g. because 
+	 *         the toolkit component does not cache layers for the current paint operation)
+	 * @since 3.0.0
+	 */
+	public String getLayer() {
+		return layer;
+	}
+	
+	
+	/**
+	 * Returns the quality the component should be painted in. Toolkit components specify 
+	 * {@link RenderQuality#DRAFT} during continuous user interaction (e.g. scrolling or dragging), if the component 
+	 * returns {@code true} in {@link TICComponent#isDraftPaintingSupported()}. Implementations of 
+	 * {@link TICComponent#paint(TICPaintEvent)} may then paint a cheap approximation. A repaint with 
+	 * {@link RenderQuality#FULL} follows when the interaction has ended.
+	 * 
+	 * @return the render quality hint of this event
+	 * @since 3.0.0
+	 */
+	public RenderQuality getRenderQuality() {
+		return renderQuality;
+	}
+	
+	
+	/**
+	 * Returns the number of device pixels per unit of the coordinate system of the component. The graphics context 
+	 * returned by {@link #getGraphics()} is already scaled accordingly (e.g. by 2 on many HiDPI screens), so that
+	 * components do not need to consider this value, unless they create buffered images themselves or want to 
+	 * align thin lines to device pixels.
+	 * 
+	 * @return the device scale factor (1.0 if no scaling is applied)
+	 * @see TICComponent#getRenderScale(double, RenderQuality)
+	 * @since 3.0.0
+	 */
+	public double getDeviceScale() {
+		return deviceScale;
+	}
+	
+	
+	/**
+	 * Returns the value of {@link System#nanoTime()} until which painting should be completed.
+	 * 
+	 * @return the deadline of this event or {@link #NO_DEADLINE} if the component may take as much time as needed
+	 * @see TICComponent#getPaintBudget()
+	 * @since 3.0.0
+	 */
+	public long getDeadline() {
+		return deadline;
+	}
+	
+	
+	/**
+	 * Determines whether this event has a deadline.
+	 * 
+	 * @return {@code true} if a deadline was specified, {@code false} if {@link #getDeadline()} returns 
+	 *         {@link #NO_DEADLINE}
+	 * @since 3.0.0
+	 */
+	public boolean hasDeadline() {
+		return deadline != NO_DEADLINE;
+	}
+	
+	
+	/**
+	 * Returns the time that remains until the deadline of this event.
+	 * 
+	 * @return the remaining time in nanoseconds (which is negative if the deadline has already passed) or 
+	 *         {@link Long#MAX_VALUE} if this event has no deadline
+	 * @since 3.0.0
+	 */
+	public long getRemainingTime() {
+		if (hasDeadline()) {
+			return deadline - System.nanoTime();
+		}
+		else {
+			return Long.MAX_VALUE;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether the deadline of this event has passed. Implementations of 
+	 * {@link TICComponent#paint(TICPaintEvent)} that paint large areas should check this method regularly (e.g. 
+	 * after each row of a table) and stop painting if {@code true} is returned. The areas that have not been 
+	 * painted yet must then be reported using {@link #addUnfinishedArea(Rectangle2D)}.
+	 * 
+	 * @return {@code true} if this event has a deadline which has already passed, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public boolean isDeadlineExceeded() {
+		return hasDeadline() && (deadline - System.nanoTime() < 0);  // Comparing the difference remains correct if nanoTime() overflows.
+	}
+	
+	
+	/**
+	 * Reports an area that could not be painted before the deadline of this event. The toolkit component 
+	 * handles such areas according to its {@link PaintDeadlinePolicy}, e.g. by scheduling a continuation paint 
+	 * on the next turn of the event loop. Components should clear unfinished areas (e.g. with the background 
+	 * color) or paint a cheap approximation there, since they are displayed until they are repainted.
+	 * 
+	 * @param area the unfinished area in the coordinate system of the component
+	 * @throws IllegalArgumentException if {@code area} is {@code null}
+	 * @since 3.0.0
+	 */
+	public void addUnfinishedArea(Rectangle2D area) {
+		if (area == null) {
+			throw new IllegalArgumentException("The unfinished area must not be null.");
+		}
+		else if (area.intersects(rectangle)) {
+			unfinishedAreas.add(area.createIntersection(rectangle));
+		}
+	}
+	
+	
+	/**
+	 * Returns the areas reported by {@link #addUnfinishedArea(Rectangle2D)}.
+	 * 
+	 * @return an unmodifiable list of the unfinished areas within {@link #getRectangle()}
+	 * @since 3.0.0
+	 */
+	public List<Rectangle2D> getUnfinishedAreas() {
+		return Collections.unmodifiableList(unfinishedAreas);
+	}
+	
+	
+	/**
+	 * Returns a cache of glyph vectors and text layouts shared by all components. Implementations of 
+	 * {@link TICComponent#paint(TICPaintEvent)} that paint large amounts of (repeated) text can use 
+	 * {@link TextCache#drawString(Graphics2D, String, float, float)} instead of calling 
+	 * {@link Graphics2D#drawString(String, float, float)} on {@link #getGraphics()} directly.
+	 * 
+	 * @return the shared text cache
+	 * @since 3.0.0
+	 */
+	public TextCache getTextCache() {
+		return TextCache.getSharedInstance();
+	}
 }
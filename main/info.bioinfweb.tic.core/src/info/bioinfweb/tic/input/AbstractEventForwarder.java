@@ -21,6 +21,8 @@ package info.bioinfweb.tic.input;
 
 import info.bioinfweb.tic.TICComponent;
 import info.bioinfweb.tic.TargetToolkit;
+import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
+import info.bioinfweb.tic.toolkit.ToolkitComponent;
 
 import java.awt.event.MouseEvent;
 import java.util.EventListener;
@@ -56,6 +58,38 @@ public abstract class AbstractEventForwarder<L extends EventListener> {
 	}
 	
 	
+	/**
+	 * Returns the scrolled component that receives the forwarded events, if any. This default implementation 
+	 * returns {@code null} and is overwritten by mouse event forwarders.
+	 * 
+	 * @return the scrolled component or {@code null}
+	 * @since 3.0.0
+	 */
+	protected ScrollingTICComponent getScrolledComponent() {
+		return null;
+	}
+	
+	
+	/**
+	 * Reports a user interaction that may be part of a continuous interaction (e.g. dragging) to the owner of 
+	 * the listener set. The toolkit component of the scrolled component is used to paint the owner, if present.
+	 * 
+	 * @see TICComponent#notifyInteraction(ToolkitComponent)
+	 * @see #getScrolledComponent()
+	 * @since 3.0.0
+	 */
+	protected void notifyInteraction() {
+		TICComponent owner = getListenerSet().getOwner();
+		ToolkitComponent paintingComponent = owner.getToolkitComponent();
+		if (getScrolledComponent() != null) {
+			paintingComponent = getScrolledComponent().getToolkitComponent();
+		}
+		if (paintingComponent != null) {
+			owner.notifyInteraction(paintingComponent);
+		}
+	}
+	
+	
 	protected void forwardMouseEventToParent(MouseEvent event, boolean consumed) {
 		if (getListenerSet().getOwner().getCurrentToolkit().equals(TargetToolkit.SWING) && !consumed) {
 			JComponent component = (JComponent)getListenerSet().getOwner().getToolkitComponent(); 
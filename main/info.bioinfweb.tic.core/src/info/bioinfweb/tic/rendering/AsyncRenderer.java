@@ -0,0 +1,368 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+
+
+/**
+ * Renders frames of a <i>TIC</i> component on a dedicated background thread, so that the UI thread never has to 
+ * wait for {@link TICComponent#paint(TICPaintEvent)}.
+ * <p>
+ * The UI thread requests frames covering a certain area of the component (usually its visible rectangle) by 
+ * calling {@link #requestFrame(Rectangle, Color)} from its paint callback and then draws the newest complete 
+ * frame returned by {@link #getLatestFrame()}. Completed frames are handed over to the UI thread by a lock-free 
+ * {@link TripleBuffer}. The frame listener passed to the constructor is called on the render thread each time a 
+ * new frame is available and should schedule a repaint on the UI thread.
+ * <p>
+ * A new frame is only rendered if the requested area differs from the one of the previous request (e.g. after 
+ * scrolling or resizing) or if {@link #invalidate()} was called in between. Requesting a new frame cancels all 
+ * outdated jobs. The render thread checks for cancellation after each horizontal band of {@link #BAND_HEIGHT} 
+ * pixels and discards a cancelled frame without publishing it.
+ * <p>
+ * The render thread is started by the first request and ends when {@link #dispose()} is called. Except for 
+ * {@link #getRenderedFrameCount()} and {@link #getCancelledFrameCount()}, the methods of this class must 
+ * only be called by the UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ * @see TICComponent#isAsynchronousPaintingSupported()
+ */
+public class AsyncRenderer {
+	/** The height of the bands after which the render thread checks whether the current frame is outdated. */
+	public static final int BAND_HEIGHT = 64;
+	
+	
+	/**
+	 * A frame rendered by an {@link AsyncRenderer}.
+	 * 
+	 * @author Ben St&ouml;ver
+	 * @since 3.0.0
+	 * @bioinfweb.module info.bioinfweb.tic.core
+	 */
+	public static class Frame {
+		private BackingRaster raster = null;
+		private BufferedImage image = null;
+		private Rectangle bounds = null;
+		private long generation = -1;
+		
+		
+		/**
+		 * Returns the image containing the rendered pixels. Only the upper left area with the size of 
+		 * {@link #getBounds()} is valid, since the image may be larger.
+		 * 
+		 * @return the image of this frame
+		 */
+		public BufferedImage getImage() {
+			return image;
+		}
+		
+		
+		/**
+		 * Returns the area of the component contained in this frame.
+		 * 
+		 * @return the area in the coordinate system of the component
+		 */
+		public Rectangle getBounds() {
+			return bounds;
+		}
+		
+		
+		/**
+		 * Returns the number of the request this frame was rendered for. Frames of later requests have higher 
+		 * numbers.
+		 * 
+		 * @return the generation of this frame
+		 */
+		public long getGeneration() {
+			return generation;
+		}
+	}
+	
+	
+	private static class Job {
+		public final Rectangle bounds;
+		public final Color background;
+		public final long generation;
+		
+		
+		public Job(Rectangle bounds, Color background, long generation) {
+			super();
+			this.bounds = bounds;
+			this.background = background;
+			this.generation = generation;
+		}
+	}
+	
+	
+	private TICComponent component;
+	private Object source;
+	private int imageType;
+	private Runnable frameListener;
+	private TripleBuffer<Frame> frames = new TripleBuffer<Frame>(new Frame(), new Frame(), new Frame());
+	private AtomicReference<Job> pendingJob = new AtomicReference<Job>();
+	private AtomicLong generation = new AtomicLong(0);
+	private AtomicLong renderedFrameCount = new AtomicLong(0);
+	private AtomicLong cancelledFrameCount = new AtomicLong(0);
+	private Rectangle requestedBounds = null;  // Only accessed by the UI thread.
+	private boolean invalid = true;  // Only accessed by the UI thread.
+	private Thread thread = null;
+	private volatile boolean disposed = false;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param component the component to be painted
+	 * @param source the object to be used as the source of the paint events (usually the toolkit component)
+	 * @param imageType the type of the images to render the frames in (see {@link BufferedImage#getType()})
+	 * @param frameListener the object to be called on the render thread each time a new frame is available
+	 *        (may be {@code null})
+	 */
+	public AsyncRenderer(TICComponent component, Object source, int imageType, Runnable frameListener) {
+		super();
+		this.component = component;
+		this.source = source;
+		this.imageType = imageType;
+		this.frameListener = frameListener;
+	}
+	
+	
+	/**
+	 * Creates the backing raster to render the frames of one of the three buffers in. This method is called on 
+	 * the render thread. Inherited classes may overwrite this method to render in a specific pixel format.
+	 * 
+	 * @return a new backing raster
+	 */
+	protected BackingRaster createBackingRaster() {
+		return new BackingRaster(imageType);
+	}
+	
+	
+	/**
+	 * Marks the contents of the component as changed, so that the next call of 
+	 * {@link #requestFrame(Rectangle, Color)} renders a new frame even if the requested area is unchanged.
+	 */
+	public void invalidate() {
+		invalid = true;
+	}
+	
+	
+	/**
+	 * Requests a frame containing the specified area of the component. A new render job is only created if the 
+	 * area differs from the previous request or {@link #invalidate()} was called since. In that case, any 
+	 * outdated job that is currently rendered or waiting is cancelled.
+	 * 
+	 * @param bounds the area of the component to be rendered in its coordinate system
+	 * @param background the color to fill the frame with before painting or {@code null} if it shall remain 
+	 *        transparent
+	 * @return {@code true} if a new job was created, {@code false} if the previous request is still up to date
+	 * @throws IllegalStateException if this instance was already disposed
+	 */
+	public boolean requestFrame(Rectangle bounds, Color background) {
+		if (disposed) {
+			throw new IllegalStateException("This renderer has already been disposed.");
+		}
+		else if (invalid || !bounds.equals(requestedBounds)) {
+			requestedBounds = new Rectangle(bounds);
+			invalid = false;
+			pendingJob.set(new Job(requestedBounds, background, generation.incrementAndGet()));  // Incrementing the generation cancels the running job.
+			if (thread == null) {
+				thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						renderLoop();
+					}
+				}, "TIC render thread");
+				thread.setDaemon(true);
+				thread.start();
+			}
+			else {
+				LockSupport.unpark(thread);
+			}
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Returns the most recently completed frame. Frames that were completed but not yet returned by this method 
+	 * before a newer one was completed are skipped.
+	 * <p>
+	 * The returned frame (including its image) is not modified by the render thread until a newer frame is 
+	 * returned by a subsequent call of this method.
+	 * 
+	 * @return the newest frame or {@code null} if no frame was completed yet
+	 */
+	public Frame getLatestFrame() {
+		frames.update();
+		Frame result = frames.getFrontBuffer();
+		if (result.getBounds() == null) {
+			return null;
+		}
+		else {
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether a frame for the latest request was completed and is returned by {@link #getLatestFrame()}.
+	 * 
+	 * @return {@code true} if no newer frame is expected, {@code false} otherwise
+	 */
+	public boolean isUpToDate() {
+		Frame frame = getLatestFrame();
+		return !invalid && (frame != null) && (frame.getGeneration() == generation.get());
+	}
+	
+	
+	/**
+	 * Returns the number of frames that were completed and published since this instance was created.
+	 * 
+	 * @return the number of rendered frames
+	 */
+	public long getRenderedFrameCount() {
+		return renderedFrameCount.get();
+	}
+	
+	
+	/**
+	 * Returns the number of frames that were cancelled while they were rendered, because a newer request 
+	 * was made.
+	 * 
+	 * @return the number of cancelled frames
+	 */
+	public long getCancelledFrameCount() {
+		return cancelledFrameCount.get();
+	}
+	
+	
+	/**
+	 * Cancels all pending jobs and ends the render thread. Subsequent calls of 
+	 * {@link #requestFrame(Rectangle, Color)} are not allowed.
+	 */
+	public void dispose() {
+		disposed = true;
+		pendingJob.set(null);
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+	
+	
+	/**
+	 * Determines whether this instance was disposed.
+	 * 
+	 * @return {@code true} if {@link #dispose()} was called, {@code false} otherwise
+	 */
+	public boolean isDisposed() {
+		return disposed;
+	}
+	
+	
+	private boolean isOutdated(Job job) {
+		return disposed || (job.generation != generation.get());
+	}
+	
+	
+	private void renderLoop() {
+		while (!disposed) {
+			Job job = pendingJob.getAndSet(null);
+			if (job == null) {
+				LockSupport.park(this);  // Returns immediately if unpark() was called since the last job was taken.
+			}
+			else if (!isOutdated(job)) {
+				try {
+					Frame frame = frames.getBackBuffer();
+					if (render(job, frame)) {
+						frames.publish();
+						renderedFrameCount.incrementAndGet();
+						if (frameListener != null) {
+							frameListener.run();
+						}
+					}
+					else {
+						cancelledFrameCount.incrementAndGet();
+					}
+				}
+				catch (RuntimeException e) {  // The render thread must survive exceptions thrown by paint().
+					Thread thread = Thread.currentThread();
+					thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+				}
+			}
+		}
+	}
+	
+	
+	private boolean render(Job job, Frame frame) {
+		if (frame.raster == null) {
+			frame.raster = createBackingRaster();
+		}
+		int width = job.bounds.width;
+		int height = job.bounds.height;
+		BufferedImage image = frame.raster.getImage(Math.max(1, width), Math.max(1, height));
+		for (int y = 0; y < height; y += BAND_HEIGHT) {
+			if (isOutdated(job)) {
+				return false;
+			}
+			
+			int bandHeight = Math.min(BAND_HEIGHT, height - y);
+			Graphics2D g = image.createGraphics();
+			try {
+				g.clipRect(0, y, width, bandHeight);
+				if (job.background != null) {
+					g.setColor(job.background);
+					g.fillRect(0, y, width, bandHeight);
+				}
+				else {
+					g.setComposite(AlphaComposite.Clear);
+					g.fillRect(0, y, width, bandHeight);
+					g.setComposite(AlphaComposite.SrcOver);
+				}
+				g.translate(-job.bounds.x, -job.bounds.y);
+				component.paint(new TICPaintEvent(source, g, new Rectangle(job.bounds.x, job.bounds.y + y, width, bandHeight)));
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		
+		frame.image = image;
+		frame.bounds = job.bounds;
+		frame.generation = job.generation;
+		return true;
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+
+
+/**
+ * Manages a reusable {@link BufferedImage} that toolkit components can render into instead of creating
+ * a new image on every paint event.
+ * <p>
+ * The managed image is only reallocated if a larger area than the current capacity is requested. In that
+ * case the capacity grows geometrically by {@link #getGrowthFactor()}, so that a sequence of slowly growing
+ * requests (e.g. while a window is resized) does not lead to a reallocation on every request. Note that
+ * the returned image may therefore be larger than the requested area and that its contents are not cleared
+ * between two calls of {@link #getImage(int, int)}. {@link #clear(int, int)} can be used to clear the area
+ * that is going to be painted.
+ * <p>
+ * Instances of this class are not thread-safe and are meant to be used by a single toolkit component on its
+ * UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class BackingRaster {
+	/** The default factor by which the capacity of the managed image grows, if a larger area is requested. */
+	public static final double DEFAULT_GROWTH_FACTOR = 1.5;
+	
+	
+	private int imageType;
+	private double growthFactor;
+	private BufferedImage image = null;
+	private long allocationCount = 0;
+	private long allocatedBytes = 0;
+	
+	
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_GROWTH_FACTOR}.
+	 * 
+	 * @param imageType the type of the managed image (e.g. {@link BufferedImage#TYPE_3BYTE_BGR})
+	 */
+	public BackingRaster(int imageType) {
+		this(imageType, DEFAULT_GROWTH_FACTOR);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param imageType the type of the managed image (e.g. {@link BufferedImage#TYPE_3BYTE_BGR})
+	 * @param growthFactor the factor by which the capacity grows if a larger area is requested
+	 * @throws IllegalArgumentException if {@code growthFactor} is below 1
+	 */
+	public BackingRaster(int imageType, double growthFactor) {
+		super();
+		if (growthFactor < 1) {
+			throw new IllegalArgumentException("The growth factor must not be below 1.");
+		}
+		else {
+			this.imageType = imageType;
+			this.growthFactor = growthFactor;
+		}
+	}
+	
+	
+	/**
+	 * Returns the type of the managed image.
+	 * 
+	 * @return one of the type constants defined in {@link BufferedImage}
+	 */
+	public int getImageType() {
+		return imageType;
+	}
+	
+	
+	/**
+	 * Returns the factor by which the capacity grows if a larger area is requested.
+	 * 
+	 * @return the growth factor (always >= 1)
+	 */
+	public double getGrowthFactor() {
+		return growthFactor;
+	}
+	
+	
+	/**
+	 * Creates a new image with the specified size. This method is called whenever the capacity of this instance
+	 * needs to be increased. Inherited classes may overwrite it to provide images with custom color models or
+	 * rasters.
+	 * 
+	 * @param width the width of the new image
+	 * @param height the height of the new image
+	 * @return the new image
+	 */
+	protected BufferedImage createImage(int width, int height) {
+		return new BufferedImage(width, height, getImageType());
+	}
+	
+	
+	private int grow(int currentCapacity, int requested) {
+		return Math.max(requested, (int)Math.min(Integer.MAX_VALUE, Math.ceil(currentCapacity * getGrowthFactor())));
+	}
+	
+	
+	/**
+	 * Returns an image that is at least as large as the specified area. The same instance is returned by
+	 * subsequent calls until a larger area is requested or {@link #release()} is called.
+	 * <p>
+	 * Note that the returned image may be larger than the requested area and that previous contents are not
+	 * cleared.
+	 * 
+	 * @param width the minimal width of the returned image
+	 * @param height the minimal height of the returned image
+	 * @return the managed image
+	 * @throws IllegalArgumentException if {@code width} or {@code height} are below 1
+	 */
+	public BufferedImage getImage(int width, int height) {
+		if ((width < 1) || (height < 1)) {
+			throw new IllegalArgumentException("Width and height must be at least 1.");
+		}
+		else if (image == null) {
+			image = createImage(width, height);
+			registerAllocation();
+		}
+		else if ((width > image.getWidth()) || (height > image.getHeight())) {
+			int newWidth = image.getWidth();
+			if (width > newWidth) {
+				newWidth = grow(newWidth, width);
+			}
+			int newHeight = image.getHeight();
+			if (height > newHeight) {
+				newHeight = grow(newHeight, height);
+			}
+			image.flush();
+			image = null;  // Allow the previous image to be collected before the new one is allocated.
+			image = createImage(newWidth, newHeight);
+			registerAllocation();
+		}
+		return image;
+	}
+	
+	
+	private void registerAllocation() {
+		allocationCount++;
+		allocatedBytes += getCurrentBytes();
+	}
+	
+	
+	/**
+	 * Sets all pixels in the upper left area of the managed image to 0 (black or fully transparent, 
+	 * depending on the image type). Toolkit components should call this method before painting into an 
+	 * image returned by {@link #getImage(int, int)}, since previous contents are not removed automatically.
+	 * <p>
+	 * The pixel data is cleared directly for the common byte and integer rasters, which is considerably 
+	 * faster than painting a rectangle. Other rasters are cleared using a {@link Graphics2D} object.
+	 * 
+	 * @param width the width of the area to be cleared
+	 * @param height the height of the area to be cleared
+	 */
+	public void clear(int width, int height) {
+		if (image != null) {
+			width = Math.min(width, image.getWidth());
+			height = Math.min(height, image.getHeight());
+			DataBuffer buffer = image.getRaster().getDataBuffer();
+			SampleModel model = image.getRaster().getSampleModel();
+			if ((buffer.getNumBanks() == 1) && (buffer instanceof DataBufferByte) && (model instanceof ComponentSampleModel)) {
+				ComponentSampleModel componentModel = (ComponentSampleModel)model;
+				fillLines(((DataBufferByte)buffer).getData(), buffer.getOffset(), componentModel.getScanlineStride(), 
+						width * componentModel.getPixelStride(), height);
+			}
+			else if ((buffer instanceof DataBufferInt) && (model instanceof SinglePixelPackedSampleModel)) {
+				int[] data = ((DataBufferInt)buffer).getData();
+				int stride = ((SinglePixelPackedSampleModel)model).getScanlineStride();
+				for (int y = 0; y < height; y++) {
+					int start = buffer.getOffset() + y * stride;
+					Arrays.fill(data, start, start + width, 0);
+				}
+			}
+			else {
+				Graphics2D g = image.createGraphics();
+				try {
+					g.setComposite(AlphaComposite.Clear);
+					g.fillRect(0, 0, width, height);
+				}
+				finally {
+					g.dispose();
+				}
+			}
+		}
+	}
+	
+	
+	private static void fillLines(byte[] data, int offset, int stride, int lineLength, int height) {
+		for (int y = 0; y < height; y++) {
+			int start = offset + y * stride;
+			Arrays.fill(data, start, start + lineLength, (byte)0);
+		}
+	}
+	
+	
+	/**
+	 * Determines whether this instance currently holds an image.
+	 * 
+	 * @return {@code true} if an image is currently managed, {@code false} if no image was requested yet or the
+	 *         image was released
+	 */
+	public boolean hasImage() {
+		return image != null;
+	}
+	
+	
+	/**
+	 * Releases the managed image if it is considerably larger than the specified area, i.e. if one of its
+	 * dimensions exceeds the respective specified dimension multiplied with the square of the growth factor.
+	 * A smaller image will be allocated on the next call of {@link #getImage(int, int)}.
+	 * <p>
+	 * Toolkit components should call this method if their size was decreased.
+	 * 
+	 * @param width the width of the largest area that is still expected to be requested
+	 * @param height the height of the largest area that is still expected to be requested
+	 * @return {@code true} if the image was released, {@code false} otherwise
+	 */
+	public boolean shrink(int width, int height) {
+		if (image != null) {
+			double factor = getGrowthFactor() * getGrowthFactor();
+			if ((image.getWidth() > Math.max(1, width) * factor) || (image.getHeight() > Math.max(1, height) * factor)) {
+				release();
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * Releases the managed image. Toolkit components should call this method when they are disposed.
+	 */
+	public void release() {
+		if (image != null) {
+			image.flush();
+			image = null;
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of images that have been allocated by this instance since its creation.
+	 * 
+	 * @return the number of allocations
+	 */
+	public long getAllocationCount() {
+		return allocationCount;
+	}
+	
+	
+	/**
+	 * Returns the total number of bytes of all pixel buffers allocated by this instance since its creation.
+	 * This value can be used to determine the allocation rate caused by a toolkit component.
+	 * 
+	 * @return the total number of allocated bytes
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	
+	
+	/**
+	 * Returns the size of the pixel buffer of the currently managed image.
+	 * 
+	 * @return the number of bytes currently occupied by the managed image or 0 if no image is currently managed
+	 */
+	public long getCurrentBytes() {
+		if (image == null) {
+			return 0;
+		}
+		else {
+			DataBuffer buffer = image.getRaster().getDataBuffer();
+			return (long)buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+		}
+	}
+}
@@ -0,0 +1,390 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
+import java.util.List;
+
+
+
+/**
+ * An immutable sequence of painting operations that has been recorded by a {@link DisplayListGraphics2D} and 
+ * can be replayed on any {@link Graphics2D} object.
+ * <p>
+ * Components can use display lists to run expensive traversals of their data model only once after each 
+ * model change and replay the result every time an area needs to be repainted, e.g. because it was exposed,
+ * scrolled or zoomed. Each operation stores its bounds, so that operations outside the area to be painted are
+ * skipped during replay. Large lists are additionally indexed by horizontal bands, so that only operations near
+ * the painted area need to be tested. Since instances are immutable, the same list may be replayed concurrently, e.g. by 
+ * multiple tile rendering threads.
+ * <p>
+ * All coordinates, transformations and clipping areas are stored relative to the coordinate system that was
+ * active when the recording started. They are applied on top of the transformation and clipping area of the 
+ * graphics context the list is replayed on. Rendering hints that were specified during recording are added to 
+ * the rendering hints of the target graphics context.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class DisplayList {
+	/**
+	 * Stores the attributes of a graphics context that are used by one or more operations. Attributes that did 
+	 * not change between two states are represented by the same object, so that replaying only needs to compare
+	 * references.
+	 */
+	static final class State {
+		private final Paint paint;
+		private final Color xorColor;
+		private final Composite composite;
+		private final Stroke stroke;
+		private final Font font;
+		private final Color background;
+		private final RenderingHints hints;
+		private final AffineTransform transform;
+		private final Shape clip;
+		
+		
+		State(Paint paint, Color xorColor, Composite composite, Stroke stroke, Font font, Color background, 
+				RenderingHints hints, AffineTransform transform, Shape clip) {
+			
+			super();
+			this.paint = paint;
+			this.xorColor = xorColor;
+			this.composite = composite;
+			this.stroke = stroke;
+			this.font = font;
+			this.background = background;
+			this.hints = hints;
+			this.transform = transform;
+			this.clip = clip;
+		}
+		
+		
+		/**
+		 * Applies all attributes of this state that differ from the previously applied state.
+		 * 
+		 * @param g the graphics context to be modified
+		 * @param previous the previously applied state or {@code null} if no state was applied yet
+		 * @param baseTransform the transformation of the target graphics context before replaying started
+		 * @param baseClip the clipping area of the target graphics context before replaying started
+		 * @param baseHints the rendering hints of the target graphics context before replaying started
+		 */
+		void apply(Graphics2D g, State previous, AffineTransform baseTransform, Shape baseClip, 
+				RenderingHints baseHints) {
+			
+			if ((previous == null) || (previous.transform != transform) || (previous.clip != clip)) {
+				g.setTransform(baseTransform);
+				g.setClip(baseClip);
+				if (clip != null) {
+					g.clip(clip);
+				}
+				g.transform(transform);
+			}
+			if ((previous == null) || (previous.paint != paint)) {
+				g.setPaint(paint);
+			}
+			if ((previous == null) || (previous.xorColor != xorColor) || (previous.composite != composite)) {
+				if (xorColor != null) {
+					g.setXORMode(xorColor);
+				}
+				else {
+					g.setComposite(composite);
+				}
+			}
+			if ((previous == null) || (previous.stroke != stroke)) {
+				g.setStroke(stroke);
+			}
+			if ((previous == null) || (previous.font != font)) {
+				g.setFont(font);
+			}
+			if ((previous == null) || (previous.background != background)) {
+				g.setBackground(background);
+			}
+			if ((previous == null) || (previous.hints != hints)) {
+				g.setRenderingHints(baseHints);
+				g.addRenderingHints(hints);
+			}
+		}
+	}
+	
+	
+	/**
+	 * A single recorded painting operation.
+	 */
+	static abstract class Operation {
+		private final State state;
+		private final double minX;
+		private final double minY;
+		private final double maxX;
+		private final double maxY;
+		
+		
+		/**
+		 * Creates a new operation.
+		 * 
+		 * @param state the attributes to be applied before this operation is painted
+		 * @param bounds the area that may be affected by this operation in the coordinate system of the recording 
+		 *        or {@code null} if this area is unknown
+		 */
+		Operation(State state, Rectangle2D bounds) {
+			super();
+			this.state = state;
+			if (bounds == null) {
+				minX = Double.NEGATIVE_INFINITY;
+				minY = Double.NEGATIVE_INFINITY;
+				maxX = Double.POSITIVE_INFINITY;
+				maxY = Double.POSITIVE_INFINITY;
+			}
+			else {
+				minX = bounds.getMinX();
+				minY = bounds.getMinY();
+				maxX = bounds.getMaxX();
+				maxY = bounds.getMaxY();
+			}
+		}
+		
+		
+		State getState() {
+			return state;
+		}
+		
+		
+		boolean intersects(Rectangle2D area) {
+			return (minX < area.getMaxX()) && (maxX > area.getMinX()) && (minY < area.getMaxY()) && (maxY > area.getMinY()); 
+		}
+		
+		
+		/**
+		 * Paints this operation on a graphics context on which its state has already been applied.
+		 * 
+		 * @param g the graphics context to paint on
+		 */
+		abstract void paint(Graphics2D g);
+	}
+	
+	
+	/** The minimal number of operations for which a band index is created. */
+	private static final int MIN_INDEXED_OPERATIONS = 256;
+	
+	/** The average number of operations per band of the index. */
+	private static final int OPERATIONS_PER_BAND = 64;
+	
+	/** The maximal number of bands of the index. */
+	private static final int MAX_BANDS = 1024;
+	
+	
+	private final Operation[] operations;
+	private int[][] bands = null;
+	private double bandsMinY;
+	private double bandHeight;
+	
+	
+	DisplayList(List<Operation> operations) {
+		super();
+		this.operations = operations.toArray(new Operation[operations.size()]);
+		if (this.operations.length >= MIN_INDEXED_OPERATIONS) {
+			createIndex();
+		}
+	}
+	
+	
+	/**
+	 * Divides the vertical extent of all operations into horizontal bands and stores the indices of all operations
+	 * intersecting each band. This allows to only test the operations in the bands intersecting the area to be 
+	 * painted. 
+	 */
+	private void createIndex() {
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (Operation operation : operations) {
+			if (!Double.isInfinite(operation.minY)) {
+				minY = Math.min(minY, operation.minY);
+			}
+			if (!Double.isInfinite(operation.maxY)) {
+				maxY = Math.max(maxY, operation.maxY);
+			}
+		}
+		
+		int bandCount = Math.min(MAX_BANDS, operations.length / OPERATIONS_PER_BAND);
+		if (maxY > minY) {
+			bandsMinY = minY;
+			bandHeight = (maxY - minY) / bandCount;
+			bands = new int[bandCount][];
+			int[] sizes = new int[bandCount];
+			for (Operation operation : operations) {
+				for (int band = getBand(operation.minY); band <= getBand(operation.maxY); band++) {
+					sizes[band]++;
+				}
+			}
+			for (int band = 0; band < bandCount; band++) {
+				bands[band] = new int[sizes[band]];
+				sizes[band] = 0;
+			}
+			for (int i = 0; i < operations.length; i++) {
+				for (int band = getBand(operations[i].minY); band <= getBand(operations[i].maxY); band++) {
+					bands[band][sizes[band]] = i;
+					sizes[band]++;
+				}
+			}
+		}
+	}
+	
+	
+	private int getBand(double y) {
+		return (int)Math.max(0, Math.min(bands.length - 1, Math.floor((y - bandsMinY) / bandHeight)));
+	}
+	
+	
+	/**
+	 * Returns the number of painting operations contained in this list.
+	 * 
+	 * @return the number of operations
+	 */
+	public int size() {
+		return operations.length;
+	}
+	
+	
+	/**
+	 * Determines whether this list contains any painting operations.
+	 * 
+	 * @return {@code true} if replaying this list would not paint anything, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return operations.length == 0;
+	}
+	
+	
+	/**
+	 * Replays all operations of this list that intersect the current clipping area of the specified graphics 
+	 * context.
+	 * 
+	 * @param g the graphics context to paint on (Its attributes are not modified by this method.)
+	 * @return the number of operations that have been painted
+	 */
+	public int paint(Graphics2D g) {
+		return paint(g, g.getClipBounds());
+	}
+	
+	
+	/**
+	 * Replays all operations of this list that intersect the specified area.
+	 * 
+	 * @param g the graphics context to paint on (Its attributes are not modified by this method.)
+	 * @param area the area to be painted in the coordinate system of the recording or {@code null} if all 
+	 *        operations shall be painted
+	 * @return the number of operations that have been painted
+	 */
+	public int paint(Graphics2D g, Rectangle2D area) {
+		int result = 0;
+		if (operations.length > 0) {
+			Graphics2D target = (Graphics2D)g.create();
+			try {
+				AffineTransform baseTransform = target.getTransform();
+				Shape baseClip = target.getClip();
+				RenderingHints baseHints = (RenderingHints)target.getRenderingHints().clone();
+				State applied = null;
+				if ((area == null) || (bands == null)) {
+					for (Operation operation : operations) {
+						if ((area == null) || operation.intersects(area)) {
+							applied = paint(target, operation, applied, baseTransform, baseClip, baseHints);
+							result++;
+						}
+					}
+				}
+				else {
+					int firstBand = getBand(area.getMinY());
+					int lastBand = getBand(area.getMaxY());
+					if (firstBand == lastBand) {
+						for (int index : bands[firstBand]) {
+							if (operations[index].intersects(area)) {
+								applied = paint(target, operations[index], applied, baseTransform, baseClip, baseHints);
+								result++;
+							}
+						}
+					}
+					else {  // Operations contained in multiple bands must only be painted once and in the recorded order.
+						BitSet indices = new BitSet(operations.length);
+						for (int band = firstBand; band <= lastBand; band++) {
+							for (int index : bands[band]) {
+								indices.set(index);
+							}
+						}
+						for (int index = indices.nextSetBit(0); index >= 0; index = indices.nextSetBit(index + 1)) {
+							if (operations[index].intersects(area)) {
+								applied = paint(target, operations[index], applied, baseTransform, baseClip, baseHints);
+								result++;
+							}
+						}
+					}
+				}
+			}
+			finally {
+				target.dispose();
+			}
+		}
+		return result;
+	}
+	
+	
+	private static State paint(Graphics2D g, Operation operation, State applied, AffineTransform baseTransform, 
+			Shape baseClip, RenderingHints baseHints) {
+		
+		operation.getState().apply(g, applied, baseTransform, baseClip, baseHints);
+		operation.paint(g);
+		return operation.getState();
+	}
+	
+	
+	/**
+	 * Records the contents of the specified area of a component by calling its 
+	 * {@link TICComponent#paint(TICPaintEvent)} method with a {@link DisplayListGraphics2D}. The recording is 
+	 * clipped to the specified area.
+	 * 
+	 * @param component the component to be recorded
+	 * @param area the area of the component to be recorded
+	 * @return the recorded display list
+	 */
+	public static DisplayList record(TICComponent component, Rectangle2D area) {
+		DisplayListGraphics2D g = new DisplayListGraphics2D();
+		try {
+			g.clip(area);
+			component.paint(new TICPaintEvent(component, g, area));
+		}
+		finally {
+			g.dispose();
+		}
+		return g.getDisplayList();
+	}
+}
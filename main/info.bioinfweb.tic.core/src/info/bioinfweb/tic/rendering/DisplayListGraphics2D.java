@@ -0,0 +1,1265 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Implementation of {@link Graphics2D} that does not paint anything but records all painting operations into a
+ * {@link DisplayList}, which can be obtained by calling {@link #getDisplayList()}.
+ * <p>
+ * The coordinate system of a new instance is considered as the coordinate system of the recording. All
+ * transformations and clipping areas are recorded relative to it. Operations that lie completely outside the 
+ * current clipping area are not recorded at all. All other operations are stored together with their bounds, 
+ * which are estimated conservatively (e.g. including the line width and miter limit of the current stroke).
+ * <p>
+ * Shapes, strings and polygon coordinates are copied when they are recorded. Images, glyph vectors, paints and 
+ * other attribute objects are only referenced and must therefore not be modified afterwards, if the display 
+ * list shall be replayed. Image observers are not recorded and images passed to the various {@code drawImage()} 
+ * methods are treated as completely loaded. Since there is no target device, {@link #copyArea(int, int, int, int, int, int)} 
+ * is recorded as well and copies the pixels present on the target graphics context during replay.
+ * <p>
+ * All copies created by {@link #create()} record into the same display list. Instances of this class are not
+ * thread-safe. Calling {@link #dispose()} has no effect.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class DisplayListGraphics2D extends Graphics2D {
+	/** The distance in pixels the bounds of each operation are extended by to cover antialiasing and rounding. */
+	private static final double BOUNDS_MARGIN = 1.0;
+	
+	private static final int DRAW_LINE = 0;
+	private static final int DRAW_RECT = 1;
+	private static final int FILL_RECT = 2;
+	private static final int CLEAR_RECT = 3;
+	private static final int DRAW_ROUND_RECT = 4;
+	private static final int FILL_ROUND_RECT = 5;
+	private static final int DRAW_OVAL = 6;
+	private static final int FILL_OVAL = 7;
+	private static final int DRAW_ARC = 8;
+	private static final int FILL_ARC = 9;
+	private static final int DRAW_POLYLINE = 10;
+	private static final int DRAW_POLYGON = 11;
+	private static final int FILL_POLYGON = 12;
+	
+	
+	/**
+	 * Stores the data shared between all copies of a graphics object, since these record into the same display
+	 * list.
+	 */
+	private static class Recording {
+		public List<DisplayList.Operation> operations = new ArrayList<DisplayList.Operation>();
+		public Graphics2D metricsGraphics = null;
+	}
+	
+	
+	private static class PrimitiveOperation extends DisplayList.Operation {
+		private final int type;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		private final int arg1;
+		private final int arg2;
+		
+		
+		public PrimitiveOperation(DisplayList.State state, Rectangle2D bounds, int type, int x, int y, int width, 
+				int height, int arg1, int arg2) {
+			
+			super(state, bounds);
+			this.type = type;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.arg1 = arg1;
+			this.arg2 = arg2;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			switch (type) {
+				case DRAW_LINE:
+					g.drawLine(x, y, width, height);  // Width and height contain the end point in this case.
+					break;
+				case DRAW_RECT:
+					g.drawRect(x, y, width, height);
+					break;
+				case FILL_RECT:
+					g.fillRect(x, y, width, height);
+					break;
+				case CLEAR_RECT:
+					g.clearRect(x, y, width, height);
+					break;
+				case DRAW_ROUND_RECT:
+					g.drawRoundRect(x, y, width, height, arg1, arg2);
+					break;
+				case FILL_ROUND_RECT:
+					g.fillRoundRect(x, y, width, height, arg1, arg2);
+					break;
+				case DRAW_OVAL:
+					g.drawOval(x, y, width, height);
+					break;
+				case FILL_OVAL:
+					g.fillOval(x, y, width, height);
+					break;
+				case DRAW_ARC:
+					g.drawArc(x, y, width, height, arg1, arg2);
+					break;
+				case FILL_ARC:
+					g.fillArc(x, y, width, height, arg1, arg2);
+					break;
+			}
+		}
+	}
+	
+	
+	private static class PolygonOperation extends DisplayList.Operation {
+		private final int type;
+		private final int[] xPoints;
+		private final int[] yPoints;
+		
+		
+		public PolygonOperation(DisplayList.State state, Rectangle2D bounds, int type, int[] xPoints, int[] yPoints) {
+			super(state, bounds);
+			this.type = type;
+			this.xPoints = xPoints;
+			this.yPoints = yPoints;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			switch (type) {
+				case DRAW_POLYLINE:
+					g.drawPolyline(xPoints, yPoints, xPoints.length);
+					break;
+				case DRAW_POLYGON:
+					g.drawPolygon(xPoints, yPoints, xPoints.length);
+					break;
+				case FILL_POLYGON:
+					g.fillPolygon(xPoints, yPoints, xPoints.length);
+					break;
+			}
+		}
+	}
+	
+	
+	private static class ShapeOperation extends DisplayList.Operation {
+		private final Shape shape;
+		private final boolean fill;
+		
+		
+		public ShapeOperation(DisplayList.State state, Rectangle2D bounds, Shape shape, boolean fill) {
+			super(state, bounds);
+			this.shape = shape;
+			this.fill = fill;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			if (fill) {
+				g.fill(shape);
+			}
+			else {
+				g.draw(shape);
+			}
+		}
+	}
+	
+	
+	private static class CopyAreaOperation extends DisplayList.Operation {
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		private final int dx;
+		private final int dy;
+		
+		
+		public CopyAreaOperation(DisplayList.State state, Rectangle2D bounds, int x, int y, int width, int height, 
+				int dx, int dy) {
+			
+			super(state, bounds);
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.dx = dx;
+			this.dy = dy;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			g.copyArea(x, y, width, height, dx, dy);
+		}
+	}
+	
+	
+	private static class StringOperation extends DisplayList.Operation {
+		private final String text;
+		private final float x;
+		private final float y;
+		
+		
+		public StringOperation(DisplayList.State state, Rectangle2D bounds, String text, float x, float y) {
+			super(state, bounds);
+			this.text = text;
+			this.x = x;
+			this.y = y;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			g.drawString(text, x, y);
+		}
+	}
+	
+	
+	private static class TextLayoutOperation extends DisplayList.Operation {
+		private final TextLayout layout;
+		private final float x;
+		private final float y;
+		
+		
+		public TextLayoutOperation(DisplayList.State state, Rectangle2D bounds, TextLayout layout, float x, float y) {
+			super(state, bounds);
+			this.layout = layout;
+			this.x = x;
+			this.y = y;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			layout.draw(g, x, y);
+		}
+	}
+	
+	
+	private static class GlyphVectorOperation extends DisplayList.Operation {
+		private final GlyphVector glyphs;
+		private final float x;
+		private final float y;
+		
+		
+		public GlyphVectorOperation(DisplayList.State state, Rectangle2D bounds, GlyphVector glyphs, float x, float y) {
+			super(state, bounds);
+			this.glyphs = glyphs;
+			this.x = x;
+			this.y = y;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			g.drawGlyphVector(glyphs, x, y);
+		}
+	}
+	
+	
+	private static class ImageOperation extends DisplayList.Operation {
+		private final Image image;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		private final boolean scaled;
+		private final Color background;
+		
+		
+		public ImageOperation(DisplayList.State state, Rectangle2D bounds, Image image, int x, int y, int width, 
+				int height, boolean scaled, Color background) {
+			
+			super(state, bounds);
+			this.image = image;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.scaled = scaled;
+			this.background = background;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			if (scaled) {
+				g.drawImage(image, x, y, width, height, background, null);
+			}
+			else {
+				g.drawImage(image, x, y, background, null);
+			}
+		}
+	}
+	
+	
+	private static class ImageAreaOperation extends DisplayList.Operation {
+		private final Image image;
+		private final int[] coordinates;
+		private final Color background;
+		
+		
+		public ImageAreaOperation(DisplayList.State state, Rectangle2D bounds, Image image, int[] coordinates, 
+				Color background) {
+			
+			super(state, bounds);
+			this.image = image;
+			this.coordinates = coordinates;
+			this.background = background;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			g.drawImage(image, coordinates[0], coordinates[1], coordinates[2], coordinates[3], coordinates[4], 
+					coordinates[5], coordinates[6], coordinates[7], background, null);
+		}
+	}
+	
+	
+	private static class TransformedImageOperation extends DisplayList.Operation {
+		private final Image image;
+		private final RenderedImage renderedImage;
+		private final AffineTransform transform;
+		
+		
+		public TransformedImageOperation(DisplayList.State state, Rectangle2D bounds, Image image, 
+				RenderedImage renderedImage, AffineTransform transform) {
+			
+			super(state, bounds);
+			this.image = image;
+			this.renderedImage = renderedImage;
+			this.transform = transform;
+		}
+		
+		
+		@Override
+		void paint(Graphics2D g) {
+			if (image != null) {
+				g.drawImage(image, transform, null);
+			}
+			else {
+				g.drawRenderedImage(renderedImage, transform);
+			}
+		}
+	}
+	
+	
+	private Recording recording;
+	private DisplayList.State state = null;
+	private Color color = Color.BLACK;
+	private Paint paint = color;
+	private Color xorColor = null;
+	private Composite composite = AlphaComposite.SrcOver;
+	private Stroke stroke = new BasicStroke();
+	private Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+	private Color background = Color.WHITE;
+	private RenderingHints hints = new RenderingHints(null);
+	private RenderingHints hintsSnapshot = null;
+	private AffineTransform transform = new AffineTransform();
+	private AffineTransform transformSnapshot = null;
+	private Shape clip = null;
+	private Rectangle2D clipBounds = null;
+	
+	
+	/**
+	 * Creates a new instance of this class with an empty display list.
+	 */
+	public DisplayListGraphics2D() {
+		this(new Recording());
+	}
+	
+	
+	private DisplayListGraphics2D(Recording recording) {
+		super();
+		this.recording = recording;
+	}
+	
+	
+	/**
+	 * Returns a display list containing all operations that have been recorded so far by this instance and all
+	 * of its copies. Recording may be continued afterwards without affecting the returned list.
+	 * 
+	 * @return a new immutable display list
+	 */
+	public DisplayList getDisplayList() {
+		return new DisplayList(recording.operations);
+	}
+	
+	
+	private DisplayList.State getState() {
+		if (state == null) {
+			if (hintsSnapshot == null) {
+				hintsSnapshot = (RenderingHints)hints.clone();
+			}
+			if (transformSnapshot == null) {
+				transformSnapshot = new AffineTransform(transform);
+			}
+			state = new DisplayList.State(paint, xorColor, composite, stroke, font, background, hintsSnapshot, 
+					transformSnapshot, clip);
+		}
+		return state;
+	}
+	
+	
+	private void transformChanged() {
+		transformSnapshot = null;
+		state = null;
+	}
+	
+	
+	private void hintsChanged() {
+		hintsSnapshot = null;
+		state = null;
+	}
+	
+	
+	private boolean isTranslationOnly() {
+		return (transform.getType() & ~AffineTransform.TYPE_TRANSLATION) == 0;
+	}
+	
+	
+	private static Rectangle2D addMargin(Rectangle2D bounds) {
+		bounds.setRect(bounds.getX() - BOUNDS_MARGIN, bounds.getY() - BOUNDS_MARGIN, 
+				bounds.getWidth() + 2 * BOUNDS_MARGIN, bounds.getHeight() + 2 * BOUNDS_MARGIN);
+		return bounds;
+	}
+	
+	
+	/**
+	 * Converts a rectangle in the current user space to its bounds in the coordinate system of the recording.
+	 */
+	private Rectangle2D toRecording(double x, double y, double width, double height, double padding) {
+		Rectangle2D result = new Rectangle2D.Double(x - padding, y - padding, width + 2 * padding, height + 2 * padding);
+		if (isTranslationOnly()) {
+			result.setRect(result.getX() + transform.getTranslateX(), result.getY() + transform.getTranslateY(), 
+					result.getWidth(), result.getHeight());
+		}
+		else {
+			result = transform.createTransformedShape(result).getBounds2D();
+		}
+		return addMargin(result);
+	}
+	
+	
+	private Rectangle2D toRecording(Rectangle2D bounds, double padding) {
+		return toRecording(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight(), padding);
+	}
+	
+	
+	private Rectangle2D toRecording(AffineTransform imageTransform, double x, double y, double width, double height) {
+		AffineTransform combined = new AffineTransform(transform);
+		if (imageTransform != null) {
+			combined.concatenate(imageTransform);
+		}
+		return addMargin(combined.createTransformedShape(new Rectangle2D.Double(x, y, width, height)).getBounds2D());
+	}
+	
+	
+	/**
+	 * Determines the bounds of the specified shape in the coordinate system of the recording, if it is drawn with
+	 * the current stroke.
+	 */
+	private Rectangle2D getDrawBounds(Shape shape) {
+		if (stroke instanceof BasicStroke) {
+			BasicStroke basicStroke = (BasicStroke)stroke;
+			double factor = 1.0;
+			if (basicStroke.getLineJoin() == BasicStroke.JOIN_MITER) {
+				factor = Math.max(factor, basicStroke.getMiterLimit());
+			}
+			if (basicStroke.getEndCap() == BasicStroke.CAP_SQUARE) {
+				factor = Math.max(factor, Math.sqrt(2));
+			}
+			return toRecording(shape.getBounds2D(), factor * Math.max(1.0, basicStroke.getLineWidth()) / 2);
+		}
+		else {
+			return toRecording(stroke.createStrokedShape(shape).getBounds2D(), 0);
+		}
+	}
+	
+	
+	private boolean isVisible(Rectangle2D bounds) {
+		return (bounds == null) || (clipBounds == null) || bounds.intersects(clipBounds);
+	}
+	
+	
+	private void add(DisplayList.Operation operation) {
+		recording.operations.add(operation);
+	}
+	
+	
+	private void addPrimitive(Rectangle2D bounds, int type, int x, int y, int width, int height, int arg1, int arg2) {
+		if (isVisible(bounds)) {
+			add(new PrimitiveOperation(getState(), bounds, type, x, y, width, height, arg1, arg2));
+		}
+	}
+	
+	
+	private void addPolygon(int type, int[] xPoints, int[] yPoints, int nPoints) {
+		if (nPoints > 0) {
+			xPoints = Arrays.copyOf(xPoints, nPoints);
+			yPoints = Arrays.copyOf(yPoints, nPoints);
+			Polygon polygon = new Polygon(xPoints, yPoints, nPoints);
+			Rectangle2D bounds;
+			if (type == FILL_POLYGON) {
+				bounds = toRecording(polygon.getBounds2D(), 0);
+			}
+			else {
+				bounds = getDrawBounds(polygon.getBounds2D());
+			}
+			if (isVisible(bounds)) {
+				add(new PolygonOperation(getState(), bounds, type, xPoints, yPoints));
+			}
+		}
+	}
+	
+	
+	private static Shape copyShape(Shape shape) {
+		if (shape instanceof RectangularShape) {
+			return (Shape)((RectangularShape)shape).clone();
+		}
+		else if (shape instanceof Line2D) {
+			return (Shape)((Line2D)shape).clone();
+		}
+		else {
+			return new Path2D.Float(shape);
+		}
+	}
+	
+	
+	private void addShape(Shape shape, boolean fill) {
+		Rectangle2D bounds;
+		if (fill) {
+			bounds = toRecording(shape.getBounds2D(), 0);
+		}
+		else {
+			bounds = getDrawBounds(shape);
+		}
+		if (isVisible(bounds)) {
+			add(new ShapeOperation(getState(), bounds, copyShape(shape), fill));
+		}
+	}
+	
+	
+	private void addImage(Image img, int x, int y, int width, int height, boolean scaled, Color bgcolor) {
+		if (img != null) {
+			Rectangle2D bounds = null;
+			if (scaled) {
+				bounds = toRecording(x, y, width, height, 0);
+			}
+			else if ((img.getWidth(null) >= 0) && (img.getHeight(null) >= 0)) {
+				bounds = toRecording(x, y, img.getWidth(null), img.getHeight(null), 0);
+			}
+			if (isVisible(bounds)) {
+				add(new ImageOperation(getState(), bounds, img, x, y, width, height, scaled, bgcolor));
+			}
+		}
+	}
+	
+	
+	// Transformation:
+	
+	@Override
+	public void translate(int x, int y) {
+		translate((double)x, (double)y);
+	}
+	
+	
+	@Override
+	public void translate(double tx, double ty) {
+		transform.translate(tx, ty);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void rotate(double theta) {
+		transform.rotate(theta);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void rotate(double theta, double x, double y) {
+		transform.rotate(theta, x, y);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void scale(double sx, double sy) {
+		transform.scale(sx, sy);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void shear(double shx, double shy) {
+		transform.shear(shx, shy);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void transform(AffineTransform Tx) {
+		transform.concatenate(Tx);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public void setTransform(AffineTransform Tx) {
+		transform.setTransform(Tx);
+		transformChanged();
+	}
+	
+	
+	@Override
+	public AffineTransform getTransform() {
+		return new AffineTransform(transform);
+	}
+	
+	
+	// Clipping:
+	
+	private void setRecordingClip(Shape shape) {
+		clip = shape;
+		if (shape == null) {
+			clipBounds = null;
+		}
+		else {
+			clipBounds = shape.getBounds2D();
+		}
+		state = null;
+	}
+	
+	
+	private Shape toRecording(Shape shape) {
+		if (isTranslationOnly() && (shape instanceof Rectangle2D)) {
+			Rectangle2D rectangle = (Rectangle2D)shape;
+			return new Rectangle2D.Double(rectangle.getX() + transform.getTranslateX(), 
+					rectangle.getY() + transform.getTranslateY(), rectangle.getWidth(), rectangle.getHeight());
+		}
+		else {
+			return transform.createTransformedShape(shape);
+		}
+	}
+	
+	
+	@Override
+	public Shape getClip() {
+		if (clip == null) {
+			return null;
+		}
+		else if (isTranslationOnly() && (clip instanceof Rectangle2D)) {
+			Rectangle2D rectangle = (Rectangle2D)clip;
+			return new Rectangle2D.Double(rectangle.getX() - transform.getTranslateX(), 
+					rectangle.getY() - transform.getTranslateY(), rectangle.getWidth(), rectangle.getHeight());
+		}
+		else {
+			try {
+				return transform.createInverse().createTransformedShape(clip);
+			}
+			catch (NoninvertibleTransformException e) {
+				return new Rectangle();  // Nothing can be painted with a degenerate transformation.
+			}
+		}
+	}
+	
+	
+	@Override
+	public Rectangle getClipBounds() {
+		Shape result = getClip();
+		if (result == null) {
+			return null;
+		}
+		else {
+			return result.getBounds();
+		}
+	}
+	
+	
+	@Override
+	public void setClip(Shape clip) {
+		if (clip == null) {
+			setRecordingClip(null);
+		}
+		else {
+			setRecordingClip(toRecording(clip));
+		}
+	}
+	
+	
+	@Override
+	public void setClip(int x, int y, int width, int height) {
+		setClip(new Rectangle(x, y, width, height));
+	}
+	
+	
+	@Override
+	public void clip(Shape s) {
+		if (s == null) {
+			setRecordingClip(null);
+		}
+		else {
+			Shape shape = toRecording(s);
+			if (clip == null) {
+				setRecordingClip(shape);
+			}
+			else if ((clip instanceof Rectangle2D) && (shape instanceof Rectangle2D)) {
+				setRecordingClip(((Rectangle2D)clip).createIntersection((Rectangle2D)shape));
+			}
+			else {
+				Area area = new Area(clip);
+				area.intersect(new Area(shape));
+				setRecordingClip(area);
+			}
+		}
+	}
+	
+	
+	@Override
+	public void clipRect(int x, int y, int width, int height) {
+		clip(new Rectangle(x, y, width, height));
+	}
+	
+	
+	// Attributes:
+	
+	@Override
+	public Color getColor() {
+		return color;
+	}
+	
+	
+	@Override
+	public void setColor(Color c) {
+		if (c != null) {
+			color = c;
+			paint = c;
+			state = null;
+		}
+	}
+	
+	
+	@Override
+	public Paint getPaint() {
+		return paint;
+	}
+	
+	
+	@Override
+	public void setPaint(Paint paint) {
+		if (paint instanceof Color) {
+			setColor((Color)paint);
+		}
+		else if (paint != null) {
+			this.paint = paint;
+			state = null;
+		}
+	}
+	
+	
+	@Override
+	public Color getBackground() {
+		return background;
+	}
+	
+	
+	@Override
+	public void setBackground(Color color) {
+		background = color;
+		state = null;
+	}
+	
+	
+	@Override
+	public Composite getComposite() {
+		return composite;
+	}
+	
+	
+	@Override
+	public void setComposite(Composite comp) {
+		if (comp == null) {
+			throw new IllegalArgumentException("The composite must not be null.");
+		}
+		else {
+			composite = comp;
+			xorColor = null;
+			state = null;
+		}
+	}
+	
+	
+	@Override
+	public void setPaintMode() {
+		setComposite(AlphaComposite.SrcOver);
+	}
+	
+	
+	@Override
+	public void setXORMode(Color c1) {
+		xorColor = c1;
+		state = null;
+	}
+	
+	
+	@Override
+	public Stroke getStroke() {
+		return stroke;
+	}
+	
+	
+	@Override
+	public void setStroke(Stroke s) {
+		if (s == null) {
+			throw new IllegalArgumentException("The stroke must not be null.");
+		}
+		else {
+			stroke = s;
+			state = null;
+		}
+	}
+	
+	
+	@Override
+	public Font getFont() {
+		return font;
+	}
+	
+	
+	@Override
+	public void setFont(Font font) {
+		if (font != null) {
+			this.font = font;
+			state = null;
+		}
+	}
+	
+	
+	@Override
+	public FontMetrics getFontMetrics(Font f) {
+		if (recording.metricsGraphics == null) {
+			recording.metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+		}
+		recording.metricsGraphics.setRenderingHints(hints);
+		return recording.metricsGraphics.getFontMetrics(f);
+	}
+	
+	
+	@Override
+	public FontRenderContext getFontRenderContext() {
+		Object textAntialias = hints.get(RenderingHints.KEY_TEXT_ANTIALIASING);
+		boolean antialiased = RenderingHints.VALUE_TEXT_ANTIALIAS_ON.equals(textAntialias) || 
+				(((textAntialias == null) || RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT.equals(textAntialias)) && 
+						RenderingHints.VALUE_ANTIALIAS_ON.equals(hints.get(RenderingHints.KEY_ANTIALIASING)));
+		return new FontRenderContext(new AffineTransform(transform.getScaleX(), transform.getShearY(), 
+				transform.getShearX(), transform.getScaleY(), 0, 0), antialiased, 
+				RenderingHints.VALUE_FRACTIONALMETRICS_ON.equals(hints.get(RenderingHints.KEY_FRACTIONALMETRICS)));
+	}
+	
+	
+	@Override
+	public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+		hints.put(hintKey, hintValue);
+		hintsChanged();
+	}
+	
+	
+	@Override
+	public Object getRenderingHint(RenderingHints.Key hintKey) {
+		return hints.get(hintKey);
+	}
+	
+	
+	@Override
+	public void setRenderingHints(Map<?, ?> hints) {
+		this.hints.clear();
+		this.hints.putAll(hints);
+		hintsChanged();
+	}
+	
+	
+	@Override
+	public void addRenderingHints(Map<?, ?> hints) {
+		this.hints.putAll(hints);
+		hintsChanged();
+	}
+	
+	
+	@Override
+	public RenderingHints getRenderingHints() {
+		return (RenderingHints)hints.clone();
+	}
+	
+	
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return null;
+		}
+		else {
+			return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		}
+	}
+	
+	
+	@Override
+	public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+		if (onStroke) {
+			s = stroke.createStrokedShape(s);
+		}
+		return transform.createTransformedShape(s).intersects(rect);
+	}
+	
+	
+	// Primitives:
+	
+	@Override
+	public void draw(Shape s) {
+		addShape(s, false);
+	}
+	
+	
+	@Override
+	public void fill(Shape s) {
+		addShape(s, true);
+	}
+	
+	
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2) {
+		addPrimitive(getDrawBounds(new Rectangle(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1), Math.abs(y2 - y1))), 
+				DRAW_LINE, x1, y1, x2, y2, 0, 0);
+	}
+	
+	
+	@Override
+	public void drawRect(int x, int y, int width, int height) {
+		addPrimitive(getDrawBounds(new Rectangle(x, y, width, height)), DRAW_RECT, x, y, width, height, 0, 0);
+	}
+	
+	
+	@Override
+	public void fillRect(int x, int y, int width, int height) {
+		addPrimitive(toRecording(x, y, width, height, 0), FILL_RECT, x, y, width, height, 0, 0);
+	}
+	
+	
+	@Override
+	public void clearRect(int x, int y, int width, int height) {
+		addPrimitive(toRecording(x, y, width, height, 0), CLEAR_RECT, x, y, width, height, 0, 0);
+	}
+	
+	
+	@Override
+	public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		addPrimitive(getDrawBounds(new Rectangle(x, y, width, height)), DRAW_ROUND_RECT, x, y, width, height, 
+				arcWidth, arcHeight);
+	}
+	
+	
+	@Override
+	public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		addPrimitive(toRecording(x, y, width, height, 0), FILL_ROUND_RECT, x, y, width, height, arcWidth, arcHeight);
+	}
+	
+	
+	@Override
+	public void drawOval(int x, int y, int width, int height) {
+		addPrimitive(getDrawBounds(new Rectangle(x, y, width, height)), DRAW_OVAL, x, y, width, height, 0, 0);
+	}
+	
+	
+	@Override
+	public void fillOval(int x, int y, int width, int height) {
+		addPrimitive(toRecording(x, y, width, height, 0), FILL_OVAL, x, y, width, height, 0, 0);
+	}
+	
+	
+	@Override
+	public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		addPrimitive(getDrawBounds(new Rectangle(x, y, width, height)), DRAW_ARC, x, y, width, height, startAngle, 
+				arcAngle);
+	}
+	
+	
+	@Override
+	public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		addPrimitive(toRecording(x, y, width, height, 0), FILL_ARC, x, y, width, height, startAngle, arcAngle);
+	}
+	
+	
+	@Override
+	public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+		addPolygon(DRAW_POLYLINE, xPoints, yPoints, nPoints);
+	}
+	
+	
+	@Override
+	public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+		addPolygon(DRAW_POLYGON, xPoints, yPoints, nPoints);
+	}
+	
+	
+	@Override
+	public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+		addPolygon(FILL_POLYGON, xPoints, yPoints, nPoints);
+	}
+	
+	
+	@Override
+	public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+		Rectangle2D bounds = toRecording(x + dx, y + dy, width, height, 0);
+		if (isVisible(bounds)) {
+			add(new CopyAreaOperation(getState(), bounds, x, y, width, height, dx, dy));
+		}
+	}
+	
+	
+	// Text:
+	
+	@Override
+	public void drawString(String str, int x, int y) {
+		drawString(str, (float)x, (float)y);
+	}
+	
+	
+	@Override
+	public void drawString(String str, float x, float y) {
+		if (str == null) {
+			throw new NullPointerException("String is null");
+		}
+		else if (!str.isEmpty()) {
+			Rectangle2D logicalBounds = font.getStringBounds(str, getFontRenderContext());
+			Rectangle2D bounds = toRecording(x + logicalBounds.getX(), y + logicalBounds.getY(), logicalBounds.getWidth(), 
+					logicalBounds.getHeight(), font.getSize2D() / 2);  // Padding for glyphs exceeding their logical bounds (e.g. italics).
+			if (isVisible(bounds)) {
+				add(new StringOperation(getState(), bounds, str, x, y));
+			}
+		}
+	}
+	
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+		drawString(iterator, (float)x, (float)y);
+	}
+	
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+		if (iterator == null) {
+			throw new NullPointerException("AttributedCharacterIterator is null");
+		}
+		else if (iterator.getBeginIndex() != iterator.getEndIndex()) {
+			TextLayout layout = new TextLayout(iterator, getFontRenderContext());
+			Rectangle2D layoutBounds = layout.getBounds();
+			Rectangle2D bounds = toRecording(x + layoutBounds.getX(), y + layoutBounds.getY(), layoutBounds.getWidth(), 
+					layoutBounds.getHeight(), 0);
+			if (isVisible(bounds)) {
+				add(new TextLayoutOperation(getState(), bounds, layout, x, y));
+			}
+		}
+	}
+	
+	
+	@Override
+	public void drawGlyphVector(GlyphVector g, float x, float y) {
+		Rectangle2D visualBounds = g.getVisualBounds();
+		Rectangle2D bounds = toRecording(x + visualBounds.getX(), y + visualBounds.getY(), visualBounds.getWidth(), 
+				visualBounds.getHeight(), 0);
+		if (isVisible(bounds)) {
+			add(new GlyphVectorOperation(getState(), bounds, g, x, y));
+		}
+	}
+	
+	
+	// Images:
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+		addImage(img, x, y, -1, -1, false, null);
+		return true;
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+		addImage(img, x, y, -1, -1, false, bgcolor);
+		return true;
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+		addImage(img, x, y, width, height, true, null);
+		return true;
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+		addImage(img, x, y, width, height, true, bgcolor);
+		return true;
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, 
+			ImageObserver observer) {
+		
+		return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null, observer);
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, 
+			Color bgcolor, ImageObserver observer) {
+		
+		if (img != null) {
+			Rectangle2D bounds = toRecording(Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), 
+					Math.abs(dy2 - dy1), 0);
+			if (isVisible(bounds)) {
+				add(new ImageAreaOperation(getState(), bounds, img, new int[]{dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2}, 
+						bgcolor));
+			}
+		}
+		return true;
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+		if (img != null) {
+			Rectangle2D bounds = null;
+			if ((img.getWidth(null) >= 0) && (img.getHeight(null) >= 0)) {
+				bounds = toRecording(xform, 0, 0, img.getWidth(null), img.getHeight(null));
+			}
+			if (isVisible(bounds)) {
+				add(new TransformedImageOperation(getState(), bounds, img, null, 
+						(xform == null) ? new AffineTransform() : new AffineTransform(xform)));
+			}
+		}
+		return true;
+	}
+	
+	
+	@Override
+	public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+		if ((img != null) && (op != null)) {
+			img = op.filter(img, null);  // The filter is applied during recording, since its result does not depend on the target.
+		}
+		addImage(img, x, y, -1, -1, false, null);
+	}
+	
+	
+	@Override
+	public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+		if (img != null) {
+			Rectangle2D bounds = toRecording(xform, img.getMinX(), img.getMinY(), img.getWidth(), img.getHeight());
+			if (isVisible(bounds)) {
+				add(new TransformedImageOperation(getState(), bounds, null, img, 
+						(xform == null) ? new AffineTransform() : new AffineTransform(xform)));
+			}
+		}
+	}
+	
+	
+	@Override
+	public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+		if (img != null) {
+			drawRenderedImage(img.createDefaultRendering(), xform);
+		}
+	}
+	
+	
+	// Graphics objects:
+	
+	@Override
+	public Graphics create() {
+		DisplayListGraphics2D result = new DisplayListGraphics2D(recording);
+		result.state = state;
+		result.color = color;
+		result.paint = paint;
+		result.xorColor = xorColor;
+		result.composite = composite;
+		result.stroke = stroke;
+		result.font = font;
+		result.background = background;
+		result.hints = (RenderingHints)hints.clone();
+		result.hintsSnapshot = hintsSnapshot;
+		result.transform = new AffineTransform(transform);
+		result.transformSnapshot = transformSnapshot;
+		result.clip = clip;
+		result.clipBounds = clipBounds;
+		return result;
+	}
+	
+	
+	@Override
+	public void dispose() {}
+}
@@ -0,0 +1,233 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+
+/**
+ * Keeps track of the areas of a persistent viewport image that need to be repainted. It is used by toolkit
+ * components that scroll by moving the contents of such an image and that only let the output component 
+ * paint the newly exposed strips.
+ * <p>
+ * All areas are specified in the coordinate system of the viewport and are restricted to its bounds, which are
+ * defined by {@link #reset(int, int)}.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class InvalidAreas {
+	/** 
+	 * The maximum number of separate invalid areas that are stored. If more areas are invalidated, the whole 
+	 * viewport is marked as invalid instead. 
+	 */
+	public static final int MAX_AREAS = 256;
+	
+	
+	private int width = 0;
+	private int height = 0;
+	private List<Rectangle> areas = new ArrayList<Rectangle>();
+	
+	
+	/**
+	 * Returns the width of the viewport.
+	 * 
+	 * @return the width in pixels
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	
+	/**
+	 * Returns the height of the viewport.
+	 * 
+	 * @return the height in pixels
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	
+	/**
+	 * Sets a new viewport size and marks the whole viewport as invalid. This method should be called whenever
+	 * the viewport image is (re)created.
+	 * 
+	 * @param width the new width of the viewport
+	 * @param height the new height of the viewport
+	 */
+	public void reset(int width, int height) {
+		this.width = width;
+		this.height = height;
+		invalidateAll();
+	}
+	
+	
+	/**
+	 * Marks the specified area as invalid. Parts of the area that lie outside the viewport are ignored.
+	 * <p>
+	 * Areas that are already contained in a stored area are not added again and stored areas contained in the new
+	 * area are removed. If more than {@link #MAX_AREAS} areas would be stored, the whole 
+	 * viewport is invalidated instead.
+	 * 
+	 * @param area the area to be repainted
+	 */
+	public void invalidate(Rectangle area) {
+		area = area.intersection(new Rectangle(0, 0, width, height));
+		if (!area.isEmpty()) {
+			Iterator<Rectangle> iterator = areas.iterator();
+			while (iterator.hasNext()) {
+				Rectangle storedArea = iterator.next();
+				if (storedArea.contains(area)) {
+					return;
+				}
+				else if (area.contains(storedArea)) {
+					iterator.remove();
+				}
+			}
+			
+			if (areas.size() >= MAX_AREAS) {
+				invalidateAll();
+			}
+			else {
+				areas.add(area);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Marks the whole viewport as invalid.
+	 */
+	public void invalidateAll() {
+		areas.clear();
+		invalidate(new Rectangle(0, 0, width, height));
+	}
+	
+	
+	/**
+	 * Determines whether any area of the viewport needs to be repainted.
+	 * 
+	 * @return {@code true} if no invalid area is currently stored, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return areas.isEmpty();
+	}
+	
+	
+	/**
+	 * Moves all invalid areas by the specified distance and marks the strips, that are newly exposed by this
+	 * movement, as invalid. 
+	 * <p>
+	 * If this method returns {@code true}, the caller is responsible for moving the pixels of the viewport image
+	 * that remain visible by the same distance. Otherwise the whole viewport has been invalidated.
+	 * 
+	 * @param dx the distance on x (positive if the contents move to the right)
+	 * @param dy the distance on y (positive if the contents move downwards)
+	 * @return {@code true} if parts of the current contents remain visible, {@code false} otherwise
+	 */
+	public boolean scroll(int dx, int dy) {
+		if ((Math.abs(dx) < width) && (Math.abs(dy) < height)) {
+			// Areas that have not been painted yet move as well:
+			List<Rectangle> previousAreas = new ArrayList<Rectangle>(areas);
+			areas.clear();
+			for (Rectangle area : previousAreas) {
+				area.translate(dx, dy);
+				invalidate(area);
+			}
+			
+			// Newly exposed strips:
+			if (dx > 0) {
+				invalidate(new Rectangle(0, 0, dx, height));
+			}
+			else if (dx < 0) {
+				invalidate(new Rectangle(width + dx, 0, -dx, height));
+			}
+			if (dy > 0) {
+				invalidate(new Rectangle(0, 0, width, dy));
+			}
+			else if (dy < 0) {
+				invalidate(new Rectangle(0, height + dy, width, -dy));
+			}
+			return true;
+		}
+		else {
+			invalidateAll();
+			return false;
+		}
+	}
+	
+	
+	private static void subtract(Rectangle area, Rectangle subtrahend, List<Rectangle> result) {
+		Rectangle intersection = area.intersection(subtrahend);
+		if (intersection.isEmpty()) {
+			result.add(area);
+		}
+		else {
+			int maxX = area.x + area.width;
+			int maxY = area.y + area.height;
+			int intersectionMaxX = intersection.x + intersection.width;
+			int intersectionMaxY = intersection.y + intersection.height;
+			if (intersection.y > area.y) {  // Above
+				result.add(new Rectangle(area.x, area.y, area.width, intersection.y - area.y));
+			}
+			if (intersectionMaxY < maxY) {  // Below
+				result.add(new Rectangle(area.x, intersectionMaxY, area.width, maxY - intersectionMaxY));
+			}
+			if (intersection.x > area.x) {  // Left
+				result.add(new Rectangle(area.x, intersection.y, intersection.x - area.x, intersection.height));
+			}
+			if (intersectionMaxX < maxX) {  // Right
+				result.add(new Rectangle(intersectionMaxX, intersection.y, maxX - intersectionMaxX, intersection.height));
+			}
+		}
+	}
+	
+	
+	/**
+	 * Returns all invalid areas and removes them from this instance. Overlaps between the stored areas, which 
+	 * may e.g. result from combined horizontal and vertical scrolling, are removed so that each pixel is only
+	 * contained in one of the returned rectangles.
+	 * 
+	 * @return a list of disjoint rectangles (The list is empty if no area is invalid.)
+	 */
+	public List<Rectangle> removeAll() {
+		List<Rectangle> result = new ArrayList<Rectangle>();
+		for (Rectangle area : areas) {
+			List<Rectangle> parts = new ArrayList<Rectangle>();
+			parts.add(area);
+			for (Rectangle previous : result) {
+				List<Rectangle> remainingParts = new ArrayList<Rectangle>();
+				for (Rectangle part : parts) {
+					subtract(part, previous, remainingParts);
+				}
+				parts = remainingParts;
+			}
+			result.addAll(parts);
+		}
+		areas.clear();
+		return result;
+	}
+}
@@ -0,0 +1,390 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.RenderQuality;
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+
+/**
+ * Caches the layers of a <i>TIC</i> component declared by {@link TICComponent#getLayers()} in off-screen images 
+ * of its visible area and composites them when the component is painted.
+ * <p>
+ * Each layer for which {@link TICComponent#isLayerCached(String)} returns {@code true} is rendered into its own 
+ * image by a {@link TICPaintEvent} covering the whole visible area and specifying the layer. This image is 
+ * reused until the layer is invalidated, which happens if the component reports it in 
+ * {@link TICComponent#removeInvalidatedLayers()} or if the size of the visible area changes. All other layers 
+ * are painted directly on the target graphics context during every paint operation. Only the bottommost layer is 
+ * filled with the background color, all other layers are rendered into translucent images.
+ * <p>
+ * If the visible area is only moved (e.g. by scrolling) and still overlaps the previous one, the contents of valid
+ * images are shifted accordingly and only the newly exposed strips are rendered by paint events covering these
+ * strips. This is only possible if the offset and the size of the visible area correspond to whole image pixels 
+ * at the current scale. Otherwise all layers are rendered again.
+ * <p>
+ * Areas reported by {@link TICComponent#removeInvalidatedLayerAreas()} (e.g. after a call of 
+ * {@link TICComponent#repaint(java.awt.geom.Rectangle2D)}) are rendered again in valid images by paint events 
+ * covering these areas, without rendering the rest of the layer.
+ * <p>
+ * Images are rendered with the scale returned by {@link TICComponent#getRenderScale(double, RenderQuality)} 
+ * for the device scale and render quality of the paint event. All layers are invalidated if this scale changes.
+ * <p>
+ * Instances of this class are not thread-safe and are meant to be used by a single toolkit component on its
+ * UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class LayerCache {
+	private Map<String, BufferedImage> images = new HashMap<String, BufferedImage>();
+	private Set<String> validLayers = new HashSet<String>();
+	private Rectangle bounds = null;
+	private double scale = 1.0;
+	private long renderedLayerCount = 0;
+	
+	
+	/**
+	 * Returns the area of the component covered by the cached images.
+	 * 
+	 * @return the visible area passed to the last call of {@link #paint(TICComponent, TICPaintEvent, Rectangle, Color)}
+	 *         or {@code null} if this cache is empty
+	 */
+	public Rectangle getBounds() {
+		if (bounds == null) {
+			return null;
+		}
+		else {
+			return new Rectangle(bounds);
+		}
+	}
+	
+	
+	/**
+	 * Returns the scale the cached images have been rendered with.
+	 * 
+	 * @return the number of image pixels per unit of the coordinate system of the component
+	 */
+	public double getScale() {
+		return scale;
+	}
+	
+	
+	/**
+	 * Determines whether a valid image of the specified layer is present.
+	 * 
+	 * @param layer the name of the layer
+	 * @return {@code true} if the layer will not be rendered completely again by the next paint operation (unless 
+	 *         the visible area cannot be scrolled), {@code false} otherwise
+	 */
+	public boolean isValid(String layer) {
+		return validLayers.contains(layer);
+	}
+	
+	
+	/**
+	 * Marks the specified layer as outdated, so that it is rendered again by the next paint operation.
+	 * 
+	 * @param layer the name of the layer
+	 */
+	public void invalidate(String layer) {
+		validLayers.remove(layer);
+	}
+	
+	
+	/**
+	 * Marks all layers as outdated.
+	 */
+	public void invalidateAll() {
+		validLayers.clear();
+	}
+	
+	
+	/**
+	 * Removes all images from this cache.
+	 */
+	public void release() {
+		images.clear();
+		validLayers.clear();
+		bounds = null;
+	}
+	
+	
+	/**
+	 * Returns the number of times a cached layer was rendered completely since this instance was created. Images 
+	 * that were only scrolled are not counted.
+	 * 
+	 * @return the number of rendered layer images
+	 */
+	public long getRenderedLayerCount() {
+		return renderedLayerCount;
+	}
+	
+	
+	/**
+	 * Renders a layer into an image covering the current bounds of this cache. Inherited classes may overwrite 
+	 * this method to customize rendering.
+	 * 
+	 * @param component the component to be painted
+	 * @param event the paint event the layer is needed for (Its source and render quality are used for the paint 
+	 *        event of the layer.)
+	 * @param layer the name of the layer to be rendered
+	 * @param background the color to fill the image with before painting or {@code null} if it shall be 
+	 *        transparent
+	 * @param image the previous image of this layer that may be reused or {@code null}
+	 * @return the rendered image
+	 */
+	protected BufferedImage renderLayer(TICComponent component, TICPaintEvent event, String layer, Color background, 
+			BufferedImage image) {
+		
+		int imageType = BufferedImage.TYPE_INT_ARGB;
+		if (background != null) {
+			imageType = BufferedImage.TYPE_INT_RGB;
+		}
+		int width = (int)Math.ceil(bounds.width * scale);
+		int height = (int)Math.ceil(bounds.height * scale);
+		if ((image == null) || (image.getType() != imageType) || (image.getWidth() != width) || 
+				(image.getHeight() != height)) {
+			
+			image = new BufferedImage(width, height, imageType);
+		}
+		renderArea(component, event, layer, background, image, bounds);
+		return image;
+	}
+	
+	
+	/**
+	 * Moves the contents of a valid layer image from the specified previous bounds to the current bounds of this
+	 * cache and renders the areas that were not covered by the previous bounds. Inherited classes may overwrite 
+	 * this method to customize rendering.
+	 * 
+	 * @param component the component to be painted
+	 * @param event the paint event the layer is needed for (Its source and render quality are used for the paint 
+	 *        events of the exposed areas.)
+	 * @param layer the name of the layer to be scrolled
+	 * @param background the color to fill the exposed areas with before painting or {@code null} if they shall be 
+	 *        transparent
+	 * @param image the valid image of this layer rendered for the previous bounds
+	 * @param previousBounds the area of the component covered by {@code image}
+	 * @return the scrolled image
+	 */
+	protected BufferedImage scrollLayer(TICComponent component, TICPaintEvent event, String layer, Color background, 
+			BufferedImage image, Rectangle previousBounds) {
+		
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setComposite(AlphaComposite.Src);  // Translucent pixels must not be blended with the previous contents.
+			g.copyArea(0, 0, image.getWidth(), image.getHeight(), (int)Math.round((previousBounds.x - bounds.x) * scale), 
+					(int)Math.round((previousBounds.y - bounds.y) * scale));
+		}
+		finally {
+			g.dispose();
+		}
+		
+		Rectangle retained = bounds.intersection(previousBounds);
+		if (retained.y > bounds.y) {
+			renderArea(component, event, layer, background, image, 
+					new Rectangle(bounds.x, bounds.y, bounds.width, retained.y - bounds.y));
+		}
+		if (retained.y + retained.height < bounds.y + bounds.height) {
+			renderArea(component, event, layer, background, image, new Rectangle(bounds.x, retained.y + retained.height, 
+					bounds.width, bounds.y + bounds.height - retained.y - retained.height));
+		}
+		if (retained.x > bounds.x) {
+			renderArea(component, event, layer, background, image, 
+					new Rectangle(bounds.x, retained.y, retained.x - bounds.x, retained.height));
+		}
+		if (retained.x + retained.width < bounds.x + bounds.width) {
+			renderArea(component, event, layer, background, image, new Rectangle(retained.x + retained.width, retained.y, 
+					bounds.x + bounds.width - retained.x - retained.width, retained.height));
+		}
+		return image;
+	}
+	
+	
+	/**
+	 * Clears the pixels of the specified area in a layer image and paints the layer there.
+	 * 
+	 * @param area the area to be rendered in the coordinate system of the component (must be contained in 
+	 *        {@link #bounds})
+	 */
+	private void renderArea(TICComponent component, TICPaintEvent event, String layer, Color background, 
+			BufferedImage image, Rectangle area) {
+		
+		int x = (int)Math.floor((area.x - bounds.x) * scale);
+		int y = (int)Math.floor((area.y - bounds.y) * scale);
+		int width = (int)Math.ceil((area.x + area.width - bounds.x) * scale) - x;
+		int height = (int)Math.ceil((area.y + area.height - bounds.y) * scale) - y;
+		
+		Graphics2D g = image.createGraphics();
+		try {
+			if (background != null) {
+				g.setColor(background);
+			}
+			else {
+				g.setComposite(AlphaComposite.Clear);
+			}
+			g.fillRect(x, y, width, height);
+			g.setComposite(AlphaComposite.SrcOver);
+			g.scale(scale, scale);
+			g.translate(-bounds.x, -bounds.y);
+			g.clipRect(area.x, area.y, area.width, area.height);
+			component.paint(new TICPaintEvent(event.getSource(), g, new Rectangle(area), null, layer, 
+					event.getRenderQuality(), scale));
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	/**
+	 * Renders the parts of the specified areas that lie inside the current bounds of this cache into a valid 
+	 * layer image.
+	 */
+	private void renderAreas(TICComponent component, TICPaintEvent event, String layer, Color background, 
+			BufferedImage image, List<Rectangle2D> areas) {
+		
+		for (Rectangle2D area : areas) {
+			Rectangle visibleArea = area.getBounds().intersection(bounds);
+			if (!visibleArea.isEmpty()) {
+				renderArea(component, event, layer, background, image, visibleArea);
+			}
+		}
+	}
+	
+	
+	private static boolean isWholePixel(double value) {
+		return Math.rint(value) == value;
+	}
+	
+	
+	/**
+	 * Determines whether the current images can be scrolled to the specified visible area instead of rendering 
+	 * them completely again.
+	 * 
+	 * @param visibleRect the new visible area
+	 * @return {@code true} if the visible area has the same size as the current bounds, overlaps them and all
+	 *         offsets correspond to whole image pixels, {@code false} otherwise
+	 */
+	private boolean canScroll(Rectangle visibleRect) {
+		return (bounds != null) && (visibleRect.width == bounds.width) && (visibleRect.height == bounds.height) && 
+				visibleRect.intersects(bounds) && isWholePixel(bounds.width * scale) && 
+				isWholePixel(bounds.height * scale) && isWholePixel((visibleRect.x - bounds.x) * scale) && 
+				isWholePixel((visibleRect.y - bounds.y) * scale);
+	}
+	
+	
+	/**
+	 * Paints all layers of the specified component in the area specified by the event. Cached layers that are 
+	 * invalid are rendered first.
+	 * 
+	 * @param component the component to be painted
+	 * @param event the paint event specifying the graphics context (which must use the coordinate system of the 
+	 *        component) and the areas to be painted
+	 * @param visibleRect the visible area of the component, which will be covered by the cached images
+	 * @param background the color to fill the bottommost layer with before painting or {@code null} if it shall 
+	 *        remain transparent
+	 */
+	public void paint(TICComponent component, TICPaintEvent event, Rectangle visibleRect, Color background) {
+		for (String layer : component.removeInvalidatedLayers()) {
+			invalidate(layer);
+		}
+		Map<String, List<Rectangle2D>> invalidatedAreas = component.removeInvalidatedLayerAreas();
+		List<String> layers = component.getLayers();
+		images.keySet().retainAll(layers);  // Remove images of layers that are no longer declared.
+		validLayers.retainAll(layers);
+		double renderScale = component.getRenderScale(event.getDeviceScale(), event.getRenderQuality());
+		if (renderScale != scale) {
+			validLayers.clear();
+			scale = renderScale;
+		}
+		Rectangle previousBounds = null;  // Only set if valid images shall be scrolled.
+		if (!visibleRect.equals(bounds)) {
+			if (canScroll(visibleRect)) {
+				previousBounds = bounds;
+			}
+			else {
+				validLayers.clear();
+			}
+			bounds = new Rectangle(visibleRect);
+		}
+		
+		Color layerBackground = background;
+		for (String layer : layers) {
+			Graphics2D g = (Graphics2D)event.getGraphics().create();  // Painting a layer must not influence the next one.
+			try {
+				if (component.isLayerCached(layer)) {
+					if (!bounds.isEmpty()) {
+						if (!isValid(layer)) {
+							images.put(layer, renderLayer(component, event, layer, layerBackground, images.get(layer)));
+							validLayers.add(layer);
+							renderedLayerCount++;
+						}
+						else {
+							if (previousBounds != null) {
+								images.put(layer, scrollLayer(component, event, layer, layerBackground, images.get(layer), 
+										previousBounds));
+							}
+							List<Rectangle2D> areas = invalidatedAreas.get(layer);
+							if (areas != null) {
+								renderAreas(component, event, layer, layerBackground, images.get(layer), areas);
+							}
+						}
+						BufferedImage image = images.get(layer);
+						if (image.getWidth() == bounds.width) {
+							g.drawImage(image, bounds.x, bounds.y, null);
+						}
+						else {
+							g.drawImage(image, bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, 0, 0, 
+									image.getWidth(), image.getHeight(), null);
+						}
+					}
+				}
+				else {
+					if (layerBackground != null) {
+						g.setColor(layerBackground);
+						g.fill(event.getRectangle());
+					}
+					component.paint(new TICPaintEvent(event.getSource(), g, event.getRectangle(), event.getAreas(), layer, 
+							event.getRenderQuality(), event.getDeviceScale()));
+				}
+			}
+			finally {
+				g.dispose();
+			}
+			layerBackground = null;
+		}
+	}
+}
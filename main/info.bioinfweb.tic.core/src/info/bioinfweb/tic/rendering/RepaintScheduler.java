@@ -0,0 +1,265 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.toolkit.ToolkitComponent;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+
+/**
+ * Coalesces repaint requests of a <i>TIC</i> component and passes them to its toolkit component at most once 
+ * per frame. It is used by {@link TICComponent} if {@link TICComponent#getMaxRepaintRate()} is greater than 0, 
+ * so that models that change very frequently (e.g. while being filled by a background thread) do not cause 
+ * more repaint operations than can be displayed.
+ * <p>
+ * All requests between two frames are merged. If a complete repaint was requested, all requested areas are 
+ * discarded. Otherwise areas that are contained in a previously requested area are ignored. If more than 
+ * {@link TICComponent#MAX_REQUESTED_AREAS} areas are pending, a complete repaint is performed instead.
+ * <p>
+ * Pending requests are flushed using {@link ToolkitComponent#invokeLater(Runnable, int)}, which runs on the
+ * event dispatch thread using a {@code javax.swing.Timer} in <i>Swing</i> and uses 
+ * {@code Display.timerExec()} in <i>SWT</i>. The delay is chosen so that two flushes are separated by at 
+ * least one frame interval. All methods of this class may be called from any thread.
+ * <p>
+ * Requests are discarded if the toolkit component has been disposed, since toolkits may drop the tasks of 
+ * disposed components without executing them.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class RepaintScheduler {
+	private TICComponent component;
+	private int frameRate;
+	private boolean repaintPending = false;
+	private List<Rectangle2D> pendingAreas = new ArrayList<Rectangle2D>();
+	private boolean flushScheduled = false;
+	private long lastFlushTime;
+	private long requestCount = 0;
+	private long flushCount = 0;
+	private Runnable flushTask = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param component the component whose toolkit component shall be repainted
+	 * @param frameRate the maximum number of flushes per second
+	 * @throws IllegalArgumentException if {@code component} is {@code null} or {@code frameRate} is below 1
+	 */
+	public RepaintScheduler(TICComponent component, int frameRate) {
+		super();
+		if (component == null) {
+			throw new IllegalArgumentException("The component must not be null.");
+		}
+		else {
+			this.component = component;
+			setFrameRate(frameRate);
+			lastFlushTime = System.nanoTime() - 1000000000L;  // The first request can be flushed immediately.
+		}
+	}
+	
+	
+	/**
+	 * Returns the component whose toolkit component is repainted by this instance.
+	 * 
+	 * @return the associated component
+	 */
+	public TICComponent getComponent() {
+		return component;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of times per second the pending requests are passed to the toolkit component.
+	 * 
+	 * @return the frame rate in Hz
+	 */
+	public synchronized int getFrameRate() {
+		return frameRate;
+	}
+	
+	
+	/**
+	 * Sets the maximum number of times per second the pending requests are passed to the toolkit component.
+	 * 
+	 * @param frameRate the new frame rate in Hz
+	 * @throws IllegalArgumentException if {@code frameRate} is below 1
+	 */
+	public synchronized void setFrameRate(int frameRate) {
+		if (frameRate < 1) {
+			throw new IllegalArgumentException("The frame rate must be at least 1 (specified: " + frameRate + ").");
+		}
+		else {
+			this.frameRate = frameRate;
+		}
+	}
+	
+	
+	/**
+	 * Requests a repaint of the whole component in the next frame.
+	 */
+	public void requestRepaint() {
+		synchronized (this) {
+			requestCount++;
+			repaintPending = true;
+			pendingAreas.clear();
+		}
+		scheduleFlush();
+	}
+	
+	
+	/**
+	 * Requests a repaint of the specified areas of the component in the next frame.
+	 * 
+	 * @param areas the areas to be repainted in the coordinate system of the component
+	 */
+	public void requestRepaint(Collection<? extends Rectangle2D> areas) {
+		synchronized (this) {
+			requestCount++;
+			if (!repaintPending) {  // Otherwise the whole component is repainted anyway.
+				for (Rectangle2D area : areas) {
+					addArea(area);
+				}
+				if (pendingAreas.size() > TICComponent.MAX_REQUESTED_AREAS) {
+					pendingAreas.clear();
+					repaintPending = true;
+				}
+			}
+		}
+		scheduleFlush();
+	}
+	
+	
+	private void addArea(Rectangle2D area) {
+		for (Rectangle2D pendingArea : pendingAreas) {
+			if (pendingArea.contains(area)) {
+				return;
+			}
+		}
+		pendingAreas.add((Rectangle2D)area.clone());  // The caller might reuse its rectangles.
+	}
+	
+	
+	private synchronized void discardPendingRequests() {
+		repaintPending = false;
+		pendingAreas.clear();
+		flushScheduled = false;  // A flush scheduled before disposal might never be executed.
+	}
+	
+	
+	private void scheduleFlush() {
+		ToolkitComponent toolkitComponent = component.getToolkitComponent();
+		if ((toolkitComponent != null) && toolkitComponent.isDisposed()) {
+			discardPendingRequests();
+		}
+		else if (toolkitComponent != null) {
+			boolean schedule = false;
+			long delay = 0;
+			synchronized (this) {
+				if (!flushScheduled) {
+					flushScheduled = true;
+					schedule = true;
+					delay = Math.max(0, 1000000000L / frameRate - (System.nanoTime() - lastFlushTime)) / 1000000L;
+				}
+			}
+			if (schedule) {
+				toolkitComponent.invokeLater(flushTask, (int)delay);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Determines whether requests are currently waiting to be passed to the toolkit component.
+	 * 
+	 * @return {@code true} if a repaint or areas were requested since the last flush, {@code false} otherwise
+	 */
+	public synchronized boolean hasPendingRequests() {
+		return repaintPending || !pendingAreas.isEmpty();
+	}
+	
+	
+	/**
+	 * Immediately passes all pending requests to the toolkit component. This method is called automatically
+	 * on the UI thread once per frame, if requests are pending, but may also be called directly on the UI thread 
+	 * (e.g. before the component is disposed).
+	 */
+	public void flush() {
+		boolean repaint;
+		List<Rectangle2D> areas;
+		synchronized (this) {
+			flushScheduled = false;
+			lastFlushTime = System.nanoTime();
+			repaint = repaintPending;
+			areas = new ArrayList<Rectangle2D>(pendingAreas);
+			repaintPending = false;
+			pendingAreas.clear();
+			if (repaint || !areas.isEmpty()) {
+				flushCount++;
+			}
+		}
+		
+		ToolkitComponent toolkitComponent = component.getToolkitComponent();
+		if ((toolkitComponent != null) && !toolkitComponent.isDisposed()) {
+			if (repaint) {
+				toolkitComponent.repaint();
+			}
+			else {
+				for (Rectangle2D area : areas) {
+					toolkitComponent.repaint(area);
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of calls of the {@code requestRepaint()} methods since the creation of this instance.
+	 * 
+	 * @return the number of requests
+	 */
+	public synchronized long getRequestCount() {
+		return requestCount;
+	}
+	
+	
+	/**
+	 * Returns the number of times pending requests were passed to the toolkit component since the creation of
+	 * this instance. The ratio between {@link #getRequestCount()} and this value shows how many requests were
+	 * coalesced.
+	 * 
+	 * @return the number of flushes
+	 */
+	public synchronized long getFlushCount() {
+		return flushCount;
+	}
+}
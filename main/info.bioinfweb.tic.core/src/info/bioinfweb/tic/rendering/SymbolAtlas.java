@@ -0,0 +1,444 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Pre-renders cells consisting of a symbol painted in a foreground color on a background color into atlas 
+ * images and paints such cells by copying them from these images. Components displaying large matrices of 
+ * repeated symbols (e.g. sequence alignments or character matrices) can use this class to avoid filling the 
+ * background and rendering the text of every single cell during each paint operation.
+ * <p>
+ * All cells of an atlas have the same size and font. Each distinct combination of symbol, foreground and 
+ * background color is rendered only once, when it is painted for the first time. Cells are packed into pages of 
+ * up to {@link #PAGE_SIZE} pixels in each direction. Cells with an opaque background are stored on opaque pages 
+ * that can be copied faster than the translucent pages used for all other cells. If the font or cell size 
+ * changes (e.g. because the component is zoomed), all pages are discarded by 
+ * {@link #setAppearance(Font, int, int)}. If more than {@link #getMaxPageCount()} pages would be needed, all
+ * cells are discarded as well and are rendered again when they are painted the next time.
+ * <p>
+ * Cells are rendered separately for each scale of the graphics contexts they are painted on (e.g. 2 on high-DPI 
+ * screens or tile caches with a render scale), so that they are copied in the resolution of the device. The 
+ * pages of each scale are stored separately. Components that zoom their contents should therefore change the 
+ * font and cell size using {@link #setAppearance(Font, int, int)} instead of scaling the graphics context.
+ * <p>
+ * Cells are painted using {@link Graphics2D#drawImage(java.awt.Image, int, int, int, int, int, int, int, int, java.awt.image.ImageObserver)}
+ * and can therefore be painted on the graphics contexts provided by {@link info.bioinfweb.tic.TICPaintEvent}s of
+ * <i>Swing</i> and <i>SWT</i> components. (<i>SWT</i> components painting directly on the native graphics context 
+ * fall back to a buffered image when images are painted. Components using this class should therefore not 
+ * support direct painting.) All methods of this class are thread-safe.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class SymbolAtlas {
+	/** The maximal width and height of a page in pixels, unless a single cell is larger. */
+	public static final int PAGE_SIZE = 1024;
+	
+	/** The default value of {@link #getMaxPageCount()}. */
+	public static final int DEFAULT_MAX_PAGE_COUNT = 16;
+	
+	
+	private static final class Key {
+		private final String symbol;
+		private final Color foreground;
+		private final Color background;
+		private final double scale;
+		
+		
+		public Key(String symbol, Color foreground, Color background, double scale) {
+			super();
+			this.symbol = symbol;
+			this.foreground = foreground;
+			this.background = background;
+			this.scale = scale;
+		}
+		
+		
+		@Override
+		public int hashCode() {
+			int result = symbol.hashCode();
+			result = 31 * result + foreground.hashCode();
+			result = 31 * result + ((background == null) ? 0 : background.hashCode());
+			result = 31 * result + Double.valueOf(scale).hashCode();
+			return result;
+		}
+		
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			else if (obj instanceof Key) {
+				Key other = (Key)obj;
+				return symbol.equals(other.symbol) && foreground.equals(other.foreground) && 
+						((background == null) ? (other.background == null) : background.equals(other.background)) && 
+						(scale == other.scale);
+			}
+			else {
+				return false;
+			}
+		}
+	}
+	
+	
+	private static final class Page {
+		private final BufferedImage image;
+		private final boolean opaque;
+		private final double scale;
+		private final int columns;
+		private final int rows;
+		private int cellCount = 0;
+		
+		
+		public Page(boolean opaque, double scale, int cellWidth, int cellHeight) {
+			super();
+			this.opaque = opaque;
+			this.scale = scale;
+			columns = Math.max(1, PAGE_SIZE / cellWidth);
+			rows = Math.max(1, PAGE_SIZE / cellHeight);
+			image = new BufferedImage(columns * cellWidth, rows * cellHeight, 
+					opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+	}
+	
+	
+	private static final class Cell {
+		private final BufferedImage image;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		
+		
+		public Cell(BufferedImage image, int x, int y, int width, int height) {
+			super();
+			this.image = image;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+	}
+	
+	
+	private Font font;
+	private int cellWidth;
+	private int cellHeight;
+	private boolean antialiasing = true;
+	private int maxPageCount = DEFAULT_MAX_PAGE_COUNT;
+	private List<Page> pages = new ArrayList<Page>();
+	private Map<Key, Cell> cells = new HashMap<Key, Cell>();
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param font the font used to paint the symbols
+	 * @param cellWidth the width of a cell in pixels
+	 * @param cellHeight the height of a cell in pixels
+	 * @throws IllegalArgumentException if {@code font} is {@code null} or the cell size is lower than 1
+	 */
+	public SymbolAtlas(Font font, int cellWidth, int cellHeight) {
+		super();
+		setAppearance(font, cellWidth, cellHeight);
+	}
+	
+	
+	/**
+	 * Returns the font used to paint the symbols.
+	 * 
+	 * @return the current font
+	 */
+	public synchronized Font getFont() {
+		return font;
+	}
+	
+	
+	/**
+	 * Returns the width of the cells of this atlas.
+	 * 
+	 * @return the cell width in pixels
+	 */
+	public synchronized int getCellWidth() {
+		return cellWidth;
+	}
+	
+	
+	/**
+	 * Returns the height of the cells of this atlas.
+	 * 
+	 * @return the cell height in pixels
+	 */
+	public synchronized int getCellHeight() {
+		return cellHeight;
+	}
+	
+	
+	/**
+	 * Changes the font and the size of the cells of this atlas. If any of these properties differs from its 
+	 * current value, all pre-rendered cells are discarded. Components should call this method each time before
+	 * painting (e.g. with values depending on the current zoom factor).
+	 * 
+	 * @param font the font used to paint the symbols
+	 * @param cellWidth the width of a cell in pixels
+	 * @param cellHeight the height of a cell in pixels
+	 * @return {@code true} if the atlas was invalidated, {@code false} if the appearance was not changed
+	 * @throws IllegalArgumentException if {@code font} is {@code null} or the cell size is lower than 1
+	 */
+	public synchronized boolean setAppearance(Font font, int cellWidth, int cellHeight) {
+		if (font == null) {
+			throw new IllegalArgumentException("The font must not be null.");
+		}
+		else if ((cellWidth < 1) || (cellHeight < 1)) {
+			throw new IllegalArgumentException("The cell size must be at least 1 x 1 (specified: " + cellWidth + " x " + 
+					cellHeight + ").");
+		}
+		else if (!font.equals(this.font) || (cellWidth != this.cellWidth) || (cellHeight != this.cellHeight)) {
+			this.font = font;
+			this.cellWidth = cellWidth;
+			this.cellHeight = cellHeight;
+			clear();
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether symbols are rendered with antialiasing.
+	 * 
+	 * @return {@code true} if text antialiasing is used, {@code false} otherwise
+	 */
+	public synchronized boolean isAntialiasing() {
+		return antialiasing;
+	}
+	
+	
+	/**
+	 * Specifies whether symbols shall be rendered with antialiasing. Changing this property discards all 
+	 * pre-rendered cells. 
+	 * 
+	 * @param antialiasing Specify {@code true} here to use text antialiasing or {@code false} otherwise.
+	 */
+	public synchronized void setAntialiasing(boolean antialiasing) {
+		if (this.antialiasing != antialiasing) {
+			this.antialiasing = antialiasing;
+			clear();
+		}
+	}
+	
+	
+	/**
+	 * Returns the maximal number of pages this atlas may contain. If another page would be needed to render a 
+	 * cell, all pre-rendered cells are discarded first.
+	 * 
+	 * @return the maximal number of pages (Each page contains up to {@link #PAGE_SIZE} x {@link #PAGE_SIZE} 
+	 *         pixels of four bytes.)
+	 */
+	public synchronized int getMaxPageCount() {
+		return maxPageCount;
+	}
+	
+	
+	/**
+	 * Specifies the maximal number of pages this atlas may contain. All pre-rendered cells are discarded if more 
+	 * pages are currently used.
+	 * 
+	 * @param maxPageCount the new maximal number of pages
+	 * @throws IllegalArgumentException if {@code maxPageCount} is lower than 1
+	 */
+	public synchronized void setMaxPageCount(int maxPageCount) {
+		if (maxPageCount < 1) {
+			throw new IllegalArgumentException("The maximal page count must be at least 1 (specified: " + maxPageCount + 
+					").");
+		}
+		else {
+			this.maxPageCount = maxPageCount;
+			if (pages.size() > maxPageCount) {
+				clear();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Discards all pre-rendered cells.
+	 */
+	public synchronized void clear() {
+		pages.clear();
+		cells.clear();
+	}
+	
+	
+	/**
+	 * Returns the number of pre-rendered cells.
+	 * 
+	 * @return the number of distinct cells that have been painted since the last invalidation
+	 */
+	public synchronized int getCellCount() {
+		return cells.size();
+	}
+	
+	
+	/**
+	 * Returns the number of atlas images currently used.
+	 * 
+	 * @return the number of pages
+	 */
+	public synchronized int getPageCount() {
+		return pages.size();
+	}
+	
+	
+	/**
+	 * Returns the scale of the specified graphics context, which determines the resolution cells are rendered with.
+	 */
+	private static double getScale(Graphics2D g) {
+		AffineTransform transform = g.getTransform();
+		double result = Math.hypot(transform.getScaleX(), transform.getShearY());
+		if (result > 0) {
+			return result;
+		}
+		else {
+			return 1.0;  // Degenerated transformations cannot be used for painting anyway.
+		}
+	}
+	
+	
+	/**
+	 * Returns a page with the specified properties that still has space for a cell. If a new page would exceed
+	 * {@link #getMaxPageCount()}, all pages and cells are discarded before it is created.
+	 */
+	private Page getFreePage(boolean opaque, double scale, int width, int height) {
+		for (Page page : pages) {
+			if ((page.opaque == opaque) && (page.scale == scale) && (page.cellCount < page.columns * page.rows)) {
+				return page;
+			}
+		}
+		
+		if (pages.size() >= maxPageCount) {
+			clear();
+		}
+		Page result = new Page(opaque, scale, width, height);
+		pages.add(result);
+		return result;
+	}
+	
+	
+	/**
+	 * Renders a new cell into a free position of a page.
+	 */
+	private Cell renderCell(Key key) {
+		boolean opaque = (key.background != null) && (key.background.getAlpha() == 255);
+		int width = (int)Math.ceil(cellWidth * key.scale);
+		int height = (int)Math.ceil(cellHeight * key.scale);
+		Page page = getFreePage(opaque, key.scale, width, height);
+		int x = (page.cellCount % page.columns) * width;
+		int y = (page.cellCount / page.columns) * height;
+		page.cellCount++;
+		
+		Graphics2D g = page.image.createGraphics();
+		try {
+			g.clipRect(x, y, width, height);
+			if (key.background != null) {
+				g.setColor(key.background);
+				g.fillRect(x, y, width, height);
+			}
+			g.translate(x, y);
+			g.scale(key.scale, key.scale);
+			if (antialiasing) {
+				g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			}
+			g.setFont(font);
+			g.setColor(key.foreground);
+			FontMetrics metrics = g.getFontMetrics();
+			g.drawString(key.symbol, (cellWidth - metrics.stringWidth(key.symbol)) / 2f, 
+					(cellHeight - metrics.getAscent() - metrics.getDescent()) / 2f + metrics.getAscent());
+		}
+		finally {
+			g.dispose();
+		}
+		return new Cell(page.image, x, y, width, height);
+	}
+	
+	
+	private synchronized Cell getCell(String symbol, Color foreground, Color background, double scale) {
+		Key key = new Key(symbol, foreground, background, scale);
+		Cell result = cells.get(key);
+		if (result == null) {
+			result = renderCell(key);
+			cells.put(key, result);
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Paints a cell with the specified appearance. The symbol is centered in the cell. If this combination of 
+	 * symbol and colors has not been painted before with the scale of the specified graphics context, it is 
+	 * rendered into the atlas first.
+	 * 
+	 * @param g the graphics context to paint on
+	 * @param symbol the symbol to be painted (usually a single character)
+	 * @param foreground the color of the symbol
+	 * @param background the background color of the cell or {@code null} if the background shall be transparent
+	 * @param x the x-coordinate of the upper left corner of the cell
+	 * @param y the y-coordinate of the upper left corner of the cell
+	 * @throws IllegalArgumentException if {@code symbol} or {@code foreground} are {@code null}
+	 */
+	public void paintCell(Graphics2D g, String symbol, Color foreground, Color background, int x, int y) {
+		if (symbol == null) {
+			throw new IllegalArgumentException("The symbol must not be null.");
+		}
+		else if (foreground == null) {
+			throw new IllegalArgumentException("The foreground color must not be null.");
+		}
+		else {
+			Cell cell;
+			int width;
+			int height;
+			synchronized (this) {
+				cell = getCell(symbol, foreground, background, getScale(g));
+				width = cellWidth;
+				height = cellHeight;
+			}
+			g.drawImage(cell.image, x, y, x + width, y + height, cell.x, cell.y, cell.x + cell.width, cell.y + cell.height, 
+					null);
+		}
+	}
+}
@@ -0,0 +1,342 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextLayout;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+
+/**
+ * Caches glyph vectors, text layouts and line metrics of strings, so that text that is painted or measured 
+ * repeatedly (e.g. sequence characters or axis labels) does not need to be converted to glyphs again during each 
+ * paint operation.
+ * <p>
+ * Note that <i>Java2D</i> already caches the glyph images of simple text (e.g. Latin characters) internally and 
+ * paints it faster using {@link Graphics2D#drawString(String, float, float)} than by painting a glyph vector. 
+ * {@link #drawString(Graphics2D, String, float, float)} therefore only uses this cache for strings that require
+ * a complex text layout (e.g. right-to-left or combining characters). <i>Java2D</i> creates a new text layout 
+ * for each of these strings every time it is painted, which is about an order of magnitude slower than painting 
+ * a cached layout.
+ * <p>
+ * All entries are identified by their font, string and font render context. The render context of a graphics 
+ * context contains its scale and text rendering hints, so that different entries are created for different zoom 
+ * factors. If more than {@link #getCapacity()} entries are cached, the least recently used ones are removed.
+ * <p>
+ * Implementations of {@link info.bioinfweb.tic.TICComponent#paint(TICPaintEvent)} can obtain a shared instance 
+ * by calling {@link TICPaintEvent#getTextCache()} and paint text using {@link #drawString(Graphics2D, String, float, float)}
+ * instead of {@link Graphics2D#drawString(String, float, float)}. The returned glyph vectors and text layouts are 
+ * shared between all callers and must not be modified. All methods of this class are thread-safe, so that 
+ * components painted concurrently by multiple threads can use the same instance.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class TextCache {
+	/** The number of entries cached by the shared instance. */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	private static final int GLYPH_VECTOR = 0;
+	private static final int TEXT_LAYOUT = 1;
+	private static final int LINE_METRICS = 2;
+	
+	/** The first character that may require complex text layout (the start of the combining diacritical marks). */
+	private static final char MIN_LAYOUT_CHAR = '\u0300';
+	
+	
+	private static final class Key {
+		private final int type;
+		private final Font font;
+		private final String text;
+		private final FontRenderContext renderContext;
+		private final int hashCode;
+		
+		
+		public Key(int type, Font font, String text, FontRenderContext renderContext) {
+			super();
+			this.type = type;
+			this.font = font;
+			this.text = text;
+			this.renderContext = renderContext;
+			hashCode = ((31 * type + font.hashCode()) * 31 + text.hashCode()) * 31 + renderContext.hashCode();
+		}
+		
+		
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			else if (obj instanceof Key) {
+				Key other = (Key)obj;
+				return (type == other.type) && (hashCode == other.hashCode) && text.equals(other.text) && 
+						font.equals(other.font) && renderContext.equals(other.renderContext);
+			}
+			else {
+				return false;
+			}
+		}
+	}
+	
+	
+	private static TextCache sharedInstance = null;
+	
+	
+	private final int capacity;
+	private final Map<Key, Object> entries;
+	private long hitCount = 0;
+	private long missCount = 0;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param capacity the maximal number of entries to be cached
+	 * @throws IllegalArgumentException if {@code capacity} is lower than 1
+	 */
+	public TextCache(final int capacity) {
+		super();
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be at least 1.");
+		}
+		else {
+			this.capacity = capacity;
+			entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {  // Access order is used to remove the least recently used entries.
+				private static final long serialVersionUID = 1L;
+				
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+	}
+	
+	
+	/**
+	 * Returns the instance shared by all components, which is also returned by {@link TICPaintEvent#getTextCache()}.
+	 * 
+	 * @return the shared instance with a capacity of {@link #DEFAULT_CAPACITY}
+	 */
+	public static synchronized TextCache getSharedInstance() {
+		if (sharedInstance == null) {
+			sharedInstance = new TextCache(DEFAULT_CAPACITY);
+		}
+		return sharedInstance;
+	}
+	
+	
+	/**
+	 * Returns the maximal number of entries of this cache.
+	 * 
+	 * @return the capacity specified in the constructor
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	
+	/**
+	 * Returns the current number of entries of this cache.
+	 * 
+	 * @return the number of cached glyph vectors, text layouts and line metrics
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	
+	/**
+	 * Removes all entries from this cache.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	
+	/**
+	 * Returns the number of requests that could be answered from the cache since this instance was created.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+	
+	
+	/**
+	 * Returns the number of requests that required creating a new entry since this instance was created.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+	
+	
+	private synchronized Object get(Key key) {
+		Object result = entries.get(key);
+		if (result != null) {
+			hitCount++;
+		}
+		else {
+			missCount++;
+		}
+		return result;
+	}
+	
+	
+	private synchronized void put(Key key, Object value) {
+		entries.put(key, value);
+	}
+	
+	
+	/**
+	 * Returns a glyph vector of the specified string. Glyph vectors of strings that contain characters with a
+	 * right-to-left direction are not laid out correctly by this method. {@link #getTextLayout(Font, String, FontRenderContext)}
+	 * should be used for these.
+	 * 
+	 * @param font the font of the text
+	 * @param text the text to be converted
+	 * @param renderContext the render context of the graphics context the text will be painted on
+	 * @return the cached or a new glyph vector
+	 */
+	public GlyphVector getGlyphVector(Font font, String text, FontRenderContext renderContext) {
+		Key key = new Key(GLYPH_VECTOR, font, text, renderContext);
+		GlyphVector result = (GlyphVector)get(key);
+		if (result == null) {  // Glyph vectors are created outside the synchronized block, since this may take some time.
+			char[] chars = text.toCharArray();
+			result = font.layoutGlyphVector(renderContext, chars, 0, chars.length, Font.LAYOUT_LEFT_TO_RIGHT);
+			put(key, result);
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Returns a text layout of the specified string.
+	 * 
+	 * @param font the font of the text
+	 * @param text the text to be laid out (must not be empty)
+	 * @param renderContext the render context of the graphics context the text will be painted on
+	 * @return the cached or a new text layout
+	 * @throws IllegalArgumentException if {@code text} is empty
+	 */
+	public TextLayout getTextLayout(Font font, String text, FontRenderContext renderContext) {
+		Key key = new Key(TEXT_LAYOUT, font, text, renderContext);
+		TextLayout result = (TextLayout)get(key);
+		if (result == null) {
+			result = new TextLayout(text, font, renderContext);
+			put(key, result);
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Returns the line metrics of the specified string.
+	 * 
+	 * @param font the font of the text
+	 * @param text the text to be measured
+	 * @param renderContext the render context of the graphics context the text will be painted on
+	 * @return the cached or new line metrics
+	 */
+	public LineMetrics getLineMetrics(Font font, String text, FontRenderContext renderContext) {
+		Key key = new Key(LINE_METRICS, font, text, renderContext);
+		LineMetrics result = (LineMetrics)get(key);
+		if (result == null) {
+			result = font.getLineMetrics(text, renderContext);
+			put(key, result);
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Determines whether the specified string can be painted without complex text layout.
+	 * 
+	 * @param text the string to be tested
+	 * @return {@code true} if all characters of {@code text} are lower than {@code U+0300}, {@code false} otherwise
+	 */
+	public static boolean isSimpleText(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) >= MIN_LAYOUT_CHAR) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	
+	/**
+	 * Returns the advance width of the specified string using the current font and render context of the 
+	 * specified graphics context.
+	 * 
+	 * @param g the graphics context the text will be painted on
+	 * @param text the text to be measured
+	 * @return the width of the text in the user space of {@code g}
+	 */
+	public float getStringWidth(Graphics2D g, String text) {
+		if (text.isEmpty()) {
+			return 0f;
+		}
+		else if (isSimpleText(text)) {
+			return (float)getGlyphVector(g.getFont(), text, g.getFontRenderContext()).getLogicalBounds().getWidth();
+		}
+		else {
+			return getTextLayout(g.getFont(), text, g.getFontRenderContext()).getAdvance();
+		}
+	}
+	
+	
+	/**
+	 * Paints the specified string using the current font and attributes of the specified graphics context. This
+	 * method has the same effect as {@link Graphics2D#drawString(String, float, float)}, but reuses cached text 
+	 * layouts for strings that are not simple according to {@link #isSimpleText(String)}.
+	 * 
+	 * @param g the graphics context to paint on
+	 * @param text the text to be painted
+	 * @param x the x-coordinate of the baseline origin of the text
+	 * @param y the y-coordinate of the baseline origin of the text
+	 */
+	public void drawString(Graphics2D g, String text, float x, float y) {
+		if (isSimpleText(text)) {
+			g.drawString(text, x, y);
+		}
+		else {
+			getTextLayout(g.getFont(), text, g.getFontRenderContext()).draw(g, x, y);
+		}
+	}
+}
@@ -0,0 +1,500 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.RenderQuality;
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+
+/**
+ * Caches the rendered contents of a <i>TIC</i> component in square tiles of a fixed size, so that expose and
+ * scroll events can be processed by drawing cached images instead of calling {@link TICComponent#paint(TICPaintEvent)}.
+ * <p>
+ * Tiles are identified by their column and row in the coordinate system of the component. Each tile that is 
+ * needed to paint an area and is not present in the cache is rendered by a separate {@link TICPaintEvent} 
+ * covering exactly this tile. Changed contents must be signaled by {@link #invalidate(Rectangle2D)} or 
+ * {@link #invalidateAll()}, which remove all affected tiles.
+ * <p>
+ * The memory used by the tiles of an instance is limited by {@link #getMaxBytes()}. If this limit is exceeded, 
+ * the least recently used tiles are evicted. The counters {@link #getHitCount()}, {@link #getMissCount()} and 
+ * {@link #getEvictionCount()} allow to monitor the efficiency of the cache.
+ * <p>
+ * Tiles are rendered with the scale returned by {@link TICComponent#getRenderScale(double, RenderQuality)} for
+ * the device scale and render quality of the paint event, so that they have the native resolution of HiDPI 
+ * screens. (A tile then consists of more pixels than its size in the coordinate system of the component.) All 
+ * tiles are discarded if this scale changes, e.g. because a window was moved to a screen with a different 
+ * resolution.
+ * <p>
+ * If the painted component returns {@code true} in {@link TICComponent#isConcurrentPaintingSupported()}, 
+ * multiple missing tiles are rendered concurrently on the {@link ForkJoinPool} returned by {@link #getPool()}.
+ * Each tile is rendered using its own graphics context and {@link TICPaintEvent}. The rendered tiles are then 
+ * drawn on the target graphics context by the thread that called {@link #paint(TICComponent, TICPaintEvent, Color)}.
+ * <p>
+ * Instances of this class are not thread-safe and are meant to be used by a single toolkit component on its
+ * UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class TileCache {
+	/** The default width and height of a tile in pixels. */
+	public static final int DEFAULT_TILE_SIZE = 256;
+	
+	/** The default value of {@link #getMaxBytes()} (64 MiB). */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+	
+	
+	private int tileSize;
+	private int imageType;
+	private long maxBytes;
+	private double scale = 1.0;
+	private Map<Point, BufferedImage> tiles = new LinkedHashMap<Point, BufferedImage>(16, 0.75f, true);  // Ordered by last access.
+	private long currentBytes = 0;
+	private long hitCount = 0;
+	private long missCount = 0;
+	private long evictionCount = 0;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+	
+	
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_TILE_SIZE} and {@link #DEFAULT_MAX_BYTES}.
+	 * 
+	 * @param imageType the type of the tile images (e.g. {@link BufferedImage#TYPE_INT_RGB} or 
+	 *        {@link BufferedImage#TYPE_INT_ARGB} for translucent components)
+	 */
+	public TileCache(int imageType) {
+		this(DEFAULT_TILE_SIZE, imageType, DEFAULT_MAX_BYTES);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param tileSize the width and height of a tile in pixels
+	 * @param imageType the type of the tile images (e.g. {@link BufferedImage#TYPE_INT_RGB} or 
+	 *        {@link BufferedImage#TYPE_INT_ARGB} for translucent components)
+	 * @param maxBytes the maximum number of bytes to be used by all tiles of this instance
+	 * @throws IllegalArgumentException if {@code tileSize} is below 1 or {@code maxBytes} is negative
+	 */
+	public TileCache(int tileSize, int imageType, long maxBytes) {
+		super();
+		if (tileSize < 1) {
+			throw new IllegalArgumentException("The tile size must be at least 1.");
+		}
+		else if (maxBytes < 0) {
+			throw new IllegalArgumentException("The memory limit must not be negative.");
+		}
+		else {
+			this.tileSize = tileSize;
+			this.imageType = imageType;
+			this.maxBytes = maxBytes;
+		}
+	}
+	
+	
+	/**
+	 * Returns the width and height of the tiles.
+	 * 
+	 * @return the tile size in pixels
+	 */
+	public int getTileSize() {
+		return tileSize;
+	}
+	
+	
+	/**
+	 * Returns the type of the tile images.
+	 * 
+	 * @return the image type as defined in {@link BufferedImage}
+	 */
+	public int getImageType() {
+		return imageType;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of bytes to be used by the tiles of this instance.
+	 * 
+	 * @return the memory limit in bytes
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	
+	/**
+	 * Sets the maximum number of bytes to be used by the tiles of this instance. If the current tiles exceed the
+	 * new limit, the least recently used ones are evicted immediately.
+	 * 
+	 * @param maxBytes the new memory limit in bytes
+	 * @throws IllegalArgumentException if {@code maxBytes} is negative
+	 */
+	public void setMaxBytes(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("The memory limit must not be negative.");
+		}
+		else {
+			this.maxBytes = maxBytes;
+			evict(0, Collections.<Point>emptySet());
+		}
+	}
+	
+	
+	/**
+	 * Returns the pool used to render multiple tiles of components that support concurrent painting.
+	 * 
+	 * @return the pool or {@code null} if all tiles are rendered by the calling thread
+	 * @see TICComponent#isConcurrentPaintingSupported()
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+
+	/**
+	 * Sets the pool used to render multiple tiles of components that support concurrent painting. The default
+	 * is the common pool.
+	 * 
+	 * @param pool the new pool or {@code null} if all tiles shall be rendered by the calling thread
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+
+	/**
+	 * Returns the number of bytes currently used by the tiles of this instance.
+	 * 
+	 * @return the memory usage in bytes
+	 */
+	public long getCurrentBytes() {
+		return currentBytes;
+	}
+	
+	
+	/**
+	 * Returns the number of tiles currently stored in this cache.
+	 * 
+	 * @return the number of tiles
+	 */
+	public int getTileCount() {
+		return tiles.size();
+	}
+	
+	
+	/**
+	 * Returns the number of tiles that were found in the cache when they were needed for painting.
+	 * 
+	 * @return the number of cache hits since the creation of this instance or the last call of {@link #resetCounters()}
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	
+	/**
+	 * Returns the number of tiles that had to be rendered when they were needed for painting.
+	 * 
+	 * @return the number of cache misses since the creation of this instance or the last call of {@link #resetCounters()}
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+	
+	
+	/**
+	 * Returns the number of tiles that were removed from this cache because the memory limit was exceeded.
+	 * 
+	 * @return the number of evictions since the creation of this instance or the last call of {@link #resetCounters()}
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+	
+	
+	/**
+	 * Sets the hit, miss and eviction counters to 0.
+	 */
+	public void resetCounters() {
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+	
+	
+	private static long getBytes(BufferedImage image) {
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		return (long)buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+	}
+	
+	
+	/**
+	 * Evicts the least recently used tiles until the specified number of additional bytes fits into the limit.
+	 * Tiles with a key contained in {@code keysInUse} are never evicted.
+	 */
+	private void evict(long additionalBytes, Set<Point> keysInUse) {
+		Iterator<Map.Entry<Point, BufferedImage>> iterator = tiles.entrySet().iterator();
+		while ((currentBytes + additionalBytes > maxBytes) && iterator.hasNext()) {
+			Map.Entry<Point, BufferedImage> entry = iterator.next();
+			if (!keysInUse.contains(entry.getKey())) {
+				iterator.remove();
+				currentBytes -= getBytes(entry.getValue());
+				entry.getValue().flush();
+				evictionCount++;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Removes all tiles intersecting the specified area, so that they are rendered again when they are needed
+	 * the next time.
+	 * 
+	 * @param area the area that changed in the coordinate system of the component
+	 */
+	public void invalidate(Rectangle2D area) {
+		Iterator<Map.Entry<Point, BufferedImage>> iterator = tiles.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Point, BufferedImage> entry = iterator.next();
+			if (getTileBounds(entry.getKey().x, entry.getKey().y).intersects(area)) {
+				iterator.remove();
+				currentBytes -= getBytes(entry.getValue());
+				entry.getValue().flush();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Removes all tiles from this cache.
+	 */
+	public void invalidateAll() {
+		for (BufferedImage tile : tiles.values()) {
+			tile.flush();
+		}
+		tiles.clear();
+		currentBytes = 0;
+	}
+	
+	
+	/**
+	 * Returns the scale the current tiles have been rendered with.
+	 * 
+	 * @return the number of tile pixels per unit of the coordinate system of the component
+	 */
+	public double getScale() {
+		return scale;
+	}
+	
+	
+	/**
+	 * Returns the area covered by the specified tile.
+	 * 
+	 * @param column the column of the tile
+	 * @param row the row of the tile
+	 * @return the bounds of the tile in the coordinate system of the component
+	 */
+	public Rectangle getTileBounds(int column, int row) {
+		return new Rectangle(column * tileSize, row * tileSize, tileSize, tileSize);
+	}
+	
+	
+	/**
+	 * Determines the tiles that are needed to paint the specified areas.
+	 * 
+	 * @param areas the areas to be painted in the coordinate system of the component
+	 * @return the coordinates (column and row) of all tiles intersecting at least one of the areas
+	 */
+	protected List<Point> getTiles(List<? extends Rectangle2D> areas) {
+		List<Point> result = new ArrayList<Point>();
+		for (Rectangle2D area : areas) {
+			int firstColumn = (int)Math.floor(area.getMinX() / tileSize);
+			int lastColumn = (int)Math.ceil(area.getMaxX() / tileSize) - 1;
+			int firstRow = (int)Math.floor(area.getMinY() / tileSize);
+			int lastRow = (int)Math.ceil(area.getMaxY() / tileSize) - 1;
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					Point tile = new Point(column, row);
+					if (!result.contains(tile)) {  // Areas are usually few, so the number of tiles is small.
+						result.add(tile);
+					}
+				}
+			}
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Renders the contents of a single tile by calling {@link TICComponent#paint(TICPaintEvent)}.
+	 * <p>
+	 * Note that this method is called concurrently for different tiles, if the component supports concurrent 
+	 * painting. Overriding implementations must therefore not modify the state of this instance.
+	 * 
+	 * @param component the component to be painted
+	 * @param event the paint event the tile is needed for (Its source and render quality are used for the paint 
+	 *        event of the tile.)
+	 * @param column the column of the tile
+	 * @param row the row of the tile
+	 * @param background the color to fill the tile with before painting or {@code null} if the tile shall remain 
+	 *        transparent
+	 * @return the rendered tile image (with a width and height of the tile size multiplied by {@link #getScale()})
+	 */
+	protected BufferedImage renderTile(TICComponent component, TICPaintEvent event, int column, int row, 
+			Color background) {
+		
+		int pixels = (int)Math.ceil(tileSize * scale);
+		BufferedImage tile = new BufferedImage(pixels, pixels, imageType);
+		Graphics2D g = tile.createGraphics();
+		try {
+			if (background != null) {
+				g.setColor(background);
+				g.fillRect(0, 0, pixels, pixels);
+			}
+			Rectangle bounds = getTileBounds(column, row);
+			g.scale(scale, scale);
+			g.clipRect(0, 0, tileSize, tileSize);
+			g.translate(-bounds.x, -bounds.y);
+			component.paint(new TICPaintEvent(event.getSource(), g, bounds, null, null, event.getRenderQuality(), scale));
+		}
+		finally {
+			g.dispose();
+		}
+		return tile;
+	}
+	
+	
+	private void putTile(Point key, BufferedImage tile, Set<Point> keysInUse) {
+		long bytes = getBytes(tile);
+		evict(bytes, keysInUse);
+		if (currentBytes + bytes <= maxBytes) {  // Otherwise the tile is only used for the current paint operation.
+			tiles.put(key, tile);
+			currentBytes += bytes;
+		}
+	}
+	
+	
+	/**
+	 * Paints the areas specified by the event by drawing the according tiles on its graphics context. Tiles not 
+	 * present in the cache are rendered first.
+	 * 
+	 * @param component the component to be painted
+	 * @param event the paint event specifying the graphics context (which must use the coordinate system of the 
+	 *        component) and the areas to be painted
+	 * @param background the color to fill new tiles with before painting or {@code null} if they shall remain 
+	 *        transparent
+	 */
+	public void paint(TICComponent component, TICPaintEvent event, Color background) {
+		double renderScale = component.getRenderScale(event.getDeviceScale(), event.getRenderQuality());
+		if (renderScale != scale) {
+			invalidateAll();
+			scale = renderScale;
+		}
+		List<Point> keys = getTiles(event.getAreas());
+		
+		// Determine missing tiles:
+		Map<Point, BufferedImage> cachedTiles = new HashMap<Point, BufferedImage>();
+		List<Point> missingKeys = new ArrayList<Point>();
+		for (Point key : keys) {
+			BufferedImage tile = tiles.get(key);  // Also marks the tile as recently used.
+			if (tile != null) {
+				cachedTiles.put(key, tile);
+				hitCount++;
+			}
+			else {
+				missCount++;
+				missingKeys.add(key);
+			}
+		}
+		
+		// Render missing tiles:
+		Map<Point, BufferedImage> renderedTiles = new LinkedHashMap<Point, BufferedImage>();
+		if ((getPool() != null) && (missingKeys.size() > 1) && component.isConcurrentPaintingSupported()) {
+			renderTilesConcurrently(component, event, missingKeys, background, renderedTiles);
+		}
+		else {
+			for (Point key : missingKeys) {
+				renderedTiles.put(key, renderTile(component, event, key.x, key.y, background));
+			}
+		}
+		
+		// Draw tiles:
+		Set<Point> keysInUse = new HashSet<Point>(keys);  // Tiles needed by this paint operation must not be evicted before they are drawn.
+		Graphics2D g = event.getGraphics();
+		for (Point key : keys) {
+			BufferedImage tile = renderedTiles.get(key);
+			if (tile != null) {
+				putTile(key, tile, keysInUse);
+			}
+			else {
+				tile = cachedTiles.get(key);
+			}
+			Rectangle bounds = getTileBounds(key.x, key.y);
+			if (tile.getWidth() == tileSize) {
+				g.drawImage(tile, bounds.x, bounds.y, null);
+			}
+			else {  // The scaled graphics context maps the tile pixels to device pixels.
+				g.drawImage(tile, bounds.x, bounds.y, bounds.x + tileSize, bounds.y + tileSize, 0, 0, tile.getWidth(), 
+						tile.getHeight(), null);
+			}
+		}
+	}
+	
+	
+	private void renderTilesConcurrently(final TICComponent component, final TICPaintEvent event, List<Point> keys, 
+			final Color background, Map<Point, BufferedImage> renderedTiles) {
+		
+		List<ForkJoinTask<BufferedImage>> tasks = new ArrayList<ForkJoinTask<BufferedImage>>(keys.size());
+		for (final Point key : keys) {
+			tasks.add(getPool().submit(new Callable<BufferedImage>() {
+				@Override
+				public BufferedImage call() throws Exception {
+					return renderTile(component, event, key.x, key.y, background);
+				}
+			}));
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			renderedTiles.put(keys.get(i), tasks.get(i).join());  // Exceptions thrown by paint() are rethrown here.
+		}
+	}
+}
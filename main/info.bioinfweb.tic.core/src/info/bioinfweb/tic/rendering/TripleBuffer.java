@@ -0,0 +1,136 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+
+/**
+ * Lock-free exchange of three buffers between a single producer thread and a single consumer thread.
+ * <p>
+ * The producer always writes into the back buffer returned by {@link #getBackBuffer()} and calls 
+ * {@link #publish()} when it is complete. The consumer calls {@link #update()} to obtain the most recently 
+ * published buffer, which is then returned by {@link #getFrontBuffer()}. Neither thread ever waits for the 
+ * other one: if the producer publishes several buffers before the consumer updates, the older ones are 
+ * skipped, and the buffer held by the consumer is never written by the producer.
+ * <p>
+ * The methods {@link #getBackBuffer()} and {@link #publish()} may only be called by the producer thread and 
+ * {@link #update()} and {@link #getFrontBuffer()} only by the consumer thread. All writes to a buffer that 
+ * happen before its publication are visible to the consumer after the according call of {@link #update()}.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ * 
+ * @param <T> the type of the buffers
+ */
+public class TripleBuffer<T> {
+	private static final int INDEX_MASK = 3;
+	private static final int FRESH_FLAG = 4;
+	
+	
+	private final Object[] buffers;
+	private final AtomicInteger middle = new AtomicInteger(1);  // Index of the middle buffer and the flag whether it was published after the last update.
+	private int backIndex = 0;  // Only accessed by the producer.
+	private int frontIndex = 2;  // Only accessed by the consumer.
+	
+	
+	/**
+	 * Creates a new instance of this class. Initially {@code front} is returned by {@link #getFrontBuffer()} and
+	 * {@code back} by {@link #getBackBuffer()}.
+	 * 
+	 * @param back the initial back buffer
+	 * @param middle the initial middle buffer
+	 * @param front the initial front buffer
+	 * @throws IllegalArgumentException if one of the buffers is {@code null} or the same instance is specified
+	 *         more than once
+	 */
+	public TripleBuffer(T back, T middle, T front) {
+		super();
+		if ((back == null) || (middle == null) || (front == null)) {
+			throw new IllegalArgumentException("No buffer must be null.");
+		}
+		else if ((back == middle) || (middle == front) || (back == front)) {
+			throw new IllegalArgumentException("Three different buffer instances must be specified.");
+		}
+		else {
+			buffers = new Object[]{back, middle, front};
+		}
+	}
+	
+	
+	/**
+	 * Returns the buffer the producer shall write to.
+	 * 
+	 * @return the current back buffer
+	 */
+	@SuppressWarnings("unchecked")
+	public T getBackBuffer() {
+		return (T)buffers[backIndex];
+	}
+	
+	
+	/**
+	 * Publishes the current back buffer and provides the producer with a new back buffer, which may contain 
+	 * outdated contents.
+	 */
+	public void publish() {
+		backIndex = middle.getAndSet(backIndex | FRESH_FLAG) & INDEX_MASK;
+	}
+	
+	
+	/**
+	 * Determines whether a buffer was published since the last call of {@link #update()}.
+	 * 
+	 * @return {@code true} if a call of {@link #update()} would provide a newer buffer, {@code false} otherwise
+	 */
+	public boolean isUpdateAvailable() {
+		return (middle.get() & FRESH_FLAG) != 0;
+	}
+	
+	
+	/**
+	 * Makes the most recently published buffer available by {@link #getFrontBuffer()}, if a buffer was published
+	 * since the last call of this method.
+	 * 
+	 * @return {@code true} if the front buffer changed, {@code false} otherwise
+	 */
+	public boolean update() {
+		if (isUpdateAvailable()) {
+			frontIndex = middle.getAndSet(frontIndex) & INDEX_MASK;  // A buffer published after the test above is taken as well.
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Returns the buffer the consumer shall read from.
+	 * 
+	 * @return the current front buffer
+	 */
+	@SuppressWarnings("unchecked")
+	public T getFrontBuffer() {
+		return (T)buffers[frontIndex];
+	}
+}
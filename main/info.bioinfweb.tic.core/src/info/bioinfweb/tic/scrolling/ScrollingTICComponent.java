@@ -23,6 +23,7 @@ import info.bioinfweb.tic.TICComponent;
 import info.bioinfweb.tic.exception.UnsupportedToolkitException;
 import info.bioinfweb.tic.toolkit.ScrollingToolkitComponent;
 
+import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import java.util.HashSet;
@@ -43,6 +44,7 @@ import java.util.Set;
  */
 public abstract class ScrollingTICComponent extends TICComponent {
 	private Set<TICScrollListener> scrollListeners = new HashSet<>();
+	private volatile boolean followingTail = false;
 
 	
 	//TODO Should the factories do any checks, if the created class implements ScrollingToolkitComponent?
@@ -77,14 +79,22 @@ public abstract class ScrollingTICComponent extends TICComponent {
 	 * of calling {@link #setScrollOffsetX(int)} and {@link #setScrollOffsetY(int)} separately to avoid unnecessary
 	 * repainting.
 	 * <p>
-	 * If no toolkit component has yet been created, calling this method will have no effect.
+	 * If no toolkit component has yet been created, calling this method will have no effect. If it is not called on 
+	 * the UI thread of the toolkit, the offset is set asynchronously using {@link #getUIExecutor()}.
 	 * 
 	 * @param x the new shift of the painting coordinate origin on x
 	 * @param y the new shift of the painting coordinate origin on y
 	 */
-	public void setScrollOffset(int x, int y) {
+	public void setScrollOffset(final int x, final int y) {
 		if (hasToolkitComponent()) {
-			getToolkitComponent().setScrollOffset(x, y);
+			executeOnUIThread(new Runnable() {
+				@Override
+				public void run() {
+					if (hasToolkitComponent()) {
+						getToolkitComponent().setScrollOffset(x, y);
+					}
+				}
+			});
 		}
 	}
 	
@@ -97,9 +107,16 @@ public abstract class ScrollingTICComponent extends TICComponent {
 	 * 
 	 * @param scrollOffsetX the new shift of the painting coordinate origin on x
 	 */
-	public void setScrollOffsetX(int x) {
+	public void setScrollOffsetX(final int x) {
 		if (hasToolkitComponent()) {
-			getToolkitComponent().setScrollOffset(x, getScrollOffsetY());
+			executeOnUIThread(new Runnable() {
+				@Override
+				public void run() {
+					if (hasToolkitComponent()) {
+						getToolkitComponent().setScrollOffset(x, getScrollOffsetY());
+					}
+				}
+			});
 		}
 	}
 	//TODO Check if the doc here and in the next 3 methods is correct, or if the setted value must -10 instead of 10.
@@ -113,9 +130,16 @@ public abstract class ScrollingTICComponent extends TICComponent {
 	 * 
 	 * @param y the new shift of the painting coordinate origin on y
 	 */
-	public void setScrollOffsetY(int y) {
+	public void setScrollOffsetY(final int y) {
 		if (hasToolkitComponent()) {
-			getToolkitComponent().setScrollOffset(getScrollOffsetX(), y);
+			executeOnUIThread(new Runnable() {
+				@Override
+				public void run() {
+					if (hasToolkitComponent()) {
+						getToolkitComponent().setScrollOffset(getScrollOffsetX(), y);
+					}
+				}
+			});
 		}
 	}
 	
@@ -145,10 +169,24 @@ public abstract class ScrollingTICComponent extends TICComponent {
   /**
    * Scrolls the contained component so that the specified rectangle of that component is visible.
    * If the rectangle is already fully visible, no scrolling will be performed.
+   * <p>
+   * If this method is not called on the UI thread of the toolkit, scrolling is performed asynchronously using 
+   * {@link #getUIExecutor()}.
    *  
    * @param rectangle the rectangle that shall become fully visible
    */
 	public void scrollRectangleToVisible(Rectangle2D rectangle) {
+		final Rectangle2D copiedRectangle = (Rectangle2D)rectangle.clone();  // The caller might modify its rectangle before the task is executed.
+		executeOnUIThread(new Runnable() {
+			@Override
+			public void run() {
+				scrollRectangleToVisibleOnUIThread(copiedRectangle);
+			}
+		});
+	}
+	
+	
+	private void scrollRectangleToVisibleOnUIThread(Rectangle2D rectangle) {
 		Rectangle visibleRect = getVisibleRectangle();
 
 		double x = getScrollOffsetX();  // Do not scroll
@@ -186,6 +224,102 @@ public abstract class ScrollingTICComponent extends TICComponent {
 	}
 	
 	
+	/**
+	 * Determines whether this container keeps its view pinned to the end of its content if content is appended
+	 * using {@link #assignAppendedSize(TICComponent)}.
+	 * 
+	 * @return {@code true} if tail-follow mode is enabled, {@code false} otherwise (default)
+	 * @since 3.0.0
+	 */
+	public boolean isFollowingTail() {
+		return followingTail;
+	}
+
+
+	/**
+	 * Enables or disables tail-follow mode. If enabled, {@link #assignAppendedSize(TICComponent)} scrolls to the new 
+	 * end of the content on each axis on which the view was scrolled to the end before the content was appended. 
+	 * If the user scrolled away from the end, the scroll position remains unchanged.
+	 * 
+	 * @param followingTail Specify {@code true} to enable tail-follow mode or {@code false} to disable it.
+	 * @since 3.0.0
+	 */
+	public void setFollowingTail(boolean followingTail) {
+		this.followingTail = followingTail;
+	}
+	
+	
+	/**
+	 * Adopts the size of the scrolled component after content has been appended to it. It calls 
+	 * {@link TICComponent#assignAppendedSize()} of the scrolled component, so that only the appended area is 
+	 * painted, and lets the scrolling toolkit component adopt the new content size using 
+	 * {@link ScrollingToolkitComponent#assignContentSize()}. Toolkit components that paint the scrolled component 
+	 * directly are asked to repaint the appended area.
+	 * <p>
+	 * If {@link #isFollowingTail()} returns {@code true} the view is afterwards kept at the end of the content as 
+	 * described in {@link #setFollowingTail(boolean)}. Scrolling toolkit components that move the remaining visible
+	 * content instead of repainting it (e.g. {@code DirectPaintingSwingScrollContainer})
+	 * then only paint the area that became visible.
+	 * <p>
+	 * This method may be called from any thread. Operations on the toolkit component are performed using 
+	 * {@link #getUIExecutor()}, if it is not called on the UI thread.
+	 * 
+	 * @param scrolledComponent the component displayed in this container to which content was appended
+	 * @throws IllegalArgumentException if {@code scrolledComponent} is {@code null}
+	 * @since 3.0.0
+	 */
+	public void assignAppendedSize(final TICComponent scrolledComponent) {
+		if (scrolledComponent == null) {
+			throw new IllegalArgumentException("The scrolled component must not be null.");
+		}
+		else {
+			final Dimension previousSize = scrolledComponent.getAssignedSize();
+			scrolledComponent.assignAppendedSize();  // Nested toolkit components repaint the appended area themselves.
+			final Dimension size = scrolledComponent.getAssignedSize();
+			if (hasToolkitComponent()) {
+				executeOnUIThread(new Runnable() {
+					@Override
+					public void run() {
+						if (hasToolkitComponent()) {
+							Rectangle visibleRectangle = getVisibleRectangle();  // Must be determined before the content size is adopted.
+							getToolkitComponent().assignContentSize();
+							if (!scrolledComponent.hasToolkitComponent()) {  // The scrolled component is painted directly by this container.
+								if ((previousSize == null) || (size == null) || (size.width < previousSize.width) || 
+										(size.height < previousSize.height)) {
+									
+									repaint();
+								}
+								else {
+									repaint(getAppendedAreas(previousSize, size));
+								}
+							}
+							if (isFollowingTail() && (previousSize != null) && (size != null)) {
+								followTail(visibleRectangle, previousSize, size);
+							}
+						}
+					}
+				});
+			}
+		}
+	}
+	
+	
+	private void followTail(Rectangle visibleRectangle, Dimension previousSize, Dimension size) {
+		int x = visibleRectangle.x;
+		if (visibleRectangle.getMaxX() >= previousSize.width) {
+			x = Math.max(0, size.width - visibleRectangle.width);
+		}
+		int y = visibleRectangle.y;
+		if (visibleRectangle.getMaxY() >= previousSize.height) {
+			y = Math.max(0, size.height - visibleRectangle.height);
+		}
+		
+		if ((x != visibleRectangle.x) || (y != visibleRectangle.y)) {
+			setScrollOffset(x, y);
+		}
+	}
+	
+	
 	/**
 	 * Returns an editable set of scroll listeners that will be notified by on scroll events happening 
 	 * within this component.
@@ -0,0 +1,68 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+
+
+/**
+ * Provides the timer thread used by the default implementation of {@link ToolkitComponent#invokeLater(Runnable, int)}
+ * for toolkits that do not have a dedicated UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+class DefaultTaskTimer {
+	private static Timer timer = null;
+	
+	
+	private static synchronized Timer getTimer() {
+		if (timer == null) {
+			timer = new Timer("TIC task timer", true);  // Daemon thread that does not prevent the JVM from exiting.
+		}
+		return timer;
+	}
+	
+	
+	/**
+	 * Executes the specified task on the timer thread after the specified delay. Exceptions thrown by the task 
+	 * are passed to the uncaught exception handler of the timer thread, which remains available for later tasks.
+	 * 
+	 * @param task the task to be executed
+	 * @param delay the delay in milliseconds (Negative values are treated as 0.)
+	 */
+	public static void schedule(final Runnable task, int delay) {
+		getTimer().schedule(new TimerTask() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				}
+				catch (Throwable e) {  // A timer is cancelled permanently if one of its tasks throws an exception.
+					Thread thread = Thread.currentThread();
+					thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+				}
+			}
+		}, Math.max(0, delay));
+	}
+}
@@ -40,4 +40,16 @@ public interface ScrollingToolkitComponent extends ToolkitComponent {
 	public void setScrollOffset(int x, int y);
 	
 	public Rectangle getVisibleRectangle();
+	
+	/**
+	 * Adopts a changed size of the scrolled content, e.g. by updating the ranges of scroll bars. This method is 
+	 * called by {@link ScrollingTICComponent#assignAppendedSize(info.bioinfweb.tic.TICComponent)} on the UI thread. 
+	 * <p>
+	 * This default implementation is empty, which is sufficient for containers that nest the toolkit component of 
+	 * the scrolled component and adopt its size when its {@link ToolkitComponent#assignSize()} is called. 
+	 * Containers that paint the scrolled component directly must overwrite this method.
+	 * 
+	 * @since 3.0.0
+	 */
+	public default void assignContentSize() {}
 }
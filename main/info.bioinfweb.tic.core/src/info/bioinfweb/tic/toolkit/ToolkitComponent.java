@@ -21,6 +21,7 @@ package info.bioinfweb.tic.toolkit;
 
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.geom.Rectangle2D;
 
 import info.bioinfweb.tic.TICComponent;
 import info.bioinfweb.tic.TargetToolkit;
@@ -62,6 +63,19 @@ public interface ToolkitComponent {
    */
   public void repaint();
   
+	/**
+	 * Repaints the specified area of this instance. Implementations convert the area to the coordinate system of 
+	 * the toolkit component (e.g. by considering the current scroll offset) and only invalidate the pixels
+	 * it covers. This default implementation repaints the whole component by calling {@link #repaint()}.
+	 * 
+	 * @param area the area to be repainted in the coordinate system of the <i>TIC</i> component painted by this 
+	 *        instance
+	 * @since 3.0.0
+	 */
+	public default void repaint(Rectangle2D area) {
+		repaint();
+	}
+  
 	/**
 	 * Returns the coordinates of this component relative to its parent component.
 	 * 
@@ -92,4 +106,70 @@ public interface ToolkitComponent {
 	 * Adopts the current size provided by the parent TIC component to this GUI toolkit component.
 	 */
 	public void assignSize();
+	
+	/**
+	 * Adopts the current size of the parent TIC component after content has been appended to it. Implementations 
+	 * should keep cached contents of the existing area valid, since {@link TICComponent#assignAppendedSize()} 
+	 * requests the appended area to be repainted separately. This default implementation calls {@link #assignSize()}.
+	 * 
+	 * @since 3.0.0
+	 */
+	public default void assignAppendedSize() {
+		assignSize();
+	}
+	
+	/**
+	 * Executes the specified task on the UI thread of the toolkit after the specified delay. This method may be
+	 * called from any thread.
+	 * <p>
+	 * This default implementation executes the task on a timer thread shared by all toolkit components, which is
+	 * only suitable for toolkits that allow their components to be accessed from any thread (see 
+	 * {@link #isUIThread()}). Implementations for toolkits with a dedicated UI thread must overwrite this method.
+	 * 
+	 * @param task the task to be executed
+	 * @param delay the delay in milliseconds
+	 * @since 3.0.0
+	 */
+	public default void invokeLater(Runnable task, int delay) {
+		DefaultTaskTimer.schedule(task, delay);
+	}
+	
+	/**
+	 * Executes the specified task on the UI thread of the toolkit as soon as possible. This method never blocks 
+	 * and may be called from any thread. This default implementation calls {@link #invokeLater(Runnable, int)}
+	 * with a delay of 0.
+	 * 
+	 * @param task the task to be executed
+	 * @see UIExecutor
+	 * @since 3.0.0
+	 */
+	public default void invokeLater(Runnable task) {
+		invokeLater(task, 0);
+	}
+	
+	/**
+	 * Determines whether the current thread is the UI thread of the toolkit. This default implementation always 
+	 * returns {@code true} and should be overwritten by toolkits that require components to be accessed from a
+	 * dedicated thread.
+	 * 
+	 * @return {@code true} if the toolkit component may be accessed directly from the current thread, 
+	 *         {@code false} if tasks must be passed to {@link #invokeLater(Runnable)}
+	 * @since 3.0.0
+	 */
+	public default boolean isUIThread() {
+		return true;
+	}
+	
+	/**
+	 * Determines whether this toolkit component has been disposed. Tasks passed to {@link #invokeLater(Runnable)}
+	 * or {@link #invokeLater(Runnable, int)} may be dropped without being executed after that. This default 
+	 * implementation always returns {@code false} and should be overwritten by toolkits that allow components to 
+	 * be disposed.
+	 * 
+	 * @return {@code true} if this component has been disposed, {@code false} otherwise
+	 * @since 3.0.0
+	 */
+	public default boolean isDisposed() {
+		return false;
+	}
 }
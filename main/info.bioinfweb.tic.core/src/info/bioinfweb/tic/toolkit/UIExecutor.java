@@ -0,0 +1,157 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+
+
+/**
+ * Executes tasks on the UI thread of the toolkit of a {@link ToolkitComponent}. It allows code running on worker 
+ * threads (e.g. data loaders) to modify components without knowing whether <i>Swing</i> or <i>SWT</i> is used.
+ * <p>
+ * All tasks submitted before the UI thread processes them are executed in a single turn of the event loop, in 
+ * the order they were submitted. Therefore only one event is posted to the toolkit for a batch of tasks, using 
+ * {@link ToolkitComponent#invokeLater(Runnable)}. {@link #execute(Runnable)} never blocks the caller and may 
+ * be called from any thread.
+ * <p>
+ * If a task throws an exception, the remaining tasks of the batch are still executed. The first exception is 
+ * then rethrown on the UI thread, so that it is reported by the exception handling of the toolkit.
+ * <p>
+ * If the toolkit component is disposed, all pending tasks are discarded and tasks submitted afterwards are 
+ * dropped, since the toolkit may not execute the posted batch anymore.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.core
+ */
+public class UIExecutor implements Executor {
+	private ToolkitComponent toolkitComponent;
+	private List<Runnable> pendingTasks = new ArrayList<Runnable>();
+	private boolean batchScheduled = false;
+	private Runnable batchTask = new Runnable() {
+		@Override
+		public void run() {
+			executeBatch();
+		}
+	};
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param toolkitComponent the toolkit component which determines the UI thread to execute tasks on
+	 * @throws IllegalArgumentException if {@code toolkitComponent} is {@code null}
+	 */
+	public UIExecutor(ToolkitComponent toolkitComponent) {
+		super();
+		if (toolkitComponent == null) {
+			throw new IllegalArgumentException("The toolkit component must not be null.");
+		}
+		else {
+			this.toolkitComponent = toolkitComponent;
+		}
+	}
+	
+	
+	/**
+	 * Returns the toolkit component which determines the UI thread to execute tasks on.
+	 * 
+	 * @return the associated toolkit component
+	 */
+	public ToolkitComponent getToolkitComponent() {
+		return toolkitComponent;
+	}
+	
+	
+	/**
+	 * Schedules the specified task for execution on the UI thread. This method returns immediately, even if it is 
+	 * called on the UI thread itself. The task is dropped, if the toolkit component has been disposed.
+	 * 
+	 * @param task the task to be executed
+	 * @throws IllegalArgumentException if {@code task} is {@code null}
+	 */
+	@Override
+	public void execute(Runnable task) {
+		if (task == null) {
+			throw new IllegalArgumentException("The task must not be null.");
+		}
+		else if (toolkitComponent.isDisposed()) {
+			discardPendingTasks();  // A batch posted before disposal might never be executed.
+		}
+		else {
+			boolean schedule;
+			synchronized (this) {
+				pendingTasks.add(task);
+				schedule = !batchScheduled;
+				batchScheduled = true;
+			}
+			if (schedule) {
+				toolkitComponent.invokeLater(batchTask);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Determines whether submitted tasks are currently waiting for execution.
+	 * 
+	 * @return {@code true} if at least one task is pending, {@code false} otherwise
+	 */
+	public synchronized boolean hasPendingTasks() {
+		return !pendingTasks.isEmpty();
+	}
+	
+	
+	private synchronized void discardPendingTasks() {
+		pendingTasks.clear();
+		batchScheduled = false;
+	}
+	
+	
+	private void executeBatch() {
+		List<Runnable> tasks;
+		synchronized (this) {
+			tasks = pendingTasks;
+			pendingTasks = new ArrayList<Runnable>();
+			batchScheduled = false;  // Tasks submitted by the following tasks are executed in the next turn.
+		}
+		if (toolkitComponent.isDisposed()) {
+			tasks.clear();
+		}
+		
+		RuntimeException exception = null;
+		for (Runnable task : tasks) {
+			try {
+				task.run();
+			}
+			catch (RuntimeException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+}
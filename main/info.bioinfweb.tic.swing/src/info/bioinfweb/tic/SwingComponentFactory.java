@@ -23,6 +23,7 @@ import info.bioinfweb.tic.exception.ToolkitSpecificInstantiationException;
 import info.bioinfweb.tic.input.SwingKeyEventForwarder;
 import info.bioinfweb.tic.input.SwingMouseEventForwarder;
 import info.bioinfweb.tic.input.SwingMouseWheelEventForwarder;
+import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 import info.bioinfweb.tic.toolkit.ToolkitComponent;
 
 import java.lang.reflect.Constructor;
@@ -134,6 +135,31 @@ public class SwingComponentFactory {
 	}
 	
 	
+	/**
+	 * Registers <i>Swing</i> event forwarders to allow <i>TIC</i> components to receive events.
+	 * <p>
+	 * This method is meant for internal use in <i>TIC</i>. It is usually not necessary to
+	 * call it in application code directly.
+	 * 
+	 * @param ticComponent the <i>TIC</i> component to receive forwarded events
+	 * @param toolkitComponent the <i>Swing</i> component that is the source of the input events
+	 * @param scrollingComponent the <i>TIC</i> component acting as the scroll container or {@code null}
+	 *        if {@code ticComponent} is not contained within a scroll container
+	 * @since 3.0.0
+	 */
+	public void registerEventForwarders(TICComponent ticComponent, JComponent toolkitComponent, 
+			ScrollingTICComponent scrollingComponent) {
+		
+		toolkitComponent.addKeyListener(new SwingKeyEventForwarder(ticComponent.getKeyListenersSet()));
+		SwingMouseEventForwarder mouseListeners = 
+				new SwingMouseEventForwarder(ticComponent.getMouseListenersSet(), scrollingComponent); 
+		toolkitComponent.addMouseListener(mouseListeners);
+		toolkitComponent.addMouseMotionListener(mouseListeners);
+		toolkitComponent.addMouseWheelListener(
+				new SwingMouseWheelEventForwarder(ticComponent.getMouseWheelListenersSet(), scrollingComponent));
+	}
+	
+	
 	/**
 	 * Creates the Swing component that will be associated with the specified TIC component if it was 
 	 * not created before. The created instance will be returned by {@link #getToolkitComponent()} 
@@ -160,13 +186,7 @@ public class SwingComponentFactory {
 	public JComponent getSwingComponent(TICComponent ticComponent, Object... additionalParameters) {
 		if (!ticComponent.hasToolkitComponent()) {
 			JComponent component = createSwingComponent(ticComponent, additionalParameters);
-			
-			component.addKeyListener(new SwingKeyEventForwarder(ticComponent.getKeyListenersSet()));
-			SwingMouseEventForwarder mouseListeners = new SwingMouseEventForwarder(ticComponent.getMouseListenersSet()); 
-			component.addMouseListener(mouseListeners);
-			component.addMouseMotionListener(mouseListeners);
-			component.addMouseWheelListener(new SwingMouseWheelEventForwarder(ticComponent.getMouseWheelListenersSet()));
-			
+			registerEventForwarders(ticComponent, component, null);
 			ticComponent.setToolkitComponent((ToolkitComponent)component);
 		}
 		else if (!ticComponent.getCurrentToolkit().equals(TargetToolkit.SWING)) {
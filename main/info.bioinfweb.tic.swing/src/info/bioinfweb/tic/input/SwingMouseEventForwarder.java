@@ -20,6 +20,7 @@ package info.bioinfweb.tic.input;
 
 
 import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
@@ -37,22 +38,38 @@ import java.awt.event.MouseMotionListener;
  * @since 2.0.0
  * @bioinfweb.module info.bioinfweb.tic.swing
  */
-public class SwingMouseEventForwarder extends AbstractEventForwarder<TICMouseListener>	
+public class SwingMouseEventForwarder extends AbstractSwingMouseEventForwarder<TICMouseListener>	
 		implements MouseListener, MouseMotionListener {
 	
 	public SwingMouseEventForwarder(TICListenerSet<TICMouseListener> listenerSet) {
-		super(listenerSet);
+		this(listenerSet, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param listenerSet the set of <i>TIC</i> listeners for forward events to
+	 * @param scrolledComponent Optional parameter that allows to specify a scrolled component that will be the
+	 *        receiver of forwarded events. If the receiver is not a scrolled component and no mouse coordinate
+	 *        transformation shall be performed, {@code null} can be specified here. 
+	 * @since 3.0.0
+	 */
+	public SwingMouseEventForwarder(TICListenerSet<TICMouseListener> listenerSet, ScrollingTICComponent scrolledComponent) {
+		super(listenerSet, scrolledComponent);
 	}
 
 
 	private TICMouseEvent createEvent(TICComponent source, MouseEvent swingEvent) {
 		return new TICMouseEvent(source, swingEvent.getID(), swingEvent.getWhen(), swingEvent.getModifiersEx(), 
-				swingEvent.getButton(),	swingEvent.getClickCount(), swingEvent.isPopupTrigger(), swingEvent.getX(), swingEvent.getY());
+				swingEvent.getButton(),	swingEvent.getClickCount(), swingEvent.isPopupTrigger(), 
+				transformMouseX(swingEvent.getX()), transformMouseY(swingEvent.getY()));
 	}
 
 
 	@Override
 	public void mouseDragged(MouseEvent event) {
+		notifyInteraction();
 		boolean consumed = false;
 		for (TICMouseListener listener: getListenerSet().getListeners()) {
 			consumed = consumed || listener.mouseDragged(createEvent(getListenerSet().getOwner(), event));
@@ -20,6 +20,7 @@ package info.bioinfweb.tic.input;
 
 
 import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
@@ -36,24 +37,42 @@ import java.awt.event.MouseWheelListener;
  * @since 2.0.0
  * @bioinfweb.module info.bioinfweb.tic.swing
  */
-public class SwingMouseWheelEventForwarder extends AbstractEventForwarder<TICMouseWheelListener> 
+public class SwingMouseWheelEventForwarder extends AbstractSwingMouseEventForwarder<TICMouseWheelListener> 
 		implements MouseWheelListener {
 	
 	
 	public SwingMouseWheelEventForwarder(TICListenerSet<TICMouseWheelListener> listenerSet) {
-		super(listenerSet);
+		this(listenerSet, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param listenerSet the set of <i>TIC</i> listeners for forward events to
+	 * @param scrolledComponent Optional parameter that allows to specify a scrolled component that will be the
+	 *        receiver of forwarded events. If the receiver is not a scrolled component and no mouse coordinate
+	 *        transformation shall be performed, {@code null} can be specified here. 
+	 * @since 3.0.0
+	 */
+	public SwingMouseWheelEventForwarder(TICListenerSet<TICMouseWheelListener> listenerSet, 
+			ScrollingTICComponent scrolledComponent) {
+		
+		super(listenerSet, scrolledComponent);
 	}
 	
 	
 	private TICMouseWheelEvent createEvent(TICComponent source, MouseWheelEvent swingEvent) {
 		return new TICMouseWheelEvent(source, swingEvent.getID(), swingEvent.getWhen(), swingEvent.getModifiersEx(), 
-				swingEvent.getButton(),	swingEvent.getClickCount(), swingEvent.isPopupTrigger(), swingEvent.getX(), swingEvent.getY(),
+				swingEvent.getButton(),	swingEvent.getClickCount(), swingEvent.isPopupTrigger(), 
+				transformMouseX(swingEvent.getX()), transformMouseY(swingEvent.getY()),
 				swingEvent.getWheelRotation(), swingEvent.getPreciseWheelRotation());
 	}
 	
 	
 	@Override
 	public void mouseWheelMoved(MouseWheelEvent event) {
+		notifyInteraction();
 		boolean consumed = false;
 		for (TICMouseWheelListener listener: getListenerSet().getListeners()) {
 			consumed = consumed || listener.mouseWheelMoved(createEvent(getListenerSet().getOwner(), event));
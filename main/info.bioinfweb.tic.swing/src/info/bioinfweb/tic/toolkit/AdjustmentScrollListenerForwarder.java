@@ -21,6 +21,7 @@ package info.bioinfweb.tic.toolkit;
 
 import info.bioinfweb.tic.scrolling.TICScrollEvent;
 
+import java.awt.Component;
 import java.awt.event.AdjustmentEvent;
 import java.awt.event.AdjustmentListener;
 
@@ -43,6 +44,12 @@ public class AdjustmentScrollListenerForwarder implements AdjustmentListener {
 	
 	@Override
 	public void adjustmentValueChanged(AdjustmentEvent e) {
+		if (getSource() instanceof JScrollPaneToolkitComponent) {
+			Component view = ((JScrollPaneToolkitComponent)getSource()).getScrollPane().getViewport().getView();
+			if (view instanceof ToolkitComponent) {
+				((ToolkitComponent)view).getIndependentComponent().notifyInteraction((ToolkitComponent)view);
+			}
+		}
 		getSource().getIndependentComponent().fireControlScrolled(new TICScrollEvent(getSource()));
 	}
 }
@@ -19,13 +19,25 @@
 package info.bioinfweb.tic.toolkit;
 
 
+import info.bioinfweb.tic.PaintDeadlinePolicy;
 import info.bioinfweb.tic.TICComponent;
 import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.rendering.AsyncRenderer;
+import info.bioinfweb.tic.rendering.LayerCache;
+import info.bioinfweb.tic.rendering.TileCache;
 
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.beans.Transient;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
 
 
 
@@ -33,19 +45,386 @@ import java.beans.Transient;
  * The default Swing component implementation to be associated with a {@link TICComponent}.
  * <p>
  * It overwrites {@link #paint(Graphics)} using {@link TICComponent#paint(TICPaintEvent)} to paint the component.
+ * <p>
+ * The rectangle of the created {@link TICPaintEvent} is the clip of the <i>Swing</i> graphics context and not the
+ * whole visible area, so that small invalidations (e.g. a blinking cursor) only cause small areas to be repainted.
+ * Since the {@link javax.swing.RepaintManager} merges all dirty regions of a component to their bounding box, this
+ * class additionally records the areas passed to its {@code repaint()} methods. If the clip of a paint operation
+ * is exactly the bounding box of several of these areas, they are passed to {@link TICPaintEvent#getAreas()}.
+ * <p>
+ * Note that implementations of {@link TICComponent#paint(TICPaintEvent)} that only paint these areas rely on 
+ * the retained back buffer <i>Swing</i> uses by default to keep the remaining contents of the bounding box.
+ * <p>
+ * If {@link TICComponent#isRetainedSwingPaintingSupported()} returns {@code true}, the visible area is painted 
+ * using a {@link SwingRetainedBuffer}.
+ * <p>
+ * If {@link TICComponent#isTileCachingSupported()} returns {@code true}, the component is painted using the 
+ * {@link TileCache} returned by {@link #getTileCache()}. Recorded dirty areas are invalidated in that cache. 
+ * (Retained painting takes precedence, if both are enabled.) The same {@link TileCache} is used to render tiles 
+ * concurrently, if {@link TICComponent#isConcurrentPaintingSupported()} returns {@code true}. (Tiles are discarded 
+ * after each paint operation, if tile caching is not supported.)
+ * <p>
+ * If {@link TICComponent#getLayers()} returns a non-empty list, the component is painted using the 
+ * {@link LayerCache} returned by {@link #getLayerCache()}, which takes precedence over tile caching. Note that 
+ * cached layers are only invalidated by the {@code repaint()} methods of {@link TICComponent} and not by 
+ * {@code repaint()} of this class.
+ * <p>
+ * The device scale of the <i>Swing</i> graphics context (e.g. 2 on HiDPI screens with <i>Java</i> 9 or later) is 
+ * passed to {@link TICPaintEvent#getDeviceScale()}. Tile and layer caches render their images with the according
+ * resolution (see {@link TICComponent#getRenderScale(double, info.bioinfweb.tic.RenderQuality)}) and discard them
+ * if the scale changes, e.g. because the window was moved to another screen.
+ * <p>
+ * If {@link TICComponent#getPaintBudget()} returns a value greater than 0, directly painted events have an
+ * according deadline. Areas the component reports as unfinished are handled as specified by 
+ * {@link #getDeadlinePolicy()}.
+ * <p>
+ * If {@link TICComponent#isAsynchronousPaintingSupported()} returns {@code true}, the visible area is rendered 
+ * by an {@link AsyncRenderer} on a background thread and {@link #paint(Graphics)} only draws its newest frame. 
+ * (Asynchronous painting takes precedence over all other modes.)
  * 
  * @author Ben St&ouml;ver
  * @bioinfweb.module info.bioinfweb.tic.swing
  */
 public class DefaultSwingComponent extends AbstractSwingComponent {
+	private List<Rectangle> dirtyAreas = new ArrayList<Rectangle>();
+	private boolean assigningAppendedSize = false;  // Only accessed on the event dispatch thread.
+	private SwingRetainedBuffer retainedBuffer = null;
+	private TileCache tileCache = null;
+	private AsyncRenderer asyncRenderer = null;
+	private LayerCache layerCache = null;
+	private PaintDeadlinePolicy deadlinePolicy = PaintDeadlinePolicy.CONTINUE;
+	
+	
 	public DefaultSwingComponent(TICComponent ticComponent) {
 		super(ticComponent);
 	}
 	
+	
+	/**
+	 * Records the specified area in addition to adding it to the dirty regions of the {@link javax.swing.RepaintManager}.
+	 * All other {@code repaint()} methods of {@link javax.swing.JComponent} delegate to this method.
+	 */
+	@Override
+	public void repaint(long tm, int x, int y, int width, int height) {
+		if ((dirtyAreas != null) &&  // Might be called by the constructor of the superclass.
+				!(assigningAppendedSize && SwingUtilities.isEventDispatchThread())) {
+			
+			synchronized (dirtyAreas) {  // repaint() may be called from any thread.
+				dirtyAreas.add(new Rectangle(x, y, width, height));
+			}
+		}
+		super.repaint(tm, x, y, width, height);
+	}
+	
+	
+	/**
+	 * Adopts the size of the independent component without recording the repaint of the whole component that
+	 * <i>Swing</i> performs if the size of a showing component changes. Cached tiles therefore remain valid outside
+	 * of the appended area, which is requested separately by {@link TICComponent#assignAppendedSize()}.
+	 */
+	@Override
+	public void assignAppendedSize() {
+		assigningAppendedSize = true;
+		try {
+			assignSize();
+		}
+		finally {
+			assigningAppendedSize = false;
+		}
+	}
+	
+	
+	private List<Rectangle> removeDirtyAreas() {
+		synchronized (dirtyAreas) {
+			List<Rectangle> result = new ArrayList<Rectangle>(dirtyAreas);
+			dirtyAreas.clear();
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Determines the recorded dirty areas that describe the specified clip.
+	 * 
+	 * @param areas the recorded dirty areas
+	 * @param clip the clip of the current paint operation
+	 * @return a list of at least two areas which have {@code clip} as their bounding box or {@code null} if the
+	 *         recorded areas do not describe {@code clip}
+	 */
+	private static List<Rectangle> getClipAreas(List<Rectangle> areas, Rectangle clip) {
+		List<Rectangle> result = new ArrayList<Rectangle>(areas.size());
+		Rectangle bounds = null;
+		for (Rectangle area : areas) {
+			area = area.intersection(clip);
+			if (!area.isEmpty()) {
+				result.add(area);
+				if (bounds == null) {
+					bounds = new Rectangle(area);
+				}
+				else {
+					bounds.add(area);
+				}
+			}
+		}
+		
+		if ((result.size() > 1) && clip.equals(bounds)) {  // Otherwise parts of the clip were invalidated by other means (e.g. by the parent).
+			return result;
+		}
+		else {
+			return null;
+		}
+	}
+	
+
+	/**
+	 * Returns the tile cache used to paint this component if {@link TICComponent#isTileCachingSupported()} 
+	 * returns {@code true}. The cache is created on the first call of this method.
+	 * 
+	 * @return the tile cache of this component
+	 * @since 3.0.0
+	 */
+	public TileCache getTileCache() {
+		if (tileCache == null) {
+			tileCache = new TileCache(getBufferImageType());
+		}
+		return tileCache;
+	}
+	
+	
+	/**
+	 * Returns the layer cache used to paint this component if {@link TICComponent#getLayers()} returns a non-empty
+	 * list. The cache is created on the first call of this method.
+	 * 
+	 * @return the layer cache of this component
+	 * @since 3.0.0
+	 */
+	public LayerCache getLayerCache() {
+		if (layerCache == null) {
+			layerCache = new LayerCache();
+		}
+		return layerCache;
+	}
+	
+	
+	/**
+	 * Returns the way areas are handled that the component could not paint before the deadline of a paint event.
+	 * 
+	 * @return the deadline policy of this component ({@link PaintDeadlinePolicy#CONTINUE} by default)
+	 * @see TICComponent#getPaintBudget()
+	 * @since 3.0.0
+	 */
+	public PaintDeadlinePolicy getDeadlinePolicy() {
+		return deadlinePolicy;
+	}
+	
+	
+	/**
+	 * Specifies the way areas are handled that the component could not paint before the deadline of a paint 
+	 * event.
+	 * 
+	 * @param deadlinePolicy the new deadline policy
+	 * @throws IllegalArgumentException if {@code deadlinePolicy} is {@code null}
+	 * @since 3.0.0
+	 */
+	public void setDeadlinePolicy(PaintDeadlinePolicy deadlinePolicy) {
+		if (deadlinePolicy == null) {
+			throw new IllegalArgumentException("The deadline policy must not be null.");
+		}
+		else {
+			this.deadlinePolicy = deadlinePolicy;
+		}
+	}
+	
+	
+	private int getBufferImageType() {
+		if (getIndependentComponent().isTranslucent()) {
+			return BufferedImage.TYPE_INT_ARGB;
+		}
+		else {
+			return BufferedImage.TYPE_INT_RGB;
+		}
+	}
+	
+	
+	private Color getBufferBackground() {
+		if (getIndependentComponent().isTranslucent()) {
+			return null;
+		}
+		else {
+			return getBackground();
+		}
+	}
+	
+	
+	private long getPaintDeadline() {
+		int budget = getIndependentComponent().getPaintBudget();
+		if ((budget > 0) && !isPaintingForPrint()) {  // Printed pages must always be complete.
+			return System.nanoTime() + budget * 1000000L;
+		}
+		else {
+			return TICPaintEvent.NO_DEADLINE;
+		}
+	}
+	
+	
+	/**
+	 * Schedules a continuation paint of the areas the component could not paint before the deadline, if 
+	 * specified by the deadline policy. The repaint is requested on the next turn of the event loop, so that 
+	 * pending input events are processed first.
+	 */
+	private void handleUnfinishedAreas(TICPaintEvent event) {
+		if (PaintDeadlinePolicy.CONTINUE.equals(getDeadlinePolicy()) && !event.getUnfinishedAreas().isEmpty()) {
+			final List<Rectangle> areas = new ArrayList<Rectangle>(event.getUnfinishedAreas().size());
+			for (Rectangle2D area : event.getUnfinishedAreas()) {
+				areas.add(area.getBounds());
+			}
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					for (Rectangle area : areas) {
+						repaint(area);
+					}
+				}
+			});
+		}
+	}
+	
+	
+	private void paintTiles(List<Rectangle> dirtyAreas, TICPaintEvent event) {
+		for (Rectangle area : dirtyAreas) {
+			getTileCache().invalidate(area);
+		}
+		getTileCache().paint(getIndependentComponent(), event, getBufferBackground());
+		if (!getIndependentComponent().isTileCachingSupported()) {
+			getTileCache().invalidateAll();  // Tiles were only rendered to paint concurrently.
+		}
+	}
+	
+	
+	/**
+	 * Repaints the visible area without recording it as a dirty area, since only a new frame of the asynchronous
+	 * renderer needs to be drawn.
+	 */
+	private void repaintFrame() {
+		Rectangle visibleRect = getVisibleRect();
+		super.repaint(0, visibleRect.x, visibleRect.y, visibleRect.width, visibleRect.height);
+	}
+	
+	
+	private boolean paintAsynchronously(Graphics2D graphics, List<Rectangle> dirtyAreas) {
+		if (getIndependentComponent().isAsynchronousPaintingSupported() && !isPaintingForPrint()) {
+			if (asyncRenderer == null) {
+				asyncRenderer = new AsyncRenderer(getIndependentComponent(), this, getBufferImageType(), new Runnable() {
+					@Override
+					public void run() {
+						SwingUtilities.invokeLater(new Runnable() {
+							@Override
+							public void run() {
+								repaintFrame();
+							}
+						});
+					}
+				});
+			}
+			if (!dirtyAreas.isEmpty()) {
+				asyncRenderer.invalidate();
+			}
+			Color background = getBufferBackground();
+			asyncRenderer.requestFrame(getVisibleRect(), background);
+			
+			AsyncRenderer.Frame frame = asyncRenderer.getLatestFrame();
+			Rectangle clip = graphics.getClipBounds();
+			if (clip == null) {
+				clip = getVisibleRect();
+			}
+			if ((background != null) && ((frame == null) || !frame.getBounds().contains(clip))) {
+				graphics.setColor(background);  // Areas not covered by the last frame (e.g. after scrolling) remain empty until the next frame is available.
+				graphics.fill(clip);
+			}
+			if (frame != null) {
+				Rectangle bounds = frame.getBounds();
+				graphics.drawImage(frame.getImage(), bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, 
+						0, 0, bounds.width, bounds.height, null);
+			}
+			return true;
+		}
+		else {
+			if (asyncRenderer != null) {
+				asyncRenderer.dispose();
+				asyncRenderer = null;
+			}
+			return false;
+		}
+	}
+	
+	
+	private boolean paintRetained(Graphics2D graphics, List<Rectangle> dirtyAreas) {
+		if (getIndependentComponent().isRetainedSwingPaintingSupported() && !isPaintingForPrint()) {
+			if (retainedBuffer == null) {
+				retainedBuffer = new SwingRetainedBuffer(this, getIndependentComponent());
+			}
+			for (Rectangle area : dirtyAreas) {
+				retainedBuffer.invalidate(area);
+			}
+			return retainedBuffer.paint(graphics, getVisibleRect());
+		}
+		else {
+			if (retainedBuffer != null) {
+				retainedBuffer.release();  // Otherwise the snapshot would be outdated if retained painting is enabled again.
+			}
+			return false;
+		}
+	}
+	
 
 	@Override
 	public void paint(Graphics graphics) {
-		getIndependentComponent().paint(new TICPaintEvent(this, (Graphics2D)graphics, getVisibleRect()));
+		List<Rectangle> areas = removeDirtyAreas();
+		if (!paintAsynchronously((Graphics2D)graphics, areas) && !paintRetained((Graphics2D)graphics, areas)) {
+			Rectangle clip = graphics.getClipBounds();
+			if (clip == null) {  // Graphics contexts not created by Swing may have no clip.
+				clip = getVisibleRect();
+			}
+			TICPaintEvent event = new TICPaintEvent(this, (Graphics2D)graphics, clip, getClipAreas(areas, clip), null, 
+					getIndependentComponent().getRenderQuality(), SwingComponentTools.getDeviceScale((Graphics2D)graphics), getPaintDeadline());
+			if (!getIndependentComponent().getLayers().isEmpty() && !isPaintingForPrint()) {
+				if (tileCache != null) {
+					tileCache.invalidateAll();
+				}
+				getLayerCache().paint(getIndependentComponent(), event, getVisibleRect(), getBufferBackground());
+			}
+			else if ((getIndependentComponent().isTileCachingSupported() || getIndependentComponent().isConcurrentPaintingSupported()) && 
+					!isPaintingForPrint()) {
+				
+				paintTiles(areas, event);
+			}
+			else {
+				if (tileCache != null) {
+					tileCache.invalidateAll();  // Otherwise tiles would be outdated if tile caching is enabled again.
+				}
+				getIndependentComponent().paint(event);
+				handleUnfinishedAreas(event);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Releases the retained snapshot and the cached layers of this component and ends its render thread, if present.
+	 */
+	@Override
+	public void removeNotify() {
+		if (retainedBuffer != null) {
+			retainedBuffer.release();
+		}
+		if (asyncRenderer != null) {
+			asyncRenderer.dispose();
+			asyncRenderer = null;
+		}
+		if (layerCache != null) {
+			layerCache.release();
+		}
+		super.removeNotify();
 	}
 
 
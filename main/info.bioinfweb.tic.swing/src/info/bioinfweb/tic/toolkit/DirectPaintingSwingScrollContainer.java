@@ -0,0 +1,368 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.SwingComponentFactory;
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.rendering.BackingRaster;
+import info.bioinfweb.tic.rendering.InvalidAreas;
+import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.beans.Transient;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.JScrollBar;
+
+
+
+/**
+ * <i>Swing</i> scroll container that directly paints the visible part of an output component instead of 
+ * nesting a toolkit component of it. It is the <i>Swing</i> counterpart of {@code DirectPaintingSWTScrollContainer}.
+ * <p>
+ * The output component is painted into a fixed-size viewport, which is located in the upper left corner of 
+ * this container, next to a vertical and above a horizontal {@link JScrollBar}. The contents of the viewport are 
+ * kept in a persistent off-screen image. If the scroll position changes, the part of this image that remains 
+ * visible is moved using {@link Graphics#copyArea(int, int, int, int, int, int)} and only the newly exposed strips 
+ * are painted by the output component. Paint requests that do not result from a call of one of the 
+ * {@code repaint()} methods of this instance (e.g. if the component was covered by another window) are processed 
+ * by just drawing the off-screen image.
+ * <p>
+ * The off-screen image is rendered with the device scale of the <i>Swing</i> graphics context (e.g. 2 on HiDPI 
+ * screens), which is also passed to {@link TICPaintEvent#getDeviceScale()}. Its contents are only moved if the 
+ * scroll distance and the viewport size correspond to whole device pixels. Otherwise the whole viewport is 
+ * painted again.
+ * <p>
+ * Changes of the contents of the output component must therefore be signaled by one of the {@code repaint()} 
+ * methods of this instance.
+ * <p>
+ * Key and mouse events are forwarded to the output component. Since the viewport is located at the origin of this 
+ * container, mouse coordinates are transformed by just adding the current scroll offset.
+ * <p>
+ * Since the output component is painted directly by calling {@link TICComponent#paint(TICPaintEvent)} on the 
+ * <i>Swing</i> event dispatch thread, the following features of regular toolkit components are not supported by 
+ * this container:
+ * <ul>
+ *   <li>tile caching ({@link TICComponent#isTileCachingSupported()}),</li>
+ *   <li>concurrent or asynchronous painting ({@link TICComponent#isConcurrentPaintingSupported()},
+ *       {@link TICComponent#isAsynchronousPaintingSupported()}),</li>
+ *   <li>cached layers ({@link TICComponent#getLayers()}) and</li>
+ *   <li>paint deadlines and their {@link info.bioinfweb.tic.PaintDeadlinePolicy}. The paint events created by
+ *       this container never have a deadline, so the output component always paints all requested areas at once.</li>
+ * </ul>
+ * The viewport is always painted opaque using the background color of this container, even if 
+ * {@link TICComponent#isTranslucent()} returns {@code true} for the output component.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swing
+ */
+public class DirectPaintingSwingScrollContainer extends AbstractSwingComponent implements JScrollBarsToolkitComponent {
+	/** The number of pixels scrolled by the arrow buttons of the scroll bars or one unit of the mouse wheel. */
+	public static final int UNIT_INCREMENT = 16;
+	
+	
+	private class Viewport extends JComponent {
+		public Viewport() {
+			super();
+			setOpaque(true);
+		}
+		
+		
+		@Override
+		protected void paintComponent(Graphics g) {
+			paintViewport(g);
+		}
+		
+		
+		@Override
+		@Transient
+		public Dimension getPreferredSize() {
+			if (isPreferredSizeSet()) {
+				return super.getPreferredSize();
+			}
+			else {
+				return getOutputComponent().getSize();
+			}
+		}
+	}
+	
+	
+	private TICComponent outputComponent;
+	private Viewport viewport;
+	private JScrollBar horizontalScrollBar;
+	private JScrollBar verticalScrollBar;
+	private Point offset = new Point(0, 0);
+	private BackingRaster backingRaster = new BackingRaster(BufferedImage.TYPE_INT_RGB);
+	private double imageScale = 1.0;
+	private InvalidAreas invalidAreas = new InvalidAreas();
+	
+	
+	/**
+	 * Creates a new instance of this class that forwards key and mouse events to {@code outputComponent}.
+	 * The mouse events will have transformed coordinates according to the current scroll position.
+	 * 
+	 * @param ticComponent the <i>TIC</i> component associated with the returned instance (the scroll container)
+	 * @param outputComponent the <i>TIC</i> component to be scrolled by the returned instance
+	 */
+	public DirectPaintingSwingScrollContainer(ScrollingTICComponent ticComponent, TICComponent outputComponent) {
+		super(ticComponent);
+		this.outputComponent = outputComponent;
+		
+		setLayout(new BorderLayout(0, 0));
+		viewport = new Viewport();
+		add(viewport, BorderLayout.CENTER);
+		horizontalScrollBar = new JScrollBar(JScrollBar.HORIZONTAL);
+		horizontalScrollBar.setUnitIncrement(UNIT_INCREMENT);
+		add(horizontalScrollBar, BorderLayout.SOUTH);
+		verticalScrollBar = new JScrollBar(JScrollBar.VERTICAL);
+		verticalScrollBar.setUnitIncrement(UNIT_INCREMENT);
+		add(verticalScrollBar, BorderLayout.EAST);
+		
+		AdjustmentListener adjustmentListener = new AdjustmentListener() {
+			@Override
+			public void adjustmentValueChanged(AdjustmentEvent e) {
+				getOutputComponent().notifyInteraction(DirectPaintingSwingScrollContainer.this);
+				scrollViewport(horizontalScrollBar.getValue(), verticalScrollBar.getValue());
+			}
+		};
+		horizontalScrollBar.addAdjustmentListener(adjustmentListener);
+		verticalScrollBar.addAdjustmentListener(adjustmentListener);
+		SwingComponentTools.registerScrollEventForwarders(this);
+		
+		SwingComponentFactory.getInstance().registerEventForwarders(outputComponent, this, ticComponent);
+		addMouseWheelListener(new MouseWheelListener() {
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				JScrollBar scrollBar = verticalScrollBar;
+				if (e.isShiftDown()) {
+					scrollBar = horizontalScrollBar;
+				}
+				scrollBar.setValue(scrollBar.getValue() + e.getUnitsToScroll() * scrollBar.getUnitIncrement());
+			}
+		});
+		
+		viewport.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent e) {
+				updateScrollBars();
+				backingRaster.shrink(toImagePixels(viewport.getWidth()), toImagePixels(viewport.getHeight()));
+			}
+		});
+	}
+	
+	
+	@Override
+	public ScrollingTICComponent getIndependentComponent() {
+		return (ScrollingTICComponent)super.getIndependentComponent();
+	}
+	
+	
+	/**
+	 * Returns the <i>TIC</i> component that is painted in the viewport of this container.
+	 * 
+	 * @return the output component
+	 */
+	public TICComponent getOutputComponent() {
+		return outputComponent;
+	}
+	
+	
+	@Override
+	public JScrollBar getHorizontalScrollBar() {
+		return horizontalScrollBar;
+	}
+	
+	
+	@Override
+	public JScrollBar getVerticalScrollBar() {
+		return verticalScrollBar;
+	}
+	
+	
+	/**
+	 * Updates the ranges of the scroll bars according to the current size of the output component. 
+	 */
+	@Override
+	public void assignContentSize() {
+		updateScrollBars();
+	}
+	
+	
+	/**
+	 * Adjusts the ranges of the scroll bars to the current sizes of the viewport and the output component. If the
+	 * current scroll position is no longer valid, the scroll bars will move the viewport accordingly.
+	 */
+	private void updateScrollBars() {
+		Dimension size = getOutputComponent().getSize();
+		horizontalScrollBar.setValues(horizontalScrollBar.getValue(), Math.min(size.width, viewport.getWidth()), 0, size.width);
+		horizontalScrollBar.setBlockIncrement(Math.max(UNIT_INCREMENT, viewport.getWidth()));
+		verticalScrollBar.setValues(verticalScrollBar.getValue(), Math.min(size.height, viewport.getHeight()), 0, size.height);
+		verticalScrollBar.setBlockIncrement(Math.max(UNIT_INCREMENT, viewport.getHeight()));
+	}
+	
+	
+	/**
+	 * Moves the contents of the viewport image to a new scroll offset and marks the newly exposed strips as invalid.
+	 * 
+	 * @param offsetX the new scroll offset on x
+	 * @param offsetY the new scroll offset on y
+	 */
+	private void scrollViewport(int offsetX, int offsetY) {
+		int dx = offset.x - offsetX;
+		int dy = offset.y - offsetY;
+		offset.x = offsetX;
+		offset.y = offsetY;
+		if ((dx != 0) || (dy != 0)) {
+			if (!isWholePixel(dx) || !isWholePixel(dy) || !isWholePixel(invalidAreas.getWidth()) || 
+					!isWholePixel(invalidAreas.getHeight())) {
+				
+				invalidAreas.invalidateAll();  // Moved image contents would not be aligned with the device pixels.
+			}
+			else if (invalidAreas.scroll(dx, dy) && backingRaster.hasImage()) {
+				int width = toImagePixels(invalidAreas.getWidth());
+				int height = toImagePixels(invalidAreas.getHeight());
+				int pixelDX = toImagePixels(dx);
+				int pixelDY = toImagePixels(dy);
+				Graphics2D g = backingRaster.getImage(width, height).createGraphics();
+				try {
+					g.copyArea(Math.max(0, -pixelDX), Math.max(0, -pixelDY), width - Math.abs(pixelDX), 
+							height - Math.abs(pixelDY), pixelDX, pixelDY);
+				}
+				finally {
+					g.dispose();
+				}
+			}
+			viewport.repaint();  // Only draws the viewport image and the newly exposed strips.
+		}
+	}
+	
+	
+	private boolean isWholePixel(int length) {
+		double pixels = length * imageScale;
+		return Math.rint(pixels) == pixels;
+	}
+	
+	
+	/**
+	 * Converts a length in the coordinate system of the viewport to pixels of the viewport image.
+	 */
+	private int toImagePixels(int length) {
+		return (int)Math.ceil(length * imageScale);
+	}
+	
+	
+	/**
+	 * Paints all invalid areas of the viewport image, if necessary, and draws the image on the specified graphics 
+	 * context.
+	 * 
+	 * @param g the graphics context of the viewport
+	 */
+	private void paintViewport(Graphics g) {
+		int width = viewport.getWidth();
+		int height = viewport.getHeight();
+		if ((width > 0) && (height > 0)) {
+			double scale = SwingComponentTools.getDeviceScale((Graphics2D)g);
+			if (!backingRaster.hasImage() || (invalidAreas.getWidth() != width) || (invalidAreas.getHeight() != height) || 
+					(scale != imageScale)) {
+				
+				invalidAreas.reset(width, height);
+				imageScale = scale;
+			}
+			BufferedImage image = backingRaster.getImage(toImagePixels(width), toImagePixels(height));
+			
+			if (!invalidAreas.isEmpty()) {
+				List<Rectangle> areas = invalidAreas.removeAll();
+				Graphics2D imageGraphics = image.createGraphics();
+				try {
+					imageGraphics.scale(imageScale, imageScale);
+					Rectangle bounds = new Rectangle(areas.get(0));
+					imageGraphics.setColor(getBackground());
+					List<Rectangle> paintAreas = new ArrayList<Rectangle>(areas.size());
+					for (Rectangle area : areas) {
+						bounds.add(area);
+						imageGraphics.fillRect(area.x, area.y, area.width, area.height);
+						paintAreas.add(new Rectangle(area.x + offset.x, area.y + offset.y, area.width, area.height));
+					}
+					imageGraphics.clipRect(bounds.x, bounds.y, bounds.width, bounds.height);
+					imageGraphics.translate(-offset.x, -offset.y);
+					bounds.translate(offset.x, offset.y);
+					getOutputComponent().paint(new TICPaintEvent(this, imageGraphics, bounds, paintAreas, null, 
+							getOutputComponent().getRenderQuality(), imageScale));
+				}
+				finally {
+					imageGraphics.dispose();
+				}
+			}
+			
+			Graphics2D g2 = (Graphics2D)g.create();
+			try {
+				g2.clipRect(0, 0, width, height);  // The image may be larger than the viewport.
+				g2.scale(1 / imageScale, 1 / imageScale);
+				g2.drawImage(image, 0, 0, null);  // The graphics context is clipped to the damaged area by Swing.
+			}
+			finally {
+				g2.dispose();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Marks the specified area of the output component as invalid, so that it is repainted if it is currently 
+	 * visible in the viewport.
+	 * 
+	 * @param area the area to be repainted in the coordinate system of the output component
+	 */
+	@Override
+	public void repaint(Rectangle2D area) {
+		Rectangle bounds = area.getBounds();
+		repaint(bounds.x - offset.x + viewport.getX(), bounds.y - offset.y + viewport.getY(), bounds.width, bounds.height);
+	}
+	
+	
+	/**
+	 * Marks the specified area as invalid, so that it is repainted by the output component. Since all painting is
+	 * done by the viewport, this affects all {@code repaint()} methods.
+	 */
+	@Override
+	public void repaint(long tm, int x, int y, int width, int height) {
+		if (viewport != null) {  // Might be called by the constructor of the superclass.
+			invalidAreas.invalidate(new Rectangle(x - viewport.getX(), y - viewport.getY(), width, height));
+		}
+		super.repaint(tm, x, y, width, height);
+	}
+}
@@ -21,7 +21,9 @@ package info.bioinfweb.tic.toolkit;
 
 import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 
+import java.awt.Component;
 import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 
 import javax.swing.JScrollPane;
 
@@ -61,4 +63,21 @@ public interface JScrollPaneToolkitComponent extends ScrollingToolkitComponent,
 	public default Rectangle getVisibleRectangle() {
 		return getScrollPane().getViewport().getViewRect();
 	}
+	
+	
+	/**
+	 * Repaints the specified area of the component displayed in the viewport of the scroll pane, which already
+	 * considers the current scroll position. The whole scroll pane is repainted if the viewport is empty.
+	 */
+	@Override
+	public default void repaint(Rectangle2D area) {
+		Component view = getScrollPane().getViewport().getView();
+		if (view != null) {
+			Rectangle bounds = area.getBounds();
+			view.repaint(bounds.x, bounds.y, bounds.width, bounds.height);
+		}
+		else {
+			repaint();
+		}
+	}
 }
@@ -22,6 +22,8 @@ package info.bioinfweb.tic.toolkit;
 import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 
 import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
 
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
@@ -55,6 +57,25 @@ public class SwingComponentTools {
 	}
 	
 	
+	/**
+	 * Determines the number of device pixels per unit of the user space of the specified graphics context.
+	 * 
+	 * @param g the graphics context passed to a paint method of a <i>Swing</i> component
+	 * @return the scale factor of the transformation of {@code g}
+	 * @since 3.0.0
+	 */
+	public static double getDeviceScale(Graphics2D g) {
+		AffineTransform transform = g.getTransform();
+		double result = Math.hypot(transform.getScaleX(), transform.getShearY());
+		if (result > 0) {
+			return result;
+		}
+		else {
+			return 1.0;  // Degenerated transformations cannot be used for painting anyway.
+		}
+	}
+	
+	
 	/**
 	 * Tool method to be used by implementations of {@link JScrollPaneToolkitComponent}. It should
 	 * be called within the constructor of such classes in order to ensure correct firing of scroll
@@ -0,0 +1,337 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.rendering.InvalidAreas;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.JComponent;
+
+
+
+/**
+ * Keeps an accelerated {@link VolatileImage} snapshot of the visible area of a <i>Swing</i> toolkit component, so 
+ * that expose events can be processed by a single call of {@link Graphics2D#drawImage(java.awt.Image, int, int, java.awt.image.ImageObserver)}
+ * and {@link TICComponent#paint(TICPaintEvent)} is only called for areas that have been invalidated explicitly.
+ * <p>
+ * If the visible area of the component moves (e.g. because it is contained in a scroll pane), the part of the
+ * snapshot that remains visible is moved and only the newly exposed strips are painted. Lost surfaces and changed
+ * graphics configurations are detected on each paint operation and lead to a complete repaint. The same is true
+ * if the size of the owner component changed.
+ * <p>
+ * The memory used by the snapshots of all instances is limited by {@link #getMaxTotalBytes()}. If a new snapshot 
+ * would exceed this limit, the snapshots of the least recently painted other instances are released. If the 
+ * snapshot of a single component would exceed the limit, it is not retained at all and 
+ * {@link #paint(Graphics2D, Rectangle)} returns {@code false}.
+ * <p>
+ * Instances of this class are meant to be used on the <i>Swing</i> event dispatch thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swing
+ */
+public class SwingRetainedBuffer {
+	/** The default value of {@link #getMaxTotalBytes()} (64 MiB). */
+	public static final long DEFAULT_MAX_TOTAL_BYTES = 64L * 1024 * 1024;
+	
+	/** The number of bytes assumed for each pixel of a snapshot. */
+	public static final int BYTES_PER_PIXEL = 4;
+	
+	
+	private static final Set<SwingRetainedBuffer> allocatedBuffers = new LinkedHashSet<SwingRetainedBuffer>();  // Ordered by last use.
+	private static long maxTotalBytes = DEFAULT_MAX_TOTAL_BYTES;
+	private static long totalBytes = 0;
+	
+	
+	private JComponent owner;
+	private TICComponent ticComponent;
+	private VolatileImage image = null;
+	private Rectangle bounds = new Rectangle();
+	private Dimension ownerSize = new Dimension();
+	private InvalidAreas invalidAreas = new InvalidAreas();
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param owner the <i>Swing</i> component that displays the snapshot
+	 * @param ticComponent the <i>TIC</i> component that paints the contents of the snapshot
+	 */
+	public SwingRetainedBuffer(JComponent owner, TICComponent ticComponent) {
+		super();
+		this.owner = owner;
+		this.ticComponent = ticComponent;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of bytes that may be used by the snapshots of all instances.
+	 * 
+	 * @return the memory limit in bytes
+	 */
+	public static synchronized long getMaxTotalBytes() {
+		return maxTotalBytes;
+	}
+	
+	
+	/**
+	 * Sets the maximum number of bytes that may be used by the snapshots of all instances. Snapshots that
+	 * exceed a reduced limit are released on their next paint operation.
+	 * 
+	 * @param maxTotalBytes the new memory limit in bytes
+	 * @throws IllegalArgumentException if {@code maxTotalBytes} is negative
+	 */
+	public static synchronized void setMaxTotalBytes(long maxTotalBytes) {
+		if (maxTotalBytes < 0) {
+			throw new IllegalArgumentException("The memory limit must not be negative.");
+		}
+		else {
+			SwingRetainedBuffer.maxTotalBytes = maxTotalBytes;
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of bytes currently used by the snapshots of all instances.
+	 * 
+	 * @return the memory usage in bytes
+	 */
+	public static synchronized long getTotalBytes() {
+		return totalBytes;
+	}
+	
+	
+	private static long getBytes(int width, int height) {
+		return (long)width * height * BYTES_PER_PIXEL;
+	}
+	
+	
+	/**
+	 * Reserves memory for a snapshot of the specified size, releasing the snapshots of the least recently used 
+	 * other instances if necessary.
+	 * 
+	 * @return {@code true} if the memory could be reserved, {@code false} if the snapshot alone exceeds the limit
+	 */
+	private static synchronized boolean allocate(SwingRetainedBuffer buffer, int width, int height) {
+		long bytes = getBytes(width, height);
+		if (bytes > maxTotalBytes) {
+			return false;
+		}
+		else {
+			Iterator<SwingRetainedBuffer> iterator = allocatedBuffers.iterator();
+			while ((totalBytes + bytes > maxTotalBytes) && iterator.hasNext()) {
+				SwingRetainedBuffer leastRecentlyUsed = iterator.next();
+				iterator.remove();
+				totalBytes -= leastRecentlyUsed.flushImage();
+			}
+			allocatedBuffers.add(buffer);
+			totalBytes += bytes;
+			return true;
+		}
+	}
+	
+	
+	private static synchronized void touch(SwingRetainedBuffer buffer) {
+		if (allocatedBuffers.remove(buffer)) {
+			allocatedBuffers.add(buffer);
+		}
+	}
+	
+	
+	/**
+	 * Flushes the current image without updating the static memory accounting.
+	 * 
+	 * @return the number of bytes that were used by the image
+	 */
+	private long flushImage() {
+		long result = 0;
+		if (image != null) {
+			result = getBytes(image.getWidth(), image.getHeight());
+			image.flush();
+			image = null;
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Releases the snapshot of this instance. It will be recreated by the next call of 
+	 * {@link #paint(Graphics2D, Rectangle)}. Toolkit components should call this method when they are
+	 * removed from their parent or when retained painting is disabled.
+	 */
+	public void release() {
+		synchronized (SwingRetainedBuffer.class) {
+			if (allocatedBuffers.remove(this)) {
+				totalBytes -= flushImage();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Determines whether this instance currently holds a snapshot.
+	 * 
+	 * @return {@code true} if a snapshot is present, {@code false} otherwise
+	 */
+	public boolean hasImage() {
+		return image != null;
+	}
+	
+	
+	/**
+	 * Marks the specified area as invalid, so that it is repainted by the <i>TIC</i> component on the next paint
+	 * operation. Parts outside the current snapshot are ignored, since they are painted anyway when they become
+	 * visible.
+	 * 
+	 * @param area the area to be invalidated in the coordinate system of the owner component
+	 */
+	public void invalidate(Rectangle area) {
+		invalidAreas.invalidate(new Rectangle(area.x - bounds.x, area.y - bounds.y, area.width, area.height));
+	}
+	
+	
+	private boolean createImage(GraphicsConfiguration configuration, int width, int height) {
+		release();
+		if (allocate(this, width, height)) {
+			image = configuration.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+			invalidAreas.reset(width, height);
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Moves the snapshot to a new visible rectangle. Parts of the snapshot that remain visible are moved and the
+	 * newly exposed strips are marked as invalid.
+	 */
+	private void moveTo(Rectangle visibleRect) {
+		int dx = bounds.x - visibleRect.x;
+		int dy = bounds.y - visibleRect.y;
+		bounds.setLocation(visibleRect.getLocation());
+		if (((dx != 0) || (dy != 0)) && invalidAreas.scroll(dx, dy)) {
+			Graphics2D g = image.createGraphics();
+			try {
+				g.copyArea(Math.max(0, -dx), Math.max(0, -dy), bounds.width - Math.abs(dx), bounds.height - Math.abs(dy), dx, dy);
+			}
+			finally {
+				g.dispose();
+			}
+		}
+	}
+	
+	
+	private void paintInvalidAreas() {
+		List<Rectangle> areas = invalidAreas.removeAll();
+		Graphics2D g = image.createGraphics();
+		try {
+			Rectangle paintBounds = new Rectangle(areas.get(0));
+			g.setColor(owner.getBackground());
+			List<Rectangle> paintAreas = new ArrayList<Rectangle>(areas.size());
+			for (Rectangle area : areas) {
+				paintBounds.add(area);
+				g.fillRect(area.x, area.y, area.width, area.height);
+				paintAreas.add(new Rectangle(area.x + bounds.x, area.y + bounds.y, area.width, area.height));
+			}
+			g.clipRect(paintBounds.x, paintBounds.y, paintBounds.width, paintBounds.height);
+			g.translate(-bounds.x, -bounds.y);
+			paintBounds.translate(bounds.x, bounds.y);
+			ticComponent.paint(new TICPaintEvent(owner, g, paintBounds, paintAreas, null, ticComponent.getRenderQuality()));
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	/**
+	 * Paints all invalid areas of the snapshot, if necessary, and draws it on the specified graphics context.
+	 * 
+	 * @param g the graphics context of the owner component
+	 * @param visibleRect the currently visible rectangle of the owner component
+	 * @return {@code true} if the snapshot was drawn or {@code false} if no snapshot can be retained (e.g. 
+	 *         because the owner component is not displayable or the memory limit would be exceeded) and the
+	 *         caller needs to paint the component directly
+	 */
+	public boolean paint(Graphics2D g, Rectangle visibleRect) {
+		GraphicsConfiguration configuration = owner.getGraphicsConfiguration();
+		if ((configuration == null) || visibleRect.isEmpty()) {
+			release();
+			return false;
+		}
+		else {
+			if ((image == null) || (image.getWidth() != visibleRect.width) || (image.getHeight() != visibleRect.height) ||
+					(getBytes(visibleRect.width, visibleRect.height) > getMaxTotalBytes())) {
+				
+				if (!createImage(configuration, visibleRect.width, visibleRect.height)) {
+					return false;
+				}
+				bounds.setBounds(visibleRect);
+			}
+			else {
+				touch(this);
+				moveTo(visibleRect);
+			}
+			if (!ownerSize.equals(owner.getSize())) {  // The contents may depend on the size of the component.
+				ownerSize = owner.getSize();
+				invalidAreas.invalidateAll();
+			}
+			
+			boolean contentsLost;
+			do {
+				int status = image.validate(configuration);
+				if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+					if (!createImage(configuration, visibleRect.width, visibleRect.height)) {
+						return false;
+					}
+				}
+				else if (status == VolatileImage.IMAGE_RESTORED) {
+					invalidAreas.invalidateAll();
+				}
+				
+				if (!invalidAreas.isEmpty()) {
+					paintInvalidAreas();
+				}
+				g.drawImage(image, bounds.x, bounds.y, null);  // The graphics context is clipped to the damaged area by Swing.
+				
+				contentsLost = image.contentsLost();
+				if (contentsLost) {
+					invalidAreas.invalidateAll();
+				}
+			} while (contentsLost);
+			return true;
+		}
+	}
+}
@@ -22,8 +22,13 @@ import info.bioinfweb.tic.TargetToolkit;
 
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.geom.Rectangle2D;
 
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 
 
@@ -59,5 +64,39 @@ public interface SwingToolkitComponent extends ToolkitComponent {
 	@Override
 	public default Point getLocationInParent() {
 		return getSwingComponent().getLocation();
-	}	
+	}
+	
+	
+	/**
+	 * Repaints the pixels covered by the specified area using {@link JComponent#repaint(java.awt.Rectangle)}.
+	 */
+	@Override
+	public default void repaint(Rectangle2D area) {
+		getSwingComponent().repaint(area.getBounds());
+	}
+	
+	
+	@Override
+	public default void invokeLater(final Runnable task, int delay) {
+		Timer timer = new Timer(delay, new ActionListener() {  // Swing timers notify their listeners on the event dispatch thread.
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				task.run();
+			}
+		});
+		timer.setRepeats(false);
+		timer.start();
+	}
+	
+	
+	@Override
+	public default void invokeLater(Runnable task) {
+		SwingUtilities.invokeLater(task);
+	}
+	
+	
+	@Override
+	public default boolean isUIThread() {
+		return SwingUtilities.isEventDispatchThread();
+	}
 }
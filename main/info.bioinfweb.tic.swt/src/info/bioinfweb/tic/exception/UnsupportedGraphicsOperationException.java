@@ -0,0 +1,47 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.exception;
+
+
+import info.bioinfweb.tic.toolkit.SWTGraphics2D;
+
+
+
+/**
+ * This exception is thrown by {@link SWTGraphics2D} if a painting operation is called that cannot be
+ * translated to the underlying <i>SWT</i> graphics context. Toolkit components catch it to repeat painting
+ * using a buffered image.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public class UnsupportedGraphicsOperationException extends UnsupportedOperationException {
+	private static final long serialVersionUID = 1L;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param operation a description of the operation that is not supported
+	 */
+	public UnsupportedGraphicsOperationException(String operation) {
+		super("The operation \"" + operation + "\" is not supported by direct painting on an SWT graphics context.");
+	}
+}
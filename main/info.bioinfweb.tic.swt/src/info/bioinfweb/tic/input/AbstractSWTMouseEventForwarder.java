@@ -81,4 +81,16 @@ public class AbstractSWTMouseEventForwarder<L extends EventListener> extends Abs
 		}
 		return y;
 	}
+	
+	
+	/**
+	 * Returns the scrolled component specified in the constructor.
+	 * 
+	 * @return the scrolled component or {@code null}
+	 * @since 3.0.0
+	 */
+	@Override
+	protected ScrollingTICComponent getScrolledComponent() {
+		return scrolledComponent;
+	}
 }
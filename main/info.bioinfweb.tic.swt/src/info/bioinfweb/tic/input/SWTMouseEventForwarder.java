@@ -88,6 +88,7 @@ public class SWTMouseEventForwarder extends AbstractSWTMouseEventForwarder<TICMo
 	@Override
 	public void mouseMove(MouseEvent event) {
 		if (lastPressedButton > 0) {
+			notifyInteraction();
 			for (TICMouseListener listener: getListenerSet().getListeners()) {
 				listener.mouseDragged(createEvent(getListenerSet().getOwner(), java.awt.event.MouseEvent.MOUSE_DRAGGED, event));
 			}
@@ -63,6 +63,7 @@ public class SWTMouseWheelEventForwarder extends AbstractSWTMouseEventForwarder<
 	
 	@Override
 	public void mouseScrolled(MouseEvent event) {
+		notifyInteraction();
 		for (TICMouseWheelListener listener: getListenerSet().getListeners()) {
 			listener.mouseWheelMoved(createEvent(getListenerSet().getOwner(), event));
 		}
@@ -19,22 +19,37 @@
 package info.bioinfweb.tic.toolkit;
 
 
+import info.bioinfweb.tic.PaintDeadlinePolicy;
 import info.bioinfweb.tic.TICComponent;
 import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.exception.UnsupportedGraphicsOperationException;
+import info.bioinfweb.tic.rendering.AsyncRenderer;
+import info.bioinfweb.tic.rendering.BackingRaster;
+import info.bioinfweb.tic.rendering.LayerCache;
+import info.bioinfweb.tic.rendering.TileCache;
 
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.eclipse.swt.events.ControlAdapter;
+import org.eclipse.swt.events.ControlEvent;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
-import org.eclipse.swt.graphics.PaletteData;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 
 
 
@@ -48,13 +63,126 @@ import org.eclipse.swt.widgets.Control;
  * <i>SWT</i> since the component size is limited to 32767 (2^15 - 1) on some operating systems. For components 
  * that directly implement scrolling behavior the properties {@link #getScrollOffsetX()} and 
  * {@link #getScrollOffsetY()} can be used.
+ * <p>
+ * The buffered image used to paint the <i>TIC</i> component is managed by a {@link BackingRaster} and reused 
+ * between paint events. Its pixel layout is determined by an {@link SWTPixelFormat}, which allows to share its 
+ * pixel array with the <i>SWT</i> image data. It is released when this widget is disposed or its size is considerably decreased.
+ * The native <i>SWT</i> images created from it are managed by an {@link SWTImageStore} and disposed when they
+ * are replaced, this widget is resized or it is disposed.
+ * <p>
+ * If the output component returns {@code true} in {@link TICComponent#isDirectSWTPaintingSupported()}, it is
+ * painted directly on the <i>SWT</i> graphics context using {@link SWTGraphics2D} instead. If an operation not
+ * supported by that class is called, the affected paint event is repeated using a buffered image and all
+ * further paint events of this widget are processed that way.
+ * <p>
+ * Large areas painted using a buffered image are divided into horizontal bands with a height of at most 
+ * {@link #getMaxBandHeight()}. Each band is painted by a separate {@link TICPaintEvent} into the same buffered 
+ * image and is drawn on the <i>SWT</i> graphics context before the next band is painted. The memory needed 
+ * for buffered painting is therefore independent of the screen height. Note that this means that 
+ * {@link TICComponent#paint(TICPaintEvent)} may be called multiple times for a single <i>SWT</i> paint event.
+ * <p>
+ * If the damaged area of an <i>SWT</i> paint event consists of multiple distant rectangles, these are painted
+ * using separate buffered images, if that is estimated to be cheaper than painting their bounding box (see
+ * {@link #RECTANGLE_PAINT_OVERHEAD}). In all cases the damaged rectangles are provided by 
+ * {@link TICPaintEvent#getAreas()}.
+ * <p>
+ * If the output component returns {@code true} in {@link TICComponent#isTileCachingSupported()}, the buffered
+ * images are painted using the {@link TileCache} returned by {@link #getTileCache()} and direct painting is not
+ * used. The cache is invalidated by {@link #repaint()}, which is called by {@link TICComponent#repaint()}, but 
+ * not by calls of {@link #redraw()}, which therefore only cause cached tiles to be drawn again. The same 
+ * {@link TileCache} is used to render tiles concurrently, if {@link TICComponent#isConcurrentPaintingSupported()}
+ * returns {@code true}. (Tiles are discarded after each paint event, if tile caching is not supported.)
+ * <p>
+ * If the output component returns a non-empty list in {@link TICComponent#getLayers()}, the buffered images are 
+ * painted using the {@link LayerCache} returned by {@link #getLayerCache()}, which takes precedence over tile 
+ * caching, and direct painting is not used. Cached layers are only invalidated by the {@code repaint()} methods 
+ * of {@link TICComponent} or if the client area or scroll offset changes.
+ * <p>
+ * The buffered images are rendered with the resolution determined by {@link #getDeviceScale()} and 
+ * {@link TICComponent#getRenderScale(double, info.bioinfweb.tic.RenderQuality)} and drawn on the <i>SWT</i> 
+ * graphics context with the size of the painted area. Since <i>SWT</i> versions before 4.6 do not scale the 
+ * coordinates of graphics contexts, the device scale is 1 by default. It should be set by the application on 
+ * platforms where the operating system scales the graphics context (e.g. on <i>Mac OS</i> retina displays) and 
+ * updated when the widget is moved to a screen with another resolution.
+ * <p>
+ * If {@link TICComponent#getPaintBudget()} returns a value greater than 0, all directly painted events and bands 
+ * of an <i>SWT</i> paint event share an according deadline. Areas the component reports as unfinished are 
+ * handled as specified by {@link #getDeadlinePolicy()}.
+ * <p>
+ * If the output component returns {@code true} in {@link TICComponent#isAsynchronousPaintingSupported()}, the
+ * client area is rendered by an {@link AsyncRenderer} on a background thread and {@link #paintControl(PaintEvent)} 
+ * only draws its newest frame. The renderer is invalidated by {@link #repaint()} and calls {@link #redraw()} 
+ * on the UI thread when a new frame is available. (Asynchronous painting takes precedence over all other modes.)
  * 
  * @author Ben St&ouml;ver
  * @bioinfweb.module info.bioinfweb.tic.swt
  */
 public class DefaultSWTComposite extends AbstractSWTWidget {
+	/** The default value for {@link #getMaxBandHeight()}. */
+	public static final int DEFAULT_MAX_BAND_HEIGHT = 256;
+	
+	/** 
+	 * The estimated costs of painting an additional rectangle of a damaged area using a separate buffered image, 
+	 * expressed as a number of pixels. 
+	 */
+	public static final int RECTANGLE_PAINT_OVERHEAD = 16384;
+	
+	private static final String BUFFER_IMAGE_KEY = "buffer";
+	private static final String FRAME_IMAGE_KEY = "frame";
+	
+	
+	private SWTPixelFormat pixelFormat = null;
+	private BackingRaster backingRaster = null;
+	private SWTImageStore imageStore = new SWTImageStore();
+	private SWTResourceCache resourceCache = null;
+	private boolean directPaintingFailed = false;
+	private int maxBandHeight = DEFAULT_MAX_BAND_HEIGHT;
+	private TileCache tileCache = null;
+	private AsyncRenderer asyncRenderer = null;
+	private LayerCache layerCache = null;
+	private long frameImageGeneration = -1;
+	private double deviceScale = 1.0;
+	private PaintDeadlinePolicy deadlinePolicy = PaintDeadlinePolicy.CONTINUE;
+	private long paintDeadline = TICPaintEvent.NO_DEADLINE;
+	private List<Rectangle> unfinishedAreas = new ArrayList<Rectangle>();
+	
+	
 	public DefaultSWTComposite(TICComponent ticComponent, Composite parent, int style) {
 		super(ticComponent, parent, style);
+		
+		addControlListener(new ControlAdapter() {
+			@Override
+			public void controlResized(ControlEvent e) {
+				if (backingRaster != null) {
+					Point size = getSize();
+					double scale = getDeviceScale();  // The raster is allocated in device pixels by paintBand().
+					backingRaster.shrink((int)Math.ceil((size.x + 1) * scale), (int)Math.ceil((size.y + 1) * scale));
+				}
+				getImageStore().disposeAll();
+			}
+		});
+		addDisposeListener(new DisposeListener() {
+			@Override
+			public void widgetDisposed(DisposeEvent e) {
+				if (backingRaster != null) {
+					backingRaster.release();
+				}
+				getImageStore().disposeAll();
+				if (resourceCache != null) {
+					resourceCache.dispose();
+				}
+				if (tileCache != null) {
+					tileCache.invalidateAll();
+				}
+				if (asyncRenderer != null) {
+					asyncRenderer.dispose();
+				}
+				if (layerCache != null) {
+					layerCache.release();
+				}
+			}
+		});
+		
 		assignSize();
 	}
 	
@@ -99,30 +227,569 @@ public class DefaultSWTComposite extends AbstractSWTWidget {
 	}
 
 
+	/**
+	 * Returns the pixel format of the buffered image used by {@link #paintControl(PaintEvent)}. If no format was
+	 * set using {@link #setPixelFormat(SWTPixelFormat)}, the preferred format of the current platform is used. A 
+	 * format with an alpha channel is selected, if the output component is translucent.
+	 * 
+	 * @return the pixel format used by this widget
+	 * @see SWTPixelFormat#getPreferredFormat(boolean)
+	 * @see TICComponent#isTranslucent()
+	 * @since 3.0.0
+	 */
+	public SWTPixelFormat getPixelFormat() {
+		if (pixelFormat == null) {
+			pixelFormat = SWTPixelFormat.getPreferredFormat(getOutputComponent().isTranslucent());
+		}
+		return pixelFormat;
+	}
+
+
+	/**
+	 * Sets the pixel format of the buffered image used by {@link #paintControl(PaintEvent)}. The current buffered
+	 * image is released.
+	 * 
+	 * @param pixelFormat the new pixel format or {@code null} to use the preferred format of the current platform
+	 * @since 3.0.0
+	 */
+	public void setPixelFormat(SWTPixelFormat pixelFormat) {
+		this.pixelFormat = pixelFormat;
+		if (backingRaster != null) {
+			backingRaster.release();
+			backingRaster = null;
+		}
+	}
+
+
+	/**
+	 * Returns the object managing the buffered image used by {@link #paintControl(PaintEvent)}.
+	 * 
+	 * @return the backing raster of this widget
+	 * @since 3.0.0
+	 */
+	public BackingRaster getBackingRaster() {
+		if (backingRaster == null) {
+			backingRaster = getPixelFormat().createBackingRaster();
+		}
+		return backingRaster;
+	}
+
+
+	/**
+	 * Returns the store managing the native <i>SWT</i> images created by {@link #paintControl(PaintEvent)}.
+	 * 
+	 * @return the image store of this widget
+	 * @since 3.0.0
+	 */
+	public SWTImageStore getImageStore() {
+		return imageStore;
+	}
+
+
+	/**
+	 * Returns the cache providing the <i>SWT</i> colors and fonts used for direct painting. The cache is created 
+	 * when this method is called for the first time.
+	 * 
+	 * @return the resource cache of this widget
+	 * @since 3.0.0
+	 */
+	public SWTResourceCache getResourceCache() {
+		if (resourceCache == null) {
+			resourceCache = new SWTResourceCache(getDisplay());
+		}
+		return resourceCache;
+	}
+
+
+	/**
+	 * Returns the maximal height of a band painted by a single {@link TICPaintEvent}, if a buffered image is used.
+	 * 
+	 * @return the maximal band height in pixels or 0 if areas are never divided into bands
+	 * @since 3.0.0
+	 */
+	public int getMaxBandHeight() {
+		return maxBandHeight;
+	}
+
+
+	/**
+	 * Sets the maximal height of a band painted by a single {@link TICPaintEvent}, if a buffered image is used.
+	 * 
+	 * @param maxBandHeight the new maximal height in pixels or 0 if areas should never be divided into bands
+	 * @throws IllegalArgumentException if {@code maxBandHeight} is negative
+	 * @since 3.0.0
+	 */
+	public void setMaxBandHeight(int maxBandHeight) {
+		if (maxBandHeight < 0) {
+			throw new IllegalArgumentException("The maximal band height must not be negative.");
+		}
+		else {
+			this.maxBandHeight = maxBandHeight;
+		}
+	}
+
+
+	/**
+	 * Returns the number of device pixels per unit of the coordinate system of the <i>SWT</i> graphics contexts 
+	 * of this widget.
+	 * 
+	 * @return the device scale passed to {@link TICPaintEvent#getDeviceScale()}
+	 * @since 3.0.0
+	 */
+	public double getDeviceScale() {
+		return deviceScale;
+	}
+	
+	
+	/**
+	 * Sets the number of device pixels per unit of the coordinate system of the <i>SWT</i> graphics contexts of 
+	 * this widget. If the value changes, all cached images are discarded and the widget is redrawn.
+	 * 
+	 * @param deviceScale the new device scale (e.g. 2 for most HiDPI screens)
+	 * @throws IllegalArgumentException if {@code deviceScale} is not greater than 0
+	 * @since 3.0.0
+	 */
+	public void setDeviceScale(double deviceScale) {
+		if (!(deviceScale > 0)) {
+			throw new IllegalArgumentException("The device scale must be greater than 0 (specified: " + deviceScale + ").");
+		}
+		else if (deviceScale != this.deviceScale) {
+			this.deviceScale = deviceScale;
+			getImageStore().disposeAll();
+			repaint();
+		}
+	}
+	
+	
+	/**
+	 * Returns the way areas are handled that the output component could not paint before the deadline of a paint 
+	 * event.
+	 * 
+	 * @return the deadline policy of this widget ({@link PaintDeadlinePolicy#CONTINUE} by default)
+	 * @see TICComponent#getPaintBudget()
+	 * @since 3.0.0
+	 */
+	public PaintDeadlinePolicy getDeadlinePolicy() {
+		return deadlinePolicy;
+	}
+	
+	
+	/**
+	 * Specifies the way areas are handled that the output component could not paint before the deadline of a 
+	 * paint event.
+	 * 
+	 * @param deadlinePolicy the new deadline policy
+	 * @throws IllegalArgumentException if {@code deadlinePolicy} is {@code null}
+	 * @since 3.0.0
+	 */
+	public void setDeadlinePolicy(PaintDeadlinePolicy deadlinePolicy) {
+		if (deadlinePolicy == null) {
+			throw new IllegalArgumentException("The deadline policy must not be null.");
+		}
+		else {
+			this.deadlinePolicy = deadlinePolicy;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether paint events of this widget are currently processed by directly painting on the 
+	 * <i>SWT</i> graphics context.
+	 * 
+	 * @return {@code true} if the output component supports direct painting and no unsupported operation has been 
+	 *         called during a previous paint event, {@code false} otherwise
+	 * @see TICComponent#isDirectSWTPaintingSupported()
+	 * @since 3.0.0
+	 */
+	public boolean isDirectPaintingActive() {
+		return !directPaintingFailed && getOutputComponent().isDirectSWTPaintingSupported() && !isTiledPaintingActive() && 
+				!isLayeredPaintingActive();
+	}
+	
+	
+	/**
+	 * Returns the tile cache used to paint the output component if {@link TICComponent#isTileCachingSupported()} 
+	 * returns {@code true}. The cache is created on the first call of this method.
+	 * 
+	 * @return the tile cache of this widget
+	 * @since 3.0.0
+	 */
+	public TileCache getTileCache() {
+		if (tileCache == null) {
+			int imageType = BufferedImage.TYPE_INT_RGB;
+			if (getOutputComponent().isTranslucent()) {
+				imageType = BufferedImage.TYPE_INT_ARGB;
+			}
+			tileCache = new TileCache(imageType);
+		}
+		return tileCache;
+	}
+	
+	
+	/**
+	 * Returns the layer cache used to paint the output component if {@link TICComponent#getLayers()} returns a 
+	 * non-empty list. The cache is created on the first call of this method.
+	 * 
+	 * @return the layer cache of this widget
+	 * @since 3.0.0
+	 */
+	public LayerCache getLayerCache() {
+		if (layerCache == null) {
+			layerCache = new LayerCache();
+		}
+		return layerCache;
+	}
+	
+	
+	/**
+	 * Determines whether the output component of this widget is currently painted using a {@link LayerCache}.
+	 * 
+	 * @return {@code true} if the output component declares layers, {@code false} otherwise
+	 * @see TICComponent#getLayers()
+	 * @since 3.0.0
+	 */
+	public boolean isLayeredPaintingActive() {
+		return !getOutputComponent().getLayers().isEmpty();
+	}
+	
+	
+	/**
+	 * Determines whether the output component of this widget is currently painted using a {@link TileCache}.
+	 * 
+	 * @return {@code true} if the output component supports tile caching or concurrent painting, {@code false} 
+	 *         otherwise
+	 * @see TICComponent#isTileCachingSupported()
+	 * @see TICComponent#isConcurrentPaintingSupported()
+	 * @since 3.0.0
+	 */
+	public boolean isTiledPaintingActive() {
+		return getOutputComponent().isTileCachingSupported() || getOutputComponent().isConcurrentPaintingSupported();
+	}
+	
+	
+	/**
+	 * Invalidates the tile cache and the asynchronous renderer, if present, and redraws the whole widget.
+	 */
+	@Override
+	public void repaint() {
+		if (tileCache != null) {
+			tileCache.invalidateAll();
+		}
+		if (asyncRenderer != null) {
+			asyncRenderer.invalidate();
+		}
+		redraw();
+	}
+	
+	
+	/**
+	 * Invalidates the affected tiles and the asynchronous renderer, if present, and redraws the specified area 
+	 * considering the current scroll offset.
+	 * 
+	 * @param area the area to be repainted in the coordinate system of the output component
+	 */
+	@Override
+	public void repaint(Rectangle2D area) {
+		if (tileCache != null) {
+			tileCache.invalidate(area);
+		}
+		if (asyncRenderer != null) {
+			asyncRenderer.invalidate();
+		}
+		Rectangle bounds = area.getBounds();
+		redraw(bounds.x + getScrollOffsetX(), bounds.y + getScrollOffsetY(), bounds.width, bounds.height, false);
+	}
+	
+	
+	private AsyncRenderer createAsyncRenderer() {
+		final SWTPixelFormat format = getPixelFormat();  // Must be determined on the UI thread.
+		final Display display = getDisplay();
+		return new AsyncRenderer(getOutputComponent(), this, BufferedImage.TYPE_CUSTOM, new Runnable() {  // The image type is determined by createBackingRaster().
+			@Override
+			public void run() {
+				if (!display.isDisposed()) {
+					display.asyncExec(new Runnable() {
+						@Override
+						public void run() {
+							if (!isDisposed()) {
+								redraw();  // Does not invalidate the renderer.
+							}
+						}
+					});
+				}
+			}
+		}) {
+			@Override
+			protected BackingRaster createBackingRaster() {
+				return format.createBackingRaster();
+			}
+		};
+	}
+	
+	
+	private boolean paintAsynchronously(GC gc, Rectangle bounds) {
+		if (getOutputComponent().isAsynchronousPaintingSupported()) {
+			if (asyncRenderer == null) {
+				asyncRenderer = createAsyncRenderer();
+			}
+			Color background = getBufferBackground();
+			org.eclipse.swt.graphics.Rectangle clientArea = getClientArea();
+			asyncRenderer.requestFrame(new Rectangle(clientArea.x - getScrollOffsetX(), clientArea.y - getScrollOffsetY(), 
+					clientArea.width, clientArea.height), background);
+			
+			AsyncRenderer.Frame frame = asyncRenderer.getLatestFrame();
+			if (frame != null) {
+				Rectangle frameBounds = new Rectangle(frame.getBounds());
+				frameBounds.translate(getScrollOffsetX(), getScrollOffsetY());
+				if ((background != null) && !frameBounds.contains(bounds)) {
+					gc.fillRectangle(bounds.x, bounds.y, bounds.width, bounds.height);  // Areas not covered by the last frame remain empty until the next frame is available.
+				}
+				if (!frameBounds.isEmpty()) {
+					Image image = getImageStore().getImage(FRAME_IMAGE_KEY);
+					if ((image == null) || (frame.getGeneration() != frameImageGeneration)) {  // Native images are only created once per frame.
+						SWTPixelFormat format = getPixelFormat();
+						image = getImageStore().putImage(FRAME_IMAGE_KEY, gc.getDevice(), format.createImageData(frame.getImage(), 
+								frameBounds.width, frameBounds.height, format.hasAlpha() && getOutputComponent().isTranslucent()));
+						frameImageGeneration = frame.getGeneration();
+					}
+					gc.drawImage(image, frameBounds.x, frameBounds.y);
+				}
+			}
+			else if (background != null) {
+				gc.fillRectangle(bounds.x, bounds.y, bounds.width, bounds.height);
+			}
+			return true;
+		}
+		else {
+			if (asyncRenderer != null) {
+				asyncRenderer.dispose();
+				asyncRenderer = null;
+				getImageStore().disposeImage(FRAME_IMAGE_KEY);
+			}
+			return false;
+		}
+	}
+	
+	
+	private Color getBufferBackground() {
+		if (getOutputComponent().isTranslucent()) {
+			return null;
+		}
+		else {
+			RGB rgb = getBackground().getRGB();
+			return new Color(rgb.red, rgb.green, rgb.blue);
+		}
+	}
+	
+	
+	private void paintOutputComponent(TICPaintEvent event) {
+		if (isLayeredPaintingActive()) {
+			if (tileCache != null) {
+				tileCache.invalidateAll();
+			}
+			org.eclipse.swt.graphics.Rectangle clientArea = getClientArea();
+			getLayerCache().paint(getOutputComponent(), event, new Rectangle(clientArea.x - getScrollOffsetX(), 
+					clientArea.y - getScrollOffsetY(), clientArea.width, clientArea.height), getBufferBackground());
+		}
+		else if (isTiledPaintingActive()) {
+			getTileCache().paint(getOutputComponent(), event, getBufferBackground());
+			if (!getOutputComponent().isTileCachingSupported()) {
+				getTileCache().invalidateAll();  // Tiles were only rendered to paint concurrently.
+			}
+		}
+		else {
+			if (tileCache != null) {
+				tileCache.invalidateAll();  // Otherwise tiles would be outdated if tile caching is enabled again.
+			}
+			getOutputComponent().paint(event);
+		}
+	}
+
+
 	/**
 	 * Fire a <i>TIC</i> paint event internally to let the implementing class draw on a buffered image and than draws
-	 * that image into the <i>SWT</i> graphics context.
+	 * that image into the <i>SWT</i> graphics context. If {@link #isDirectPaintingActive()} returns {@code true}, the
+	 * <i>TIC</i> component is painted directly on the <i>SWT</i> graphics context instead.
 	 * <p>
-	 * Note that the <i>TIC</i> paint event will always cover a rectangle which is extended by one pixel to the left
-	 * and top compared to the <i>SWT</i> paint event. That is done to solve problems with anti-aliased lines passing
-	 * the bounds of that rectangle.
+	 * Note that the <i>TIC</i> paint events for buffered painting will always cover a rectangle which is extended by 
+	 * one pixel to the left and top compared to the <i>SWT</i> paint event (or the band of it). That is done to solve problems with 
+	 * anti-aliased lines passing the bounds of that rectangle.
 	 */
 	@Override
 	public void paintControl(PaintEvent e) {
+		if (!paintAsynchronously(e.gc, new Rectangle(e.x, e.y, e.width, e.height))) {
+			paintAreas(e.gc, SWTRegionTools.getClippingRectangles(e.gc, new Rectangle(e.x, e.y, e.width, e.height)));
+		}
+	}
+	
+	
+	/**
+	 * Paints the specified areas of the output component on the specified graphics context as described in 
+	 * {@link #paintControl(PaintEvent)}. Inherited classes may use this method to paint on other graphics contexts 
+	 * than the one of a paint event, e.g. on an off-screen image.
+	 * 
+	 * @param gc the graphics context to paint on (which should already be clipped to the specified areas)
+	 * @param damagedAreas the non-overlapping areas to be painted in the coordinate system of this widget 
+	 * @since 3.0.0
+	 */
+	protected void paintAreas(GC gc, List<Rectangle> damagedAreas) {
+		if (!damagedAreas.isEmpty()) {
+			Rectangle bounds = new Rectangle(damagedAreas.get(0));
+			for (Rectangle area : damagedAreas) {
+				bounds.add(area);
+			}
+			
+			int budget = getOutputComponent().getPaintBudget();
+			if (budget > 0) {
+				paintDeadline = System.nanoTime() + budget * 1000000L;
+			}
+			else {
+				paintDeadline = TICPaintEvent.NO_DEADLINE;
+			}
+			unfinishedAreas.clear();
+			
+			if (!isDirectPaintingActive() || !paintDirectly(gc, bounds, damagedAreas)) {
+				if (SWTRegionTools.getArea(damagedAreas) + damagedAreas.size() * RECTANGLE_PAINT_OVERHEAD < 
+						(long)bounds.width * bounds.height) {
+					
+					for (Rectangle area : damagedAreas) {
+						paintBuffered(gc, area.x, area.y, area.width, area.height, damagedAreas);
+					}
+				}
+				else {
+					paintBuffered(gc, bounds.x, bounds.y, bounds.width, bounds.height, damagedAreas);
+				}
+			}
+			handleUnfinishedAreas();
+		}
+	}
+	
+	
+	/**
+	 * Stores the areas the output component could not paint before the deadline of the specified event in the 
+	 * coordinate system of this widget.
+	 */
+	private void addUnfinishedAreas(TICPaintEvent event) {
+		for (Rectangle2D area : event.getUnfinishedAreas()) {
+			Rectangle bounds = area.getBounds();
+			bounds.translate(getScrollOffsetX(), getScrollOffsetY());
+			unfinishedAreas.add(bounds);
+		}
+	}
+	
+	
+	/**
+	 * Schedules a continuation paint of the areas the output component could not paint before the deadline, if 
+	 * specified by the deadline policy. The areas are redrawn on the next turn of the event loop, so that pending 
+	 * input events are processed first.
+	 */
+	private void handleUnfinishedAreas() {
+		if (PaintDeadlinePolicy.CONTINUE.equals(getDeadlinePolicy()) && !unfinishedAreas.isEmpty()) {
+			final List<Rectangle> areas = new ArrayList<Rectangle>(unfinishedAreas);
+			getDisplay().asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					if (!isDisposed()) {
+						for (Rectangle area : areas) {
+							redraw(area.x, area.y, area.width, area.height, false);
+						}
+					}
+				}
+			});
+		}
+		unfinishedAreas.clear();
+	}
+	
+	
+	/**
+	 * Creates a <i>TIC</i> paint event and converts the damaged areas from the coordinate system of this widget to
+	 * the one of the output component.
+	 */
+	private TICPaintEvent createPaintEvent(Graphics2D g, Rectangle2D rectangle, List<Rectangle> damagedAreas, 
+			double scale) {
+		
+		List<Rectangle2D> areas = new ArrayList<Rectangle2D>(damagedAreas.size());
+		for (Rectangle damagedArea : damagedAreas) {
+			Rectangle2D area = new Rectangle2D.Double(damagedArea.x - getScrollOffsetX(), damagedArea.y - getScrollOffsetY(), 
+					damagedArea.width, damagedArea.height);
+			if (area.intersects(rectangle)) {
+				areas.add(area.createIntersection(rectangle));
+			}
+		}
+		return new TICPaintEvent(this, g, rectangle, areas, null, getOutputComponent().getRenderQuality(), scale, 
+				paintDeadline);
+	}
+	
+	
+	private boolean paintDirectly(GC gc, Rectangle bounds, List<Rectangle> damagedAreas) {
+		SWTGraphics2D g = new SWTGraphics2D(gc, getResourceCache(), bounds);  // The graphics context is already clipped to the damaged areas.
+		try {
+			g.translate(getScrollOffsetX(), getScrollOffsetY());
+			TICPaintEvent event = createPaintEvent(g, new Rectangle2D.Double(bounds.x - getScrollOffsetX(), 
+					bounds.y - getScrollOffsetY(), bounds.width, bounds.height), damagedAreas, getDeviceScale());
+			getOutputComponent().paint(event);
+			addUnfinishedAreas(event);
+			return true;
+		}
+		catch (UnsupportedGraphicsOperationException ex) {
+			directPaintingFailed = true;  // Parts of the area may already have been painted and will be overwritten by the buffered image.
+			g.resetGC();
+			return false;
+		}
+		finally {
+			g.dispose();
+			getResourceCache().trim();
+		}
+	}
+	
+	
+	private void paintBuffered(GC gc, int x, int y, int width, int height, List<Rectangle> damagedAreas) {
+		int bandHeight = height;
+		if (getMaxBandHeight() > 0) {
+			bandHeight = Math.min(height, getMaxBandHeight());
+		}
+		for (int bandY = y; bandY < y + height; bandY += bandHeight) {
+			paintBand(gc, x, bandY, width, Math.min(bandHeight, y + height - bandY), damagedAreas);
+		}
+	}
+	
+	
+	private void paintBand(GC gc, int x, int y, int areaWidth, int areaHeight, List<Rectangle> damagedAreas) {
 	  // Scroll position could be considered here by shifting the event and paint coordinates. This would have to be done in a non-LibrAlign-specific way.
 		
-		BufferedImage refreshArea = new BufferedImage(e.width + 1, e.height + 1, BufferedImage.TYPE_3BYTE_BGR);
+		int width = areaWidth + 1;
+		int height = areaHeight + 1;
+		double scale = getDeviceScale();
+		if (!isLayeredPaintingActive() && !isTiledPaintingActive()) {  // Otherwise the caches determine the render scale themselves.
+			scale = getOutputComponent().getRenderScale(scale, getOutputComponent().getRenderQuality());
+		}
+		int pixelWidth = (int)Math.ceil(width * scale);
+		int pixelHeight = (int)Math.ceil(height * scale);
+		BufferedImage refreshArea = getBackingRaster().getImage(pixelWidth, pixelHeight);
+		getBackingRaster().clear(pixelWidth, pixelHeight);  // Remove contents from the previous paint event.
 		Graphics2D g = refreshArea.createGraphics();
 		try {
+			g.clipRect(0, 0, pixelWidth, pixelHeight);
+			g.scale(scale, scale);
+			
 			double offsetX = 1 + getScrollOffsetX();
 			double offsetY = 1 + getScrollOffsetY();
-			g.translate(-e.x + offsetX, -e.y + offsetY);
-			getOutputComponent().paint(new TICPaintEvent(this, g, new Rectangle2D.Double(
-					e.x - offsetX, e.y - offsetY, e.width + 1, e.height + 1)));
-      ImageData data = new ImageData(refreshArea.getWidth(), refreshArea.getHeight(), 24, 
-      		new PaletteData(0xff, 0xff00, 0xff0000), 3 * refreshArea.getWidth(), 
-      		((DataBufferByte)refreshArea.getRaster().getDataBuffer()).getData());
-      e.gc.drawImage(new Image(e.gc.getDevice(), data), e.x - 1, e.y - 1);
+			g.translate(-x + offsetX, -y + offsetY);
+			TICPaintEvent event = createPaintEvent(g, new Rectangle2D.Double(x - offsetX, y - offsetY, width, height), 
+					damagedAreas, scale);
+			paintOutputComponent(event);
+			addUnfinishedAreas(event);
+			
+			SWTPixelFormat format = getPixelFormat();
+      ImageData data = format.createImageData(refreshArea, pixelWidth, pixelHeight, 
+      		format.hasAlpha() && getOutputComponent().isTranslucent());  // Shares the pixel array of the buffered image.
+      Image image = getImageStore().putImage(BUFFER_IMAGE_KEY, gc.getDevice(), data);  // Disposes the image of the previous band.
+      if ((pixelWidth == width) && (pixelHeight == height)) {
+      	gc.drawImage(image, x - 1, y - 1);
+      }
+      else {  // The graphics context maps the image pixels to device pixels, if the device scale was specified correctly.
+      	gc.drawImage(image, 0, 0, pixelWidth, pixelHeight, x - 1, y - 1, width, height);
+      }
 		}
 		finally {
 			g.dispose();
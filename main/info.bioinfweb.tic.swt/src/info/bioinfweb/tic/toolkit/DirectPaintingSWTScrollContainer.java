@@ -21,12 +21,17 @@ package info.bioinfweb.tic.toolkit;
 
 import info.bioinfweb.tic.SWTComponentFactory;
 import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.rendering.InvalidAreas;
 import info.bioinfweb.tic.scrolling.ScrollingTICComponent;
 import info.bioinfweb.tic.scrolling.TICScrollEvent;
 
 import java.awt.Dimension;
+import java.util.List;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.PaintEvent;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
@@ -35,9 +40,30 @@ import org.eclipse.swt.widgets.Listener;
 
 
 
+/**
+ * <i>SWT</i> scroll container that directly paints the visible part of an output component instead of 
+ * nesting a toolkit component of it.
+ * <p>
+ * Since <i>TIC</i> 3.0.0 the contents of the viewport are kept in a persistent off-screen image. If the scroll 
+ * position changes, the part of this image that remains visible is moved using {@link GC#copyArea(int, int, int, int, int, int)} 
+ * and only the newly exposed strips are painted by the output component. The costs of scrolling are 
+ * therefore proportional to the scroll distance and not to the size of the viewport. Paint events that do not
+ * result from a call of {@link #redraw()} or {@link #repaint()} (e.g. if the widget was covered by another window)
+ * are processed by just drawing the off-screen image.
+ * <p>
+ * Changes of the contents of the output component must therefore be signaled by {@link #repaint()} or one of the 
+ * {@code redraw()} methods of this instance.
+ * 
+ * @author Ben St&ouml;ver
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
 public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implements ScrollingToolkitComponent {
+	private static final String VIEWPORT_IMAGE_KEY = "viewport";
+	
+	
 	private TICComponent outputComponent;
 	private Point origin = new Point (0, 0);
+	private InvalidAreas invalidAreas = new InvalidAreas();
 	
 	
 	/**
@@ -59,11 +85,8 @@ public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implem
 		getHorizontalBar().addListener(SWT.Selection, new Listener() {
 			@Override
 			public void handleEvent(Event event) {
-				int hSelection = getHorizontalBar().getSelection();
-				int destX = -hSelection - origin.x;
-				Dimension dimension = getOutputComponent().getSize();
-				scroll(destX, 0, 0, 0, dimension.width, dimension.height, false);
-				origin.x = -hSelection;
+				getOutputComponent().notifyInteraction(DirectPaintingSWTScrollContainer.this);
+				scrollViewport(-getHorizontalBar().getSelection(), origin.y);
 				fireControlScrolled();
 			}
 		});
@@ -71,11 +94,8 @@ public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implem
 		getVerticalBar().addListener(SWT.Selection, new Listener() {
 			@Override
 			public void handleEvent(Event event) {
-				int vSelection = getVerticalBar().getSelection();
-				int destY = -vSelection - origin.y;
-				Dimension dimension = getOutputComponent().getSize();
-				scroll(0, destY, 0, 0, dimension.width, dimension.height, false);
-				origin.y = -vSelection;
+				getOutputComponent().notifyInteraction(DirectPaintingSWTScrollContainer.this);
+				scrollViewport(origin.x, -getVerticalBar().getSelection());
 				fireControlScrolled();
 			}
 		});
@@ -83,29 +103,7 @@ public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implem
 		addListener(SWT.Resize, new Listener() {
 			@Override
 			public void handleEvent(Event event) {
-				Dimension dimension = getOutputComponent().getSize();
-				Rectangle client = getClientArea();
-				getHorizontalBar().setMaximum(dimension.width);
-				getVerticalBar().setMaximum(dimension.height);
-				getHorizontalBar().setThumb(Math.min(dimension.width, client.width));
-				getVerticalBar().setThumb(Math.min(dimension.height, client.height));
-				int hPage = dimension.width - client.width;
-				int vPage = dimension.height - client.height;
-				int hSelection = getHorizontalBar().getSelection();
-				int vSelection = getVerticalBar().getSelection();
-				if (hSelection >= hPage) {
-					if (hPage <= 0) {
-						hSelection = 0;
-					}
-					origin.x = -hSelection;
-				}
-				if (vSelection >= vPage) {
-					if (vPage <= 0) {
-						vSelection = 0;
-					}
-					origin.y = -vSelection;
-				}
-				redraw();  //TODO Is this really necessary?
+				updateScrollBars();
 			}
 		});
 	}
@@ -144,9 +142,7 @@ public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implem
 	public void setScrollOffset(int scrollOffsetX, int scrollOffsetY) {
 		getHorizontalBar().setSelection(scrollOffsetX);
 		getVerticalBar().setSelection(scrollOffsetY);
-		origin.x = -scrollOffsetX;
-		origin.y = -scrollOffsetY;
-		repaint();
+		scrollViewport(-scrollOffsetX, -scrollOffsetY);
 		fireControlScrolled();
 	}
 	
@@ -155,8 +151,141 @@ public class DirectPaintingSWTScrollContainer extends DefaultSWTComposite implem
 		Rectangle client = getClientArea();
 		return new java.awt.Rectangle(-origin.x, -origin.y, client.width, client.height);
 	}
+	
+	
+	/**
+	 * Updates the ranges of the scroll bars according to the current size of the output component. 
+	 */
+	@Override
+	public void assignContentSize() {
+		updateScrollBars();
+	}
+	
+	
+	private void updateScrollBars() {
+		Dimension dimension = getOutputComponent().getSize();
+		Rectangle client = getClientArea();
+		getHorizontalBar().setMaximum(dimension.width);
+		getVerticalBar().setMaximum(dimension.height);
+		getHorizontalBar().setThumb(Math.min(dimension.width, client.width));
+		getVerticalBar().setThumb(Math.min(dimension.height, client.height));
+		int hPage = dimension.width - client.width;
+		int vPage = dimension.height - client.height;
+		int hSelection = getHorizontalBar().getSelection();
+		int vSelection = getVerticalBar().getSelection();
+		Point previousOrigin = new Point(origin.x, origin.y);
+		if (hSelection >= hPage) {
+			if (hPage <= 0) {
+				hSelection = 0;
+			}
+			origin.x = -hSelection;
+		}
+		if (vSelection >= vPage) {
+			if (vPage <= 0) {
+				vSelection = 0;
+			}
+			origin.y = -vSelection;
+		}
+		
+		// The viewport image is recreated on the next paint event anyway. Newly exposed areas are repainted by SWT, but if the origin changed, all contents moved.
+		if (!origin.equals(previousOrigin)) {
+			redraw();
+		}
+	}
 
 
+	/**
+	 * Moves the contents of the viewport image to a new origin and marks the newly exposed strips as invalid.
+	 * 
+	 * @param originX the new origin on x
+	 * @param originY the new origin on y
+	 */
+	private void scrollViewport(int originX, int originY) {
+		int dx = originX - origin.x;
+		int dy = originY - origin.y;
+		origin.x = originX;
+		origin.y = originY;
+		if ((dx != 0) || (dy != 0)) {
+			Image viewport = getImageStore().getImage(VIEWPORT_IMAGE_KEY);
+			if (invalidAreas.scroll(dx, dy) && (viewport != null)) {
+				Rectangle bounds = viewport.getBounds();
+				GC gc = new GC(viewport);
+				try {
+					gc.copyArea(Math.max(0, -dx), Math.max(0, -dy), bounds.width - Math.abs(dx), bounds.height - Math.abs(dy), 
+							Math.max(0, dx), Math.max(0, dy));
+				}
+				finally {
+					gc.dispose();
+				}
+			}
+			super.redraw();  // Only draws the viewport image.
+		}
+	}
+	
+	
+	/**
+	 * Paints all invalid areas of the viewport image, if necessary, and draws the image on the graphics context of
+	 * the paint event.
+	 */
+	@Override
+	public void paintControl(PaintEvent e) {
+		Rectangle client = getClientArea();
+		if ((client.width > 0) && (client.height > 0)) {
+			Image viewport = getImageStore().getImage(VIEWPORT_IMAGE_KEY);
+			if ((viewport == null) || (viewport.getBounds().width != client.width) || 
+					(viewport.getBounds().height != client.height)) {
+				
+				viewport = getImageStore().putImage(VIEWPORT_IMAGE_KEY, new Image(getDisplay(), client.width, client.height));
+				invalidAreas.reset(client.width, client.height);
+			}
+			
+			if (!invalidAreas.isEmpty()) {
+				List<java.awt.Rectangle> areas = invalidAreas.removeAll();
+				GC gc = new GC(viewport);
+				try {
+					java.awt.Rectangle bounds = new java.awt.Rectangle(areas.get(0));
+					gc.setBackground(getBackground());
+					for (java.awt.Rectangle area : areas) {
+						bounds.add(area);
+						gc.fillRectangle(area.x, area.y, area.width, area.height);
+					}
+					gc.setClipping(bounds.x, bounds.y, bounds.width, bounds.height);
+					paintAreas(gc, areas);
+				}
+				finally {
+					gc.dispose();
+				}
+			}
+			
+			e.gc.drawImage(viewport, 0, 0);  // The graphics context is clipped to the damaged area by SWT.
+		}
+	}
+	
+	
+	/**
+	 * Marks the whole viewport as invalid and causes it to be repainted by the output component. 
+	 */
+	@Override
+	public void redraw() {
+		if (invalidAreas != null) {  // Might be called by the constructor of the superclass.
+			invalidAreas.invalidateAll();
+		}
+		super.redraw();
+	}
+	
+	
+	/**
+	 * Marks the specified area of the viewport as invalid and causes it to be repainted by the output component. 
+	 */
+	@Override
+	public void redraw(int x, int y, int width, int height, boolean all) {
+		if (invalidAreas != null) {  // Might be called by the constructor of the superclass.
+			invalidAreas.invalidate(new java.awt.Rectangle(x, y, width, height));
+		}
+		super.redraw(x, y, width, height, all);
+	}
+	
+	
 	protected void fireControlScrolled() {
 		getIndependentComponent().fireControlScrolled(new TICScrollEvent(this));
 	}
@@ -24,6 +24,7 @@ import info.bioinfweb.tic.scrolling.TICScrollEvent;
 
 import org.eclipse.swt.events.ControlAdapter;
 import org.eclipse.swt.events.ControlEvent;
+import org.eclipse.swt.widgets.Control;
 
 
 
@@ -39,6 +40,10 @@ public class SWTComponentTools {
 		component.getScrolledComposite().getContent().addControlListener(new ControlAdapter() {
 			@Override
 			public void controlMoved(ControlEvent e) {
+				Control content = component.getScrolledComposite().getContent();
+				if (content instanceof ToolkitComponent) {
+					((ToolkitComponent)content).getIndependentComponent().notifyInteraction((ToolkitComponent)content);
+				}
 				component.getIndependentComponent().fireControlScrolled(new TICScrollEvent(component));
 			}
 		});
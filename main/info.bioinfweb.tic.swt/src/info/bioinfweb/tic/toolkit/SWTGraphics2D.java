@@ -0,0 +1,1078 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.exception.UnsupportedGraphicsOperationException;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.GC;
+
+
+
+/**
+ * Implementation of {@link Graphics2D} that translates painting operations directly to an <i>SWT</i> graphics
+ * context ({@link GC}) without rendering into a buffered image first.
+ * <p>
+ * Only a subset of the operations of {@link Graphics2D} is supported. These are drawing and filling lines,
+ * rectangles, rounded rectangles, ovals, arcs, polygons and text with solid colors, {@link BasicStroke}s and
+ * {@link AlphaComposite#SRC_OVER}, as well as integer translations and rectangular clipping. Other shapes are
+ * drawn as flattened polylines, while filling them is only supported if they consist of a single subpath.
+ * Floating point coordinates are rounded to whole pixels.
+ * <p>
+ * All other operations (e.g. painting images, transformations other than integer translations, gradient paints
+ * or attributed text) cause an {@link UnsupportedGraphicsOperationException}. Toolkit components using this class
+ * catch this exception and repaint the affected area using a buffered image instead.
+ * <p>
+ * Native resources are obtained from an {@link SWTResourceCache} and are not disposed by this class. Calling
+ * {@link #dispose()} does not dispose the underlying graphics context either.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public class SWTGraphics2D extends Graphics2D {
+	private static final double FLATNESS = 0.25;
+	
+	
+	/**
+	 * Stores the properties that have last been set on the graphics context. Instances are shared between all
+	 * copies of a graphics object, since these operate on the same graphics context.
+	 */
+	private static class AppliedState {
+		public Rectangle clip = null;
+		public Color foreground = null;
+		public Color background = null;
+		public Font font = null;
+		public org.eclipse.swt.graphics.FontMetrics fontMetrics = null;
+		public Stroke stroke = null;
+		public int alpha = 255;
+		public Object antialias = null;
+		public Object textAntialias = null;
+	}
+	
+	
+	private static Graphics2D metricsGraphics = null;
+	
+	
+	private GC gc;
+	private SWTResourceCache resources;
+	private AppliedState appliedState;
+	private Rectangle deviceClip;
+	private Rectangle clip;
+	private int translateX = 0;
+	private int translateY = 0;
+	private Color color = Color.BLACK;
+	private Color background = Color.WHITE;
+	private Paint paint = color;
+	private Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+	private Stroke stroke = new BasicStroke();
+	private Composite composite = AlphaComposite.SrcOver;
+	private RenderingHints hints = new RenderingHints(null);
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param gc the <i>SWT</i> graphics context to paint on
+	 * @param resources the cache providing the <i>SWT</i> colors and fonts
+	 * @param deviceClip the area of the graphics context that may be painted on in the coordinate system of the
+	 *        graphics context (Clipping areas specified later on will never exceed this area. The graphics context
+	 *        is expected to be clipped to this area or a region within it already, which is only replaced if a
+	 *        different clipping area is specified.)
+	 */
+	public SWTGraphics2D(GC gc, SWTResourceCache resources, Rectangle deviceClip) {
+		this(gc, resources, new AppliedState(), new Rectangle(deviceClip));
+	}
+	
+	
+	private SWTGraphics2D(GC gc, SWTResourceCache resources, AppliedState appliedState, Rectangle deviceClip) {
+		super();
+		this.gc = gc;
+		this.resources = resources;
+		this.appliedState = appliedState;
+		this.deviceClip = deviceClip;
+		this.clip = deviceClip;
+		if (appliedState.clip == null) {
+			appliedState.clip = deviceClip;  // Keep a possible clipping region of the graphics context.
+		}
+	}
+	
+	
+	/**
+	 * Returns the <i>SWT</i> graphics context this instance paints on.
+	 * 
+	 * @return the underlying graphics context
+	 */
+	public GC getGC() {
+		return gc;
+	}
+	
+	
+	/**
+	 * Resets the clipping area and the alpha value of the underlying graphics context to the state before this
+	 * instance was created. Toolkit components call this method before painting on the graphics context by
+	 * other means after an {@link UnsupportedGraphicsOperationException} occurred.
+	 */
+	public void resetGC() {
+		if (appliedState.clip != deviceClip) {
+			gc.setClipping(deviceClip.x, deviceClip.y, deviceClip.width, deviceClip.height);
+			appliedState.clip = deviceClip;
+		}
+		if (appliedState.alpha != 255) {
+			gc.setAlpha(255);
+			appliedState.alpha = 255;
+		}
+	}
+	
+	
+	private static UnsupportedGraphicsOperationException unsupported(String operation) {
+		return new UnsupportedGraphicsOperationException(operation);
+	}
+	
+	
+	private static Rectangle normalize(Rectangle rectangle) {
+		if (rectangle.width < 0) {
+			rectangle.width = 0;
+		}
+		if (rectangle.height < 0) {
+			rectangle.height = 0;
+		}
+		return rectangle;
+	}
+	
+	
+	private static boolean isInteger(double value) {
+		return Math.rint(value) == value;
+	}
+	
+	
+	private int x(double x) {
+		return (int)Math.round(x) + translateX;
+	}
+	
+	
+	private int y(double y) {
+		return (int)Math.round(y) + translateY;
+	}
+	
+	
+	private int[] toPointArray(int[] xPoints, int[] yPoints, int nPoints) {
+		int[] result = new int[2 * nPoints];
+		for (int i = 0; i < nPoints; i++) {
+			result[2 * i] = xPoints[i] + translateX;
+			result[2 * i + 1] = yPoints[i] + translateY;
+		}
+		return result;
+	}
+	
+	
+	private void applyClip() {
+		if (!clip.equals(appliedState.clip)) {
+			gc.setClipping(clip.x, clip.y, clip.width, clip.height);
+			appliedState.clip = clip;
+		}
+	}
+	
+	
+	private void applyAlpha(int colorAlpha) {
+		if (!(composite instanceof AlphaComposite) || (((AlphaComposite)composite).getRule() != AlphaComposite.SRC_OVER)) {
+			throw unsupported("composite " + composite);
+		}
+		int alpha = Math.round(colorAlpha * ((AlphaComposite)composite).getAlpha());
+		if (alpha != appliedState.alpha) {
+			try {
+				gc.setAlpha(alpha);
+			}
+			catch (SWTException e) {  // Thrown if advanced graphics are not available.
+				throw unsupported("translucent painting");
+			}
+			appliedState.alpha = alpha;
+		}
+	}
+	
+	
+	private static int getSWTAntialias(Object value, Object on, Object off) {
+		if (on.equals(value)) {
+			return SWT.ON;
+		}
+		else if (off.equals(value)) {
+			return SWT.OFF;
+		}
+		else {
+			return SWT.DEFAULT;
+		}
+	}
+	
+	
+	private void applyAntialias() {
+		Object antialias = hints.get(RenderingHints.KEY_ANTIALIASING);
+		if ((antialias != appliedState.antialias) && (antialias != null)) {
+			try {
+				gc.setAntialias(getSWTAntialias(antialias, RenderingHints.VALUE_ANTIALIAS_ON, RenderingHints.VALUE_ANTIALIAS_OFF));
+			}
+			catch (SWTException e) {}  // Ignore hint, if advanced graphics are not available.
+			appliedState.antialias = antialias;
+		}
+	}
+	
+	
+	private void applyTextAntialias() {
+		Object antialias = hints.get(RenderingHints.KEY_TEXT_ANTIALIASING);
+		if ((antialias != appliedState.textAntialias) && (antialias != null)) {
+			try {
+				gc.setTextAntialias(getSWTAntialias(antialias, RenderingHints.VALUE_TEXT_ANTIALIAS_ON,
+						RenderingHints.VALUE_TEXT_ANTIALIAS_OFF));
+			}
+			catch (SWTException e) {}  // Ignore hint, if advanced graphics are not available.
+			appliedState.textAntialias = antialias;
+		}
+	}
+	
+	
+	private void checkPaint() {
+		if (!(paint instanceof Color)) {
+			throw unsupported("paint " + paint);
+		}
+	}
+	
+	
+	private void applyForeground() {
+		checkPaint();
+		applyClip();
+		applyAlpha(color.getAlpha());
+		applyAntialias();
+		if (!color.equals(appliedState.foreground)) {
+			gc.setForeground(resources.getColor(color));
+			appliedState.foreground = color;
+		}
+	}
+	
+	
+	private void applyFill(Color fillColor) {
+		applyClip();
+		applyAntialias();
+		if (!fillColor.equals(appliedState.background)) {
+			gc.setBackground(resources.getColor(fillColor));
+			appliedState.background = fillColor;
+		}
+	}
+	
+	
+	private void applyFill() {
+		checkPaint();
+		applyAlpha(color.getAlpha());
+		applyFill(color);
+	}
+	
+	
+	private static int getSWTLineCap(int cap) {
+		switch (cap) {
+			case BasicStroke.CAP_ROUND:
+				return SWT.CAP_ROUND;
+			case BasicStroke.CAP_SQUARE:
+				return SWT.CAP_SQUARE;
+			default:
+				return SWT.CAP_FLAT;
+		}
+	}
+	
+	
+	private static int getSWTLineJoin(int join) {
+		switch (join) {
+			case BasicStroke.JOIN_ROUND:
+				return SWT.JOIN_ROUND;
+			case BasicStroke.JOIN_BEVEL:
+				return SWT.JOIN_BEVEL;
+			default:
+				return SWT.JOIN_MITER;
+		}
+	}
+	
+	
+	private void applyStroke() {
+		applyForeground();
+		if (stroke != appliedState.stroke) {
+			if (!(stroke instanceof BasicStroke)) {
+				throw unsupported("stroke " + stroke);
+			}
+			BasicStroke basicStroke = (BasicStroke)stroke;
+			gc.setLineWidth(Math.round(basicStroke.getLineWidth()));
+			gc.setLineCap(getSWTLineCap(basicStroke.getEndCap()));
+			gc.setLineJoin(getSWTLineJoin(basicStroke.getLineJoin()));
+			float[] dashArray = basicStroke.getDashArray();
+			if (dashArray == null) {
+				gc.setLineDash(null);
+			}
+			else {
+				int[] dashes = new int[dashArray.length];
+				for (int i = 0; i < dashArray.length; i++) {
+					dashes[i] = Math.max(1, Math.round(dashArray[i]));
+				}
+				gc.setLineDash(dashes);
+			}
+			appliedState.stroke = stroke;
+		}
+	}
+	
+	
+	private org.eclipse.swt.graphics.FontMetrics applyText() {
+		applyForeground();
+		applyTextAntialias();
+		if (!font.equals(appliedState.font)) {
+			gc.setFont(resources.getFont(font));
+			appliedState.font = font;
+			appliedState.fontMetrics = gc.getFontMetrics();
+		}
+		return appliedState.fontMetrics;
+	}
+	
+	
+	@Override
+	public Graphics create() {
+		SWTGraphics2D result = new SWTGraphics2D(gc, resources, appliedState, deviceClip);
+		result.clip = clip;
+		result.translateX = translateX;
+		result.translateY = translateY;
+		result.color = color;
+		result.background = background;
+		result.paint = paint;
+		result.font = font;
+		result.stroke = stroke;
+		result.composite = composite;
+		result.hints = (RenderingHints)hints.clone();
+		return result;
+	}
+	
+	
+	@Override
+	public void dispose() {}  // Resources are owned by the resource cache and the graphics context by its creator.
+	
+	
+	// Transformation:
+	
+	@Override
+	public void translate(int x, int y) {
+		translateX += x;
+		translateY += y;
+	}
+	
+	
+	@Override
+	public void translate(double tx, double ty) {
+		if (isInteger(tx) && isInteger(ty)) {
+			translate((int)tx, (int)ty);
+		}
+		else {
+			throw unsupported("translation by fractional pixels");
+		}
+	}
+	
+	
+	@Override
+	public void rotate(double theta) {
+		if (theta != 0) {
+			throw unsupported("rotate");
+		}
+	}
+	
+	
+	@Override
+	public void rotate(double theta, double x, double y) {
+		rotate(theta);
+	}
+	
+	
+	@Override
+	public void scale(double sx, double sy) {
+		if ((sx != 1) || (sy != 1)) {
+			throw unsupported("scale");
+		}
+	}
+	
+	
+	@Override
+	public void shear(double shx, double shy) {
+		if ((shx != 0) || (shy != 0)) {
+			throw unsupported("shear");
+		}
+	}
+	
+	
+	@Override
+	public void transform(AffineTransform tx) {
+		if ((tx.getType() & ~AffineTransform.TYPE_TRANSLATION) == 0) {
+			translate(tx.getTranslateX(), tx.getTranslateY());
+		}
+		else {
+			throw unsupported("transform " + tx);
+		}
+	}
+	
+	
+	@Override
+	public void setTransform(AffineTransform tx) {
+		if ((tx.getType() & ~AffineTransform.TYPE_TRANSLATION) == 0) {
+			if (isInteger(tx.getTranslateX()) && isInteger(tx.getTranslateY())) {
+				translateX = (int)tx.getTranslateX();
+				translateY = (int)tx.getTranslateY();
+			}
+			else {
+				throw unsupported("translation by fractional pixels");
+			}
+		}
+		else {
+			throw unsupported("transform " + tx);
+		}
+	}
+	
+	
+	@Override
+	public AffineTransform getTransform() {
+		return AffineTransform.getTranslateInstance(translateX, translateY);
+	}
+	
+	
+	// Clipping:
+	
+	private Rectangle toDevice(Rectangle2D rectangle) {
+		Rectangle bounds = rectangle.getBounds();
+		bounds.translate(translateX, translateY);
+		return bounds;
+	}
+	
+	
+	@Override
+	public Rectangle getClipBounds() {
+		Rectangle result = new Rectangle(clip);
+		result.translate(-translateX, -translateY);
+		return result;
+	}
+	
+	
+	@Override
+	public Shape getClip() {
+		return getClipBounds();
+	}
+	
+	
+	@Override
+	public void clipRect(int x, int y, int width, int height) {
+		clip = normalize(clip.intersection(new Rectangle(x + translateX, y + translateY, width, height)));
+	}
+	
+	
+	@Override
+	public void setClip(int x, int y, int width, int height) {
+		clip = normalize(deviceClip.intersection(new Rectangle(x + translateX, y + translateY, width, height)));
+	}
+	
+	
+	@Override
+	public void setClip(Shape clip) {
+		if (clip == null) {
+			this.clip = deviceClip;
+		}
+		else if (clip instanceof Rectangle2D) {
+			this.clip = normalize(deviceClip.intersection(toDevice((Rectangle2D)clip)));
+		}
+		else {
+			throw unsupported("non-rectangular clipping");
+		}
+	}
+	
+	
+	@Override
+	public void clip(Shape s) {
+		if (s == null) {
+			setClip(null);
+		}
+		else if (s instanceof Rectangle2D) {
+			clip = normalize(clip.intersection(toDevice((Rectangle2D)s)));
+		}
+		else {
+			throw unsupported("non-rectangular clipping");
+		}
+	}
+	
+	
+	// Attributes:
+	
+	@Override
+	public Color getColor() {
+		return color;
+	}
+	
+	
+	@Override
+	public void setColor(Color c) {
+		if (c != null) {
+			color = c;
+			paint = c;
+		}
+	}
+	
+	
+	@Override
+	public Paint getPaint() {
+		return paint;
+	}
+	
+	
+	@Override
+	public void setPaint(Paint paint) {
+		if (paint instanceof Color) {
+			setColor((Color)paint);
+		}
+		else if (paint != null) {
+			this.paint = paint;  // An exception will be thrown when this paint is used.
+		}
+	}
+	
+	
+	@Override
+	public Color getBackground() {
+		return background;
+	}
+	
+	
+	@Override
+	public void setBackground(Color color) {
+		background = color;
+	}
+	
+	
+	@Override
+	public Composite getComposite() {
+		return composite;
+	}
+	
+	
+	@Override
+	public void setComposite(Composite comp) {
+		composite = comp;  // An exception will be thrown when an unsupported composite is used.
+	}
+	
+	
+	@Override
+	public void setPaintMode() {
+		composite = AlphaComposite.SrcOver;
+	}
+	
+	
+	@Override
+	public void setXORMode(Color c1) {
+		throw unsupported("XOR mode");
+	}
+	
+	
+	@Override
+	public Stroke getStroke() {
+		return stroke;
+	}
+	
+	
+	@Override
+	public void setStroke(Stroke s) {
+		stroke = s;  // An exception will be thrown when an unsupported stroke is used.
+	}
+	
+	
+	@Override
+	public Font getFont() {
+		return font;
+	}
+	
+	
+	@Override
+	public void setFont(Font font) {
+		if (font != null) {
+			this.font = font;
+		}
+	}
+	
+	
+	/**
+	 * Returns the <i>AWT</i> font metrics of the specified font. Note that these may differ slightly from the
+	 * metrics of the according <i>SWT</i> font used for painting.
+	 */
+	@Override
+	public FontMetrics getFontMetrics(Font f) {
+		if (metricsGraphics == null) {
+			metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+		}
+		return metricsGraphics.getFontMetrics(f);
+	}
+	
+	
+	@Override
+	public FontRenderContext getFontRenderContext() {
+		return new FontRenderContext(null, RenderingHints.VALUE_TEXT_ANTIALIAS_ON.equals(
+				hints.get(RenderingHints.KEY_TEXT_ANTIALIASING)), RenderingHints.VALUE_FRACTIONALMETRICS_ON.equals(
+				hints.get(RenderingHints.KEY_FRACTIONALMETRICS)));
+	}
+	
+	
+	@Override
+	public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+		hints.put(hintKey, hintValue);
+	}
+	
+	
+	@Override
+	public Object getRenderingHint(RenderingHints.Key hintKey) {
+		return hints.get(hintKey);
+	}
+	
+	
+	@Override
+	public void setRenderingHints(Map<?, ?> hints) {
+		this.hints.clear();
+		this.hints.putAll(hints);
+	}
+	
+	
+	@Override
+	public void addRenderingHints(Map<?, ?> hints) {
+		this.hints.putAll(hints);
+	}
+	
+	
+	@Override
+	public RenderingHints getRenderingHints() {
+		return (RenderingHints)hints.clone();
+	}
+	
+	
+	@Override
+	public GraphicsConfiguration getDeviceConfiguration() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return null;
+		}
+		else {
+			return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		}
+	}
+	
+	
+	// Primitives:
+	
+	@Override
+	public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+		applyClip();
+		gc.copyArea(x + translateX, y + translateY, width, height, x + translateX + dx, y + translateY + dy);
+	}
+	
+	
+	@Override
+	public void drawLine(int x1, int y1, int x2, int y2) {
+		applyStroke();
+		gc.drawLine(x1 + translateX, y1 + translateY, x2 + translateX, y2 + translateY);
+	}
+	
+	
+	@Override
+	public void fillRect(int x, int y, int width, int height) {
+		applyFill();
+		gc.fillRectangle(x + translateX, y + translateY, width, height);
+	}
+	
+	
+	@Override
+	public void drawRect(int x, int y, int width, int height) {
+		applyStroke();
+		gc.drawRectangle(x + translateX, y + translateY, width, height);
+	}
+	
+	
+	@Override
+	public void clearRect(int x, int y, int width, int height) {
+		applyClip();
+		if (appliedState.alpha != 255) {
+			gc.setAlpha(255);
+			appliedState.alpha = 255;
+		}
+		applyFill(new Color(background.getRGB() & 0xFFFFFF));
+		gc.fillRectangle(x + translateX, y + translateY, width, height);
+	}
+	
+	
+	@Override
+	public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		applyStroke();
+		gc.drawRoundRectangle(x + translateX, y + translateY, width, height, arcWidth, arcHeight);
+	}
+	
+	
+	@Override
+	public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+		applyFill();
+		gc.fillRoundRectangle(x + translateX, y + translateY, width, height, arcWidth, arcHeight);
+	}
+	
+	
+	@Override
+	public void drawOval(int x, int y, int width, int height) {
+		applyStroke();
+		gc.drawOval(x + translateX, y + translateY, width, height);
+	}
+	
+	
+	@Override
+	public void fillOval(int x, int y, int width, int height) {
+		applyFill();
+		gc.fillOval(x + translateX, y + translateY, width, height);
+	}
+	
+	
+	@Override
+	public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		applyStroke();
+		gc.drawArc(x + translateX, y + translateY, width, height, startAngle, arcAngle);
+	}
+	
+	
+	@Override
+	public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+		applyFill();
+		gc.fillArc(x + translateX, y + translateY, width, height, startAngle, arcAngle);
+	}
+	
+	
+	@Override
+	public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+		applyStroke();
+		gc.drawPolyline(toPointArray(xPoints, yPoints, nPoints));
+	}
+	
+	
+	@Override
+	public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+		applyStroke();
+		gc.drawPolygon(toPointArray(xPoints, yPoints, nPoints));
+	}
+	
+	
+	@Override
+	public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+		applyFill();
+		gc.fillPolygon(toPointArray(xPoints, yPoints, nPoints));
+	}
+	
+	
+	// Shapes:
+	
+	/**
+	 * Stores the subpaths of a flattened shape as point arrays in the coordinate system of the graphics context.
+	 */
+	private class FlattenedPath {
+		public int subpathCount = 0;
+		private int[] points = new int[32];
+		private int length = 0;
+		private int startX;
+		private int startY;
+		
+		
+		public FlattenedPath(Shape shape, PathConsumer consumer) {
+			super();
+			PathIterator iterator = shape.getPathIterator(null, FLATNESS);
+			double[] coords = new double[6];
+			while (!iterator.isDone()) {
+				switch (iterator.currentSegment(coords)) {
+					case PathIterator.SEG_MOVETO:
+						flush(consumer, false);
+						startX = x(coords[0]);
+						startY = y(coords[1]);
+						add(startX, startY);
+						break;
+					case PathIterator.SEG_LINETO:
+						add(x(coords[0]), y(coords[1]));
+						break;
+					case PathIterator.SEG_CLOSE:
+						flush(consumer, true);
+						break;
+				}
+				iterator.next();
+			}
+			flush(consumer, false);
+		}
+		
+		
+		private void add(int x, int y) {
+			if (length + 2 > points.length) {
+				points = Arrays.copyOf(points, 2 * points.length);
+			}
+			points[length] = x;
+			points[length + 1] = y;
+			length += 2;
+		}
+		
+		
+		private void flush(PathConsumer consumer, boolean closed) {
+			if (length >= 4) {
+				subpathCount++;
+				consumer.consume(Arrays.copyOf(points, length), closed);
+			}
+			length = 0;
+		}
+	}
+	
+	
+	private static interface PathConsumer {
+		public void consume(int[] points, boolean closed);
+	}
+	
+	
+	@Override
+	public void draw(Shape s) {
+		if (s instanceof Line2D) {
+			Line2D line = (Line2D)s;
+			applyStroke();
+			gc.drawLine(x(line.getX1()), y(line.getY1()), x(line.getX2()), y(line.getY2()));
+		}
+		else if (s instanceof Rectangle2D) {
+			Rectangle2D rectangle = (Rectangle2D)s;
+			applyStroke();
+			int x = x(rectangle.getX());
+			int y = y(rectangle.getY());
+			gc.drawRectangle(x, y, x(rectangle.getMaxX()) - x, y(rectangle.getMaxY()) - y);
+		}
+		else if (s instanceof Ellipse2D) {
+			Ellipse2D ellipse = (Ellipse2D)s;
+			applyStroke();
+			int x = x(ellipse.getX());
+			int y = y(ellipse.getY());
+			gc.drawOval(x, y, x(ellipse.getMaxX()) - x, y(ellipse.getMaxY()) - y);
+		}
+		else if (s instanceof RoundRectangle2D) {
+			RoundRectangle2D rectangle = (RoundRectangle2D)s;
+			applyStroke();
+			int x = x(rectangle.getX());
+			int y = y(rectangle.getY());
+			gc.drawRoundRectangle(x, y, x(rectangle.getMaxX()) - x, y(rectangle.getMaxY()) - y,
+					(int)Math.round(rectangle.getArcWidth()), (int)Math.round(rectangle.getArcHeight()));
+		}
+		else {
+			applyStroke();
+			new FlattenedPath(s, new PathConsumer() {
+				@Override
+				public void consume(int[] points, boolean closed) {
+					if (closed) {
+						gc.drawPolygon(points);
+					}
+					else {
+						gc.drawPolyline(points);
+					}
+				}
+			});
+		}
+	}
+	
+	
+	@Override
+	public void fill(Shape s) {
+		if (s instanceof Rectangle2D) {
+			Rectangle2D rectangle = (Rectangle2D)s;
+			applyFill();
+			int x = x(rectangle.getX());
+			int y = y(rectangle.getY());
+			gc.fillRectangle(x, y, x(rectangle.getMaxX()) - x, y(rectangle.getMaxY()) - y);
+		}
+		else if (s instanceof Ellipse2D) {
+			Ellipse2D ellipse = (Ellipse2D)s;
+			applyFill();
+			int x = x(ellipse.getX());
+			int y = y(ellipse.getY());
+			gc.fillOval(x, y, x(ellipse.getMaxX()) - x, y(ellipse.getMaxY()) - y);
+		}
+		else if (s instanceof RoundRectangle2D) {
+			RoundRectangle2D rectangle = (RoundRectangle2D)s;
+			applyFill();
+			int x = x(rectangle.getX());
+			int y = y(rectangle.getY());
+			gc.fillRoundRectangle(x, y, x(rectangle.getMaxX()) - x, y(rectangle.getMaxY()) - y,
+					(int)Math.round(rectangle.getArcWidth()), (int)Math.round(rectangle.getArcHeight()));
+		}
+		else if (s instanceof Polygon) {
+			Polygon polygon = (Polygon)s;
+			fillPolygon(polygon.xpoints, polygon.ypoints, polygon.npoints);
+		}
+		else {
+			final int[][] polygon = new int[1][];
+			FlattenedPath path = new FlattenedPath(s, new PathConsumer() {
+				@Override
+				public void consume(int[] points, boolean closed) {
+					polygon[0] = points;
+				}
+			});
+			if (path.subpathCount > 1) {
+				throw unsupported("filling shapes with multiple subpaths");
+			}
+			else if (path.subpathCount == 1) {
+				applyFill();
+				gc.fillPolygon(polygon[0]);
+			}
+		}
+	}
+	
+	
+	@Override
+	public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+		if (onStroke) {
+			s = stroke.createStrokedShape(s);
+		}
+		Rectangle userRect = new Rectangle(rect);
+		userRect.translate(-translateX, -translateY);
+		return s.intersects(userRect);
+	}
+	
+	
+	// Text:
+	
+	@Override
+	public void drawString(String str, int x, int y) {
+		org.eclipse.swt.graphics.FontMetrics metrics = applyText();
+		gc.drawString(str, x + translateX, y + translateY - metrics.getAscent() - metrics.getLeading(), true);  // SWT positions text by its top and not by its baseline.
+	}
+	
+	
+	@Override
+	public void drawString(String str, float x, float y) {
+		drawString(str, Math.round(x), Math.round(y));
+	}
+	
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+		throw unsupported("drawing attributed strings");
+	}
+	
+	
+	@Override
+	public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+		throw unsupported("drawing attributed strings");
+	}
+	
+	
+	@Override
+	public void drawGlyphVector(GlyphVector g, float x, float y) {
+		throw unsupported("drawing glyph vectors");
+	}
+	
+	
+	// Images:
+	
+	@Override
+	public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+			ImageObserver observer) {
+		
+		throw unsupported("drawing images");
+	}
+	
+	
+	@Override
+	public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2,
+			Color bgcolor, ImageObserver observer) {
+		
+		throw unsupported("drawing images");
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+
+
+
+/**
+ * Manages the native <i>SWT</i> images used by a <i>TIC</i> toolkit component. Each image is stored under a key
+ * (e.g. a constant for the whole widget or the coordinates of a tile) and at most one image per key is alive
+ * at any time. Images that are replaced or removed from this store are disposed immediately.
+ * <p>
+ * Images stored in an instance are owned by it and must not be disposed by other code. Toolkit components
+ * should call {@link #disposeAll()} when they are disposed or resized.
+ * <p>
+ * The static methods {@link #getLiveImageCount()}, {@link #getCreatedImageCount()} and
+ * {@link #getDisposedImageCount()} allow to monitor the native images managed by all instances of this class
+ * to detect leaks.
+ * <p>
+ * Instances of this class are not thread-safe and are meant to be used on the <i>SWT</i> UI thread.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public class SWTImageStore {
+	private static final AtomicInteger liveImageCount = new AtomicInteger(0);
+	private static final AtomicLong createdImageCount = new AtomicLong(0);
+	private static final AtomicLong disposedImageCount = new AtomicLong(0);
+	
+	
+	private Map<Object, Image> images = new HashMap<Object, Image>();
+	
+	
+	/**
+	 * Returns the image stored under the specified key.
+	 * 
+	 * @param key the key of the image
+	 * @return the image or {@code null} if no (undisposed) image is stored under this key
+	 */
+	public Image getImage(Object key) {
+		Image result = images.get(key);
+		if ((result != null) && result.isDisposed()) {  // Should not happen, if images are only disposed by this instance.
+			images.remove(key);
+			liveImageCount.decrementAndGet();
+			disposedImageCount.incrementAndGet();
+			result = null;
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Creates a new native image from the specified image data and stores it under the specified key. An image
+	 * that was previously stored under this key is disposed.
+	 * <p>
+	 * Note that <i>SWT</i> does not offer a way to transfer image data into the pixels of an existing image.
+	 * Therefore a new native image is created by every call of this method, but it is guaranteed that previous
+	 * images stored under the same key do not remain alive.
+	 * 
+	 * @param key the key of the image
+	 * @param device the device to create the image for
+	 * @param data the pixel data of the new image
+	 * @return the new image
+	 */
+	public Image putImage(Object key, Device device, ImageData data) {
+		return putImage(key, new Image(device, data));
+	}
+	
+	
+	/**
+	 * Stores the specified image under the specified key. An image that was previously stored under this key
+	 * is disposed. The ownership of the specified image is transferred to this store.
+	 * 
+	 * @param key the key of the image
+	 * @param image the image to be stored
+	 * @return the specified image
+	 */
+	public Image putImage(Object key, Image image) {
+		Image previous = images.put(key, image);
+		if (previous != image) {
+			createdImageCount.incrementAndGet();
+			liveImageCount.incrementAndGet();
+			if (previous != null) {
+				dispose(previous);
+			}
+		}
+		return image;
+	}
+	
+	
+	private static void dispose(Image image) {
+		if (!image.isDisposed()) {
+			image.dispose();
+		}
+		liveImageCount.decrementAndGet();
+		disposedImageCount.incrementAndGet();
+	}
+	
+	
+	/**
+	 * Removes the image stored under the specified key from this store and disposes it.
+	 * 
+	 * @param key the key of the image
+	 * @return {@code true} if an image was stored under the specified key, {@code false} otherwise
+	 */
+	public boolean disposeImage(Object key) {
+		Image image = images.remove(key);
+		if (image != null) {
+			dispose(image);
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Disposes all images currently contained in this store.
+	 */
+	public void disposeAll() {
+		Iterator<Image> iterator = images.values().iterator();
+		while (iterator.hasNext()) {
+			dispose(iterator.next());
+			iterator.remove();
+		}
+	}
+	
+	
+	/**
+	 * Returns the number of images currently contained in this store.
+	 * 
+	 * @return the number of native images alive in this store
+	 */
+	public int getImageCount() {
+		return images.size();
+	}
+	
+	
+	/**
+	 * Returns the number of native images that are currently managed by all instances of this class.
+	 * 
+	 * @return the number of live native images
+	 */
+	public static int getLiveImageCount() {
+		return liveImageCount.get();
+	}
+	
+	
+	/**
+	 * Returns the number of native images that have been stored in any instance of this class since the
+	 * class was loaded.
+	 * 
+	 * @return the total number of stored images
+	 */
+	public static long getCreatedImageCount() {
+		return createdImageCount.get();
+	}
+	
+	
+	/**
+	 * Returns the number of native images that have been disposed by any instance of this class since the
+	 * class was loaded.
+	 * 
+	 * @return the total number of disposed images
+	 */
+	public static long getDisposedImageCount() {
+		return disposedImageCount.get();
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.rendering.BackingRaster;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+
+
+
+/**
+ * Enumerates the pixel layouts that can be shared between a {@link BufferedImage} rendered by <i>Java2D</i> and
+ * an <i>SWT</i> {@link ImageData} object without copying the pixel array.
+ * <p>
+ * Since {@link ImageData} only accepts byte arrays, all formats are based on interleaved byte rasters. Formats
+ * with a depth of 32 bits contain an alpha channel that can be transferred to the alpha data of the
+ * <i>SWT</i> image, if translucent painting is required. {@link #getNativeFormat(boolean)} returns the format
+ * that matches the pixel layout <i>SWT</i> uses internally on the current platform.
+ * <p>
+ * Note that <i>Java2D</i> only provides optimized rendering loops for {@link #BGR_24} and {@link #ABGR_32}. 
+ * Rendering into images of other formats is more than an order of magnitude slower, which outweighs the 
+ * pixel conversion saved when native images are created. Therefore {@link #getPreferredFormat(boolean)} only 
+ * returns accelerated formats. The benchmark {@code info.bioinfweb.tic.test.benchmarks.SWTPixelFormatBenchmark} 
+ * can be used to compare rendering and conversion times of all formats on a specific platform.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public enum SWTPixelFormat {
+	/** Three bytes per pixel in the order blue, green, red (equivalent to {@link BufferedImage#TYPE_3BYTE_BGR}). */
+	BGR_24(24, 0xFF, 0xFF00, 0xFF0000, new int[]{2, 1, 0}),
+	
+	/** Three bytes per pixel in the order red, green, blue. */
+	RGB_24(24, 0xFF0000, 0xFF00, 0xFF, new int[]{0, 1, 2}),
+	
+	/**
+	 * Four bytes per pixel in the order alpha, blue, green, red (equivalent to
+	 * {@link BufferedImage#TYPE_4BYTE_ABGR}).
+	 */
+	ABGR_32(32, 0xFF, 0xFF00, 0xFF0000, new int[]{3, 2, 1, 0}),
+	
+	/** Four bytes per pixel in the order alpha, red, green, blue. */
+	ARGB_32(32, 0xFF0000, 0xFF00, 0xFF, new int[]{1, 2, 3, 0}),
+	
+	/** Four bytes per pixel in the order red, green, blue, alpha. */
+	RGBA_32(32, 0xFF000000, 0xFF0000, 0xFF00, new int[]{0, 1, 2, 3});
+	
+	
+	private int depth;
+	private int redMask;
+	private int greenMask;
+	private int blueMask;
+	private int[] bandOffsets;
+	
+	
+	private SWTPixelFormat(int depth, int redMask, int greenMask, int blueMask, int[] bandOffsets) {
+		this.depth = depth;
+		this.redMask = redMask;
+		this.greenMask = greenMask;
+		this.blueMask = blueMask;
+		this.bandOffsets = bandOffsets;
+	}
+	
+	
+	/**
+	 * Returns the number of bits used to store one pixel.
+	 * 
+	 * @return 24 or 32
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	
+	/**
+	 * Returns the number of bytes used to store one pixel.
+	 * 
+	 * @return 3 or 4
+	 */
+	public int getPixelStride() {
+		return depth / 8;
+	}
+	
+	
+	/**
+	 * Determines whether this format contains an alpha channel.
+	 * 
+	 * @return {@code true} if this format can be used for translucent painting, {@code false} otherwise
+	 */
+	public boolean hasAlpha() {
+		return bandOffsets.length == 4;
+	}
+	
+	
+	/**
+	 * Determines whether <i>Java2D</i> provides optimized rendering loops for images of this format.
+	 * 
+	 * @return {@code true} if this format corresponds to a predefined type of {@link BufferedImage}, 
+	 *         {@code false} otherwise
+	 */
+	public boolean isAccelerated() {
+		return BGR_24.equals(this) || ABGR_32.equals(this);
+	}
+	
+	
+	/**
+	 * Returns the <i>SWT</i> palette describing the pixel layout of this format.
+	 * 
+	 * @return a new direct palette
+	 */
+	public PaletteData createPalette() {
+		return new PaletteData(redMask, greenMask, blueMask);
+	}
+	
+	
+	/**
+	 * Creates a new buffered image that uses this pixel layout. Images of the formats {@link #BGR_24} and
+	 * {@link #ABGR_32} have the according predefined type while all other images have the type
+	 * {@link BufferedImage#TYPE_CUSTOM}.
+	 * 
+	 * @param width the width of the new image
+	 * @param height the height of the new image
+	 * @return the new image
+	 */
+	public BufferedImage createImage(int width, int height) {
+		ColorSpace colorSpace = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+		ComponentColorModel colorModel;
+		if (hasAlpha()) {
+			colorModel = new ComponentColorModel(colorSpace, new int[]{8, 8, 8, 8}, true, false, Transparency.TRANSLUCENT,
+					DataBuffer.TYPE_BYTE);
+		}
+		else {
+			colorModel = new ComponentColorModel(colorSpace, new int[]{8, 8, 8}, false, false, Transparency.OPAQUE,
+					DataBuffer.TYPE_BYTE);
+		}
+		WritableRaster raster = Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE, width, height,
+				width * getPixelStride(), getPixelStride(), bandOffsets, null);
+		return new BufferedImage(colorModel, raster, false, null);
+	}
+	
+	
+	/**
+	 * Creates a new backing raster that manages images of this format.
+	 * 
+	 * @return the new backing raster
+	 */
+	public BackingRaster createBackingRaster() {
+		int imageType;
+		if (BGR_24.equals(this)) {
+			imageType = BufferedImage.TYPE_3BYTE_BGR;
+		}
+		else if (ABGR_32.equals(this)) {
+			imageType = BufferedImage.TYPE_4BYTE_ABGR;
+		}
+		else {
+			imageType = BufferedImage.TYPE_CUSTOM;
+		}
+		
+		return new BackingRaster(imageType) {
+			@Override
+			protected BufferedImage createImage(int width, int height) {
+				return SWTPixelFormat.this.createImage(width, height);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Creates an <i>SWT</i> image data object that shares its pixel array with the upper left area of the
+	 * specified image, which must have been created by {@link #createImage(int, int)} of this instance.
+	 * <p>
+	 * If {@code alpha} is {@code true} the alpha channel of the area is copied to the alpha data of the
+	 * returned object. (<i>SWT</i> does not read alpha values from the pixel data itself.) Otherwise all
+	 * pixels are treated as opaque.
+	 * 
+	 * @param image the image containing the pixels
+	 * @param width the width of the area to be converted
+	 * @param height the height of the area to be converted
+	 * @param alpha Specify {@code true} here to transfer the alpha channel or {@code false} if all pixels
+	 *        shall be opaque.
+	 * @return the image data object
+	 * @throws IllegalArgumentException if {@code alpha} is {@code true} but this format has no alpha channel
+	 */
+	public ImageData createImageData(BufferedImage image, int width, int height, boolean alpha) {
+		if (alpha && !hasAlpha()) {
+			throw new IllegalArgumentException("The pixel format " + this + " does not contain an alpha channel.");
+		}
+		else {
+			byte[] pixels = ((DataBufferByte)image.getRaster().getDataBuffer()).getData();
+			int scanlineStride = ((ComponentSampleModel)image.getSampleModel()).getScanlineStride();
+			
+			// The scanline pad is set to the length of a whole line of the (possibly larger) raster to only convert its upper left area:
+			ImageData result = new ImageData(width, height, getDepth(), createPalette(), scanlineStride, pixels);
+			if (alpha) {
+				byte[] alphaData = new byte[width * height];
+				int alphaOffset = bandOffsets[3];
+				for (int y = 0; y < height; y++) {
+					int source = y * scanlineStride + alphaOffset;
+					int target = y * width;
+					for (int x = 0; x < width; x++) {
+						alphaData[target + x] = pixels[source];
+						source += getPixelStride();
+					}
+				}
+				result.alphaData = alphaData;
+			}
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Returns the format that matches the pixel layout used internally by <i>SWT</i> on the current platform.
+	 * <p>
+	 * On <i>GTK</i> pixels are stored in the order red, green, blue (and alpha). On <i>Mac OS</i> 32 bit pixels
+	 * starting with alpha are used. On <i>Windows</i> and all other platforms pixels are stored in the order
+	 * blue, green, red (and alpha in front of them for the translucent case).
+	 * 
+	 * @param alpha Specify {@code true} here if a format with an alpha channel is required.
+	 * @return the native format of the current platform
+	 */
+	public static SWTPixelFormat getNativeFormat(boolean alpha) {
+		String platform = SWT.getPlatform();
+		if ("gtk".equals(platform)) {
+			if (alpha) {
+				return RGBA_32;
+			}
+			else {
+				return RGB_24;
+			}
+		}
+		else if ("cocoa".equals(platform) || "carbon".equals(platform)) {
+			return ARGB_32;
+		}
+		else if (alpha) {
+			return ABGR_32;
+		}
+		else {
+			return BGR_24;
+		}
+	}
+	
+	
+	/**
+	 * Returns the format that should be used for rendering with <i>Java2D</i> on the current platform. This is 
+	 * the native format, if it is accelerated, or otherwise the accelerated format with the same depth.
+	 * 
+	 * @param alpha Specify {@code true} here if a format with an alpha channel is required.
+	 * @return the preferred format of the current platform
+	 * @see #isAccelerated()
+	 */
+	public static SWTPixelFormat getPreferredFormat(boolean alpha) {
+		SWTPixelFormat nativeFormat = getNativeFormat(alpha);
+		if (nativeFormat.isAccelerated()) {
+			return nativeFormat;
+		}
+		else if (nativeFormat.hasAlpha()) {
+			return ABGR_32;
+		}
+		else {
+			return BGR_24;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Region;
+
+
+
+/**
+ * Provides tool methods to determine the rectangles contained in an <i>SWT</i> {@link Region}, e.g. the
+ * damaged area of a paint event.
+ * <p>
+ * Since <i>SWT</i> does not offer a platform independent way to enumerate the rectangles of a region, the
+ * bounding box of the region is divided into a grid of at most {@link #MAX_TILES_PER_DIMENSION} tiles in each
+ * direction and all tiles intersecting the region are determined. Adjacent tiles are then merged to larger
+ * rectangles. The returned rectangles therefore always cover the whole region, but may be slightly larger.
+ * <p>
+ * If the analyzed area is completely covered by the region (e.g. if the region consists of a single rectangle), 
+ * this area is returned directly without testing any tiles.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public class SWTRegionTools {
+	/** The maximal number of tiles tested for intersection with a region in each direction. */
+	public static final int MAX_TILES_PER_DIMENSION = 32;
+	
+	/** The minimal width and height of a tile tested for intersection with a region. */
+	public static final int MIN_TILE_SIZE = 16;
+	
+	
+	private static int getTileSize(int length) {
+		return Math.max(MIN_TILE_SIZE, (length + MAX_TILES_PER_DIMENSION - 1) / MAX_TILES_PER_DIMENSION);
+	}
+	
+	
+	/**
+	 * Determines whether the specified area is completely contained in a region.
+	 * 
+	 * @param region the region to be tested
+	 * @param area the area to be tested
+	 * @return {@code true} if no part of {@code area} lies outside {@code region}, {@code false} otherwise
+	 */
+	private static boolean covers(Region region, Rectangle area) {
+		Region difference = new Region(region.getDevice());
+		try {
+			difference.add(area.x, area.y, area.width, area.height);
+			difference.subtract(region);
+			return difference.isEmpty();
+		}
+		finally {
+			difference.dispose();
+		}
+	}
+	
+	
+	/**
+	 * Determines a set of non-overlapping rectangles covering the intersection of the specified region and
+	 * bounds.
+	 * 
+	 * @param region the region to be analyzed
+	 * @param bounds the area to which the analysis shall be restricted
+	 * @return a list of rectangles in the coordinate system of the region (The list is empty if the region does not
+	 *         intersect {@code bounds}.)
+	 */
+	public static List<Rectangle> getRectangles(Region region, Rectangle bounds) {
+		org.eclipse.swt.graphics.Rectangle regionBounds = region.getBounds();
+		bounds = bounds.intersection(new Rectangle(regionBounds.x, regionBounds.y, regionBounds.width, regionBounds.height));
+		List<Rectangle> result = new ArrayList<Rectangle>();
+		if (!bounds.isEmpty() && covers(region, bounds)) {
+			result.add(bounds);
+		}
+		else if (!bounds.isEmpty()) {
+			int tileWidth = getTileSize(bounds.width);
+			int tileHeight = getTileSize(bounds.height);
+			List<Rectangle> previousRow = new ArrayList<Rectangle>();
+			for (int y = bounds.y; y < bounds.y + bounds.height; y += tileHeight) {
+				int height = Math.min(tileHeight, bounds.y + bounds.height - y);
+				
+				// Determine horizontal runs of intersecting tiles:
+				List<Rectangle> row = new ArrayList<Rectangle>();
+				Rectangle run = null;
+				for (int x = bounds.x; x < bounds.x + bounds.width; x += tileWidth) {
+					int width = Math.min(tileWidth, bounds.x + bounds.width - x);
+					if (region.intersects(x, y, width, height)) {
+						if (run == null) {
+							run = new Rectangle(x, y, width, height);
+						}
+						else {
+							run.width += width;
+						}
+					}
+					else if (run != null) {
+						row.add(run);
+						run = null;
+					}
+				}
+				if (run != null) {
+					row.add(run);
+				}
+				
+				// Extend runs of the previous row with the same horizontal extent:
+				List<Rectangle> currentRow = new ArrayList<Rectangle>(row.size());
+				for (Rectangle rectangle : row) {
+					Rectangle above = null;
+					Iterator<Rectangle> iterator = previousRow.iterator();
+					while ((above == null) && iterator.hasNext()) {
+						Rectangle candidate = iterator.next();
+						if ((candidate.x == rectangle.x) && (candidate.width == rectangle.width)) {
+							above = candidate;
+						}
+					}
+					
+					if (above != null) {
+						above.height += rectangle.height;
+						currentRow.add(above);
+					}
+					else {
+						result.add(rectangle);
+						currentRow.add(rectangle);
+					}
+				}
+				previousRow = currentRow;
+			}
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Determines a set of non-overlapping rectangles covering the intersection of the current clipping area of
+	 * the specified graphics context and the specified bounds. During a paint event, this is the damaged area
+	 * that needs to be repainted.
+	 * 
+	 * @param gc the graphics context
+	 * @param bounds the area to which the analysis shall be restricted (e.g. the bounds of the paint event)
+	 * @return a list of rectangles in the coordinate system of the graphics context
+	 * @see #getRectangles(Region, Rectangle)
+	 */
+	public static List<Rectangle> getClippingRectangles(GC gc, Rectangle bounds) {
+		Region region = new Region(gc.getDevice());
+		try {
+			gc.getClipping(region);
+			return getRectangles(region, bounds);
+		}
+		finally {
+			region.dispose();
+		}
+	}
+	
+	
+	/**
+	 * Calculates the sum of the areas of the specified rectangles.
+	 * 
+	 * @param rectangles the rectangles (which are assumed not to overlap)
+	 * @return the total area in pixels
+	 */
+	public static long getArea(List<Rectangle> rectangles) {
+		long result = 0;
+		for (Rectangle rectangle : rectangles) {
+			result += (long)rectangle.width * rectangle.height;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Resource;
+
+
+
+/**
+ * Creates and caches <i>SWT</i> colors and fonts that correspond to <i>AWT</i> colors and fonts. It is used
+ * by {@link SWTGraphics2D} to avoid creating new native resources on every paint event.
+ * <p>
+ * All resources are owned by this cache and disposed by {@link #dispose()}. Since resources might still be
+ * set in a graphics context, least recently used resources exceeding the maximum number of entries are
+ * only disposed when {@link #trim()} is called, which toolkit components should do after painting.
+ * 
+ * @author Ben St&ouml;ver
+ * @since 3.0.0
+ * @bioinfweb.module info.bioinfweb.tic.swt
+ */
+public class SWTResourceCache {
+	/** The default maximum number of colors and fonts (each) kept in the cache after calling {@link #trim()}. */
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+	
+	
+	private Device device;
+	private int maxEntries;
+	private Map<java.awt.Color, Color> colors = new LinkedHashMap<java.awt.Color, Color>(16, 0.75f, true);
+	private Map<java.awt.Font, Font> fonts = new LinkedHashMap<java.awt.Font, Font>(16, 0.75f, true);
+	
+	
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_MAX_ENTRIES}.
+	 * 
+	 * @param device the device to create resources for
+	 */
+	public SWTResourceCache(Device device) {
+		this(device, DEFAULT_MAX_ENTRIES);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param device the device to create resources for
+	 * @param maxEntries the maximum number of colors and fonts (each) to be kept after calling {@link #trim()}
+	 */
+	public SWTResourceCache(Device device, int maxEntries) {
+		super();
+		this.device = device;
+		this.maxEntries = maxEntries;
+	}
+	
+	
+	/**
+	 * Returns the device the resources of this cache are created for.
+	 * 
+	 * @return the device
+	 */
+	public Device getDevice() {
+		return device;
+	}
+	
+	
+	/**
+	 * Returns an <i>SWT</i> color with the same RGB value as the specified <i>AWT</i> color. (Alpha values are
+	 * ignored.)
+	 * 
+	 * @param color the <i>AWT</i> color
+	 * @return the according <i>SWT</i> color
+	 */
+	public Color getColor(java.awt.Color color) {
+		java.awt.Color key = color;
+		if (color.getAlpha() != 255) {
+			key = new java.awt.Color(color.getRGB() & 0xFFFFFF);
+		}
+		Color result = colors.get(key);
+		if (result == null) {
+			result = new Color(device, key.getRed(), key.getGreen(), key.getBlue());
+			colors.put(key, result);
+		}
+		return result;
+	}
+	
+	
+	private static String getSWTFontName(String awtName) {
+		String platform = SWT.getPlatform();
+		if (java.awt.Font.DIALOG.equals(awtName) || java.awt.Font.SANS_SERIF.equals(awtName)) {
+			if ("win32".equals(platform)) {
+				return "Arial";
+			}
+			else if ("cocoa".equals(platform) || "carbon".equals(platform)) {
+				return "Helvetica";
+			}
+			else {
+				return "Sans";
+			}
+		}
+		else if (java.awt.Font.DIALOG_INPUT.equals(awtName) || java.awt.Font.MONOSPACED.equals(awtName)) {
+			if ("win32".equals(platform)) {
+				return "Courier New";
+			}
+			else if ("cocoa".equals(platform) || "carbon".equals(platform)) {
+				return "Courier";
+			}
+			else {
+				return "Monospace";
+			}
+		}
+		else if (java.awt.Font.SERIF.equals(awtName)) {
+			if ("win32".equals(platform)) {
+				return "Times New Roman";
+			}
+			else if ("cocoa".equals(platform) || "carbon".equals(platform)) {
+				return "Times";
+			}
+			else {
+				return "Serif";
+			}
+		}
+		else {
+			return awtName;
+		}
+	}
+	
+	
+	/**
+	 * Returns an <i>SWT</i> font that corresponds to the specified <i>AWT</i> font. Logical <i>AWT</i> font names
+	 * (e.g. {@link java.awt.Font#SANS_SERIF}) are mapped to according platform specific font names. The font size
+	 * is converted from <i>AWT</i> pixels to points of the current device resolution.
+	 * 
+	 * @param font the <i>AWT</i> font
+	 * @return the according <i>SWT</i> font
+	 */
+	public Font getFont(java.awt.Font font) {
+		Font result = fonts.get(font);
+		if (result == null) {
+			int style = SWT.NORMAL;
+			if (font.isBold()) {
+				style |= SWT.BOLD;
+			}
+			if (font.isItalic()) {
+				style |= SWT.ITALIC;
+			}
+			int height = (int)Math.max(1, Math.round(font.getSize2D() * 72.0 / device.getDPI().y));  // Java2D assumes 72 DPI.
+			result = new Font(device, getSWTFontName(font.getFamily()), height, style);
+			fonts.put(font, result);
+		}
+		return result;
+	}
+	
+	
+	private <K, R extends Resource> void trim(Map<K, R> map) {
+		Iterator<R> iterator = map.values().iterator();
+		while ((map.size() > maxEntries) && iterator.hasNext()) {
+			iterator.next().dispose();
+			iterator.remove();
+		}
+	}
+	
+	
+	/**
+	 * Disposes the least recently used resources, if more than the maximum number of entries are contained in
+	 * this cache. This method must not be called while resources of this cache are still in use by a graphics
+	 * context.
+	 */
+	public void trim() {
+		trim(colors);
+		trim(fonts);
+	}
+	
+	
+	/**
+	 * Disposes all resources in this cache.
+	 */
+	public void dispose() {
+		for (Color color : colors.values()) {
+			color.dispose();
+		}
+		colors.clear();
+		for (Font font : fonts.values()) {
+			font.dispose();
+		}
+		fonts.clear();
+	}
+}
@@ -23,6 +23,7 @@ import info.bioinfweb.tic.TargetToolkit;
 import info.bioinfweb.tic.toolkit.layoutdata.SWTLayoutDataFactory;
 
 import java.awt.Dimension;
+import java.awt.geom.Rectangle2D;
 
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
@@ -50,6 +51,16 @@ public interface SWTToolkitComponent extends ToolkitComponent {
 	default public void repaint() {
 		getSWTComponent().redraw();
 	}
+	
+	
+	/**
+	 * Redraws the pixels covered by the specified area using {@link Control#redraw(int, int, int, int, boolean)}.
+	 */
+	@Override
+	default public void repaint(Rectangle2D area) {
+		java.awt.Rectangle bounds = area.getBounds();
+		getSWTComponent().redraw(bounds.x, bounds.y, bounds.width, bounds.height, false);
+	}
 
 
 	@Override
@@ -90,4 +101,56 @@ public interface SWTToolkitComponent extends ToolkitComponent {
 	default public void requestFocus() {
 		getSWTComponent().setFocus();
 	}
+	
+	
+	@Override
+	default public void invokeLater(final Runnable task, final int delay) {
+		final Control control = getSWTComponent();
+		if (!control.isDisposed()) {
+			control.getDisplay().asyncExec(new Runnable() {  // timerExec() may only be called on the UI thread.
+				@Override
+				public void run() {
+					if (!control.isDisposed()) {
+						control.getDisplay().timerExec(delay, new Runnable() {
+							@Override
+							public void run() {
+								if (!control.isDisposed()) {
+									task.run();
+								}
+							}
+						});
+					}
+				}
+			});
+		}
+	}
+	
+	
+	@Override
+	default public void invokeLater(final Runnable task) {
+		final Control control = getSWTComponent();
+		if (!control.isDisposed()) {
+			control.getDisplay().asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					if (!control.isDisposed()) {
+						task.run();
+					}
+				}
+			});
+		}
+	}
+	
+	
+	@Override
+	default public boolean isUIThread() {
+		Control control = getSWTComponent();
+		return !control.isDisposed() && (control.getDisplay().getThread() == Thread.currentThread());
+	}
+	
+	
+	@Override
+	default public boolean isDisposed() {
+		return getSWTComponent().isDisposed();
+	}
 }
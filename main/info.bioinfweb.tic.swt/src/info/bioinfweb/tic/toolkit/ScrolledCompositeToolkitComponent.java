@@ -20,9 +20,11 @@ package info.bioinfweb.tic.toolkit;
 
 
 import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 
 import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Control;
 
 
 
@@ -56,4 +58,21 @@ public interface ScrolledCompositeToolkitComponent extends ScrollingToolkitCompo
 		Point origin = getScrolledComposite().getOrigin();
 		return new Rectangle(origin.x, origin.y, clientArea.width, clientArea.height);
 	}
+	
+	
+	/**
+	 * Redraws the specified area of the content of the scrolled composite, which already considers the current 
+	 * scroll position. The whole scrolled composite is redrawn if it has no content.
+	 */
+	@Override
+	public default void repaint(Rectangle2D area) {
+		Control content = getScrolledComposite().getContent();
+		if (content != null) {
+			Rectangle bounds = area.getBounds();
+			content.redraw(bounds.x, bounds.y, bounds.width, bounds.height, true);  // Includes nested widgets of the content.
+		}
+		else {
+			repaint();
+		}
+	}
 }
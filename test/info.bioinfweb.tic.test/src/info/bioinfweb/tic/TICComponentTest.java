@@ -27,6 +27,8 @@ import info.bioinfweb.tic.input.TICMouseEvent;
 import java.awt.Dimension;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
 import org.junit.* ;
 
@@ -35,16 +37,8 @@ import static org.junit.Assert.* ;
 
 
 public class TICComponentTest {
-	private static TICComponent createComponent() {
-		TICComponent result = new TICComponent() {
-			@Override
-			public void paint(TICPaintEvent e) {}
-			
-			@Override
-			public Dimension getSize() {
-				return new Dimension(10, 10);
-			}
-		};
+	private static TestComponent createComponent() {
+		TestComponent result = new TestComponent();
 		
 		result.addKeyListener(new TICKeyAdapter() {
 			@Override
@@ -66,6 +60,247 @@ public class TICComponentTest {
 	}
 	
 	
+	@Test
+	public void test_notifyInteraction() throws InterruptedException {
+		TestComponent component = new TestComponent() {
+			@Override
+			public boolean isDraftPaintingSupported() {
+				return true;
+			}
+		};
+		component.setInteractionIdleDelay(1000);
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.notifyInteraction(toolkitComponent);
+		assertEquals(RenderQuality.FULL, component.getRenderQuality());  // A single event is no continuous interaction.
+		component.notifyInteraction(toolkitComponent);
+		assertEquals(RenderQuality.DRAFT, component.getRenderQuality());
+		assertEquals(1, toolkitComponent.getTasks().size());
+		
+		toolkitComponent.getTasks().remove(0).run();  // The idle delay has not yet elapsed.
+		assertEquals(RenderQuality.DRAFT, component.getRenderQuality());
+		assertEquals(1, toolkitComponent.getTasks().size());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		
+		component.setInteractionIdleDelay(10);
+		Thread.sleep(20);
+		toolkitComponent.getTasks().remove(0).run();
+		assertEquals(RenderQuality.FULL, component.getRenderQuality());
+		assertEquals(0, toolkitComponent.getTasks().size());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_notifyInteraction_unsupported() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		component.notifyInteraction(toolkitComponent);
+		component.notifyInteraction(toolkitComponent);
+		assertEquals(RenderQuality.FULL, component.getRenderQuality());
+		assertTrue(toolkitComponent.getTasks().isEmpty());
+	}
+	
+	
+	@Test
+	public void test_repaint_areas() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		Rectangle2D area1 = new Rectangle2D.Double(1, 2, 3, 4);
+		Rectangle2D area2 = new Rectangle2D.Double(5, 6, 7, 8);
+		component.repaint(area1);
+		component.repaint(Arrays.asList(area1, area2));
+		assertEquals(Arrays.asList(area1, area1, area2), toolkitComponent.getRepaintedAreas());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_repaint_areasDuringUpdate() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.beginUpdate();
+		Rectangle2D area1 = new Rectangle2D.Double(1, 2, 3, 4);
+		Rectangle2D area2 = new Rectangle2D.Double(5, 6, 7, 8);
+		component.repaint(area1);
+		component.repaint(area2);
+		assertTrue(toolkitComponent.getRepaintedAreas().isEmpty());
+		component.endUpdate();
+		assertEquals(Arrays.asList(area1, area2), toolkitComponent.getRepaintedAreas());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		
+		component.beginUpdate();  // A complete repaint replaces all requested areas.
+		component.repaint(area1);
+		component.repaint();
+		component.repaint(area2);
+		component.endUpdate();
+		assertEquals(2, toolkitComponent.getRepaintedAreas().size());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		
+		component.beginUpdate();  // Previous requests must not be repeated.
+		component.endUpdate();
+		assertEquals(2, toolkitComponent.getRepaintedAreas().size());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		
+		component.beginUpdate();
+		for (int i = 0; i <= TICComponent.MAX_REQUESTED_AREAS; i++) {
+			component.repaint(area1);
+		}
+		component.endUpdate();
+		assertEquals(2, toolkitComponent.getRepaintedAreas().size());
+		assertEquals(2, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_beginUpdate_nested() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.beginUpdate();
+		component.repaint(new Rectangle2D.Double(0, 0, 10, 10));
+		component.beginUpdate();
+		assertEquals(2, component.getUpdateDepth());
+		component.repaint(new Rectangle2D.Double(5, 5, 10, 10));  // Overlaps the first area.
+		component.repaint(new Rectangle2D.Double(50, 50, 10, 10));
+		component.endUpdate();
+		assertTrue(component.isUpdateOngoing());
+		assertTrue(toolkitComponent.getRepaintedAreas().isEmpty());
+		component.endUpdate();
+		assertFalse(component.isUpdateOngoing());
+		assertEquals(Arrays.asList(new Rectangle2D.Double(0, 0, 15, 15), new Rectangle2D.Double(50, 50, 10, 10)), 
+				toolkitComponent.getRepaintedAreas());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_beginUpdate_concurrent() throws InterruptedException {
+		final TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.beginUpdate();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						component.beginUpdate();
+						try {
+							component.repaint(new Rectangle2D.Double(0, 0, 10, 10));
+						}
+						finally {
+							component.endUpdate();
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1, component.getUpdateDepth());
+		assertTrue(toolkitComponent.getRepaintedAreas().isEmpty());
+		
+		component.endUpdate();
+		assertEquals(1, toolkitComponent.getRepaintCount() + toolkitComponent.getRepaintedAreas().size());  // Exactly one repaint.
+	}
+	
+	
+	@Test(expected=IllegalStateException.class)
+	public void test_endUpdate_notStarted() {
+		createComponent().endUpdate();
+	}
+	
+	
+	@SuppressWarnings("deprecation")
+	@Test
+	public void test_setUpdateOngoing() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.setUpdateOngoing(false);  // No update was started by this method.
+		assertEquals(0, component.getUpdateDepth());
+		
+		component.beginUpdate();  // E.g. started by another thread.
+		component.setUpdateOngoing(true);
+		component.setUpdateOngoing(true);
+		assertEquals(2, component.getUpdateDepth());
+		component.repaint();
+		component.setUpdateOngoing(false);  // Only ends the update started by this method.
+		assertEquals(1, component.getUpdateDepth());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		
+		component.endUpdate();
+		assertEquals(0, component.getUpdateDepth());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_setRepaintRequested() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.beginUpdate();
+		component.repaint(new Rectangle2D.Double(1, 2, 3, 4));
+		component.setRepaintRequested(true);
+		assertTrue(component.isRepaintRequested());
+		component.endUpdate();
+		assertFalse(component.isRepaintRequested());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertTrue(toolkitComponent.getRepaintedAreas().isEmpty());
+		
+		component.beginUpdate();
+		component.repaint();
+		component.setRepaintRequested(false);
+		component.endUpdate();
+		assertEquals(1, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_getAppendedAreas() {
+		assertTrue(TICComponent.getAppendedAreas(new Dimension(10, 20), new Dimension(10, 20)).isEmpty());
+		assertEquals(Arrays.asList(new Rectangle2D.Double(0, 20, 10, 5)), 
+				TICComponent.getAppendedAreas(new Dimension(10, 20), new Dimension(10, 25)));
+		assertEquals(Arrays.asList(new Rectangle2D.Double(10, 0, 4, 20)), 
+				TICComponent.getAppendedAreas(new Dimension(10, 20), new Dimension(14, 20)));
+		assertEquals(Arrays.asList(new Rectangle2D.Double(10, 0, 4, 25), new Rectangle2D.Double(0, 20, 10, 5)), 
+				TICComponent.getAppendedAreas(new Dimension(10, 20), new Dimension(14, 25)));
+	}
+	
+	
+	@Test
+	public void test_assignAppendedSize() {
+		TestComponent component = new TestComponent();
+		Dimension size = component.getSize();
+		size.height = 20;
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		
+		component.assignAppendedSize();
+		assertEquals(1, toolkitComponent.getRepaintCount());  // No previous size is known.
+		assertEquals(new Dimension(10, 20), component.getAssignedSize());
+		
+		size.height = 30;
+		component.assignAppendedSize();
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertEquals(Arrays.asList(new Rectangle2D.Double(0, 20, 10, 10)), toolkitComponent.getRepaintedAreas());
+		
+		component.assignAppendedSize();  // Nothing was appended.
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertEquals(1, toolkitComponent.getRepaintedAreas().size());
+		
+		size.height = 25;
+		component.assignAppendedSize();
+		assertEquals(2, toolkitComponent.getRepaintCount());  // The component became smaller.
+	}
+	
+	
 	public static void main(String[] args) {
 		TICComponent component = createComponent(); 		
 		component.dispatchEvent(new TICKeyEvent(component, KeyEvent.KEY_PRESSED, 0, 0, 0, 0, 'A'));
@@ -0,0 +1,79 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic;
+
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TICPaintEventTest {
+	private TICPaintEvent createEvent(BufferedImage image, long deadline) {
+		return new TICPaintEvent(this, image.createGraphics(), new Rectangle2D.Double(0, 0, 100, 100), null, null, 
+				RenderQuality.FULL, 1.0, deadline);
+	}
+	
+	
+	@Test
+	public void test_deadline_none() {
+		TICPaintEvent event = new TICPaintEvent(this, new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB).createGraphics(), 
+				new Rectangle2D.Double(0, 0, 10, 10));
+		assertFalse(event.hasDeadline());
+		assertEquals(TICPaintEvent.NO_DEADLINE, event.getDeadline());
+		assertEquals(Long.MAX_VALUE, event.getRemainingTime());
+		assertFalse(event.isDeadlineExceeded());
+	}
+	
+	
+	@Test
+	public void test_deadline() {
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		TICPaintEvent event = createEvent(image, System.nanoTime() + 60000000000L);
+		assertTrue(event.hasDeadline());
+		assertFalse(event.isDeadlineExceeded());
+		assertTrue(event.getRemainingTime() > 0);
+		
+		event = createEvent(image, System.nanoTime() - 1);
+		assertTrue(event.isDeadlineExceeded());
+		assertTrue(event.getRemainingTime() < 0);
+	}
+	
+	
+	@Test
+	public void test_addUnfinishedArea() {
+		TICPaintEvent event = createEvent(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), System.nanoTime());
+		assertTrue(event.getUnfinishedAreas().isEmpty());
+		event.addUnfinishedArea(new Rectangle2D.Double(50, 90, 20, 20));
+		event.addUnfinishedArea(new Rectangle2D.Double(200, 0, 20, 20));  // Outside of the rectangle of the event.
+		assertEquals(1, event.getUnfinishedAreas().size());
+		assertEquals(new Rectangle2D.Double(50, 90, 20, 10), event.getUnfinishedAreas().get(0));
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_constructor_invalidDeviceScale() {
+		new TICPaintEvent(this, new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB).createGraphics(), 
+				new Rectangle2D.Double(0, 0, 10, 10), null, null, RenderQuality.FULL, 0);
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic;
+
+
+import java.awt.Dimension;
+
+
+
+/**
+ * Component used by tests which is associated with a {@link TestToolkitComponent}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TestComponent extends TICComponent {
+	private Dimension size = new Dimension(10, 10);
+	private TestToolkitComponent testToolkitComponent = new TestToolkitComponent(this);
+	
+	
+	public TestComponent() {
+		super();
+		setToolkitComponent(testToolkitComponent);
+	}
+	
+	
+	public TestToolkitComponent getTestToolkitComponent() {
+		return testToolkitComponent;
+	}
+	
+	
+	/**
+	 * Returns the size of this component, which may be modified by tests to simulate a changing size.
+	 * 
+	 * @return the modifiable size object of this component
+	 */
+	@Override
+	public Dimension getSize() {
+		return size;
+	}
+}
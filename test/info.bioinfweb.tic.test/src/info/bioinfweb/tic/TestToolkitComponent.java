@@ -0,0 +1,204 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic;
+
+
+import info.bioinfweb.tic.toolkit.ToolkitComponent;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Toolkit component used by tests that records all calls instead of displaying anything. Tasks passed to
+ * {@link #invokeLater(Runnable, int)} are only executed by {@link #processEvents()}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TestToolkitComponent implements ToolkitComponent {
+	private TICComponent owner;
+	private List<Runnable> tasks = new ArrayList<Runnable>();
+	private List<Integer> delays = new ArrayList<Integer>();
+	private int repaintCount = 0;
+	private List<Rectangle2D> repaintedAreas = new ArrayList<Rectangle2D>();
+	private int assignSizeCount = 0;
+	private boolean uiThread = true;
+	private boolean disposed = false;
+	
+	
+	public TestToolkitComponent(TICComponent owner) {
+		super();
+		this.owner = owner;
+	}
+	
+	
+	/**
+	 * Returns the list of tasks passed to {@link #invokeLater(Runnable, int)} that have not yet been executed.
+	 * 
+	 * @return the editable list of tasks
+	 */
+	public List<Runnable> getTasks() {
+		return tasks;
+	}
+	
+	
+	/**
+	 * Returns the delays passed to {@link #invokeLater(Runnable, int)} in the order of the calls.
+	 * 
+	 * @return the editable list of delays
+	 */
+	public List<Integer> getDelays() {
+		return delays;
+	}
+	
+	
+	public int getRepaintCount() {
+		return repaintCount;
+	}
+	
+	
+	/**
+	 * Returns the areas passed to {@link #repaint(Rectangle2D)} in the order of the calls.
+	 * 
+	 * @return the editable list of areas
+	 */
+	public List<Rectangle2D> getRepaintedAreas() {
+		return repaintedAreas;
+	}
+	
+	
+	public int getAssignSizeCount() {
+		return assignSizeCount;
+	}
+	
+	
+	/**
+	 * Specifies whether {@link #isUIThread()} shall return {@code true} for all threads. The default is 
+	 * {@code true}, which is also the default of {@link ToolkitComponent#isUIThread()}.
+	 * 
+	 * @param uiThread the new value
+	 */
+	public void setUIThread(boolean uiThread) {
+		this.uiThread = uiThread;
+	}
+	
+	
+	public void setDisposed(boolean disposed) {
+		this.disposed = disposed;
+	}
+	
+	
+	/**
+	 * Executes all tasks posted so far on the calling thread, which then acts as the UI thread.
+	 */
+	public void processEvents() {
+		List<Runnable> currentTasks = new ArrayList<Runnable>(tasks);
+		tasks.clear();
+		boolean previousUIThread = uiThread;
+		uiThread = true;
+		try {
+			for (Runnable task : currentTasks) {
+				task.run();
+			}
+		}
+		finally {
+			uiThread = previousUIThread;
+		}
+	}
+	
+	
+	@Override
+	public TargetToolkit getTargetToolkit() {
+		return TargetToolkit.UNDEFINED;
+	}
+	
+	
+	@Override
+	public TICComponent getIndependentComponent() {
+		return owner;
+	}
+	
+	
+	@Override
+	public void repaint() {
+		repaintCount++;
+	}
+	
+	
+	@Override
+	public void repaint(Rectangle2D area) {
+		repaintedAreas.add(area);
+	}
+	
+	
+	@Override
+	public Point getLocationInParent() {
+		return new Point();
+	}
+	
+	
+	@Override
+	public boolean isFocusOwner() {
+		return false;
+	}
+	
+	
+	@Override
+	public void requestFocus() {}
+	
+	
+	@Override
+	public Dimension getToolkitSize() {
+		if (owner.hasDefinedSize()) {
+			return owner.getSize();
+		}
+		else {
+			return new Dimension();
+		}
+	}
+	
+	
+	@Override
+	public void assignSize() {
+		assignSizeCount++;
+	}
+	
+	
+	@Override
+	public void invokeLater(Runnable task, int delay) {
+		tasks.add(task);
+		delays.add(delay);
+	}
+	
+	
+	@Override
+	public boolean isUIThread() {
+		return uiThread;
+	}
+	
+	
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+}
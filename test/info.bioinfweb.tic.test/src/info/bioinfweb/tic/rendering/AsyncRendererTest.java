@@ -0,0 +1,131 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class AsyncRendererTest {
+	private static final long TIMEOUT = 10;  // in s
+	
+	
+	private static class BlockingComponent extends TICComponent {
+		private CountDownLatch started = new CountDownLatch(1);
+		private CountDownLatch released = new CountDownLatch(1);
+		
+		
+		@Override
+		public void paint(TICPaintEvent event) {
+			started.countDown();
+			try {
+				released.await(TIMEOUT, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			event.getGraphics().setColor(Color.RED);
+			event.getGraphics().fillRect(10, 10, 5, 5);
+		}
+	}
+	
+	
+	private static AsyncRenderer createRenderer(TICComponent component, final Semaphore frames) {
+		return new AsyncRenderer(component, component, BufferedImage.TYPE_INT_RGB, new Runnable() {
+			@Override
+			public void run() {
+				frames.release();
+			}
+		});
+	}
+	
+	
+	@Test
+	public void test_requestFrame() throws InterruptedException {
+		BlockingComponent component = new BlockingComponent();
+		component.released.countDown();
+		Semaphore frames = new Semaphore(0);
+		AsyncRenderer renderer = createRenderer(component, frames);
+		try {
+			assertNull(renderer.getLatestFrame());
+			assertTrue(renderer.requestFrame(new Rectangle(5, 5, 20, 20), Color.WHITE));
+			assertTrue(frames.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+			
+			AsyncRenderer.Frame frame = renderer.getLatestFrame();
+			assertEquals(new Rectangle(5, 5, 20, 20), frame.getBounds());
+			assertEquals(Color.WHITE.getRGB(), frame.getImage().getRGB(0, 0));
+			assertEquals(Color.RED.getRGB(), frame.getImage().getRGB(5, 5));
+			assertTrue(renderer.isUpToDate());
+			
+			assertFalse(renderer.requestFrame(new Rectangle(5, 5, 20, 20), Color.WHITE));
+			renderer.invalidate();
+			assertFalse(renderer.isUpToDate());
+			assertTrue(renderer.requestFrame(new Rectangle(5, 5, 20, 20), Color.WHITE));
+			assertTrue(frames.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+			assertTrue(renderer.getLatestFrame().getGeneration() > frame.getGeneration());
+			assertEquals(2, renderer.getRenderedFrameCount());
+		}
+		finally {
+			renderer.dispose();
+		}
+	}
+	
+	
+	@Test
+	public void test_requestFrame_cancel() throws InterruptedException {
+		BlockingComponent component = new BlockingComponent();
+		Semaphore frames = new Semaphore(0);
+		AsyncRenderer renderer = createRenderer(component, frames);
+		try {
+			renderer.requestFrame(new Rectangle(0, 0, 20, 3 * AsyncRenderer.BAND_HEIGHT), Color.WHITE);
+			assertTrue(component.started.await(TIMEOUT, TimeUnit.SECONDS));
+			renderer.requestFrame(new Rectangle(0, 50, 20, 3 * AsyncRenderer.BAND_HEIGHT), Color.WHITE);  // Simulates scrolling while the first frame is rendered.
+			component.released.countDown();
+			
+			assertTrue(frames.tryAcquire(TIMEOUT, TimeUnit.SECONDS));
+			assertEquals(new Rectangle(0, 50, 20, 3 * AsyncRenderer.BAND_HEIGHT), renderer.getLatestFrame().getBounds());
+			assertEquals(1, renderer.getRenderedFrameCount());
+			assertEquals(1, renderer.getCancelledFrameCount());
+		}
+		finally {
+			renderer.dispose();
+		}
+	}
+	
+	
+	@Test(expected=IllegalStateException.class)
+	public void test_requestFrame_disposed() {
+		AsyncRenderer renderer = createRenderer(new BlockingComponent(), new Semaphore(0));
+		renderer.dispose();
+		renderer.requestFrame(new Rectangle(0, 0, 10, 10), null);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.image.BufferedImage;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class BackingRasterTest {
+	@Test
+	public void test_getImage_reuse() {
+		BackingRaster raster = new BackingRaster(BufferedImage.TYPE_3BYTE_BGR);
+		BufferedImage image = raster.getImage(100, 50);
+		assertEquals(100, image.getWidth());
+		assertEquals(50, image.getHeight());
+		assertEquals(1, raster.getAllocationCount());
+		assertEquals(100 * 50 * 3, raster.getAllocatedBytes());
+		
+		assertSame(image, raster.getImage(100, 50));
+		assertSame(image, raster.getImage(20, 10));
+		assertEquals(1, raster.getAllocationCount());
+	}
+	
+	
+	@Test
+	public void test_getImage_grow() {
+		BackingRaster raster = new BackingRaster(BufferedImage.TYPE_3BYTE_BGR, 2);
+		raster.getImage(100, 50);
+		
+		BufferedImage image = raster.getImage(101, 50);
+		assertEquals(200, image.getWidth());
+		assertEquals(50, image.getHeight());
+		
+		image = raster.getImage(150, 300);
+		assertEquals(200, image.getWidth());
+		assertEquals(300, image.getHeight());
+		assertEquals(3, raster.getAllocationCount());
+		
+		for (int width = 150; width <= 200; width++) {
+			assertSame(image, raster.getImage(width, 300));
+		}
+		assertEquals(3, raster.getAllocationCount());
+	}
+	
+	
+	@Test
+	public void test_shrink() {
+		BackingRaster raster = new BackingRaster(BufferedImage.TYPE_3BYTE_BGR, 2);
+		raster.getImage(400, 400);
+		assertFalse(raster.shrink(200, 200));
+		assertTrue(raster.hasImage());
+		assertTrue(raster.shrink(99, 400));
+		assertFalse(raster.hasImage());
+		assertEquals(0, raster.getCurrentBytes());
+		
+		BufferedImage image = raster.getImage(99, 400);
+		assertEquals(99, image.getWidth());
+		assertEquals(2, raster.getAllocationCount());
+	}
+	
+	
+	@Test
+	public void test_release() {
+		BackingRaster raster = new BackingRaster(BufferedImage.TYPE_INT_RGB);
+		raster.getImage(10, 10);
+		assertEquals(10 * 10 * 4, raster.getCurrentBytes());
+		raster.release();
+		assertFalse(raster.hasImage());
+		assertEquals(10 * 10 * 4, raster.getAllocatedBytes());
+	}
+	
+	
+	@Test
+	public void test_clear() {
+		BackingRaster raster = new BackingRaster(BufferedImage.TYPE_3BYTE_BGR);
+		BufferedImage image = raster.getImage(10, 10);
+		for (int x = 0; x < image.getWidth(); x++) {
+			for (int y = 0; y < image.getHeight(); y++) {
+				image.setRGB(x, y, 0xFFFFFF);
+			}
+		}
+		raster.clear(4, 3);
+		assertEquals(0xFF000000, image.getRGB(0, 0));
+		assertEquals(0xFF000000, image.getRGB(3, 2));
+		assertEquals(0xFFFFFFFF, image.getRGB(4, 2));
+		assertEquals(0xFFFFFFFF, image.getRGB(3, 3));
+		
+		raster = new BackingRaster(BufferedImage.TYPE_INT_ARGB);
+		image = raster.getImage(10, 10);
+		image.setRGB(2, 2, 0xFFFFFFFF);
+		image.setRGB(5, 5, 0xFFFFFFFF);
+		raster.clear(4, 4);
+		assertEquals(0, image.getRGB(2, 2));
+		assertEquals(0xFFFFFFFF, image.getRGB(5, 5));
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class DisplayListTest {
+	private static final int WIDTH = 200;
+	private static final int HEIGHT = 150;
+	
+	
+	private static void paintScene(Graphics2D g) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setColor(Color.RED);
+		g.fillRect(5, 5, 40, 30);
+		g.setStroke(new BasicStroke(3f));
+		g.setColor(Color.BLUE);
+		g.drawLine(0, 0, 190, 140);
+		g.drawOval(50, 10, 60, 40);
+		
+		Graphics2D copy = (Graphics2D)g.create();
+		try {
+			copy.translate(100, 80);
+			copy.rotate(0.3);
+			copy.clipRect(0, 0, 50, 40);
+			copy.setPaint(new GradientPaint(0, 0, Color.GREEN, 50, 40, Color.MAGENTA));
+			copy.fill(new Ellipse2D.Double(-10, -10, 80, 60));
+		}
+		finally {
+			copy.dispose();
+		}
+		
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
+		g.setColor(Color.ORANGE);
+		g.fillPolygon(new int[]{10, 60, 30}, new int[]{100, 110, 140}, 3);
+		g.setComposite(AlphaComposite.SrcOver);
+		
+		Path2D path = new Path2D.Double();
+		path.moveTo(120, 10);
+		path.quadTo(180, 20, 150, 60);
+		g.draw(path);
+		path.lineTo(0, 0);  // Modifications after recording must not have an effect.
+		
+		g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
+		g.setColor(Color.BLACK);
+		g.drawString("TIC", 20, 80);
+		
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(3, 3, 0xFFFF00);
+		g.drawImage(image, 160, 100, 20, 20, null);
+	}
+	
+	
+	private static BufferedImage createImage() {
+		BufferedImage result = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = result.createGraphics();
+		try {
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, WIDTH, HEIGHT);
+		}
+		finally {
+			g.dispose();
+		}
+		return result;
+	}
+	
+	
+	private static DisplayList recordScene() {
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		paintScene(recorder);
+		return recorder.getDisplayList();
+	}
+	
+	
+	private static void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals("Pixel (" + x + ", " + y + ")", expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+	
+	
+	@Test
+	public void test_paint() {
+		BufferedImage expected = createImage();
+		Graphics2D g = expected.createGraphics();
+		try {
+			paintScene(g);
+		}
+		finally {
+			g.dispose();
+		}
+		
+		DisplayList list = recordScene();
+		BufferedImage actual = createImage();
+		g = actual.createGraphics();
+		try {
+			assertEquals(list.size(), list.paint(g));
+		}
+		finally {
+			g.dispose();
+		}
+		assertImagesEqual(expected, actual);
+	}
+	
+	
+	@Test
+	public void test_paint_transformedTarget() {
+		BufferedImage expected = createImage();
+		Graphics2D g = expected.createGraphics();
+		try {
+			g.translate(20, 10);
+			g.scale(0.5, 0.5);
+			g.clipRect(0, 0, 150, 150);
+			paintScene(g);
+		}
+		finally {
+			g.dispose();
+		}
+		
+		DisplayList list = recordScene();
+		BufferedImage actual = createImage();
+		g = actual.createGraphics();
+		try {
+			g.translate(20, 10);
+			g.scale(0.5, 0.5);
+			g.clipRect(0, 0, 150, 150);
+			list.paint(g);
+			assertEquals(new AffineTransform(0.5, 0, 0, 0.5, 20, 10), g.getTransform());  // The target must not be modified.
+		}
+		finally {
+			g.dispose();
+		}
+		assertImagesEqual(expected, actual);
+	}
+	
+	
+	@Test
+	public void test_paint_area() {
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		for (int i = 0; i < 10; i++) {
+			recorder.fillRect(i * 20, 0, 10, 10);
+		}
+		DisplayList list = recorder.getDisplayList();
+		assertEquals(10, list.size());
+		
+		BufferedImage image = createImage();
+		Graphics2D g = image.createGraphics();
+		try {
+			assertEquals(2, list.paint(g, new Rectangle2D.Double(40, 0, 30, 10)));
+			assertEquals(10, list.paint(g, null));
+			
+			g.clipRect(100, 0, 10, 10);
+			assertEquals(1, list.paint(g));
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	@Test
+	public void test_paint_indexedArea() {
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		for (int i = 0; i < 1000; i++) {
+			recorder.fillRect(0, i * 10, 5, 5);
+		}
+		DisplayList list = recorder.getDisplayList();
+		
+		BufferedImage image = createImage();
+		Graphics2D g = image.createGraphics();
+		try {
+			assertEquals(3, list.paint(g, new Rectangle2D.Double(0, 100, 10, 20)));
+			assertEquals(501, list.paint(g, new Rectangle2D.Double(0, 0, 10, 5000)));
+			assertEquals(1000, list.paint(g, new Rectangle2D.Double(-100, -100, 200, 20000)));
+			assertEquals(0, list.paint(g, new Rectangle2D.Double(0, 20000, 10, 10)));
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	@Test
+	public void test_recordingClip() {
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		recorder.translate(10, 10);
+		recorder.clipRect(0, 0, 50, 50);
+		assertEquals(new Rectangle(0, 0, 50, 50), recorder.getClipBounds());
+		
+		recorder.fillRect(100, 100, 10, 10);
+		recorder.drawString("outside", 0, 200);
+		assertTrue(recorder.getDisplayList().isEmpty());
+		
+		recorder.fillRect(45, 45, 10, 10);
+		assertEquals(1, recorder.getDisplayList().size());
+	}
+	
+	
+	@Test
+	public void test_getDisplayList() {
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		recorder.fillRect(0, 0, 10, 10);
+		DisplayList list = recorder.getDisplayList();
+		
+		Graphics2D copy = (Graphics2D)recorder.create();
+		copy.fillRect(20, 0, 10, 10);
+		copy.dispose();
+		
+		assertEquals(1, list.size());
+		assertEquals(2, recorder.getDisplayList().size());
+	}
+	
+	
+	@Test
+	public void test_record() {
+		TICComponent component = new TICComponent() {
+			@Override
+			public void paint(TICPaintEvent event) {
+				event.getGraphics().setColor(Color.RED);
+				event.getGraphics().fillRect(0, 0, 10, 10);
+				event.getGraphics().fillRect(50, 50, 10, 10);
+			}
+		};
+		
+		assertEquals(1, DisplayList.record(component, new Rectangle(0, 0, 20, 20)).size());
+		assertEquals(2, DisplayList.record(component, new Rectangle(0, 0, 100, 100)).size());
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class InvalidAreasTest {
+	private static long getArea(List<Rectangle> rectangles) {
+		long result = 0;
+		for (Rectangle rectangle : rectangles) {
+			result += (long)rectangle.width * rectangle.height;
+		}
+		return result;
+	}
+	
+	
+	@Test
+	public void test_reset() {
+		InvalidAreas areas = new InvalidAreas();
+		assertTrue(areas.isEmpty());
+		areas.reset(100, 50);
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(0, 0, 100, 50), result.get(0));
+		assertTrue(areas.isEmpty());
+	}
+	
+	
+	@Test
+	public void test_invalidate() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(100, 50);
+		areas.removeAll();
+		
+		areas.invalidate(new Rectangle(200, 0, 10, 10));
+		assertTrue(areas.isEmpty());
+		areas.invalidate(new Rectangle(90, -10, 20, 20));
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(90, 0, 10, 10), result.get(0));
+	}
+	
+	
+	@Test
+	public void test_invalidate_contained() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(100, 50);
+		areas.removeAll();
+		
+		areas.invalidate(new Rectangle(10, 10, 5, 5));
+		areas.invalidate(new Rectangle(0, 0, 20, 20));  // Replaces the previous area.
+		areas.invalidate(new Rectangle(5, 5, 10, 10));  // Already contained.
+		areas.invalidate(new Rectangle(0, 0, 20, 20));
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(0, 0, 20, 20), result.get(0));
+	}
+	
+	
+	@Test
+	public void test_invalidate_maxAreas() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(InvalidAreas.MAX_AREAS + 1, 1);
+		areas.removeAll();
+		
+		for (int x = 0; x < InvalidAreas.MAX_AREAS; x++) {
+			areas.invalidate(new Rectangle(x, 0, 1, 1));
+		}
+		assertEquals(InvalidAreas.MAX_AREAS, areas.removeAll().size());
+		
+		for (int x = 0; x <= InvalidAreas.MAX_AREAS; x++) {
+			areas.invalidate(new Rectangle(x, 0, 1, 1));
+		}
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(0, 0, InvalidAreas.MAX_AREAS + 1, 1), result.get(0));
+	}
+	
+	
+	@Test
+	public void test_scroll() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(100, 50);
+		areas.removeAll();
+		
+		assertTrue(areas.scroll(-10, 0));
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(90, 0, 10, 50), result.get(0));
+		
+		assertTrue(areas.scroll(0, 5));
+		result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(0, 0, 100, 5), result.get(0));
+		
+		assertFalse(areas.scroll(0, 50));
+		result = areas.removeAll();
+		assertEquals(1, result.size());
+		assertEquals(new Rectangle(0, 0, 100, 50), result.get(0));
+	}
+	
+	
+	@Test
+	public void test_scroll_pendingAreas() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(100, 50);
+		areas.removeAll();
+		
+		areas.invalidate(new Rectangle(10, 10, 10, 10));
+		assertTrue(areas.scroll(5, 20));
+		List<Rectangle> result = areas.removeAll();
+		assertTrue(result.contains(new Rectangle(15, 30, 10, 10)));
+	}
+	
+	
+	@Test
+	public void test_removeAll_disjoint() {
+		InvalidAreas areas = new InvalidAreas();
+		areas.reset(100, 50);
+		areas.removeAll();
+		
+		assertTrue(areas.scroll(-10, -5));  // Overlapping strips in the lower right corner
+		List<Rectangle> result = areas.removeAll();
+		assertEquals(10 * 50 + 90 * 5, getArea(result));
+		for (int i = 0; i < result.size(); i++) {
+			for (int j = i + 1; j < result.size(); j++) {
+				assertFalse(result.get(i).intersects(result.get(j)));
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class LayerCacheTest {
+	private static final String BASE = "base";
+	private static final String OVERLAY = "overlay";
+	
+	
+	private static class LayeredComponent extends TICComponent {
+		private List<String> paintedLayers = new ArrayList<String>();
+		private List<Rectangle> paintedRectangles = new ArrayList<Rectangle>();
+		
+		
+		@Override
+		public List<String> getLayers() {
+			return Collections.unmodifiableList(Arrays.asList(BASE, OVERLAY));
+		}
+		
+		
+		@Override
+		public void paint(TICPaintEvent event) {
+			paintedLayers.add(event.getLayer());
+			paintedRectangles.add(event.getRectangle().getBounds());
+			if (BASE.equals(event.getLayer())) {
+				event.getGraphics().setColor(Color.RED);
+				event.getGraphics().fillRect(0, 0, 20, 20);
+			}
+			else {
+				event.getGraphics().setColor(Color.BLUE);
+				event.getGraphics().fillRect(10, 10, 5, 5);
+			}
+		}
+	}
+	
+	
+	private static BufferedImage paint(LayerCache cache, TICComponent component, Rectangle visibleRect) {
+		BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			cache.paint(component, new TICPaintEvent(component, g, visibleRect), visibleRect, Color.WHITE);
+		}
+		finally {
+			g.dispose();
+		}
+		return image;
+	}
+	
+	
+	@Test
+	public void test_paint_cachedLayers() {
+		LayeredComponent component = new LayeredComponent();
+		LayerCache cache = new LayerCache();
+		Rectangle visibleRect = new Rectangle(0, 0, 40, 40);
+		
+		BufferedImage image = paint(cache, component, visibleRect);
+		assertEquals(Arrays.asList(BASE, OVERLAY), component.paintedLayers);
+		assertEquals(Color.RED.getRGB(), image.getRGB(0, 0));
+		assertEquals(Color.BLUE.getRGB(), image.getRGB(12, 12));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(30, 30));
+		assertTrue(cache.isValid(BASE));
+		assertFalse(cache.isValid(OVERLAY));
+		
+		paint(cache, component, visibleRect);
+		assertEquals(Arrays.asList(BASE, OVERLAY, OVERLAY), component.paintedLayers);
+		
+		component.repaint(OVERLAY);
+		paint(cache, component, visibleRect);
+		assertEquals(1, cache.getRenderedLayerCount());
+		
+		component.repaint();
+		paint(cache, component, visibleRect);
+		assertEquals(2, cache.getRenderedLayerCount());
+		
+		component.repaint(BASE);
+		paint(cache, component, visibleRect);
+		assertEquals(3, cache.getRenderedLayerCount());
+		
+		paint(cache, component, new Rectangle(0, 0, 40, 50));
+		assertEquals(4, cache.getRenderedLayerCount());
+	}
+	
+	
+	@Test
+	public void test_paint_scrolled() {
+		LayeredComponent component = new LayeredComponent();
+		LayerCache cache = new LayerCache();
+		paint(cache, component, new Rectangle(0, 0, 40, 40));
+		assertEquals(1, cache.getRenderedLayerCount());
+		
+		component.paintedRectangles.clear();
+		BufferedImage image = paint(cache, component, new Rectangle(10, 5, 40, 40));
+		assertEquals(1, cache.getRenderedLayerCount());
+		assertTrue(cache.isValid(BASE));
+		assertEquals(Arrays.asList(new Rectangle(10, 40, 40, 5), new Rectangle(40, 5, 10, 35), new Rectangle(10, 5, 40, 40)), 
+				component.paintedRectangles);  // Only the exposed strips of the base layer are painted.
+		assertEquals(Color.RED.getRGB(), image.getRGB(10, 5));
+		assertEquals(Color.RED.getRGB(), image.getRGB(19, 19));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(20, 20));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(45, 10));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(15, 42));
+		
+		paint(cache, component, new Rectangle(60, 5, 40, 40));  // The areas do not overlap.
+		assertEquals(2, cache.getRenderedLayerCount());
+	}
+	
+	
+	@Test
+	public void test_paint_invalidatedAreas() {
+		LayeredComponent component = new LayeredComponent();
+		LayerCache cache = new LayerCache();
+		Rectangle visibleRect = new Rectangle(0, 0, 40, 40);
+		paint(cache, component, visibleRect);
+		
+		component.paintedRectangles.clear();
+		component.repaint(new Rectangle2D.Double(15, 15, 10, 10));
+		component.repaint(new Rectangle2D.Double(35, 35, 10, 10));  // Partly outside the visible area.
+		BufferedImage image = paint(cache, component, visibleRect);
+		assertEquals(1, cache.getRenderedLayerCount());
+		assertTrue(cache.isValid(BASE));
+		assertEquals(Arrays.asList(new Rectangle(15, 15, 10, 10), new Rectangle(35, 35, 5, 5), visibleRect), 
+				component.paintedRectangles);
+		assertEquals(Color.RED.getRGB(), image.getRGB(19, 19));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(20, 20));
+		assertTrue(component.removeInvalidatedLayerAreas().isEmpty());
+		
+		for (int i = 0; i <= TICComponent.MAX_REQUESTED_AREAS; i++) {
+			component.repaint(new Rectangle2D.Double(i % 40, 0, 1, 1));
+		}
+		assertEquals(new HashSet<String>(Arrays.asList(BASE, OVERLAY)), component.removeInvalidatedLayers());  // Too many areas were requested.
+		assertTrue(component.removeInvalidatedLayerAreas().isEmpty());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_repaint_unknownLayer() {
+		new LayeredComponent().repaint("unknown");
+	}
+	
+	
+	@Test
+	public void test_isLayerCached() {
+		LayeredComponent component = new LayeredComponent();
+		assertTrue(component.isLayerCached(BASE));
+		assertFalse(component.isLayerCached(OVERLAY));
+		assertFalse(new TICComponent() {}.isLayerCached(BASE));
+	}
+}
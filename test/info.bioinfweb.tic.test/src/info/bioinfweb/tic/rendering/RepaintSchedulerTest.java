@@ -0,0 +1,139 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TestComponent;
+import info.bioinfweb.tic.TestToolkitComponent;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class RepaintSchedulerTest {
+	@Test
+	public void test_requestRepaint_disposed() {
+		TestComponent component = new TestComponent();
+		component.setMaxRepaintRate(60);
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		component.repaint();
+		assertEquals(1, toolkitComponent.getTasks().size());
+		
+		toolkitComponent.setDisposed(true);
+		toolkitComponent.getTasks().clear();  // Disposed toolkit components drop scheduled tasks.
+		component.repaint();
+		assertFalse(component.getRepaintScheduler().hasPendingRequests());
+		assertTrue(toolkitComponent.getTasks().isEmpty());
+		
+		toolkitComponent.setDisposed(false);  // Tests that the scheduler does not consider its flush as still being scheduled.
+		component.repaint();
+		assertEquals(1, toolkitComponent.getTasks().size());
+	}
+	
+	
+	@Test
+	public void test_requestRepaint_coalescing() {
+		TestComponent component = new TestComponent();
+		component.setMaxRepaintRate(60);
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		for (int i = 0; i < 1000; i++) {
+			component.repaint();
+		}
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		assertEquals(1, toolkitComponent.getTasks().size());
+		assertEquals(0, toolkitComponent.getDelays().get(0).intValue());  // No frame was flushed before.
+		assertTrue(component.getRepaintScheduler().hasPendingRequests());
+		
+		toolkitComponent.getTasks().remove(0).run();
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertFalse(component.getRepaintScheduler().hasPendingRequests());
+		assertEquals(1000, component.getRepaintScheduler().getRequestCount());
+		assertEquals(1, component.getRepaintScheduler().getFlushCount());
+		
+		component.repaint();
+		assertEquals(1, toolkitComponent.getTasks().size());
+		int delay = toolkitComponent.getDelays().get(1);
+		assertTrue(delay <= 1000 / 60);  // The remaining time of the current frame.
+	}
+	
+	
+	@Test
+	public void test_requestRepaint_areas() {
+		TestComponent component = new TestComponent();
+		component.setMaxRepaintRate(30);
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		Rectangle2D area1 = new Rectangle2D.Double(0, 0, 20, 20);
+		Rectangle2D area2 = new Rectangle2D.Double(5, 5, 5, 5);  // Contained in area1.
+		Rectangle2D area3 = new Rectangle2D.Double(30, 0, 10, 10);
+		component.repaint(area1);
+		component.repaint(Arrays.asList(area2, area3));
+		toolkitComponent.getTasks().remove(0).run();
+		assertEquals(Arrays.asList(area1, area3), toolkitComponent.getRepaintedAreas());
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		
+		toolkitComponent.getRepaintedAreas().clear();
+		component.repaint(area1);
+		component.repaint();  // Replaces all areas.
+		component.repaint(area3);
+		toolkitComponent.getTasks().remove(0).run();
+		assertTrue(toolkitComponent.getRepaintedAreas().isEmpty());
+		assertEquals(1, toolkitComponent.getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_requestRepaint_tooManyAreas() {
+		TestComponent component = new TestComponent();
+		RepaintScheduler scheduler = new RepaintScheduler(component, 60);
+		for (int i = 0; i <= TICComponent.MAX_REQUESTED_AREAS; i++) {
+			scheduler.requestRepaint(Collections.singletonList(new Rectangle2D.Double(i * 10, 0, 5, 5)));
+		}
+		scheduler.flush();
+		assertTrue(component.getTestToolkitComponent().getRepaintedAreas().isEmpty());
+		assertEquals(1, component.getTestToolkitComponent().getRepaintCount());
+	}
+	
+	
+	@Test
+	public void test_setMaxRepaintRate() {
+		TestComponent component = new TestComponent();
+		assertEquals(0, component.getMaxRepaintRate());
+		assertNull(component.getRepaintScheduler());
+		component.repaint();
+		assertEquals(1, component.getTestToolkitComponent().getRepaintCount());  // Passed directly.
+		
+		component.setMaxRepaintRate(60);
+		assertEquals(60, component.getMaxRepaintRate());
+		component.setMaxRepaintRate(0);
+		assertNull(component.getRepaintScheduler());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_setFrameRate_invalid() {
+		new RepaintScheduler(new TestComponent(), 0);
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class SymbolAtlasTest {
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	
+	
+	private static BufferedImage paint(SymbolAtlas atlas, String symbol, Color foreground, Color background) {
+		BufferedImage result = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = result.createGraphics();
+		try {
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, 40, 40);
+			atlas.paintCell(g, symbol, foreground, background, 10, 10);
+		}
+		finally {
+			g.dispose();
+		}
+		return result;
+	}
+	
+	
+	@Test
+	public void test_paintCell() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, 12, 16);
+		BufferedImage image = paint(atlas, "A", Color.BLACK, Color.RED);
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(9, 9));
+		assertEquals(Color.RED.getRGB(), image.getRGB(10, 10));
+		assertEquals(Color.RED.getRGB(), image.getRGB(21, 25));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(22, 26));
+		
+		boolean symbolPainted = false;
+		for (int y = 10; y < 26; y++) {
+			for (int x = 10; x < 22; x++) {
+				symbolPainted = symbolPainted || (image.getRGB(x, y) != Color.RED.getRGB()); 
+			}
+		}
+		assertTrue(symbolPainted);
+		
+		paint(atlas, "A", Color.BLACK, Color.RED);
+		assertEquals(1, atlas.getCellCount());
+		paint(atlas, "A", Color.BLACK, Color.BLUE);
+		paint(atlas, "C", Color.BLACK, Color.RED);
+		assertEquals(3, atlas.getCellCount());
+	}
+	
+	
+	@Test
+	public void test_paintCell_transparent() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, 12, 16);
+		BufferedImage image = paint(atlas, "-", Color.BLACK, null);
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(10, 10));
+		
+		paint(atlas, "-", Color.BLACK, Color.RED);
+		assertEquals(2, atlas.getPageCount());  // Translucent and opaque cells are stored on different pages.
+	}
+	
+	
+	@Test
+	public void test_pages() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, SymbolAtlas.PAGE_SIZE / 2, SymbolAtlas.PAGE_SIZE / 2);
+		BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			for (int i = 0; i < 5; i++) {
+				atlas.paintCell(g, Integer.toString(i), Color.BLACK, Color.WHITE, 0, 0);
+			}
+		}
+		finally {
+			g.dispose();
+		}
+		assertEquals(5, atlas.getCellCount());
+		assertEquals(2, atlas.getPageCount());
+	}
+	
+	
+	@Test
+	public void test_maxPageCount() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, SymbolAtlas.PAGE_SIZE, SymbolAtlas.PAGE_SIZE);
+		atlas.setMaxPageCount(2);
+		BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			atlas.paintCell(g, "A", Color.BLACK, Color.WHITE, 0, 0);
+			atlas.paintCell(g, "B", Color.BLACK, Color.WHITE, 0, 0);
+			assertEquals(2, atlas.getPageCount());
+			
+			atlas.paintCell(g, "C", Color.BLACK, Color.WHITE, 0, 0);  // Discards all previous cells.
+			assertEquals(1, atlas.getPageCount());
+			assertEquals(1, atlas.getCellCount());
+			
+			atlas.paintCell(g, "A", Color.BLACK, Color.WHITE, 0, 0);
+			atlas.setMaxPageCount(1);
+			assertEquals(0, atlas.getPageCount());
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_setMaxPageCount_invalid() {
+		new SymbolAtlas(FONT, 12, 16).setMaxPageCount(0);
+	}
+	
+	
+	@Test
+	public void test_paintCell_scaled() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, 12, 16);
+		BufferedImage image = new BufferedImage(80, 80, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, 80, 80);
+			g.scale(2, 2);
+			atlas.paintCell(g, "A", Color.BLACK, Color.RED, 10, 10);
+		}
+		finally {
+			g.dispose();
+		}
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(19, 19));
+		assertEquals(Color.RED.getRGB(), image.getRGB(20, 20));
+		assertEquals(Color.RED.getRGB(), image.getRGB(43, 51));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(44, 52));
+		
+		paint(atlas, "A", Color.BLACK, Color.RED);
+		assertEquals(2, atlas.getCellCount());  // Cells are rendered separately for each scale.
+		assertEquals(2, atlas.getPageCount());
+	}
+	
+	
+	@Test
+	public void test_setAppearance() {
+		SymbolAtlas atlas = new SymbolAtlas(FONT, 12, 16);
+		paint(atlas, "A", Color.BLACK, Color.RED);
+		assertFalse(atlas.setAppearance(new Font(Font.MONOSPACED, Font.PLAIN, 12), 12, 16));
+		assertEquals(1, atlas.getCellCount());
+		
+		assertTrue(atlas.setAppearance(FONT, 24, 32));
+		assertEquals(0, atlas.getCellCount());
+		assertEquals(0, atlas.getPageCount());
+		
+		BufferedImage image = paint(atlas, "A", Color.BLACK, Color.RED);
+		assertEquals(Color.RED.getRGB(), image.getRGB(33, 10));
+		
+		atlas.setAntialiasing(false);
+		assertEquals(0, atlas.getCellCount());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_setAppearance_invalidSize() {
+		new SymbolAtlas(FONT, 0, 16);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TextCacheTest {
+	private static final Font FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+	private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, false, false);
+	
+	
+	@Test
+	public void test_getGlyphVector() {
+		TextCache cache = new TextCache(10);
+		GlyphVector glyphs = cache.getGlyphVector(FONT, "ACGT", RENDER_CONTEXT);
+		assertEquals(4, glyphs.getNumGlyphs());
+		assertSame(glyphs, cache.getGlyphVector(FONT, "ACGT", new FontRenderContext(null, false, false)));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		
+		assertNotSame(glyphs, cache.getGlyphVector(FONT, "ACGT", 
+				new FontRenderContext(AffineTransform.getScaleInstance(2, 2), false, false)));
+		assertNotSame(glyphs, cache.getGlyphVector(FONT.deriveFont(14f), "ACGT", RENDER_CONTEXT));
+		assertNotSame(glyphs, cache.getTextLayout(FONT, "ACGT", RENDER_CONTEXT));
+		assertEquals(4, cache.size());
+	}
+	
+	
+	@Test
+	public void test_eviction() {
+		TextCache cache = new TextCache(2);
+		GlyphVector a = cache.getGlyphVector(FONT, "A", RENDER_CONTEXT);
+		GlyphVector b = cache.getGlyphVector(FONT, "B", RENDER_CONTEXT);
+		assertSame(a, cache.getGlyphVector(FONT, "A", RENDER_CONTEXT));
+		cache.getGlyphVector(FONT, "C", RENDER_CONTEXT);  // Removes the least recently used entry "B".
+		assertEquals(2, cache.size());
+		
+		assertSame(a, cache.getGlyphVector(FONT, "A", RENDER_CONTEXT));
+		assertNotSame(b, cache.getGlyphVector(FONT, "B", RENDER_CONTEXT));
+		
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_constructor_invalidCapacity() {
+		new TextCache(0);
+	}
+	
+	
+	@Test
+	public void test_isSimpleText() {
+		assertTrue(TextCache.isSimpleText(""));
+		assertTrue(TextCache.isSimpleText("ACGT-?\u00E4"));
+		assertFalse(TextCache.isSimpleText("a\u0301"));
+		assertFalse(TextCache.isSimpleText("\u05D0\u05D1 1"));
+	}
+	
+	
+	private static BufferedImage paint(TextCache cache, String text) {
+		BufferedImage result = new BufferedImage(100, 30, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = result.createGraphics();
+		try {
+			g.setFont(FONT);
+			g.setColor(Color.WHITE);
+			if (cache == null) {
+				g.drawString(text, 5, 20);
+			}
+			else {
+				cache.drawString(g, text, 5, 20);
+			}
+		}
+		finally {
+			g.dispose();
+		}
+		return result;
+	}
+	
+	
+	private static void assertPaintedEqually(TextCache cache, String text) {
+		BufferedImage expected = paint(null, text);
+		BufferedImage actual = paint(cache, text);
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+	
+	
+	@Test
+	public void test_drawString() {
+		TextCache cache = new TextCache(10);
+		assertPaintedEqually(cache, "ACGT");
+		assertEquals(0, cache.size());  // Simple text is painted directly.
+		
+		assertPaintedEqually(cache, "\u05D0\u05D1 12");
+		assertPaintedEqually(cache, "\u05D0\u05D1 12");
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getHitCount());
+	}
+	
+	
+	@Test
+	public void test_getStringWidth() {
+		TextCache cache = new TextCache(10);
+		BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setFont(FONT);
+			assertEquals(g.getFontMetrics().getStringBounds("ACGT", g).getWidth(), cache.getStringWidth(g, "ACGT"), 0.01);
+			assertEquals(0f, cache.getStringWidth(g, ""), 0f);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+}
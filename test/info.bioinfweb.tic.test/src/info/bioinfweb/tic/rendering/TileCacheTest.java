@@ -0,0 +1,259 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import info.bioinfweb.tic.RenderQuality;
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TileCacheTest {
+	private static class RecordingComponent extends TICComponent {
+		private List<Rectangle> paintedRectangles = new ArrayList<Rectangle>();
+		
+		
+		@Override
+		public void paint(TICPaintEvent event) {
+			paintedRectangles.add(event.getRectangle().getBounds());
+			event.getGraphics().setColor(Color.RED);
+			event.getGraphics().fillRect(10, 10, 5, 5);
+		}
+	}
+	
+	
+	private static void paint(TileCache cache, TICComponent component, Rectangle area) {
+		BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			cache.paint(component, new TICPaintEvent(component, g, area), Color.WHITE);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	@Test
+	public void test_paint_hitsAndMisses() {
+		RecordingComponent component = new RecordingComponent();
+		TileCache cache = new TileCache(16, BufferedImage.TYPE_INT_RGB, TileCache.DEFAULT_MAX_BYTES);
+		
+		paint(cache, component, new Rectangle(8, 8, 16, 16));
+		assertEquals(4, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(4, cache.getTileCount());
+		assertTrue(component.paintedRectangles.contains(new Rectangle(0, 0, 16, 16)));
+		assertTrue(component.paintedRectangles.contains(new Rectangle(16, 16, 16, 16)));
+		
+		paint(cache, component, new Rectangle(0, 0, 32, 16));
+		assertEquals(4, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(4, component.paintedRectangles.size());
+	}
+	
+	
+	@Test
+	public void test_paint_contents() {
+		RecordingComponent component = new RecordingComponent();
+		TileCache cache = new TileCache(8, BufferedImage.TYPE_INT_RGB, TileCache.DEFAULT_MAX_BYTES);
+		BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+		for (int run = 0; run < 2; run++) {  // Paint from the cache in the second run.
+			Graphics2D g = image.createGraphics();
+			try {
+				cache.paint(component, new TICPaintEvent(component, g, new Rectangle(0, 0, 32, 32)), Color.WHITE);
+			}
+			finally {
+				g.dispose();
+			}
+			assertEquals(Color.RED.getRGB(), image.getRGB(12, 12));
+			assertEquals(Color.WHITE.getRGB(), image.getRGB(5, 5));
+			assertEquals(Color.WHITE.getRGB(), image.getRGB(20, 20));
+		}
+		assertEquals(16, cache.getHitCount());
+	}
+	
+	
+	@Test
+	public void test_invalidate() {
+		RecordingComponent component = new RecordingComponent();
+		TileCache cache = new TileCache(16, BufferedImage.TYPE_INT_RGB, TileCache.DEFAULT_MAX_BYTES);
+		paint(cache, component, new Rectangle(0, 0, 32, 32));
+		assertEquals(4, cache.getTileCount());
+		
+		cache.invalidate(new Rectangle(20, 2, 2, 2));
+		assertEquals(3, cache.getTileCount());
+		paint(cache, component, new Rectangle(0, 0, 32, 32));
+		assertEquals(5, cache.getMissCount());
+		assertEquals(new Rectangle(16, 0, 16, 16), component.paintedRectangles.get(4));
+		
+		cache.invalidateAll();
+		assertEquals(0, cache.getTileCount());
+		assertEquals(0, cache.getCurrentBytes());
+	}
+	
+	
+	@Test
+	public void test_eviction() {
+		RecordingComponent component = new RecordingComponent();
+		long tileBytes = 16 * 16 * 4;
+		TileCache cache = new TileCache(16, BufferedImage.TYPE_INT_RGB, 2 * tileBytes);
+		
+		paint(cache, component, new Rectangle(0, 0, 16, 16));
+		paint(cache, component, new Rectangle(16, 0, 16, 16));
+		paint(cache, component, new Rectangle(0, 0, 16, 16));  // Makes (16, 0) the least recently used tile.
+		paint(cache, component, new Rectangle(32, 0, 16, 16));
+		assertEquals(2, cache.getTileCount());
+		assertEquals(2 * tileBytes, cache.getCurrentBytes());
+		assertEquals(1, cache.getEvictionCount());
+		
+		cache.resetCounters();
+		paint(cache, component, new Rectangle(0, 0, 16, 16));
+		assertEquals(1, cache.getHitCount());
+		paint(cache, component, new Rectangle(16, 0, 16, 16));
+		assertEquals(1, cache.getMissCount());
+		
+		cache.setMaxBytes(tileBytes);
+		assertEquals(1, cache.getTileCount());
+	}
+	
+	
+	@Test
+	public void test_eviction_tilesInUse() {
+		RecordingComponent component = new RecordingComponent();
+		TileCache cache = new TileCache(10, BufferedImage.TYPE_INT_RGB, 2 * 10 * 10 * 4);
+		paint(cache, component, new Rectangle(0, 0, 20, 10));
+		assertEquals(2, cache.getTileCount());
+		
+		paint(cache, component, new Rectangle(-10, 0, 30, 10));  // The new tile must not evict the hits of the same paint operation.
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(0, cache.getEvictionCount());
+		assertEquals(2, cache.getTileCount());
+	}
+	
+	
+	@Test
+	public void test_paint_deviceScale() {
+		final List<Double> deviceScales = new ArrayList<Double>();
+		TICComponent component = new TICComponent() {
+			@Override
+			public void paint(TICPaintEvent event) {
+				deviceScales.add(event.getDeviceScale());
+				event.getGraphics().setColor(Color.RED);
+				event.getGraphics().fillRect(10, 10, 5, 5);
+			}
+			
+			
+			@Override
+			public double getRenderScale(double deviceScale, RenderQuality renderQuality) {
+				if (RenderQuality.DRAFT.equals(renderQuality)) {
+					return 1.0;
+				}
+				else {
+					return deviceScale;
+				}
+			}
+		};
+		
+		TileCache cache = new TileCache(16, BufferedImage.TYPE_INT_RGB, TileCache.DEFAULT_MAX_BYTES);
+		BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			g.scale(2, 2);
+			Rectangle area = new Rectangle(0, 0, 32, 32);
+			cache.paint(component, new TICPaintEvent(component, g, area, null, null, RenderQuality.FULL, 2), Color.WHITE);
+			assertEquals(2.0, cache.getScale(), 0.0);
+			assertEquals(4, cache.getTileCount());
+			assertEquals(4 * 32 * 32 * 4, cache.getCurrentBytes());
+			assertEquals(Arrays.asList(2.0, 2.0, 2.0, 2.0), deviceScales);
+			assertEquals(Color.RED.getRGB(), image.getRGB(20, 20));
+			assertEquals(Color.RED.getRGB(), image.getRGB(29, 29));
+			assertEquals(Color.WHITE.getRGB(), image.getRGB(30, 30));
+			
+			cache.paint(component, new TICPaintEvent(component, g, area, null, null, RenderQuality.DRAFT, 2), Color.WHITE);
+			assertEquals(1.0, cache.getScale(), 0.0);
+			assertEquals(8, cache.getMissCount());
+			assertEquals(4 * 16 * 16 * 4, cache.getCurrentBytes());
+		}
+		finally {
+			g.dispose();
+		}
+	}
+	
+	
+	@Test
+	public void test_paint_concurrent() {
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+		TICComponent component = new TICComponent() {
+			@Override
+			public void paint(TICPaintEvent event) {
+				threads.add(Thread.currentThread());
+				event.getGraphics().setColor(Color.RED);
+				event.getGraphics().fillRect(10, 10, 5, 5);
+			}
+			
+			
+			@Override
+			public boolean isConcurrentPaintingSupported() {
+				return true;
+			}
+		};
+		
+		TileCache cache = new TileCache(8, BufferedImage.TYPE_INT_RGB, TileCache.DEFAULT_MAX_BYTES);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			cache.setPool(pool);
+			BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			try {
+				cache.paint(component, new TICPaintEvent(component, g, new Rectangle(0, 0, 32, 32)), Color.WHITE);
+			}
+			finally {
+				g.dispose();
+			}
+			
+			assertEquals(16, cache.getMissCount());
+			assertEquals(16, cache.getTileCount());
+			assertFalse(threads.contains(Thread.currentThread()));
+			assertEquals(Color.RED.getRGB(), image.getRGB(12, 12));
+			assertEquals(Color.WHITE.getRGB(), image.getRGB(20, 20));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+}
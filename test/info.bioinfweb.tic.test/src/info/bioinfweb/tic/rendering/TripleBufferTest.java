@@ -0,0 +1,94 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.rendering;
+
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TripleBufferTest {
+	@Test
+	public void test_update() {
+		TripleBuffer<String> buffer = new TripleBuffer<String>("A", "B", "C");
+		assertEquals("A", buffer.getBackBuffer());
+		assertEquals("C", buffer.getFrontBuffer());
+		assertFalse(buffer.isUpdateAvailable());
+		assertFalse(buffer.update());
+		
+		buffer.publish();
+		assertEquals("B", buffer.getBackBuffer());
+		assertTrue(buffer.isUpdateAvailable());
+		assertTrue(buffer.update());
+		assertEquals("A", buffer.getFrontBuffer());
+		assertFalse(buffer.update());
+		assertEquals("A", buffer.getFrontBuffer());
+	}
+	
+	
+	@Test
+	public void test_update_skipped() {
+		TripleBuffer<String> buffer = new TripleBuffer<String>("A", "B", "C");
+		buffer.publish();  // Publishes A.
+		buffer.publish();  // Publishes B and makes A the back buffer again.
+		assertEquals("A", buffer.getBackBuffer());
+		assertTrue(buffer.update());
+		assertEquals("B", buffer.getFrontBuffer());
+		assertEquals("A", buffer.getBackBuffer());
+	}
+	
+	
+	@Test
+	public void test_concurrentExchange() throws InterruptedException {
+		final int count = 100000;
+		final TripleBuffer<int[]> buffer = new TripleBuffer<int[]>(new int[2], new int[2], new int[2]);
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 1; i <= count; i++) {
+					int[] back = buffer.getBackBuffer();
+					back[0] = i;
+					back[1] = -i;
+					buffer.publish();
+				}
+			}
+		};
+		producer.start();
+		
+		int last = 0;
+		while (last < count) {
+			if (buffer.update()) {
+				int[] front = buffer.getFrontBuffer();
+				assertTrue(front[0] > last);  // Frames are never received twice or out of order.
+				assertEquals(-front[0], front[1]);  // Frames are never received incompletely.
+				last = front[0];
+			}
+		}
+		producer.join();
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_constructor_sameInstance() {
+		String buffer = "A";
+		new TripleBuffer<String>(buffer, "B", buffer);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+
+
+
+/**
+ * Paints a reproducible scene similar to the contents of typical <i>TIC</i> components (a grid of colored cells
+ * with text and some anti-aliased lines). It is used by the benchmarks in this package.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BenchmarkScene {
+	public static final int CELL_WIDTH = 12;
+	public static final int CELL_HEIGHT = 16;
+	
+	private static final Color[] COLORS = {new Color(0xFF8080), new Color(0x80FF80), new Color(0x8080FF),
+			new Color(0xFFFF80)};
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	
+	
+	/**
+	 * Paints the part of the scene that intersects the specified area. The area is specified in the coordinate
+	 * system of the scene.
+	 * 
+	 * @param g the graphics context to paint on
+	 * @param area the area to be painted
+	 */
+	public static void paint(Graphics2D g, Rectangle2D area) {
+		g.setFont(FONT);
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		
+		int firstColumn = (int)Math.max(0, Math.floor(area.getMinX() / CELL_WIDTH));
+		int lastColumn = (int)Math.ceil(area.getMaxX() / CELL_WIDTH);
+		int firstRow = (int)Math.max(0, Math.floor(area.getMinY() / CELL_HEIGHT));
+		int lastRow = (int)Math.ceil(area.getMaxY() / CELL_HEIGHT);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int x = column * CELL_WIDTH;
+				int y = row * CELL_HEIGHT;
+				g.setColor(COLORS[(row + column) % COLORS.length]);
+				g.fillRect(x, y, CELL_WIDTH, CELL_HEIGHT);
+				g.setColor(Color.BLACK);
+				g.drawString(Character.toString((char)('A' + (row * 7 + column) % 26)), x + 2, y + CELL_HEIGHT - 4);
+			}
+			g.setColor(Color.DARK_GRAY);
+			g.drawLine(firstColumn * CELL_WIDTH, row * CELL_HEIGHT, (lastColumn + 1) * CELL_WIDTH, (row + 1) * CELL_HEIGHT);
+		}
+	}
+}
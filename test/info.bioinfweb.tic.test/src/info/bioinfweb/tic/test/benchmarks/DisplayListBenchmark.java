@@ -0,0 +1,100 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.rendering.DisplayList;
+import info.bioinfweb.tic.rendering.DisplayListGraphics2D;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+
+
+/**
+ * Compares painting a viewport of a {@link BenchmarkScene} directly with replaying a {@link DisplayList} that 
+ * was recorded once for a larger area of the scene. The replay is measured for the whole viewport and for a 
+ * horizontal strip, as it needs to be painted after scrolling, to show the effect of skipping operations 
+ * outside the painted area.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class DisplayListBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+	private static final int STRIP_HEIGHT = 64;
+	private static final int WARM_UP_RUNS = 20;
+	private static final int RUNS = 100;
+	
+	
+	private interface Painter {
+		public void paint(Graphics2D g, Rectangle2D area);
+	}
+	
+	
+	private static double run(Painter painter, Rectangle2D area) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		long time = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			Graphics2D g = image.createGraphics();
+			try {
+				g.clip(area);
+				long start = System.nanoTime();
+				painter.paint(g, area);
+				if (run >= WARM_UP_RUNS) {
+					time += System.nanoTime() - start;
+				}
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		return time / 1e6 / RUNS;
+	}
+	
+	
+	public static void main(String[] args) {
+		long start = System.nanoTime();
+		DisplayListGraphics2D recorder = new DisplayListGraphics2D();
+		BenchmarkScene.paint(recorder, new Rectangle2D.Double(0, 0, 2 * WIDTH, 2 * HEIGHT));
+		final DisplayList list = recorder.getDisplayList();
+		System.out.println(String.format("Recorded %d operations in %.2f ms.", list.size(), (System.nanoTime() - start) / 1e6));
+		
+		Painter direct = new Painter() {
+			@Override
+			public void paint(Graphics2D g, Rectangle2D area) {
+				BenchmarkScene.paint(g, area);
+			}
+		};
+		Painter replay = new Painter() {
+			@Override
+			public void paint(Graphics2D g, Rectangle2D area) {
+				list.paint(g, area);
+			}
+		};
+		
+		Rectangle2D viewport = new Rectangle2D.Double(0, 0, WIDTH, HEIGHT);
+		Rectangle2D strip = new Rectangle2D.Double(0, HEIGHT - STRIP_HEIGHT, WIDTH, STRIP_HEIGHT);
+		System.out.println("Average times in ms:");
+		System.out.println(String.format("%-10s %10s %10s", "Area", "Direct", "Replay"));
+		System.out.println(String.format("%-10s %10.2f %10.2f", "Viewport", run(direct, viewport), run(replay, viewport)));
+		System.out.println(String.format("%-10s %10.2f %10.2f", "Strip", run(direct, strip), run(replay, strip)));
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.rendering.TileCache;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+
+
+/**
+ * Measures how painting a full viewport of a {@link BenchmarkScene} scales with the number of threads used by
+ * {@link TileCache} to render tiles concurrently. Tiles are not retained between runs, so that every run renders
+ * all tiles of the viewport.
+ * <p>
+ * The first row shows the time if all tiles are rendered by the calling thread. The parallelism levels tested 
+ * are 1, 2, 4, ... up to the number of available processors, which can be overwritten by the first command line
+ * argument.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class ParallelTileRenderingBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+	private static final int WARM_UP_RUNS = 10;
+	private static final int RUNS = 50;
+	
+	
+	private static class SceneComponent extends TICComponent {
+		@Override
+		public void paint(TICPaintEvent event) {
+			BenchmarkScene.paint(event.getGraphics(), event.getRectangle());
+		}
+		
+		
+		@Override
+		public boolean isConcurrentPaintingSupported() {
+			return true;
+		}
+	}
+	
+	
+	private static double run(TICComponent component, ForkJoinPool pool) {
+		TileCache cache = new TileCache(TileCache.DEFAULT_TILE_SIZE, BufferedImage.TYPE_INT_RGB, 0);  // Do not retain tiles.
+		cache.setPool(pool);
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Rectangle area = new Rectangle(0, 0, WIDTH, HEIGHT);
+		long time = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			Graphics2D g = image.createGraphics();
+			try {
+				long start = System.nanoTime();
+				cache.paint(component, new TICPaintEvent(component, g, area), Color.WHITE);
+				if (run >= WARM_UP_RUNS) {
+					time += System.nanoTime() - start;
+				}
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		return time / 1e6 / RUNS;
+	}
+	
+	
+	public static void main(String[] args) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		if (args.length > 0) {
+			processors = Integer.parseInt(args[0]);
+		}
+		List<Integer> levels = new ArrayList<Integer>();
+		for (int level = 1; level < processors; level *= 2) {
+			levels.add(level);
+		}
+		levels.add(processors);
+		
+		SceneComponent component = new SceneComponent();
+		System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("Average times in ms for " + WIDTH + "x" + HEIGHT + " pixels and tiles of " + 
+				TileCache.DEFAULT_TILE_SIZE + " px:");
+		System.out.println(String.format("%-10s %10s %10s", "Threads", "Time", "Speedup"));
+		double serialTime = run(component, null);
+		System.out.println(String.format("%-10s %10.2f %10.2f", "none", serialTime, 1.0));
+		for (int level : levels) {
+			ForkJoinPool pool = new ForkJoinPool(level);
+			try {
+				double time = run(component, pool);
+				System.out.println(String.format("%-10d %10.2f %10.2f", level, time, serialTime / time));
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.rendering.BackingRaster;
+import info.bioinfweb.tic.toolkit.SWTPixelFormat;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+
+
+
+/**
+ * Compares the throughput of all {@link SWTPixelFormat}s when painting a {@link BenchmarkScene} into a buffered
+ * image, wrapping it into an {@link ImageData} object and creating a native <i>SWT</i> image from it, as
+ * done by {@code DefaultSWTComposite}.
+ * <p>
+ * Creating native images is only measured if an <i>SWT</i> display can be opened. Otherwise only the
+ * <i>Java2D</i> part is measured.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SWTPixelFormatBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+	private static final int WARM_UP_RUNS = 20;
+	private static final int RUNS = 100;
+	
+	
+	private static Display openDisplay() {
+		try {
+			return new Display();
+		}
+		catch (Throwable e) {  // SWTError or UnsatisfiedLinkError if no display or native library is available.
+			System.out.println("No SWT display available (" + e + "). Native image creation is not measured.");
+			return null;
+		}
+	}
+	
+	
+	private static void run(SWTPixelFormat format, boolean alpha, Display display) {
+		BackingRaster raster = format.createBackingRaster();
+		Rectangle2D area = new Rectangle2D.Double(0, 0, WIDTH, HEIGHT);
+		long paintTime = 0;
+		long convertTime = 0;
+		long imageTime = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			long start = System.nanoTime();
+			BufferedImage bufferedImage = raster.getImage(WIDTH, HEIGHT);
+			raster.clear(WIDTH, HEIGHT);
+			Graphics2D g = bufferedImage.createGraphics();
+			try {
+				BenchmarkScene.paint(g, area);
+			}
+			finally {
+				g.dispose();
+			}
+			long painted = System.nanoTime();
+			
+			ImageData data = format.createImageData(bufferedImage, WIDTH, HEIGHT, alpha);
+			long converted = System.nanoTime();
+			
+			if (display != null) {
+				new Image(display, data).dispose();
+			}
+			long end = System.nanoTime();
+			
+			if (run >= WARM_UP_RUNS) {
+				paintTime += painted - start;
+				convertTime += converted - painted;
+				imageTime += end - converted;
+			}
+		}
+		
+		System.out.println(String.format("%-8s %-6s %10.2f %10.2f %10.2f %10.2f", format, alpha,
+				paintTime / 1e6 / RUNS, convertTime / 1e6 / RUNS, imageTime / 1e6 / RUNS,
+				(paintTime + convertTime + imageTime) / 1e6 / RUNS));
+	}
+	
+	
+	public static void main(String[] args) {
+		Display display = openDisplay();
+		try {
+			System.out.println("Platform: " + SWT.getPlatform() + ", native formats: " + SWTPixelFormat.getNativeFormat(false) + 
+					"/" + SWTPixelFormat.getNativeFormat(true) + ", preferred formats: " + SWTPixelFormat.getPreferredFormat(false) + 
+					"/" + SWTPixelFormat.getPreferredFormat(true));
+			System.out.println("Average times in ms for " + WIDTH + "x" + HEIGHT + " pixels:");
+			System.out.println(String.format("%-8s %-6s %10s %10s %10s %10s", "Format", "Alpha", "Java2D", "ImageData", "Image",
+					"Total"));
+			for (SWTPixelFormat format : SWTPixelFormat.values()) {
+				run(format, false, display);
+				if (format.hasAlpha()) {
+					run(format, true, display);
+				}
+			}
+		}
+		finally {
+			if (display != null) {
+				display.dispose();
+			}
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.SwingComponentFactory;
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+
+
+
+/**
+ * Measures the painting work caused by small invalidations of a large component that is scrolled by a
+ * {@link JScrollPane}. It compares painting the whole visible rectangle, as {@code DefaultSwingComponent} did
+ * before <i>TIC</i> 3.0.0, with painting only the clip of the graphics context and with painting only the 
+ * recorded dirty areas of two distant invalidations.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SwingClipPaintingBenchmark {
+	private static final int COMPONENT_SIZE = 20000;
+	private static final int VIEWPORT_WIDTH = 1600;
+	private static final int VIEWPORT_HEIGHT = 1000;
+	private static final int CURSOR_SIZE = 16;
+	private static final int WARM_UP_RUNS = 20;
+	private static final int RUNS = 100;
+	
+	
+	private static class SceneComponent extends TICComponent {
+		private long paintedPixels = 0;
+		
+		
+		@Override
+		public void paint(TICPaintEvent event) {
+			for (Rectangle2D area : event.getAreas()) {
+				BenchmarkScene.paint(event.getGraphics(), area);
+				paintedPixels += (long)(area.getWidth() * area.getHeight());
+			}
+		}
+		
+		
+		@Override
+		public Dimension getSize() {
+			return new Dimension(COMPONENT_SIZE, COMPONENT_SIZE);
+		}
+	}
+	
+	
+	private static interface PaintOperation {
+		public void paint(JComponent component, Graphics2D g, Rectangle visibleRect);
+	}
+	
+	
+	private static void run(String name, SceneComponent ticComponent, JComponent component, PaintOperation operation) {
+		Rectangle visibleRect = component.getVisibleRect();
+		BufferedImage image = new BufferedImage(visibleRect.width, visibleRect.height, BufferedImage.TYPE_INT_RGB);
+		long time = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			if (run == WARM_UP_RUNS) {
+				ticComponent.paintedPixels = 0;
+			}
+			Graphics2D g = image.createGraphics();
+			try {
+				g.translate(-visibleRect.x, -visibleRect.y);
+				long start = System.nanoTime();
+				operation.paint(component, g, visibleRect);
+				if (run >= WARM_UP_RUNS) {
+					time += System.nanoTime() - start;
+				}
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		System.out.println(String.format("%-42s %10.3f %12d", name, time / 1e6 / RUNS, ticComponent.paintedPixels / RUNS));
+	}
+	
+	
+	private static void runBenchmarks() {
+		final SceneComponent ticComponent = new SceneComponent();
+		JComponent component = SwingComponentFactory.getInstance().getSwingComponent(ticComponent);
+		JScrollPane scrollPane = new JScrollPane(component);
+		scrollPane.setSize(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+		scrollPane.doLayout();
+		scrollPane.getViewport().doLayout();
+		scrollPane.getViewport().setViewPosition(new Point(COMPONENT_SIZE / 2, COMPONENT_SIZE / 2));
+		
+		System.out.println("Visible rectangle: " + component.getVisibleRect());
+		System.out.println(String.format("%-42s %10s %12s", "Operation", "Time (ms)", "Pixels"));
+		
+		run("Visible rectangle (previous behavior)", ticComponent, component, new PaintOperation() {
+			@Override
+			public void paint(JComponent component, Graphics2D g, Rectangle visibleRect) {
+				g.clipRect(visibleRect.x + 100, visibleRect.y + 100, CURSOR_SIZE, CURSOR_SIZE);
+				ticComponent.paint(new TICPaintEvent(component, g, visibleRect));
+			}
+		});
+		
+		run("Clip of a small invalidation", ticComponent, component, new PaintOperation() {
+			@Override
+			public void paint(JComponent component, Graphics2D g, Rectangle visibleRect) {
+				Rectangle cursor = new Rectangle(visibleRect.x + 100, visibleRect.y + 100, CURSOR_SIZE, CURSOR_SIZE);
+				component.repaint(cursor);
+				g.clipRect(cursor.x, cursor.y, cursor.width, cursor.height);
+				component.paint(g);
+			}
+		});
+		
+		run("Bounding box of two distant invalidations", ticComponent, component, new PaintOperation() {
+			@Override
+			public void paint(JComponent component, Graphics2D g, Rectangle visibleRect) {
+				Rectangle first = new Rectangle(visibleRect.x + 100, visibleRect.y + 100, CURSOR_SIZE, CURSOR_SIZE);
+				Rectangle second = new Rectangle(visibleRect.x + visibleRect.width - 100, visibleRect.y + visibleRect.height - 100, 
+						CURSOR_SIZE, CURSOR_SIZE);
+				Rectangle bounds = first.union(second);
+				g.clipRect(bounds.x, bounds.y, bounds.width, bounds.height);
+				ticComponent.paint(new TICPaintEvent(component, g, bounds));
+			}
+		});
+		
+		run("Dirty areas of two distant invalidations", ticComponent, component, new PaintOperation() {
+			@Override
+			public void paint(JComponent component, Graphics2D g, Rectangle visibleRect) {
+				Rectangle first = new Rectangle(visibleRect.x + 100, visibleRect.y + 100, CURSOR_SIZE, CURSOR_SIZE);
+				Rectangle second = new Rectangle(visibleRect.x + visibleRect.width - 100, visibleRect.y + visibleRect.height - 100, 
+						CURSOR_SIZE, CURSOR_SIZE);
+				component.repaint(first);
+				component.repaint(second);
+				Rectangle bounds = first.union(second);  // The clip the RepaintManager would use.
+				g.clipRect(bounds.x, bounds.y, bounds.width, bounds.height);
+				component.paint(g);
+			}
+		});
+	}
+	
+	
+	public static void main(String[] args) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				runBenchmarks();
+			}
+		});
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.rendering.SymbolAtlas;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+
+
+/**
+ * Compares painting a matrix of colored cells containing single characters, as done by sequence alignment 
+ * components, by filling each cell and painting its text with painting the same cells from a {@link SymbolAtlas}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SymbolAtlasBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+	private static final int WARM_UP_RUNS = 20;
+	private static final int RUNS = 100;
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final String[] SYMBOLS = {"A", "C", "G", "T", "-"};
+	private static final Color[] COLORS = {new Color(0xFF8080), new Color(0x80FF80), new Color(0x8080FF), 
+			new Color(0xFFFF80), Color.WHITE};
+	
+	
+	private static double run(SymbolAtlas atlas) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		long time = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			Graphics2D g = image.createGraphics();
+			try {
+				g.setFont(FONT);
+				g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				FontMetrics metrics = g.getFontMetrics();
+				
+				long start = System.nanoTime();
+				int index = 0;
+				for (int y = 0; y < HEIGHT; y += BenchmarkScene.CELL_HEIGHT) {
+					for (int x = 0; x < WIDTH; x += BenchmarkScene.CELL_WIDTH) {
+						int symbol = index % SYMBOLS.length;
+						if (atlas == null) {
+							g.setColor(COLORS[symbol]);
+							g.fillRect(x, y, BenchmarkScene.CELL_WIDTH, BenchmarkScene.CELL_HEIGHT);
+							g.setColor(Color.BLACK);
+							g.drawString(SYMBOLS[symbol], x + (BenchmarkScene.CELL_WIDTH - metrics.stringWidth(SYMBOLS[symbol])) / 2, 
+									y + metrics.getAscent());
+						}
+						else {
+							atlas.paintCell(g, SYMBOLS[symbol], Color.BLACK, COLORS[symbol], x, y);
+						}
+						index++;
+					}
+					index++;
+				}
+				if (run >= WARM_UP_RUNS) {
+					time += System.nanoTime() - start;
+				}
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		return time / 1e6 / RUNS;
+	}
+	
+	
+	public static void main(String[] args) {
+		System.out.println("Average times in ms for " + WIDTH + "x" + HEIGHT + " pixels:");
+		System.out.println(String.format("%10s %10s", "Direct", "Atlas"));
+		System.out.println(String.format("%10.2f %10.2f", run(null), 
+				run(new SymbolAtlas(FONT, BenchmarkScene.CELL_WIDTH, BenchmarkScene.CELL_HEIGHT))));
+	}
+}
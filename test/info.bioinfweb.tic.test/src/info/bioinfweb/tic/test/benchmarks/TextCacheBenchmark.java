@@ -0,0 +1,104 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.test.benchmarks;
+
+
+import info.bioinfweb.tic.rendering.TextCache;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+
+
+/**
+ * Compares painting a grid of strings using {@link Graphics2D#drawString(String, float, float)} and 
+ * {@link TextCache#drawString(Graphics2D, String, float, float)}. Single Latin characters (as painted by sequence 
+ * alignment components) and labels containing Hebrew characters, which require a complex text layout, are 
+ * measured.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TextCacheBenchmark {
+	private static final int WIDTH = 1920;
+	private static final int HEIGHT = 1080;
+	private static final int WARM_UP_RUNS = 20;
+	private static final int RUNS = 100;
+	private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final String[] SIMPLE_STRINGS = {"A", "C", "G", "T", "-"};
+	private static final String[] COMPLEX_STRINGS = {"\u05D0\u05D1\u05D2 1", "\u05D3\u05D4 2", "\u05D5\u05D6\u05D7 3"};
+	private static final int COMPLEX_CELL_WIDTH = 60;
+	
+	
+	private static double run(TextCache cache, String[] strings, int cellWidth, boolean antialias) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		long time = 0;
+		for (int run = 0; run < WARM_UP_RUNS + RUNS; run++) {
+			Graphics2D g = image.createGraphics();
+			try {
+				g.setColor(Color.WHITE);
+				g.fillRect(0, 0, WIDTH, HEIGHT);
+				g.setColor(Color.BLACK);
+				g.setFont(FONT);
+				if (antialias) {
+					g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				}
+				
+				long start = System.nanoTime();
+				int index = 0;
+				for (int y = BenchmarkScene.CELL_HEIGHT - 4; y < HEIGHT; y += BenchmarkScene.CELL_HEIGHT) {
+					for (int x = 2; x < WIDTH; x += cellWidth) {
+						String text = strings[index % strings.length];
+						if (cache == null) {
+							g.drawString(text, x, y);
+						}
+						else {
+							cache.drawString(g, text, x, y);
+						}
+						index++;
+					}
+				}
+				if (run >= WARM_UP_RUNS) {
+					time += System.nanoTime() - start;
+				}
+			}
+			finally {
+				g.dispose();
+			}
+		}
+		return time / 1e6 / RUNS;
+	}
+	
+	
+	public static void main(String[] args) {
+		TextCache cache = new TextCache(TextCache.DEFAULT_CAPACITY);
+		System.out.println("Average times in ms for " + WIDTH + "x" + HEIGHT + " pixels:");
+		System.out.println(String.format("%-8s %-10s %12s %12s", "Text", "Antialias", "drawString", "TextCache"));
+		for (boolean antialias : new boolean[]{false, true}) {
+			System.out.println(String.format("%-8s %-10s %12.2f %12.2f", "Simple", antialias, 
+					run(null, SIMPLE_STRINGS, BenchmarkScene.CELL_WIDTH, antialias), 
+					run(cache, SIMPLE_STRINGS, BenchmarkScene.CELL_WIDTH, antialias)));
+			System.out.println(String.format("%-8s %-10s %12.2f %12.2f", "Complex", antialias, 
+					run(null, COMPLEX_STRINGS, COMPLEX_CELL_WIDTH, antialias), 
+					run(cache, COMPLEX_STRINGS, COMPLEX_CELL_WIDTH, antialias)));
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.TICComponent;
+import info.bioinfweb.tic.TICPaintEvent;
+import info.bioinfweb.tic.rendering.TileCache;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class DefaultSwingComponentTest {
+	private static class GrowingComponent extends TICComponent {
+		private Dimension size = new Dimension(3 * TileCache.DEFAULT_TILE_SIZE, 2 * TileCache.DEFAULT_TILE_SIZE);
+		private List<Rectangle> paintedRectangles = new ArrayList<Rectangle>();
+		private DefaultSwingComponent toolkitComponent = new DefaultSwingComponent(this) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			public void assignSize() {
+				super.assignSize();
+				repaint();  // Simulates the repaint Swing performs if the size of a showing component changes.
+			}
+		};
+		
+		
+		@Override
+		public void paint(TICPaintEvent event) {
+			paintedRectangles.add(event.getRectangle().getBounds());
+		}
+		
+		
+		@Override
+		public Dimension getSize() {
+			return size;
+		}
+		
+		
+		@Override
+		public boolean isTileCachingSupported() {
+			return true;
+		}
+		
+		
+		@Override
+		public ToolkitComponent getToolkitComponent() {
+			return toolkitComponent;
+		}
+		
+		
+		@Override
+		public boolean hasToolkitComponent() {
+			return true;
+		}
+		
+		
+		private void paintToolkitComponent() {
+			BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			try {
+				g.setClip(0, 0, size.width, size.height);
+				toolkitComponent.paint(g);
+			}
+			finally {
+				g.dispose();
+			}
+		}
+	}
+	
+	
+	@Test
+	public void test_assignAppendedSize() throws InvocationTargetException, InterruptedException {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				GrowingComponent component = new GrowingComponent();
+				component.assignSize();
+				component.paintToolkitComponent();
+				assertEquals(6, component.paintedRectangles.size());
+				
+				component.paintedRectangles.clear();
+				component.size.height += 10;
+				component.assignAppendedSize();
+				component.paintToolkitComponent();
+				assertEquals(3, component.paintedRectangles.size());  // Only the new row of tiles intersects the appended area.
+				for (Rectangle rectangle : component.paintedRectangles) {
+					assertEquals(2 * TileCache.DEFAULT_TILE_SIZE, rectangle.y);
+				}
+				
+				component.paintedRectangles.clear();
+				component.size.height += 10;
+				component.assignSize();
+				component.paintToolkitComponent();
+				assertEquals(9, component.paintedRectangles.size());  // The repaint of the whole component invalidates all tiles.
+			}
+		});
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class DefaultTaskTimerTest {
+	@Test
+	public void test_schedule_exception() throws InterruptedException {
+		final AtomicReference<Throwable> reportedException = new AtomicReference<Throwable>();
+		final CountDownLatch reported = new CountDownLatch(1);
+		Thread.UncaughtExceptionHandler previousHandler = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				reportedException.set(e);
+				reported.countDown();
+			}
+		});
+		try {
+			final RuntimeException exception = new RuntimeException("test");
+			DefaultTaskTimer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					throw exception;
+				}
+			}, 0);
+			assertTrue(reported.await(5, TimeUnit.SECONDS));
+			assertSame(exception, reportedException.get());
+			
+			final CountDownLatch executed = new CountDownLatch(1);
+			DefaultTaskTimer.schedule(new Runnable() {  // The timer must still accept tasks.
+				@Override
+				public void run() {
+					executed.countDown();
+				}
+			}, 0);
+			assertTrue(executed.await(5, TimeUnit.SECONDS));
+		}
+		finally {
+			Thread.setDefaultUncaughtExceptionHandler(previousHandler);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import java.awt.image.BufferedImage;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class SWTPixelFormatTest {
+	@Test
+	public void test_createImageData() {
+		for (SWTPixelFormat format : SWTPixelFormat.values()) {
+			BufferedImage image = format.createImage(10, 8);
+			image.setRGB(0, 0, 0xFF123456);
+			image.setRGB(3, 2, 0x80ABCDEF);
+			
+			ImageData data = format.createImageData(image, 4, 3, false);
+			assertEquals(format.toString(), 4, data.width);
+			assertEquals(format.toString(), 3, data.height);
+			assertEquals(format.toString(), new RGB(0x12, 0x34, 0x56), data.palette.getRGB(data.getPixel(0, 0)));
+			assertNull(data.alphaData);
+			if (!format.hasAlpha()) {
+				assertEquals(format.toString(), new RGB(0xAB, 0xCD, 0xEF), data.palette.getRGB(data.getPixel(3, 2)));
+			}
+		}
+	}
+	
+	
+	@Test
+	public void test_createImageData_alpha() {
+		for (SWTPixelFormat format : SWTPixelFormat.values()) {
+			if (format.hasAlpha()) {
+				BufferedImage image = format.createImage(10, 8);
+				image.setRGB(3, 2, 0x80ABCDEF);
+				ImageData data = format.createImageData(image, 4, 3, true);
+				assertEquals(format.toString(), new RGB(0xAB, 0xCD, 0xEF), data.palette.getRGB(data.getPixel(3, 2)));
+				assertEquals(format.toString(), 0x80, data.getAlpha(3, 2));
+				assertEquals(format.toString(), 0, data.getAlpha(0, 0));
+			}
+		}
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_createImageData_noAlpha() {
+		SWTPixelFormat.BGR_24.createImageData(SWTPixelFormat.BGR_24.createImage(2, 2), 2, 2, true);
+	}
+}
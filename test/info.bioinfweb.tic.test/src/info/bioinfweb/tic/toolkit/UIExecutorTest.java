@@ -0,0 +1,204 @@
+/*
+ * Toolkit independent components (TIC) - A Java library for creating GUI components for Swing and SWT
+ * Copyright (C) 2014-2017  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/TIC>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.tic.toolkit;
+
+
+import info.bioinfweb.tic.TestComponent;
+import info.bioinfweb.tic.TestToolkitComponent;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class UIExecutorTest {
+	/**
+	 * Creates a component whose toolkit component only considers the calling thread as the UI thread while
+	 * {@link TestToolkitComponent#processEvents()} is executed.
+	 * 
+	 * @return the new component
+	 */
+	private static TestComponent createComponent() {
+		TestComponent result = new TestComponent();
+		result.getTestToolkitComponent().setUIThread(false);
+		return result;
+	}
+	
+	
+	@Test
+	public void test_execute_batching() {
+		TestToolkitComponent toolkitComponent = createComponent().getTestToolkitComponent();
+		UIExecutor executor = new UIExecutor(toolkitComponent);
+		final List<Integer> order = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					order.add(index);
+				}
+			});
+		}
+		assertEquals(1, toolkitComponent.getTasks().size());
+		assertTrue(executor.hasPendingTasks());
+		assertTrue(order.isEmpty());
+		
+		toolkitComponent.processEvents();
+		assertFalse(executor.hasPendingTasks());
+		assertEquals(100, order.size());
+		for (int i = 0; i < order.size(); i++) {
+			assertEquals(i, order.get(i).intValue());
+		}
+	}
+	
+	
+	@Test
+	public void test_execute_submittedDuringBatch() {
+		TestToolkitComponent toolkitComponent = createComponent().getTestToolkitComponent();
+		final UIExecutor executor = new UIExecutor(toolkitComponent);
+		final List<String> order = new ArrayList<String>();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				order.add("first");
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						order.add("second");
+					}
+				});
+			}
+		});
+		
+		toolkitComponent.processEvents();
+		assertEquals(1, order.size());  // Tasks submitted during a batch are executed in the next turn.
+		assertEquals(1, toolkitComponent.getTasks().size());
+		toolkitComponent.processEvents();
+		assertEquals(2, order.size());
+		assertEquals("second", order.get(1));
+	}
+	
+	
+	@Test
+	public void test_execute_exception() {
+		TestToolkitComponent toolkitComponent = createComponent().getTestToolkitComponent();
+		UIExecutor executor = new UIExecutor(toolkitComponent);
+		final List<String> order = new ArrayList<String>();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				throw new IllegalStateException("test");
+			}
+		});
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				order.add("executed");
+			}
+		});
+		
+		try {
+			toolkitComponent.processEvents();
+			fail("The exception of the first task was not rethrown.");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("test", e.getMessage());
+		}
+		assertEquals(1, order.size());
+	}
+	
+	
+	@Test
+	public void test_execute_disposed() {
+		TestToolkitComponent toolkitComponent = createComponent().getTestToolkitComponent();
+		UIExecutor executor = new UIExecutor(toolkitComponent);
+		final List<String> order = new ArrayList<String>();
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				order.add("executed");
+			}
+		};
+		executor.execute(task);
+		assertTrue(executor.hasPendingTasks());
+		
+		toolkitComponent.setDisposed(true);
+		toolkitComponent.getTasks().clear();  // Disposed toolkit components drop posted tasks.
+		executor.execute(task);
+		assertFalse(executor.hasPendingTasks());
+		assertTrue(toolkitComponent.getTasks().isEmpty());
+		
+		toolkitComponent.setDisposed(false);  // Tests that the executor does not consider its batch as still being scheduled.
+		executor.execute(task);
+		assertEquals(1, toolkitComponent.getTasks().size());
+		toolkitComponent.processEvents();
+		assertEquals(1, order.size());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_execute_null() {
+		new UIExecutor(createComponent().getTestToolkitComponent()).execute(null);
+	}
+	
+	
+	@Test
+	public void test_TICComponent_workerThread() throws InterruptedException {
+		final TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		Thread worker = new Thread() {
+			@Override
+			public void run() {
+				component.repaint();
+				component.repaint(new Rectangle2D.Double(0, 0, 10, 10));
+				component.assignSize();
+			}
+		};
+		worker.start();
+		worker.join();
+		
+		assertEquals(0, toolkitComponent.getRepaintCount());
+		assertEquals(0, toolkitComponent.getRepaintedAreas().size());
+		assertEquals(0, toolkitComponent.getAssignSizeCount());
+		assertEquals(1, toolkitComponent.getTasks().size());
+		
+		toolkitComponent.processEvents();
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertEquals(1, toolkitComponent.getRepaintedAreas().size());
+		assertEquals(1, toolkitComponent.getAssignSizeCount());
+	}
+	
+	
+	@Test
+	public void test_TICComponent_uiThread() {
+		TestComponent component = createComponent();
+		TestToolkitComponent toolkitComponent = component.getTestToolkitComponent();
+		toolkitComponent.setUIThread(true);
+		component.repaint();
+		component.assignSize();
+		assertEquals(1, toolkitComponent.getRepaintCount());
+		assertEquals(1, toolkitComponent.getAssignSizeCount());
+		assertTrue(toolkitComponent.getTasks().isEmpty());
+	}
+}